@@ -34,6 +34,8 @@ public class FetchModeValue
     public static final String EAGER_NONE = "none";
     public static final String EAGER_JOIN = "join";
     public static final String EAGER_PARALLEL = "parallel";
+    public static final String EAGER_BATCH = "batch";
+    public static final String EAGER_SUBSELECT = "subselect";
 
     private static String[] ALIASES = new String[]{
         EAGER_PARALLEL, String.valueOf(EagerFetchModes.EAGER_PARALLEL),
@@ -44,9 +46,31 @@ public class FetchModeValue
         "single", String.valueOf(EagerFetchModes.EAGER_JOIN),
     };
 
+    private static String[] BATCH_ALIASES = new String[]{
+        EAGER_BATCH, String.valueOf(EagerFetchModes.EAGER_BATCH),
+        EAGER_SUBSELECT, String.valueOf(EagerFetchModes.EAGER_SUBSELECT),
+    };
+
     public FetchModeValue(String prop) {
+        this(prop, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param batch whether the value also accepts the <code>batch</code>
+     * and <code>subselect</code> modes, which only some settings support
+     * @since 4.2.0
+     */
+    public FetchModeValue(String prop, boolean batch) {
         super(prop);
-        setAliases(ALIASES);
+        if (batch) {
+            String[] aliases = new String[ALIASES.length + BATCH_ALIASES.length];
+            System.arraycopy(BATCH_ALIASES, 0, aliases, 0, BATCH_ALIASES.length);
+            System.arraycopy(ALIASES, 0, aliases, BATCH_ALIASES.length, ALIASES.length);
+            setAliases(aliases);
+        } else
+            setAliases(ALIASES);
         setAliasListComprehensive(true);
     }
 }
@@ -234,6 +234,13 @@ public interface JDBCConfiguration
      * <li><code>parallel</code>: When querying for objects, also select for
      * both 1-1 relations using joins and to-many relations using batched
      * selects.</li>
+     * <li><code>batch</code>: When querying for objects, select for
+     * relations page by page with IN lists of the primary keys of the
+     * page.</li>
+     * <li><code>subselect</code>: Like <code>parallel</code>; in addition,
+     * load relations that are not fetched for all objects read by a query
+     * the first time one of them is accessed, selecting the related rows
+     * with the conditions of the query.</li>
      * </li>
      * </ul>
      *
@@ -252,6 +259,13 @@ public interface JDBCConfiguration
      * <li><code>parallel</code>: When querying for objects, also select for
      * both 1-1 relations using joins and to-many relations using batched
      * selects.</li>
+     * <li><code>batch</code>: When querying for objects, select for
+     * relations page by page with IN lists of the primary keys of the
+     * page.</li>
+     * <li><code>subselect</code>: Like <code>parallel</code>; in addition,
+     * load relations that are not fetched for all objects read by a query
+     * the first time one of them is accessed, selecting the related rows
+     * with the conditions of the query.</li>
      * </ul>
      */
     void setEagerFetchMode(String mode);
@@ -262,6 +276,8 @@ public interface JDBCConfiguration
      * <li>{@link EagerFetchModes#EAGER_NONE}</li>
      * <li>{@link EagerFetchModes#EAGER_JOIN}</li>
      * <li>{@link EagerFetchModes#EAGER_PARALLEL}</li>
+     * <li>{@link EagerFetchModes#EAGER_BATCH}</li>
+     * <li>{@link EagerFetchModes#EAGER_SUBSELECT}</li>
      * </ul>
      *
      * @since 0.3.0
@@ -274,12 +290,30 @@ public interface JDBCConfiguration
      * <li>{@link EagerFetchModes#EAGER_NONE}</li>
      * <li>{@link EagerFetchModes#EAGER_JOIN}</li>
      * <li>{@link EagerFetchModes#EAGER_PARALLEL}</li>
+     * <li>{@link EagerFetchModes#EAGER_BATCH}</li>
+     * <li>{@link EagerFetchModes#EAGER_SUBSELECT}</li>
      * </ul>
      *
      * @since 0.3.0
      */
     void setEagerFetchMode(int eagerFetchMode);
 
+    /**
+     * The number of objects whose relations are loaded together in
+     * <code>batch</code> eager fetch mode. Defaults to 100.
+     *
+     * @since 4.2.0
+     */
+    int getEagerBatchSize();
+
+    /**
+     * The number of objects whose relations are loaded together in
+     * <code>batch</code> eager fetch mode. Defaults to 100.
+     *
+     * @since 4.2.0
+     */
+    void setEagerBatchSize(int eagerBatchSize);
+
     /**
      * Specifies the default subclass fetch mode to use. Defaults to
      * <code>join</code> unless the query is by-oid. Possible values are:
@@ -77,6 +77,7 @@ public class JDBCConfigurationImpl
     public FetchModeValue eagerFetchMode;
     public FetchModeValue subclassFetchMode;
     public IntValue lrsSize;
+    public IntValue eagerBatchSize;
     public StringValue synchronizeMappings;
     public StringValue syncMappingsExcludeTypes;
     public ObjectValue jdbcListenerPlugins;
@@ -168,12 +169,16 @@ public class JDBCConfigurationImpl
         fetchDirection.set(ResultSet.FETCH_FORWARD);
         fetchDirection.setAliasListComprehensive(true);
 
-        eagerFetchMode = new FetchModeValue("jdbc.EagerFetchMode");
+        eagerFetchMode = new FetchModeValue("jdbc.EagerFetchMode", true);
         eagerFetchMode.setDefault(FetchModeValue.EAGER_PARALLEL);
         eagerFetchMode.set(EagerFetchModes.EAGER_PARALLEL);
         addValue(eagerFetchMode);
 
-        subclassFetchMode = new FetchModeValue("jdbc.SubclassFetchMode");
+        eagerBatchSize = addInt("jdbc.EagerBatchSize");
+        eagerBatchSize.setDefault("100");
+        eagerBatchSize.set(100);
+
+        subclassFetchMode = new FetchModeValue("jdbc.SubclassFetchMode", true);
         subclassFetchMode.setDefault(FetchModeValue.EAGER_JOIN);
         subclassFetchMode.set(EagerFetchModes.EAGER_JOIN);
         addValue(subclassFetchMode);
@@ -486,6 +491,16 @@ public class JDBCConfigurationImpl
         return eagerFetchMode.get();
     }
 
+    @Override
+    public void setEagerBatchSize(int eagerBatchSize) {
+        this.eagerBatchSize.set(eagerBatchSize);
+    }
+
+    @Override
+    public int getEagerBatchSize() {
+        return eagerBatchSize.get();
+    }
+
     @Override
     public void setSubclassFetchMode(String subclassFetchMode) {
         this.subclassFetchMode.setString(subclassFetchMode);
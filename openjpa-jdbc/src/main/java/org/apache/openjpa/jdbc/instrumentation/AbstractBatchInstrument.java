@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.instrumentation;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.openjpa.jdbc.kernel.BatchStatistics;
+import org.apache.openjpa.lib.instrumentation.AbstractInstrument;
+import org.apache.openjpa.lib.instrumentation.InstrumentationLevel;
+
+/**
+ * Provides a basic instrument implementation wrapper for the batch
+ * statistics of the update manager. This class can be extended to create
+ * a provider specific instrument for statement batching.
+ *
+ * @since 4.2.0
+ */
+public abstract class AbstractBatchInstrument extends AbstractInstrument
+    implements BatchInstrument {
+
+    public static final long NO_STATS = -1;
+
+    private BatchStatistics _stats;
+    private String _configID = null;
+    private String _configRef = null;
+
+    public void setConfigId(String cid) {
+        _configID = cid;
+    }
+
+    public void setContextRef(String cref) {
+        _configRef = cref;
+    }
+
+    public String getConfigId() {
+        return _configID;
+    }
+
+    public String getContextRef() {
+        return _configRef;
+    }
+
+    public void setBatchStatistics(BatchStatistics stats) {
+        _stats = stats;
+    }
+
+    @Override
+    public long getFlushCount() {
+        return (_stats == null) ? NO_STATS : _stats.getFlushCount();
+    }
+
+    @Override
+    public long getBatchCount() {
+        return (_stats == null) ? NO_STATS : _stats.getBatchCount();
+    }
+
+    @Override
+    public long getBatchedRowCount() {
+        return (_stats == null) ? NO_STATS : _stats.getBatchedRowCount();
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        return (_stats == null) ? NO_STATS : _stats.getAverageBatchSize();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return (_stats == null) ? (int) NO_STATS : _stats.getMaxBatchSize();
+    }
+
+    @Override
+    public int getLastFlushBatchCount() {
+        return (_stats == null) ? (int) NO_STATS
+            : _stats.getLastFlushBatchCount();
+    }
+
+    @Override
+    public int getLastFlushRowCount() {
+        return (_stats == null) ? (int) NO_STATS
+            : _stats.getLastFlushRowCount();
+    }
+
+    @Override
+    public double getLastFlushAverageBatchSize() {
+        return (_stats == null) ? NO_STATS
+            : _stats.getLastFlushAverageBatchSize();
+    }
+
+    @Override
+    public Map<String, Integer> getBatchLimits() {
+        return (_stats == null) ? Collections.emptyMap()
+            : _stats.getBatchLimits();
+    }
+
+    @Override
+    public void reset() {
+        if (_stats != null)
+            _stats.reset();
+    }
+
+    @Override
+    public Date sinceDate() {
+        return (_stats == null) ? null : _stats.since();
+    }
+
+    @Override
+    public Date startDate() {
+        return (_stats == null) ? null : _stats.start();
+    }
+
+    @Override
+    public InstrumentationLevel getLevel() {
+        return InstrumentationLevel.FACTORY;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.instrumentation;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Instrument for the statement batches executed by the update manager.
+ *
+ * @since 4.2.0
+ */
+public interface BatchInstrument {
+
+    /**
+     * Returns number of flushes since last reset.
+     */
+    long getFlushCount();
+
+    /**
+     * Returns number of batches executed since last reset.
+     */
+    long getBatchCount();
+
+    /**
+     * Returns number of rows flushed in batches since last reset.
+     */
+    long getBatchedRowCount();
+
+    /**
+     * Returns average number of rows per batch since last reset.
+     */
+    double getAverageBatchSize();
+
+    /**
+     * Returns number of rows of the largest batch since last reset.
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Returns number of batches executed by the last flush.
+     */
+    int getLastFlushBatchCount();
+
+    /**
+     * Returns number of rows flushed by the last flush.
+     */
+    int getLastFlushRowCount();
+
+    /**
+     * Returns average number of rows per batch of the last flush.
+     */
+    double getLastFlushAverageBatchSize();
+
+    /**
+     * Returns the batch limit chosen for each table by an adaptive batch
+     * limit, keyed by table name.
+     */
+    Map<String, Integer> getBatchLimits();
+
+    /**
+     * Resets batch statistics
+     */
+    void reset();
+
+    /**
+     * Returns date since batch statistics collection were last reset.
+     */
+    Date sinceDate();
+
+    /**
+     * Returns date batch statistics collection started.
+     */
+    Date startDate();
+}
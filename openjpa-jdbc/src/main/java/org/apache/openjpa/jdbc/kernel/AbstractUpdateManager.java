@@ -23,9 +23,15 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
 import org.apache.openjpa.jdbc.meta.ClassMapping;
@@ -43,6 +49,8 @@ import org.apache.openjpa.kernel.PCState;
 import org.apache.openjpa.kernel.StateManagerImpl;
 import org.apache.openjpa.lib.conf.Configurable;
 import org.apache.openjpa.lib.conf.Configuration;
+import org.apache.openjpa.lib.util.Closeable;
+import org.apache.openjpa.lib.util.StringUtil;
 import org.apache.openjpa.util.ImplHelper;
 import org.apache.openjpa.util.OpenJPAException;
 import org.apache.openjpa.util.OptimisticException;
@@ -53,17 +61,248 @@ import org.apache.openjpa.util.OptimisticException;
  * @author Abe White
  */
 public abstract class AbstractUpdateManager
-    implements UpdateManager, Configurable {
+    implements UpdateManager, Configurable, Closeable {
 
     protected JDBCConfiguration conf = null;
     protected DBDictionary dict = null;
 
+    private String _fullRowUpdateTypes = null;
+    private Set<String> _fullRowUpdateNames = null;
+    private final BatchStatistics _batchStats = new BatchStatistics();
+    private boolean _pipelinedFlush = false;
+    private ExecutorService _pipeline = null;
+    private boolean _batchVersionChecks = true;
+    private boolean _deferredBatchFlush = false;
+    private boolean _adaptiveBatchLimit = false;
+    private int _minBatchLimit = 10;
+    private int _maxBatchLimit = 1000;
+    private BatchLimitTuner _tuner = null;
+
     @Override
     public void setConfiguration(Configuration conf) {
         this.conf = (JDBCConfiguration) conf;
         dict = this.conf.getDBDictionaryInstance();
     }
 
+    /**
+     * The names of the classes whose updates write all loaded columns of
+     * their primary table rather than only the modified ones, separated
+     * by commas. Subclasses of the named classes are included. Writing
+     * full rows makes the updates of a class share a single statement, so
+     * that they batch fully.
+     *
+     * @since 4.2.0
+     */
+    public String getFullRowUpdateTypes() {
+        return _fullRowUpdateTypes;
+    }
+
+    /**
+     * The names of the classes whose updates write all loaded columns of
+     * their primary table, separated by commas.
+     *
+     * @since 4.2.0
+     */
+    public void setFullRowUpdateTypes(String types) {
+        _fullRowUpdateTypes = types;
+        _fullRowUpdateNames = null;
+        if (StringUtil.isEmpty(types))
+            return;
+        _fullRowUpdateNames = new HashSet<>();
+        for (String type : StringUtil.split(types, ",", 0))
+            if (!StringUtil.isEmpty(type.trim()))
+                _fullRowUpdateNames.add(type.trim());
+    }
+
+    /**
+     * Statistics on the statement batches executed by this update manager.
+     * Only batching update managers record them.
+     *
+     * @since 4.2.0
+     */
+    public BatchStatistics getBatchStatistics() {
+        return _batchStats;
+    }
+
+    /**
+     * Whether batching update managers flush each batch on a separate
+     * thread while the SQL of the following rows is generated and grouped
+     * on the flushing thread. The connection is used by one thread at a
+     * time, and statements still execute one at a time and in order.
+     * Defaults to false.
+     *
+     * @since 4.2.0
+     */
+    public boolean getPipelinedFlush() {
+        return _pipelinedFlush;
+    }
+
+    /**
+     * Whether batching update managers flush each batch on a separate
+     * thread.
+     *
+     * @since 4.2.0
+     */
+    public void setPipelinedFlush(boolean pipelinedFlush) {
+        _pipelinedFlush = pipelinedFlush;
+    }
+
+    /**
+     * The executor on which batches are flushed, or null if flushes are
+     * not pipelined. Its threads are daemon threads that end when idle, and
+     * it is shut down when this update manager is closed along with its
+     * configuration.
+     *
+     * @since 4.2.0
+     */
+    protected synchronized ExecutorService getPipeline() {
+        if (!_pipelinedFlush)
+            return null;
+        if (_pipeline == null || _pipeline.isShutdown()) {
+            _pipeline = Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "openjpa-flush-pipeline");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return _pipeline;
+    }
+
+    /**
+     * Shut down the executor on which batches are flushed, if any. Batches
+     * already submitted still complete.
+     *
+     * @since 4.2.0
+     */
+    @Override
+    public synchronized void close() {
+        if (_pipeline != null) {
+            _pipeline.shutdown();
+            _pipeline = null;
+        }
+    }
+
+    /**
+     * Whether the versions of instances that are only read-locked are
+     * checked at flush with one select per version mapping and IN-list
+     * chunk rather than one select per instance. Defaults to true.
+     *
+     * @since 4.2.0
+     */
+    public boolean getBatchVersionChecks() {
+        return _batchVersionChecks;
+    }
+
+    /**
+     * Whether the versions of read-locked instances are checked together.
+     *
+     * @since 4.2.0
+     */
+    public void setBatchVersionChecks(boolean batchVersionChecks) {
+        _batchVersionChecks = batchVersionChecks;
+    }
+
+    /**
+     * Whether batching update managers leave the batch open at the end of
+     * a flush so that the next flush of the same transaction can add to
+     * it. The batch executes once the store needs a connection for any
+     * other statement, such as a query, or at commit. Batches of rows
+     * whose keys the database generates still execute at the end of each
+     * flush. Only applies to local transactions. Defaults to false.
+     *
+     * @since 4.2.0
+     */
+    public boolean getDeferredBatchFlush() {
+        return _deferredBatchFlush;
+    }
+
+    /**
+     * Whether batching update managers leave the batch open at the end of
+     * a flush.
+     *
+     * @since 4.2.0
+     */
+    public void setDeferredBatchFlush(boolean deferredBatchFlush) {
+        _deferredBatchFlush = deferredBatchFlush;
+    }
+
+    /**
+     * Whether batching update managers tune the batch limit of each table
+     * at runtime from the measured throughput of its batches, between
+     * {@link #getMinBatchLimit} and {@link #getMaxBatchLimit}. The
+     * dictionary's batch limit is the starting point, and a limit that
+     * disables batching is kept. The chosen limits are reported in the
+     * {@link BatchStatistics}. Defaults to false.
+     *
+     * @see BatchLimitTuner
+     * @since 4.2.0
+     */
+    public boolean getAdaptiveBatchLimit() {
+        return _adaptiveBatchLimit;
+    }
+
+    /**
+     * Whether batching update managers tune the batch limit of each table.
+     *
+     * @since 4.2.0
+     */
+    public void setAdaptiveBatchLimit(boolean adaptiveBatchLimit) {
+        _adaptiveBatchLimit = adaptiveBatchLimit;
+    }
+
+    /**
+     * The smallest batch limit an adaptive batch limit chooses. Defaults
+     * to 10.
+     *
+     * @since 4.2.0
+     */
+    public int getMinBatchLimit() {
+        return _minBatchLimit;
+    }
+
+    /**
+     * The smallest batch limit an adaptive batch limit chooses.
+     *
+     * @since 4.2.0
+     */
+    public void setMinBatchLimit(int minBatchLimit) {
+        _minBatchLimit = minBatchLimit;
+    }
+
+    /**
+     * The largest batch limit an adaptive batch limit chooses. Defaults
+     * to 1000.
+     *
+     * @since 4.2.0
+     */
+    public int getMaxBatchLimit() {
+        return _maxBatchLimit;
+    }
+
+    /**
+     * The largest batch limit an adaptive batch limit chooses.
+     *
+     * @since 4.2.0
+     */
+    public void setMaxBatchLimit(int maxBatchLimit) {
+        _maxBatchLimit = maxBatchLimit;
+    }
+
+    /**
+     * The tuner of the batch limit of each table, or null if batch limits
+     * are not adaptive.
+     *
+     * @since 4.2.0
+     */
+    protected synchronized BatchLimitTuner getBatchLimitTuner() {
+        if (!_adaptiveBatchLimit)
+            return null;
+        if (_tuner == null)
+            _tuner = new BatchLimitTuner(_minBatchLimit, _maxBatchLimit,
+                dict.getBatchLimit(), _batchStats);
+        return _tuner;
+    }
+
     @Override
     public void startConfiguration() {
     }
@@ -74,16 +313,59 @@ public abstract class AbstractUpdateManager
 
     @Override
     public Collection flush(Collection states, JDBCStore store) {
-        Connection conn = store.getConnection();
+        // resume the batch deferred by the last flush, if any, before the
+        // store executes it to hand out its connection
+        JDBCStoreManager deferring = getDeferringStore(store);
+        BatchingPreparedStatementManagerImpl deferred = (deferring == null)
+            ? null : deferring.removeDeferredBatch();
+        Connection conn = (deferred == null) ? store.getConnection()
+            : deferred._conn;
+        boolean defer = false;
+        PreparedStatementManager psMgr = null;
         try {
-            PreparedStatementManager psMgr = newPreparedStatementManager(store,
-                conn);
-            return flush(states, store, psMgr);
+            psMgr = (deferred == null)
+                ? newPreparedStatementManager(store, conn) : deferred;
+            BatchingPreparedStatementManagerImpl bPsMgr = null;
+            if (deferring != null
+                && psMgr instanceof BatchingPreparedStatementManagerImpl) {
+                bPsMgr = (BatchingPreparedStatementManagerImpl) psMgr;
+                bPsMgr.setFlushDeferred(true);
+            }
+            Collection exceps = flush(states, store, psMgr);
+            if (psMgr instanceof BatchingPreparedStatementManagerImpl)
+                ((BatchingPreparedStatementManagerImpl) psMgr).recordFlush();
+            if (bPsMgr != null && !bPsMgr.getBatchedRows().isEmpty()) {
+                deferring.setDeferredBatch(bPsMgr);
+                defer = true;
+            }
+            return exceps;
         } finally {
-            try { conn.close(); } catch (SQLException se) {}
+            if (!defer) {
+                // a batch still executing on the pipeline uses the connection
+                if (psMgr instanceof BatchingPreparedStatementManagerImpl) {
+                    try {
+                        ((BatchingPreparedStatementManagerImpl) psMgr).awaitPipeline();
+                    } catch (SQLException | RuntimeException e) {
+                        // the flush failed already
+                    }
+                }
+                try { conn.close(); } catch (SQLException se) {}
+            }
         }
     }
 
+    /**
+     * Return the store whose batches may stay open across flushes, or null
+     * if they must execute before each flush ends. Managed transactions
+     * never defer batches, since they commit without the store.
+     */
+    private JDBCStoreManager getDeferringStore(JDBCStore store) {
+        if (!_deferredBatchFlush || !(store instanceof JDBCStoreManager)
+            || store.getContext().isManaged())
+            return null;
+        return (JDBCStoreManager) store;
+    }
+
     protected Collection flush(Collection states, JDBCStore store,
         PreparedStatementManager psMgr) {
         // run through all the states and update them as necessary
@@ -91,9 +373,20 @@ public abstract class AbstractUpdateManager
         Collection customs = new LinkedList();
         Collection exceps = psMgr.getExceptions();
         Collection mappedByIdStates = new ArrayList();
+        Map<Version, List<OpenJPAStateManager>> versionChecks = null;
         for (Object state : states) {
             OpenJPAStateManager obj = (OpenJPAStateManager) state;
-            if (obj instanceof StateManagerImpl) {
+            if (_batchVersionChecks && isVersionCheckOnly(obj)) {
+                if (versionChecks == null)
+                    versionChecks = new LinkedHashMap<>();
+                Version vers = ((ClassMapping) obj.getMetaData()).getVersion();
+                List<OpenJPAStateManager> sms = versionChecks.get(vers);
+                if (sms == null) {
+                    sms = new ArrayList<>();
+                    versionChecks.put(vers, sms);
+                }
+                sms.add(obj);
+            } else if (obj instanceof StateManagerImpl) {
                 StateManagerImpl sm = (StateManagerImpl) obj;
                 if (sm.getMappedByIdFields() != null)
                     mappedByIdStates.add(sm);
@@ -104,6 +397,12 @@ public abstract class AbstractUpdateManager
                 exceps = populateRowManager(obj, rowMgr, store, exceps,
                         customs);
         }
+        if (versionChecks != null) {
+            // the checks must see the rows of a batch deferred by an
+            // earlier flush
+            exceps = executeBatch(psMgr, exceps);
+            exceps = checkVersions(versionChecks, store, exceps);
+        }
 
         // flush rows
         exceps = flush(rowMgr, psMgr, exceps);
@@ -117,7 +416,9 @@ public abstract class AbstractUpdateManager
             exceps = flush(rowMgr, psMgr, exceps);
         }
 
-        // now do any custom mappings
+        // now do any custom mappings, once the rows they depend on executed
+        if (!customs.isEmpty())
+            exceps = executeBatch(psMgr, exceps);
         for (Iterator itr = customs.iterator(); itr.hasNext();) {
             try {
                 ((CustomMapping) itr.next()).execute(store);
@@ -132,6 +433,25 @@ public abstract class AbstractUpdateManager
         return exceps;
     }
 
+    /**
+     * Execute the rows batched by the given manager, including those of a
+     * batch left open by an earlier flush, so that statements issued outside
+     * of the manager see them.
+     */
+    private Collection executeBatch(PreparedStatementManager psMgr,
+        Collection exceps) {
+        if (!(psMgr instanceof BatchingPreparedStatementManagerImpl))
+            return exceps;
+        try {
+            ((BatchingPreparedStatementManagerImpl) psMgr).flushBatch();
+        } catch (SQLException se) {
+            exceps = addException(exceps, SQLExceptions.getStore(se, dict));
+        } catch (OpenJPAException ke) {
+            exceps = addException(exceps, ke);
+        }
+        return exceps;
+    }
+
     /**
      * Return a new {@link RowManager}.
      */
@@ -175,6 +495,8 @@ public abstract class AbstractUpdateManager
             	delete(sm, (ClassMapping) sm.getMetaData(), rowMgr, store,
                     customs);
             } else if ((dirty = ImplHelper.getUpdateFields(sm)) != null) {
+                if (isFullRowUpdate((ClassMapping) sm.getMetaData()))
+                    dirty = getFullRowFields(sm, dirty);
                 update(sm, dirty, (ClassMapping) sm.getMetaData(), rowMgr,
                     store, customs, false);
             } else if (sm.isVersionUpdateRequired()) {
@@ -198,6 +520,88 @@ public abstract class AbstractUpdateManager
         return exceps;
     }
 
+    /**
+     * Whether the only work to flush for the given instance is checking
+     * its version.
+     */
+    private static boolean isVersionCheckOnly(OpenJPAStateManager sm) {
+        if (!sm.isVersionCheckRequired() || sm.isVersionUpdateRequired())
+            return false;
+        PCState state = sm.getPCState();
+        if ((state == PCState.PNEW && !sm.isFlushed())
+            || state == PCState.PNEWFLUSHEDDELETED || state == PCState.PDELETED)
+            return false;
+        return ImplHelper.getUpdateFields(sm) == null;
+    }
+
+    /**
+     * Check the versions of the given instances, grouped by version mapping,
+     * adding an {@link OptimisticException} for each stale instance.
+     *
+     * @see Version#checkVersions
+     * @since 4.2.0
+     */
+    protected Collection checkVersions(
+        Map<Version, List<OpenJPAStateManager>> versionChecks,
+        JDBCStore store, Collection exceps) {
+        for (Map.Entry<Version, List<OpenJPAStateManager>> entry
+            : versionChecks.entrySet()) {
+            try {
+                Collection<OpenJPAStateManager> failed = entry.getKey().
+                    checkVersions(entry.getValue(), store);
+                if (failed != null)
+                    for (OpenJPAStateManager sm : failed)
+                        exceps = addException(exceps, new OptimisticException(
+                            sm.getManagedInstance()));
+            } catch (SQLException se) {
+                exceps = addException(exceps, SQLExceptions.getStore(se, dict));
+            } catch (OpenJPAException ke) {
+                exceps = addException(exceps, ke);
+            }
+        }
+        return exceps;
+    }
+
+    /**
+     * Whether updates of the given class write full rows.
+     *
+     * @see #setFullRowUpdateTypes
+     */
+    protected boolean isFullRowUpdate(ClassMapping mapping) {
+        if (_fullRowUpdateNames == null)
+            return false;
+        for (ClassMapping cls = mapping; cls != null;
+            cls = cls.getPCSuperclassMapping()) {
+            if (_fullRowUpdateNames.contains(cls.getDescribedType().getName()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Add the loaded fields stored in the primary table of their class to
+     * the given dirty fields. Primary key, version and inverse fields are
+     * never written, and neither are fields that use join or secondary
+     * tables, since rewriting those would take extra statements.
+     */
+    protected BitSet getFullRowFields(OpenJPAStateManager sm, BitSet dirty) {
+        BitSet fields = (BitSet) dirty.clone();
+        BitSet loaded = sm.getLoaded();
+        ClassMapping mapping = (ClassMapping) sm.getMetaData();
+        for (FieldMapping field : mapping.getFieldMappings()) {
+            int idx = field.getIndex();
+            if (fields.get(idx) || !loaded.get(idx)
+                || field.getManagement() != FieldMapping.MANAGE_PERSISTENT
+                || field.isPrimaryKey() || field.isVersion()
+                || field.getMappedBy() != null
+                || field.getColumns().length == 0
+                || field.getTable() != field.getDefiningMapping().getTable())
+                continue;
+            fields.set(idx);
+        }
+        return fields;
+    }
+
     /**
      * Add the given exception to the given list, which may start out as null.
      */
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.kernel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tunes the batch limit of each table from the throughput of the batches
+ * executed for it. Every few batches the limit of a table is doubled or
+ * halved, within bounds: it keeps moving in the same direction while the
+ * throughput in rows per second of full batches does not drop, and turns
+ * around when it does. Batches smaller than the limit are measured too;
+ * when they achieve a better throughput than full batches, the limit is
+ * lowered. The chosen limits are reported to the {@link BatchStatistics}.
+ *
+ * @since 4.2.0
+ */
+public class BatchLimitTuner {
+
+    /**
+     * Number of batches measured before a limit changes.
+     */
+    public static final int SAMPLES = 3;
+
+    /**
+     * Relative throughput loss that is still taken as no change.
+     */
+    public static final double TOLERANCE = 0.05;
+
+    private final int _min;
+    private final int _max;
+    private final int _initial;
+    private final BatchStatistics _stats;
+    private final ConcurrentMap<String, Tuning> _tables =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param min the smallest limit to choose
+     * @param max the largest limit to choose
+     * @param initial the limit of tables without measurements; a negative
+     * value for no limit starts at <code>max</code>
+     * @param stats the statistics to report chosen limits to, or null
+     */
+    public BatchLimitTuner(int min, int max, int initial,
+        BatchStatistics stats) {
+        _min = Math.max(2, min);
+        _max = Math.max(_min, max);
+        _initial = (initial < 0) ? _max : clamp(initial);
+        _stats = stats;
+    }
+
+    /**
+     * The smallest limit this tuner chooses.
+     */
+    public int getMinBatchLimit() {
+        return _min;
+    }
+
+    /**
+     * The largest limit this tuner chooses.
+     */
+    public int getMaxBatchLimit() {
+        return _max;
+    }
+
+    /**
+     * The current batch limit of the given table.
+     */
+    public int getBatchLimit(String table) {
+        Tuning tuning = _tables.get(table);
+        return (tuning == null) ? _initial : tuning.getLimit();
+    }
+
+    /**
+     * Record that a batch of the given number of rows of the given table
+     * executed in the given number of nanoseconds.
+     */
+    public void recordBatch(String table, int rows, long nanos) {
+        Tuning tuning = _tables.get(table);
+        if (tuning == null) {
+            tuning = new Tuning(_initial);
+            Tuning existing = _tables.putIfAbsent(table, tuning);
+            if (existing != null)
+                tuning = existing;
+        }
+        int limit = tuning.record(rows, nanos);
+        if (_stats != null)
+            _stats.recordBatchLimit(table, limit);
+    }
+
+    private int clamp(int limit) {
+        return Math.max(_min, Math.min(_max, limit));
+    }
+
+    /**
+     * Tuning state of a single table.
+     */
+    private class Tuning {
+
+        private int _limit;
+        private boolean _grow = true;
+        private int _samples = 0;
+        private long _fullRows = 0;
+        private long _fullNanos = 0;
+        private long _partialRows = 0;
+        private long _partialNanos = 0;
+        private double _throughput = 0;
+
+        public Tuning(int limit) {
+            _limit = limit;
+        }
+
+        public synchronized int getLimit() {
+            return _limit;
+        }
+
+        /**
+         * Record the given batch and return the limit for the following
+         * batches.
+         */
+        public synchronized int record(int rows, long nanos) {
+            nanos = Math.max(1, nanos);
+            if (rows >= _limit) {
+                _fullRows += rows;
+                _fullNanos += nanos;
+            } else {
+                _partialRows += rows;
+                _partialNanos += nanos;
+            }
+            if (++_samples < SAMPLES)
+                return _limit;
+
+            double full = (_fullNanos == 0) ? 0
+                : (double) _fullRows / _fullNanos;
+            double partial = (_partialNanos == 0) ? 0
+                : (double) _partialRows / _partialNanos;
+            _samples = 0;
+            _fullRows = 0;
+            _fullNanos = 0;
+            _partialRows = 0;
+            _partialNanos = 0;
+
+            if (full > 0) {
+                if (full < _throughput * (1 - TOLERANCE))
+                    _grow = !_grow;
+                _throughput = full;
+            } else if (_throughput == 0
+                || partial <= _throughput * (1 + TOLERANCE))
+                // only smaller batches ran, and they did no better than
+                // the last full ones
+                return _limit;
+            // smaller batches doing better than full ones call for a
+            // lower limit
+            if (partial > _throughput * (1 + TOLERANCE))
+                _grow = false;
+
+            int limit = clamp(_grow ? _limit * 2 : _limit / 2);
+            // at a bound, probe the other way next time
+            if (limit == _limit)
+                _grow = !_grow;
+            _limit = limit;
+            return limit;
+        }
+    }
+}
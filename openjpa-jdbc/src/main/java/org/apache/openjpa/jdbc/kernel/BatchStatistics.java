@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.kernel;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records the number and size of the statement batches an update manager
+ * executes, in total and per flush. A statement that is not batched counts
+ * as a batch of one row. A batch that a flush leaves open is counted when
+ * it executes.
+ *
+ * @since 4.2.0
+ */
+public class BatchStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Date _start = new Date();
+    private Date _since = _start;
+
+    private long _flushes;
+    private long _batches;
+    private long _rows;
+    private int _maxBatchSize;
+    private int _lastBatches;
+    private int _lastRows;
+    private final Map<String, Integer> _limits = new TreeMap<>();
+
+    /**
+     * Record the execution of a batch of the given number of rows.
+     */
+    public synchronized void recordBatch(int rows) {
+        _batches++;
+        _rows += rows;
+        _maxBatchSize = Math.max(_maxBatchSize, rows);
+    }
+
+    /**
+     * Record a flush that executed the given number of batches holding the
+     * given number of rows in total. The batches themselves are recorded
+     * with {@link #recordBatch} as they execute.
+     */
+    public synchronized void recordFlush(int batches, int rows) {
+        _flushes++;
+        _lastBatches = batches;
+        _lastRows = rows;
+    }
+
+    /**
+     * Record the batch limit that a {@link BatchLimitTuner} chose for the
+     * given table.
+     */
+    public synchronized void recordBatchLimit(String table, int limit) {
+        _limits.put(table, limit);
+    }
+
+    /**
+     * The batch limits chosen for each table by a {@link BatchLimitTuner},
+     * keyed by table name. These are current settings rather than
+     * statistics, so a reset does not clear them.
+     */
+    public synchronized Map<String, Integer> getBatchLimits() {
+        return new TreeMap<>(_limits);
+    }
+
+    /**
+     * Number of flushes since the last reset.
+     */
+    public synchronized long getFlushCount() {
+        return _flushes;
+    }
+
+    /**
+     * Number of batches executed since the last reset.
+     */
+    public synchronized long getBatchCount() {
+        return _batches;
+    }
+
+    /**
+     * Number of rows flushed in batches since the last reset.
+     */
+    public synchronized long getBatchedRowCount() {
+        return _rows;
+    }
+
+    /**
+     * Average number of rows per batch since the last reset.
+     */
+    public synchronized double getAverageBatchSize() {
+        return (_batches == 0) ? 0 : (double) _rows / _batches;
+    }
+
+    /**
+     * Number of rows of the largest batch since the last reset.
+     */
+    public synchronized int getMaxBatchSize() {
+        return _maxBatchSize;
+    }
+
+    /**
+     * Number of batches executed by the last flush.
+     */
+    public synchronized int getLastFlushBatchCount() {
+        return _lastBatches;
+    }
+
+    /**
+     * Number of rows flushed by the last flush.
+     */
+    public synchronized int getLastFlushRowCount() {
+        return _lastRows;
+    }
+
+    /**
+     * Average number of rows per batch of the last flush.
+     */
+    public synchronized double getLastFlushAverageBatchSize() {
+        return (_lastBatches == 0) ? 0 : (double) _lastRows / _lastBatches;
+    }
+
+    /**
+     * Date the statistics were last reset.
+     */
+    public synchronized Date since() {
+        return _since;
+    }
+
+    /**
+     * Date the statistics collection started.
+     */
+    public Date start() {
+        return _start;
+    }
+
+    /**
+     * Clear all statistics.
+     */
+    public synchronized void reset() {
+        _flushes = 0;
+        _batches = 0;
+        _rows = 0;
+        _maxBatchSize = 0;
+        _lastBatches = 0;
+        _lastRows = 0;
+        _since = new Date();
+    }
+}
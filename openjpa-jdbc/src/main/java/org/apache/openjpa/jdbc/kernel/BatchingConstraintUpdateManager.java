@@ -47,8 +47,12 @@ public class BatchingConstraintUpdateManager extends ConstraintUpdateManager {
     protected PreparedStatementManager newPreparedStatementManager(
         JDBCStore store, Connection conn) {
         int batchLimit = dict.getBatchLimit();
-        return new BatchingPreparedStatementManagerImpl(store, conn,
-            batchLimit);
+        BatchingPreparedStatementManagerImpl psMgr =
+            new BatchingPreparedStatementManagerImpl(store, conn, batchLimit);
+        psMgr.setPipeline(getPipeline());
+        psMgr.setBatchLimitTuner(getBatchLimitTuner());
+        psMgr.setBatchStatistics(getBatchStatistics());
+        return psMgr;
     }
 
     /*
@@ -62,7 +66,12 @@ public class BatchingConstraintUpdateManager extends ConstraintUpdateManager {
         BatchingPreparedStatementManagerImpl bPsMgr =
             (BatchingPreparedStatementManagerImpl) psMgr;
         try {
-            bPsMgr.flushBatch();
+            // the batch executing on the pipeline completes with the flush,
+            // and a deferred batch stays open for the next flush
+            bPsMgr.awaitPipeline();
+            if ((exceps != null && !exceps.isEmpty())
+                || !bPsMgr.isBatchDeferrable())
+                bPsMgr.flushBatch();
         } catch (SQLException se) {
             exceps = addException(exceps, SQLExceptions.getStore(se, dict));
         } catch (OpenJPAException ke) {
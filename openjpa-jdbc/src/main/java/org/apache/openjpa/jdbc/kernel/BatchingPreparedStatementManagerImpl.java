@@ -23,18 +23,32 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.openjpa.jdbc.meta.ClassMapping;
 import org.apache.openjpa.jdbc.schema.Column;
+import org.apache.openjpa.jdbc.schema.ForeignKey;
+import org.apache.openjpa.jdbc.schema.PrimaryKey;
+import org.apache.openjpa.jdbc.schema.Table;
+import org.apache.openjpa.jdbc.sql.PrimaryRow;
 import org.apache.openjpa.jdbc.sql.Row;
 import org.apache.openjpa.jdbc.sql.RowImpl;
 import org.apache.openjpa.jdbc.sql.SQLExceptions;
+import org.apache.openjpa.kernel.FetchConfiguration;
 import org.apache.openjpa.kernel.OpenJPAStateManager;
 import org.apache.openjpa.lib.jdbc.ReportingSQLException;
 import org.apache.openjpa.lib.util.Localizer;
+import org.apache.openjpa.lib.util.StringUtil;
+import org.apache.openjpa.util.OpenJPAException;
 import org.apache.openjpa.util.OptimisticException;
+import org.apache.openjpa.util.StoreException;
 
 /**
  * Batch prepared statement manager implementation. This prepared statement
@@ -50,10 +64,36 @@ public class BatchingPreparedStatementManagerImpl extends
     private final static Localizer _loc = Localizer
             .forPackage(BatchingPreparedStatementManagerImpl.class);
 
+    /**
+     * Fetch configuration hint that switches flushes to bulk insert mode,
+     * in which new rows are loaded with the dictionary's native bulk load
+     * facility, such as PostgreSQL's <code>COPY</code>, and otherwise
+     * inserted with batched statements regardless of the batch limit. The
+     * value is either <code>true</code> to bulk insert the rows of all
+     * classes, or the names of the classes whose rows to bulk insert,
+     * separated by commas.
+     *
+     * @since 4.2.0
+     */
+    public static final String HINT_BULK_INSERT = "openjpa.jdbc.BulkInsert";
+
     private String _batchedSql = null;
     private List<RowImpl> _batchedRows = new ArrayList<>();
+    private boolean _batchedKeys = false;
     private int _batchLimit;
     private boolean _disableBatch = false;
+    private Set<String> _bulkInsertTypes = null;
+    private boolean _bulkInsertAll = false;
+    private int _batchCount = 0;
+    private int _batchedRowCount = 0;
+    private int _maxBatchSize = 0;
+    private int _recordedBatchCount = 0;
+    private int _recordedRowCount = 0;
+    private BatchStatistics _stats = null;
+    private ExecutorService _pipeline = null;
+    private PendingBatch _pending = null;
+    private boolean _deferFlush = false;
+    private BatchLimitTuner _tuner = null;
 
     /**
      * Constructor. Supply connection.
@@ -64,6 +104,29 @@ public class BatchingPreparedStatementManagerImpl extends
         _batchLimit = batchLimit;
         if (_log.isTraceEnabled())
             _log.trace(_loc.get("batch_limit", String.valueOf(_batchLimit)));
+        initBulkInsert(store.getFetchConfiguration());
+    }
+
+    /*
+     * Parse the bulk insert hint of the given fetch configuration.
+     */
+    private void initBulkInsert(FetchConfiguration fetch) {
+        Object hint = (fetch == null) ? null : fetch.getHint(HINT_BULK_INSERT);
+        if (hint == null)
+            return;
+        if (hint instanceof Class) {
+            _bulkInsertTypes = Collections.singleton(((Class<?>) hint).getName());
+            return;
+        }
+        String str = hint.toString().trim();
+        if ("true".equalsIgnoreCase(str))
+            _bulkInsertAll = true;
+        else if (!"false".equalsIgnoreCase(str) && str.length() > 0) {
+            _bulkInsertTypes = new HashSet<>();
+            for (String type : StringUtil.split(str, ",", 0))
+                if (type.trim().length() > 0)
+                    _bulkInsertTypes.add(type.trim());
+        }
     }
 
     /**
@@ -78,6 +141,7 @@ public class BatchingPreparedStatementManagerImpl extends
             flushBatch();
 
             super.flushAndUpdate(row);
+            recordBatch(1);
         } else {
             // process the SQL statement, either execute it immediately or
             // batch it for later execution.
@@ -86,6 +150,11 @@ public class BatchingPreparedStatementManagerImpl extends
     }
 
     protected void batchOrExecuteRow(RowImpl row) throws SQLException {
+        // the values of a row are resolved when its SQL is generated, so
+        // keys the row refers to must have been generated by then
+        if (dependsOnGeneratedKeys(row))
+            flushBatch();
+
         String sql = row.getSQL(_dict);
         if (_batchedSql == null) {
             // brand new SQL
@@ -97,8 +166,10 @@ public class BatchingPreparedStatementManagerImpl extends
                 break;
             case 1:
                 // single entry in cache, direct SQL execution.
+                awaitPipeline();
                 try {
                     super.flushAndUpdate((RowImpl) _batchedRows.get(0));
+                    recordBatch(1);
                 } finally {
                     _batchedSql = null;
                     _batchedRows.clear();
@@ -106,13 +177,66 @@ public class BatchingPreparedStatementManagerImpl extends
                 break;
             default:
                 // flush all entries in cache in batch.
-                flushBatch();
+                pipelineBatch();
             }
             _batchedSql = sql;
         }
+        if (_batchedRows.isEmpty())
+            _batchedKeys = hasGeneratedKeys(row);
         _batchedRows.add(row);
     }
 
+    /**
+     * Whether the given row is an insert whose auto-assigned keys are read
+     * back after it is flushed. The rows of a batch share their SQL, so
+     * this is computed for the first row of each batch.
+     */
+    private boolean hasGeneratedKeys(RowImpl row) {
+        return getAutoAssignColNames(getAutoAssignColumns(row), row) != null;
+    }
+
+    /**
+     * Whether the batched rows are inserts whose auto-assigned keys are
+     * read back after they are flushed.
+     */
+    private boolean hasGeneratedKeys() {
+        return _batchedKeys && !_batchedRows.isEmpty();
+    }
+
+    /**
+     * Whether the given row may refer to a key that the batched rows have
+     * yet to generate. This is the case for rows of other tables, and for
+     * rows of the same table that reference a batched row.
+     */
+    private boolean dependsOnGeneratedKeys(RowImpl row) {
+        if (!hasGeneratedKeys())
+            return false;
+        if (row.getTable() != _batchedRows.get(0).getTable()
+            || !(row instanceof PrimaryRow))
+            return true;
+
+        PrimaryRow prow = (PrimaryRow) row;
+        for (ForeignKey fk : row.getTable().getForeignKeys())
+            if (isBatched(prow.getForeignKeySet(fk)))
+                return true;
+        for (Column col : row.getTable().getRelationIdColumns())
+            if (isBatched(prow.getRelationIdSet(col)))
+                return true;
+        return false;
+    }
+
+    /*
+     * Whether the row of the given instance is batched.
+     */
+    private boolean isBatched(OpenJPAStateManager sm) {
+        if (sm == null)
+            return false;
+        for (RowImpl row : _batchedRows)
+            if (row.getPrimaryKey() == sm)
+                return true;
+        return false;
+    }
+
     /*
      * Compute if batching is disabled, based on values of batch limit
      * and database characteristics.
@@ -136,47 +260,188 @@ public class BatchingPreparedStatementManagerImpl extends
         return rtnVal;
     }
 
+    /**
+     * Flush the cached up statements. Without a pipeline they are flushed
+     * immediately. With a pipeline each chunk of rows is executed on the
+     * pipeline, and the caller goes on to generate and group the SQL of the
+     * following rows while the last chunk executes. The connection is only
+     * ever used by one thread: the execution on the pipeline is awaited
+     * before a statement is prepared or any row is bound, so statements
+     * execute in order, and the results of each are checked on the calling
+     * thread. Only plain JDBC batches are pipelined.
+     *
+     * @see #setPipeline
+     * @since 4.2.0
+     */
+    protected void pipelineBatch() throws SQLException {
+        RowImpl first = _batchedRows.get(0);
+        String table = first.getTable().getFullName();
+        int limit = getBatchLimit(table);
+        if (_pipeline == null || limit == 0 || limit == 1
+            || hasGeneratedKeys() || isBulkInsert(first)
+            || isMultiRowInsert(first) || isMultiRowDelete(first)) {
+            flushBatch();
+            return;
+        }
+
+        List<RowImpl> batchedRows = _batchedRows;
+        String batchedSql = _batchedSql;
+        _batchedRows = new ArrayList<>();
+        _batchedSql = null;
+        int size = (limit < 0) ? batchedRows.size() : limit;
+        int chunks = (batchedRows.size() + size - 1) / size;
+
+        PreparedStatement ps = null;
+        boolean handedOff = false;
+        try {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                // the connection must be idle before it is used again
+                awaitPipeline();
+                if (ps == null)
+                    ps = prepareStatement(batchedSql);
+                int base = chunk * size;
+                List<RowImpl> rows = batchedRows.subList(base,
+                    Math.min(base + size, batchedRows.size()));
+                if (ps != null)
+                    for (int i = 0; i < rows.size(); i++) {
+                        rows.get(i).flush(ps, _dict, _store);
+                        addBatch(ps, rows.get(i), i);
+                    }
+                boolean last = chunk == chunks - 1;
+                _pending = new PendingBatch(ps, rows, table, last);
+                handedOff = last;
+            }
+        } catch (SQLException se) {
+            throw getBatchException(se, batchedRows, ps);
+        } finally {
+            if (!handedOff && ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException sqex) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait for the batch executing on the pipeline, if any, to complete,
+     * and check its results.
+     *
+     * @since 4.2.0
+     */
+    protected void awaitPipeline() throws SQLException {
+        PendingBatch pending = _pending;
+        if (pending == null)
+            return;
+        _pending = null;
+
+        try {
+            int[] rtn = pending.get();
+            if (_tuner != null)
+                _tuner.recordBatch(pending.table, pending.rows.size(),
+                    pending.nanos);
+            recordBatch(pending.rows.size());
+            checkUpdateCount(rtn, pending.rows, 0, pending.ps);
+        } catch (SQLException se) {
+            throw getBatchException(se, pending.rows, pending.ps);
+        } finally {
+            if (pending.close && pending.ps != null) {
+                try {
+                    pending.ps.close();
+                } catch (SQLException sqex) {
+                    throw SQLExceptions.getStore(sqex, pending.ps, _dict);
+                }
+            }
+        }
+    }
+
     /**
      * flush all cached up statements to be executed as a single or batched
      * prepared statements.
      */
     protected void flushBatch() throws SQLException {
+        awaitPipeline();
         List<RowImpl> batchedRows = getBatchedRows();
         String batchedSql = getBatchedSql();
         if (batchedRows == null)
             return;
 
+        try {
+            flushBatch(batchedRows, batchedSql);
+        } finally {
+            _batchedSql = null;
+        }
+    }
+
+    /*
+     * Flush the given rows, which share the given SQL, and clear them.
+     */
+    private void flushBatch(List<RowImpl> batchedRows, String batchedSql)
+        throws SQLException {
         int batchSize = batchedRows.size();
-        if (batchedSql != null &&  batchSize > 0) {
+        if (batchedSql != null && batchSize > 0
+            && isBulkInsert(batchedRows.get(0))) {
+            try {
+                flushBulkInserts(batchedRows, batchedSql);
+            } finally {
+                batchedRows.clear();
+            }
+        } else if (batchedSql != null && batchSize > 1
+            && isMultiRowInsert(batchedRows.get(0))) {
+            try {
+                flushMultiRowInserts(batchedRows);
+            } finally {
+                batchedRows.clear();
+            }
+        } else if (batchedSql != null && batchSize > 1
+            && isMultiRowDelete(batchedRows.get(0))) {
+            try {
+                flushMultiRowDeletes(batchedRows);
+            } finally {
+                batchedRows.clear();
+            }
+        } else if (batchedSql != null &&  batchSize > 0) {
             PreparedStatement ps = null;
             try {
-                RowImpl onerow = null;
-                ps = prepareStatement(batchedSql);
+                RowImpl onerow = batchedRows.get(0);
+                Column[] autoAssign = getAutoAssignColumns(onerow);
+                String[] autoAssignColNames = getAutoAssignColNames(autoAssign,
+                    onerow);
+                ps = prepareStatement(batchedSql, autoAssignColNames);
                 if (batchSize == 1) {
                     // execute a single row.
-                    onerow = batchedRows.get(0);
                     flushSingleRow(onerow, ps);
+                    if (autoAssignColNames != null && ps != null)
+                        populateAutoAssignCols(ps, autoAssign,
+                            autoAssignColNames, onerow);
                 } else {
                     // cache has more than one rows, execute as batch.
                     int count = 0;
                     int batchedRowsBaseIndex = 0;
+                    String table = onerow.getTable().getFullName();
+                    int limit = getBatchLimit(table);
                     Iterator<RowImpl> itr = batchedRows.iterator();
                     while (itr.hasNext()) {
                         onerow = itr.next();
-                        if (_batchLimit == 1) {
+                        if (limit == 1) {
                             flushSingleRow(onerow, ps);
                         } else {
-                            if (count < _batchLimit || _batchLimit == -1) {
+                            if (count < limit || limit == -1) {
                                 if (ps != null)
                                     onerow.flush(ps, _dict, _store);
                                 addBatch(ps, onerow, count);
                                 count++;
                             } else {
                                 // reach the batchLimit, execute the batch
-                                int[] rtn = executeBatch(ps);
-                                checkUpdateCount(rtn, batchedRowsBaseIndex, ps);
+                                int[] rtn = executeBatch(ps, table, count);
+                                recordBatch(count);
+                                checkUpdateCount(rtn, batchedRows, batchedRowsBaseIndex, ps);
+                                if (autoAssignColNames != null)
+                                    populateAutoAssignCols(ps, autoAssign,
+                                        autoAssignColNames, batchedRows,
+                                        batchedRowsBaseIndex, count);
 
-                                batchedRowsBaseIndex += _batchLimit;
+                                batchedRowsBaseIndex += limit;
 
                                 if (ps != null)
                                     onerow.flush(ps, _dict, _store);
@@ -187,51 +452,17 @@ public class BatchingPreparedStatementManagerImpl extends
                         }
                     }
                     // end of the loop, execute the batch
-                    int[] rtn = executeBatch(ps);
-                    checkUpdateCount(rtn, batchedRowsBaseIndex, ps);
+                    int[] rtn = executeBatch(ps, table, count);
+                    recordBatch(count);
+                    checkUpdateCount(rtn, batchedRows, batchedRowsBaseIndex, ps);
+                    if (autoAssignColNames != null)
+                        populateAutoAssignCols(ps, autoAssign,
+                            autoAssignColNames, batchedRows,
+                            batchedRowsBaseIndex, count);
                 }
             } catch (SQLException se) {
-                //If we look at PreparedStatementManagerImpl.flushAndUpdate (which is the 'non-batch' code path
-                //similar to this path, or I should say, the path which is taken instead of this path when
-                //we aren't using batching), we see that the catch block doesn't do a 'se.getNextException'.
-                //When we do a 'getNextException', the 'next exception' doesn't contain the same message as se.
-                //That is, 'next exception' contains a subset msg which is contained in se.
-                SQLException sqex = se.getNextException();
-                if (sqex == null){
-                    sqex = se;
-                }
-
-                if (se instanceof ReportingSQLException){
-                  int index = ((ReportingSQLException) se).getIndexOfFirstFailedObject();
-
-                  //if we have only batched one statement, the index should be 0.  As can be seen above,
-                  //if 'batchSize == 1' a different path is taken (the 'single row' path), and if that row
-                  //fails, we know that the index is 0 since there is only one row.
-                  if (batchSize == 1){
-                      index = 0;
-                  }
-
-                  //index should not be less than 0 in this path, but if for some reason it is, lets
-                  //resort to the 'old way' and simply pass the 'ps' as the failed object.
-                  if (index < 0){
-                      throw SQLExceptions.getStore(se, ps, _dict);
-                  }
-                  else{
-                      if(_batchedRows.size() == 0) {
-                          if(_log.isTraceEnabled()) {
-                              _log.trace("No batched rows found. The failed object may not be reliable");
-                          }
-                          throw SQLExceptions.getStore(se, ps, _dict);
-                      }
-                      throw SQLExceptions.getStore(se, (_batchedRows.get(index)).getFailedObject(), _dict);
-                  }
-                }
-                else{
-                	//per comments above, use 'sqex' rather than 'se'.
-                    throw SQLExceptions.getStore(sqex, ps, _dict);
-                }
+                throw getBatchException(se, batchedRows, ps);
             } finally {
-                _batchedSql = null;
                 batchedRows.clear();
                 if (ps != null) {
                     ps.clearParameters();
@@ -245,6 +476,282 @@ public class BatchingPreparedStatementManagerImpl extends
         }
     }
 
+    /**
+     * Translate the failure of a batch of the given rows.
+     */
+    private OpenJPAException getBatchException(SQLException se,
+        List<RowImpl> batchedRows, PreparedStatement ps) {
+        //If we look at PreparedStatementManagerImpl.flushAndUpdate (which is the 'non-batch' code path
+        //similar to this path, or I should say, the path which is taken instead of this path when
+        //we aren't using batching), we see that the catch block doesn't do a 'se.getNextException'.
+        //When we do a 'getNextException', the 'next exception' doesn't contain the same message as se.
+        //That is, 'next exception' contains a subset msg which is contained in se.
+        SQLException sqex = se.getNextException();
+        if (sqex == null){
+            sqex = se;
+        }
+
+        if (se instanceof ReportingSQLException){
+          int index = ((ReportingSQLException) se).getIndexOfFirstFailedObject();
+
+          //if we have only batched one statement, the index should be 0.  As can be seen in
+          //flushBatch, a single row takes a different path (the 'single row' path), and if that row
+          //fails, we know that the index is 0 since there is only one row.
+          if (batchedRows.size() == 1){
+              index = 0;
+          }
+
+          //index should not be less than 0 in this path, but if for some reason it is, lets
+          //resort to the 'old way' and simply pass the 'ps' as the failed object.
+          if (index < 0){
+              return SQLExceptions.getStore(se, ps, _dict);
+          }
+          else{
+              if(batchedRows.size() == 0) {
+                  if(_log.isTraceEnabled()) {
+                      _log.trace("No batched rows found. The failed object may not be reliable");
+                  }
+                  return SQLExceptions.getStore(se, ps, _dict);
+              }
+              return SQLExceptions.getStore(se, (batchedRows.get(index)).getFailedObject(), _dict);
+          }
+        }
+        else{
+            //per comments above, use 'sqex' rather than 'se'.
+            return SQLExceptions.getStore(sqex, ps, _dict);
+        }
+    }
+
+    /**
+     * Whether the batched rows sharing the SQL of the given row can be
+     * inserted with multi-row INSERT statements. Only inserts qualify,
+     * since updates and deletes need a count per row, and only if the
+     * table has no auto-assigned columns whose values must be read back.
+     */
+    protected boolean isMultiRowInsert(RowImpl row) {
+        if (!_dict.useMultiRowInsert || !_dict.supportsMultiRowInsert
+            || row.getAction() != Row.ACTION_INSERT)
+            return false;
+        Column[] autoAssign = row.getTable().getAutoAssignedColumns();
+        return autoAssign == null || autoAssign.length == 0;
+    }
+
+    /**
+     * Whether the batched rows sharing the SQL of the given row can be
+     * deleted with DELETE statements that list their keys. Only deletes by
+     * a single primary key column qualify. Deletes that check a version
+     * need a count per row to detect optimistic failures, and tables that
+     * reference themselves may need their rows deleted one at a time.
+     *
+     * @since 4.2.0
+     */
+    protected boolean isMultiRowDelete(RowImpl row) {
+        if (!_dict.useMultiRowDelete || row.getAction() != Row.ACTION_DELETE
+            || hasVersion(row))
+            return false;
+        Table table = row.getTable();
+        PrimaryKey pk = table.getPrimaryKey();
+        Column key = row.getWhereKeyColumn();
+        if (key == null || pk == null || pk.getColumns().length != 1
+            || pk.getColumns()[0] != key)
+            return false;
+        for (ForeignKey fk : table.getForeignKeys())
+            if (fk.getPrimaryKeyTable() == table)
+                return false;
+        return true;
+    }
+
+    /**
+     * Whether the given row is inserted in bulk insert mode, as requested
+     * by the {@link #HINT_BULK_INSERT} hint. Like multi-row inserts, this
+     * excludes rows of tables with auto-assigned columns.
+     */
+    protected boolean isBulkInsert(RowImpl row) {
+        if (!_bulkInsertAll && _bulkInsertTypes == null)
+            return false;
+        if (row.getAction() != Row.ACTION_INSERT)
+            return false;
+        Column[] autoAssign = row.getTable().getAutoAssignedColumns();
+        if (autoAssign != null && autoAssign.length > 0)
+            return false;
+        if (_bulkInsertAll)
+            return true;
+        OpenJPAStateManager sm = row.getPrimaryKey();
+        if (sm == null)
+            return false;
+        Class<?> type = sm.getMetaData().getDescribedType();
+        return _bulkInsertTypes.contains(type.getName())
+            || _bulkInsertTypes.contains(sm.getMetaData().getTypeAlias());
+    }
+
+    /**
+     * Insert the given rows, which share the same SQL, with the dictionary's
+     * bulk load facility. Falls back to multi-row INSERT statements if the
+     * dictionary supports them, and to a JDBC batch otherwise.
+     */
+    private void flushBulkInserts(List<RowImpl> rows, String sql)
+        throws SQLException {
+        // make sure all values are set
+        RowImpl first = rows.get(0);
+        first.getSQL(_dict);
+        try {
+            int chunk = getBatchLimit(first.getTable().getFullName());
+            if (_dict.insertBulk(_conn, rows, chunk, _store)) {
+                for (RowImpl row : rows)
+                    row.setFlushed(true);
+                recordBatch(rows.size());
+                if (_log.isTraceEnabled())
+                    _log.trace(_loc.get("bulk-insert", String.valueOf(rows.size()),
+                        first.getTable()));
+                return;
+            }
+        } catch (SQLException se) {
+            Object failed = (rows.size() == 1) ? first.getFailedObject() : null;
+            throw SQLExceptions.getStore(se, failed, _dict);
+        }
+
+        if (_dict.supportsMultiRowInsert) {
+            flushMultiRowInserts(rows);
+            return;
+        }
+
+        PreparedStatement ps = null;
+        try {
+            ps = prepareStatement(sql);
+            int limit = (_batchLimit > 0) ? _batchLimit : rows.size();
+            int base = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                if (ps != null)
+                    rows.get(i).flush(ps, _dict, _store);
+                addBatch(ps, rows.get(i), i - base);
+                if (i - base + 1 == limit || i == rows.size() - 1) {
+                    int[] rtn = executeBatch(ps);
+                    recordBatch(i - base + 1);
+                    checkUpdateCount(rtn, rows, base, ps);
+                    base = i + 1;
+                }
+            }
+        } catch (SQLException se) {
+            SQLException sqex = se.getNextException();
+            throw SQLExceptions.getStore((sqex == null) ? se : sqex, ps, _dict);
+        } finally {
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException sqex) {
+                    throw SQLExceptions.getStore(sqex, ps, _dict);
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert the given rows, which share the same SQL, with as few multi-row
+     * INSERT statements as the batch limit and the dictionary's parameter
+     * limit allow.
+     */
+    private void flushMultiRowInserts(List<RowImpl> rows)
+        throws SQLException {
+        int params = rows.get(0).getInsertParameterCount();
+        int max = rows.size();
+        if (_dict.maxStatementParameters > 0 && params > 0)
+            max = Math.max(1, _dict.maxStatementParameters / params);
+        if (_batchLimit > 0)
+            max = Math.min(max, _batchLimit);
+
+        for (int start = 0; start < rows.size(); start += max)
+            flushMultiRowInsert(rows.subList(start,
+                Math.min(start + max, rows.size())), params);
+    }
+
+    /*
+     * Execute a single INSERT of the given rows.
+     */
+    private void flushMultiRowInsert(List<RowImpl> rows, int params)
+        throws SQLException {
+        RowImpl first = rows.get(0);
+        String sql = first.getMultiRowInsertSQL(_dict, rows.size());
+        PreparedStatement ps = null;
+        try {
+            ps = prepareStatement(sql);
+            if (ps != null) {
+                int idx = 1;
+                for (RowImpl row : rows) {
+                    row.flush(ps, idx, _dict, _store);
+                    idx += params;
+                }
+            }
+            int count = executeUpdate(ps, sql, first);
+            recordBatch(rows.size());
+            if (count != rows.size() && count != Statement.SUCCESS_NO_INFO) {
+                logSQLWarnings(ps);
+                throw new SQLException(_loc.get("update-failed-no-failed-obj",
+                    String.valueOf(count), sql).getMessage());
+            }
+        } catch (SQLException se) {
+            // the failing row of a multi-row statement cannot be identified
+            Object failed = (rows.size() == 1) ? first.getFailedObject() : ps;
+            throw SQLExceptions.getStore(se, failed, _dict);
+        } finally {
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException sqex) {
+                    throw SQLExceptions.getStore(sqex, ps, _dict);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete the given rows, which share the same SQL, with as few DELETE
+     * statements as the dictionary's IN list and parameter limits allow.
+     */
+    private void flushMultiRowDeletes(List<RowImpl> rows)
+        throws SQLException {
+        int max = rows.size();
+        if (_dict.inClauseLimit > 0)
+            max = Math.min(max, _dict.inClauseLimit);
+        if (_dict.maxStatementParameters > 0)
+            max = Math.min(max, _dict.maxStatementParameters);
+
+        for (int start = 0; start < rows.size(); start += max)
+            flushMultiRowDelete(rows.subList(start,
+                Math.min(start + max, rows.size())));
+    }
+
+    /*
+     * Execute a single DELETE of the given rows. Rows that are already gone,
+     * for example through a database cascade, are tolerated just as they
+     * are for single row deletes without a version.
+     */
+    private void flushMultiRowDelete(List<RowImpl> rows) throws SQLException {
+        RowImpl first = rows.get(0);
+        String sql = first.getMultiRowDeleteSQL(_dict, rows.size());
+        PreparedStatement ps = null;
+        try {
+            ps = prepareStatement(sql);
+            if (ps != null) {
+                int idx = 1;
+                for (RowImpl row : rows)
+                    row.flush(ps, idx++, _dict, _store);
+            }
+            executeUpdate(ps, sql, first);
+            recordBatch(rows.size());
+        } catch (SQLException se) {
+            Object failed = (rows.size() == 1) ? first.getFailedObject() : ps;
+            throw SQLExceptions.getStore(se, failed, _dict);
+        } finally {
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException sqex) {
+                    throw SQLExceptions.getStore(sqex, ps, _dict);
+                }
+            }
+        }
+    }
+
     /*
      * Execute an update of a single row.
      */
@@ -253,6 +760,7 @@ public class BatchingPreparedStatementManagerImpl extends
         if (ps != null)
             row.flush(ps, _dict, _store);
         int count = executeUpdate(ps, row.getSQL(_dict), row);
+        recordBatch(1);
         if (count != 1) {
             // For DELETE actions on entities without a version, tolerate
             // count=0 because the row may have already been removed by a
@@ -277,11 +785,36 @@ public class BatchingPreparedStatementManagerImpl extends
         }
     }
 
+    /**
+     * Assign the keys generated by the given batch of inserts to the
+     * instances of its rows. The dictionary must return the keys of all
+     * rows of the batch, in batch order.
+     *
+     * @see org.apache.openjpa.jdbc.sql.DBDictionary#supportsBatchGeneratedKeys
+     * @since 4.2.0
+     */
+    protected void populateAutoAssignCols(PreparedStatement ps,
+        Column[] autoAssign, String[] autoAssignColNames,
+        List<RowImpl> batchedRows, int batchedRowsBaseIndex, int count)
+        throws SQLException {
+        if (ps == null)
+            return;
+        int cols = autoAssignColNames.length;
+        List<Object> vals = getGeneratedKeys(ps, autoAssignColNames);
+        if (vals.size() != count * cols)
+            throw new SQLException(_loc.get("batch-generated-keys",
+                String.valueOf(vals.size() / cols), String.valueOf(count),
+                batchedRows.get(batchedRowsBaseIndex).getSQL(_dict)).getMessage());
+        for (int i = 0; i < count; i++)
+            setObjectId(vals.subList(i * cols, (i + 1) * cols), autoAssign,
+                autoAssignColNames, batchedRows.get(batchedRowsBaseIndex + i));
+    }
+
     /*
      * Process executeBatch function array of return counts.
      */
-    private void checkUpdateCount(int[] count, int batchedRowsBaseIndex,
-        PreparedStatement ps)
+    private void checkUpdateCount(int[] count, List<RowImpl> batchedRows,
+        int batchedRowsBaseIndex, PreparedStatement ps)
         throws SQLException {
         // value in int[] count  returned from executeBatch:
         //               Update          Delete        Insert
@@ -293,7 +826,6 @@ public class BatchingPreparedStatementManagerImpl extends
         int cnt = 0;
         int updateSuccessCnt = _dict.getBatchUpdateCount(ps);
         Object failed = null;
-        List<RowImpl> batchedRows = getBatchedRows();
         for (int i = 0; i < count.length; i++) {
             cnt = count[i];
             RowImpl row = (RowImpl) batchedRows.get(batchedRowsBaseIndex + i);
@@ -350,6 +882,229 @@ public class BatchingPreparedStatementManagerImpl extends
         }
     }
 
+    /**
+     * Record the execution of a batch of the given number of rows.
+     */
+    protected void recordBatch(int rows) {
+        _batchCount++;
+        _batchedRowCount += rows;
+        _maxBatchSize = Math.max(_maxBatchSize, rows);
+        if (_stats != null)
+            _stats.recordBatch(rows);
+    }
+
+    /**
+     * Record the end of a flush with the batches executed since the last
+     * flush was recorded.
+     *
+     * @since 4.2.0
+     */
+    public void recordFlush() {
+        if (_stats != null)
+            _stats.recordFlush(_batchCount - _recordedBatchCount,
+                _batchedRowCount - _recordedRowCount);
+        _recordedBatchCount = _batchCount;
+        _recordedRowCount = _batchedRowCount;
+    }
+
+    /**
+     * The statistics the executed batches are recorded to, or null if
+     * they are not recorded.
+     *
+     * @since 4.2.0
+     */
+    public BatchStatistics getBatchStatistics() {
+        return _stats;
+    }
+
+    /**
+     * The statistics the executed batches are recorded to.
+     *
+     * @since 4.2.0
+     */
+    public void setBatchStatistics(BatchStatistics stats) {
+        _stats = stats;
+    }
+
+    /**
+     * Number of batches executed by this manager. A statement that is not
+     * batched counts as a batch of one row.
+     *
+     * @since 4.2.0
+     */
+    public int getBatchCount() {
+        return _batchCount;
+    }
+
+    /**
+     * Number of rows flushed in the batches counted by {@link #getBatchCount}.
+     *
+     * @since 4.2.0
+     */
+    public int getBatchedRowCount() {
+        return _batchedRowCount;
+    }
+
+    /**
+     * Number of rows of the largest batch executed by this manager.
+     *
+     * @since 4.2.0
+     */
+    public int getMaxBatchSize() {
+        return _maxBatchSize;
+    }
+
+    /**
+     * The executor on which batches are flushed while the following rows
+     * are batched, or null to flush them on the calling thread. Tasks are
+     * submitted one at a time, so any executor preserves their order.
+     *
+     * @since 4.2.0
+     */
+    public ExecutorService getPipeline() {
+        return _pipeline;
+    }
+
+    /**
+     * The executor on which batches are flushed while the following rows
+     * are batched.
+     *
+     * @since 4.2.0
+     */
+    public void setPipeline(ExecutorService pipeline) {
+        _pipeline = pipeline;
+    }
+
+    /**
+     * Whether the batch still open at the end of a flush may be left open
+     * for the next flush of the same store, so that the statements of
+     * several flushes execute in fewer batches.
+     *
+     * @see AbstractUpdateManager#setDeferredBatchFlush
+     * @since 4.2.0
+     */
+    public boolean isFlushDeferred() {
+        return _deferFlush;
+    }
+
+    /**
+     * Whether the batch still open at the end of a flush may be left open.
+     *
+     * @since 4.2.0
+     */
+    public void setFlushDeferred(boolean deferFlush) {
+        _deferFlush = deferFlush;
+    }
+
+    /**
+     * Whether the batch open at the end of the current flush can be left
+     * open. Batches of rows whose keys the database generates cannot, since
+     * those keys must be known once the flush ends, and neither can batches
+     * of a flush that failed.
+     *
+     * @since 4.2.0
+     */
+    protected boolean isBatchDeferrable() {
+        return _deferFlush && _batchedSql != null && !_batchedRows.isEmpty()
+            && _exceptions.isEmpty() && !hasGeneratedKeys();
+    }
+
+    /**
+     * Execute the batch left open by an earlier flush and release the
+     * connection of that flush. Failures are thrown, as there is no flush
+     * left to report them.
+     *
+     * @since 4.2.0
+     */
+    protected void flushDeferredBatch() {
+        try {
+            flushBatch();
+        } catch (SQLException se) {
+            _exceptions.add(SQLExceptions.getStore(se, _dict));
+        } catch (OpenJPAException ke) {
+            _exceptions.add(ke);
+        } finally {
+            releaseDeferredBatch();
+        }
+        if (_exceptions.isEmpty())
+            return;
+
+        Throwable[] t = _exceptions.toArray(new Throwable[_exceptions.size()]);
+        _exceptions.clear();
+        if (t.length == 1 && t[0] instanceof RuntimeException)
+            throw (RuntimeException) t[0];
+        boolean opt = true;
+        for (int i = 0; opt && i < t.length; i++)
+            opt = t[i] instanceof OptimisticException;
+        if (opt)
+            throw new OptimisticException(t);
+        throw new StoreException(_loc.get("deferred-batch-error")).
+            setNestedThrowables(t).setFatal(true);
+    }
+
+    /**
+     * Drop the batch left open by an earlier flush without executing it,
+     * and release the connection of that flush.
+     *
+     * @since 4.2.0
+     */
+    protected void releaseDeferredBatch() {
+        try {
+            awaitPipeline();
+        } catch (SQLException | RuntimeException e) {
+            // the transaction is being discarded
+        }
+        _batchedRows.clear();
+        _batchedSql = null;
+        try {
+            _conn.close();
+        } catch (SQLException se) {
+        }
+    }
+
+    /**
+     * The tuner that chooses the batch limit of each table, or null to
+     * use the fixed batch limit.
+     *
+     * @since 4.2.0
+     */
+    public BatchLimitTuner getBatchLimitTuner() {
+        return _tuner;
+    }
+
+    /**
+     * The tuner that chooses the batch limit of each table.
+     *
+     * @since 4.2.0
+     */
+    public void setBatchLimitTuner(BatchLimitTuner tuner) {
+        _tuner = tuner;
+    }
+
+    /**
+     * The batch limit for rows of the given table. A tuner only chooses
+     * the limit if batching is enabled.
+     */
+    private int getBatchLimit(String table) {
+        if (_tuner == null || _batchLimit == 0 || _batchLimit == 1)
+            return _batchLimit;
+        return _tuner.getBatchLimit(table);
+    }
+
+    /**
+     * Execute the given batch of rows of the given table, and report the
+     * time it took to the tuner, if any.
+     */
+    private int[] executeBatch(PreparedStatement ps, String table, int rows)
+        throws SQLException {
+        if (_tuner == null)
+            return executeBatch(ps);
+        long start = System.nanoTime();
+        int[] rtn = executeBatch(ps);
+        _tuner.recordBatch(table, rows, System.nanoTime() - start);
+        return rtn;
+    }
+
     public boolean isBatchDisabled() {
         return _disableBatch;
     }
@@ -383,4 +1138,64 @@ public class BatchingPreparedStatementManagerImpl extends
     throws SQLException {
         return ps.executeBatch();
     }
+
+    /**
+     * A batch of rows executing on the pipeline. Its rows are bound to the
+     * statement before it is submitted, and its results are checked by
+     * {@link BatchingPreparedStatementManagerImpl#awaitPipeline}, so that
+     * only the statement execution happens on the pipeline. Nothing else
+     * uses the connection until it has been awaited.
+     */
+    private class PendingBatch {
+        final PreparedStatement ps;
+        final List<RowImpl> rows;
+        final String table;
+        final boolean close;
+        final Future<int[]> result;
+        long nanos;
+
+        PendingBatch(PreparedStatement ps, List<RowImpl> rows, String table,
+            boolean close) {
+            this.ps = ps;
+            this.rows = rows;
+            this.table = table;
+            this.close = close;
+            this.result = _pipeline.submit(() -> {
+                long start = System.nanoTime();
+                int[] rtn = executeBatch(ps);
+                nanos = System.nanoTime() - start;
+                return rtn;
+            });
+        }
+
+        /**
+         * Wait for the execution to complete and return its update counts.
+         * The execution uses the connection, so this waits even if
+         * interrupted.
+         */
+        int[] get() throws SQLException {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return result.get();
+                    } catch (InterruptedException ie) {
+                        interrupted = true;
+                    }
+                }
+            } catch (ExecutionException ee) {
+                Throwable cause = ee.getCause();
+                if (cause instanceof SQLException)
+                    throw (SQLException) cause;
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new SQLException(cause);
+            } finally {
+                if (interrupted)
+                    Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
@@ -20,8 +20,13 @@ package org.apache.openjpa.jdbc.kernel;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +61,31 @@ public class ConstraintUpdateManager
     private static final Localizer _loc = Localizer.forPackage
         (ConstraintUpdateManager.class);
 
+    private boolean _sortUpdates = false;
+    private boolean _scheduleByTable = false;
+
+    /**
+     * Whether updates that do not take part in a foreign key dependency
+     * are sorted by table and modified columns before they are executed.
+     * Updates of the same columns then execute consecutively, so that a
+     * batching prepared statement manager can batch them together.
+     * Defaults to false.
+     *
+     * @since 4.2.0
+     */
+    public boolean getSortUpdates() {
+        return _sortUpdates;
+    }
+
+    /**
+     * Whether updates are sorted by table and modified columns.
+     *
+     * @since 4.2.0
+     */
+    public void setSortUpdates(boolean sortUpdates) {
+        _sortUpdates = sortUpdates;
+    }
+
     @Override
     public boolean orderDirty() {
         return true;
@@ -107,7 +137,7 @@ public class ConstraintUpdateManager
         // flush the rest of the inserts and updates; inserts before updates
         // because some update fks might reference pks that have to be inserted
         flush(inserts, psMgr);
-        flush(updates, psMgr);
+        flush(_sortUpdates ? sortUpdates(updates) : updates, psMgr);
 
         // flush the delete graph, if any
         try {
@@ -132,6 +162,84 @@ public class ConstraintUpdateManager
         return exceps;
     }
 
+    /**
+     * Whether rows with foreign key dependencies are scheduled so that the
+     * rows of each table are flushed together wherever the dependencies
+     * allow, rather than in depth first order. Grouping the rows of a table
+     * lets a batching prepared statement manager batch them. Defaults to
+     * false.
+     *
+     * @since 4.2.0
+     */
+    public boolean getScheduleByTable() {
+        return _scheduleByTable;
+    }
+
+    /**
+     * Whether rows with foreign key dependencies are grouped by table.
+     *
+     * @since 4.2.0
+     */
+    public void setScheduleByTable(boolean scheduleByTable) {
+        _scheduleByTable = scheduleByTable;
+    }
+
+    /**
+     * Sort the given update rows by their table and by the columns they
+     * modify and restrict on, which groups the rows that share an update
+     * statement. The key is built without generating the SQL of the rows,
+     * so foreign keys to instances whose keys are not generated yet are not
+     * resolved early. The sort is stable, so rows with the same key keep
+     * their relative order.
+     */
+    protected Collection<PrimaryRow> sortUpdates(Collection<PrimaryRow> updates) {
+        if (updates.size() < 2)
+            return updates;
+        List<PrimaryRow> sorted = new ArrayList<>(updates);
+        Map<PrimaryRow, String> keys = new IdentityHashMap<>();
+        for (PrimaryRow row : sorted)
+            keys.put(row, getSortKey(row));
+        sorted.sort(Comparator.comparing(keys::get));
+        return sorted;
+    }
+
+    /**
+     * Return the key of the given update row: the table name followed by
+     * one character per column telling whether the column is set, compared
+     * to a value, or compared to null.
+     */
+    private static String getSortKey(PrimaryRow row) {
+        Table table = row.getTable();
+        Column[] cols = table.getColumns();
+        int[] uses = new int[cols.length];
+        for (int i = 0; i < cols.length; i++) {
+            if (row.getSet(cols[i]) != null)
+                uses[i] |= 1;
+            Object where = row.getWhere(cols[i]);
+            if (where == RowImpl.NULL)
+                uses[i] |= 4;
+            else if (where != null)
+                uses[i] |= 2;
+        }
+        for (Column col : table.getRelationIdColumns())
+            if (row.getRelationIdSet(col) != null)
+                uses[col.getIndex()] |= 1;
+        for (ForeignKey fk : table.getForeignKeys()) {
+            if (row.getForeignKeySet(fk) != null)
+                for (Column col : fk.getColumns())
+                    uses[col.getIndex()] |= 1;
+            if (row.getForeignKeyWhere(fk) != null)
+                for (Column col : fk.getColumns())
+                    uses[col.getIndex()] |= 2;
+        }
+
+        StringBuilder key = new StringBuilder(table.getFullName())
+            .append(' ');
+        for (int use : uses)
+            key.append((char) ('0' + use));
+        return key.toString();
+    }
+
     /**
      * Analyze foreign key dependencies on the given rows
      * and create an insert and a delete graph to execute.  The insert
@@ -349,10 +457,77 @@ public class ConstraintUpdateManager
         // flush delete updates to null fks, then all rows in order, then
         // the insert updates to set circular fk values
         Collection nodes = dfa.getSortedNodes();
+        if (_scheduleByTable)
+            nodes = scheduleByTable(graph, (List<Object>) nodes);
         flush(deleteUpdates, nodes, psMgr);
         flush(insertUpdates, psMgr);
     }
 
+    /**
+     * Order the rows of the given graph so that the rows of the same table
+     * and action are flushed together. Rows are scheduled topologically: of
+     * the rows whose dependencies have all been scheduled, all rows of one
+     * table and action are scheduled at once, preferring the table and
+     * action scheduled last. The tables are thus ordered by their foreign
+     * key dependencies, and a table is only split into several groups where
+     * its rows depend on each other. Rows that are still part of a cycle
+     * keep the given depth first order.
+     *
+     * @param graph acyclic graph of dependencies, in which a row depends on
+     * the rows its edges lead to
+     * @param sorted the rows in depth first order
+     */
+    protected List<Object> scheduleByTable(Graph graph, List<Object> sorted) {
+        Map<Object, int[]> pending = new IdentityHashMap<>();
+        Map<Object, List<Object>> ready = new LinkedHashMap<>();
+        for (Object node : sorted) {
+            int deps = 0;
+            for (Edge edge : graph.getEdgesFrom(node))
+                if (edge.getTo() != node)
+                    deps++;
+            pending.put(node, new int[]{ deps });
+            if (deps == 0)
+                addReady(ready, node);
+        }
+
+        List<Object> scheduled = new ArrayList<>(sorted.size());
+        Object last = null;
+        while (!ready.isEmpty()) {
+            Object key = ready.containsKey(last) ? last
+                : ready.keySet().iterator().next();
+            List<Object> group = ready.remove(key);
+            scheduled.addAll(group);
+            for (Object node : group) {
+                pending.remove(node);
+                for (Edge edge : graph.getEdgesTo(node)) {
+                    Object from = edge.getFrom();
+                    int[] deps = pending.get(from);
+                    if (from != node && deps != null && --deps[0] == 0)
+                        addReady(ready, from);
+                }
+            }
+            last = key;
+        }
+
+        // rows left in a cycle
+        if (!pending.isEmpty())
+            for (Object node : sorted)
+                if (pending.containsKey(node))
+                    scheduled.add(node);
+        return scheduled;
+    }
+
+    /**
+     * Add the given row to the rows ready to be scheduled, grouped by table
+     * and action.
+     */
+    private static void addReady(Map<Object, List<Object>> ready, Object node) {
+        RowImpl row = (RowImpl) node;
+        Object key = new AbstractMap.SimpleImmutableEntry<>(row.getTable(),
+            row.getAction());
+        ready.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+    }
+
     protected void flush(Collection deleteUpdates, Collection nodes, PreparedStatementManager psMgr) {
         flush(deleteUpdates, psMgr);
         for (Object node : nodes) {
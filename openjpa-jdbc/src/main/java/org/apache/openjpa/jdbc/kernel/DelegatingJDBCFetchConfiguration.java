@@ -152,6 +152,44 @@ public class DelegatingJDBCFetchConfiguration
         }
     }
 
+    @Override
+    public int getEagerBatchSize() {
+        try {
+            return getJDBCDelegate().getEagerBatchSize();
+        } catch (RuntimeException re) {
+            throw translate(re);
+        }
+    }
+
+    @Override
+    public JDBCFetchConfiguration setEagerBatchSize(int size) {
+        try {
+            getJDBCDelegate().setEagerBatchSize(size);
+            return this;
+        } catch (RuntimeException re) {
+            throw translate(re);
+        }
+    }
+
+    @Override
+    public int getEagerCollectionLimit() {
+        try {
+            return getJDBCDelegate().getEagerCollectionLimit();
+        } catch (RuntimeException re) {
+            throw translate(re);
+        }
+    }
+
+    @Override
+    public JDBCFetchConfiguration setEagerCollectionLimit(int limit) {
+        try {
+            getJDBCDelegate().setEagerCollectionLimit(limit);
+            return this;
+        } catch (RuntimeException re) {
+            throw translate(re);
+        }
+    }
+
     @Override
     public int getLRSSize() {
         try {
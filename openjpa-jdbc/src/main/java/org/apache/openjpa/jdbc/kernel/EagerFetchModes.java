@@ -42,4 +42,27 @@ public interface EagerFetchModes {
      * using either joins or parallel queries.
      */
     int EAGER_PARALLEL = 2;
+
+    /**
+     * Constant indicating to load relations of the objects read by a query
+     * page by page, with selects that restrict the related rows to the
+     * primary keys of the page using IN lists. Relations that are loaded
+     * lazily are loaded for every object of the page at once, too.
+     * As a subclass fetch mode, indicates to select the base class tables
+     * of the objects first and to load the data in subclass tables page by
+     * page, with one select per subclass present in the page.
+     *
+     * @since 4.2.0
+     */
+    int EAGER_BATCH = 3;
+
+    /**
+     * Constant indicating to load relations like {@link #EAGER_PARALLEL},
+     * and to load relations that are not fetched with the objects read by a
+     * query for all of them at once the first time one of them is accessed,
+     * using the conditions of the query to select the related rows.
+     *
+     * @since 4.2.0
+     */
+    int EAGER_SUBSELECT = 4;
 }
@@ -22,8 +22,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.locks.ReentrantLock;
@@ -38,9 +40,17 @@ import org.apache.openjpa.kernel.QueryHints;
 import org.apache.openjpa.kernel.QueryStatistics;
 import org.apache.openjpa.lib.conf.Configuration;
 import org.apache.openjpa.lib.util.StringUtil;
+import org.apache.openjpa.util.CacheMap;
 
 /**
  * Implementation of FinderCache for JDBC.
+ * <br>
+ * Finders are cached for the default fetch plan of the persistence unit.
+ * If {@link #setCacheFetchPlans(boolean) CacheFetchPlans} is set, finders
+ * of other fetch plans are cached as well, keyed by the class and the
+ * {@link FetchConfiguration#getFetchPlanKey() fetch plan key}. At most
+ * {@link #setMaxFetchPlans(int) MaxFetchPlans} of them are held, the least
+ * recently used being dropped first.
  *
  * @author Pinaki Poddar
  *
@@ -53,15 +63,21 @@ public class FinderCacheImpl
     private static final String EXLUDED_BY_USER = "Excluded by user";
 
     private final Map<ClassMapping, FinderQuery<ClassMapping, SelectExecutor, Result>> _delegate;
+    private final Map<FetchPlanKey, FinderQuery<ClassMapping, SelectExecutor, Result>> _fetchPlans;
     // Key: class name Value: Reason why excluded
     private final Map<String, String> _uncachables;
     private List<String> _exclusionPatterns;
     private QueryStatistics<ClassMapping> _stats;
     private ReentrantLock _lock = new ReentrantLock();
     private boolean _enableStats = false;
+    private boolean _cacheFetchPlans = false;
 
+    @SuppressWarnings("unchecked")
     public FinderCacheImpl() {
         _delegate = new HashMap<>();
+        CacheMap fetchPlans = new CacheMap(true, 1000);
+        fetchPlans.setSoftReferenceSize(0);
+        _fetchPlans = fetchPlans;
         _uncachables = new HashMap<>();
         _stats = new QueryStatistics.None<>();
     }
@@ -111,8 +127,12 @@ public class FinderCacheImpl
             return null;
         }
 
+        FetchPlanKey key = null;
         if (!fetch.isFetchConfigurationSQLCacheAdmissible()) {
-            return null;
+            key = getFetchPlanKey(mapping, fetch);
+            if (key == null) {
+                return null;
+            }
         }
 
         boolean ignore = isHinted(fetch, QueryHints.HINT_IGNORE_FINDER);
@@ -123,7 +143,17 @@ public class FinderCacheImpl
         if (ignore) {
             return null;
         }
-        FinderQuery<ClassMapping, SelectExecutor, Result> result = _delegate.get(mapping);
+        FinderQuery<ClassMapping, SelectExecutor, Result> result;
+        if (key == null) {
+            result = _delegate.get(mapping);
+        } else {
+            lock();
+            try {
+                result = _fetchPlans.get(key);
+            } finally {
+                unlock();
+            }
+        }
         _stats.recordExecution(mapping);
         return result;
     }
@@ -155,7 +185,7 @@ public class FinderCacheImpl
             }
 
             if (!fetch.isFetchConfigurationSQLCacheAdmissible()) {
-                return null;
+                return cacheFetchPlan(mapping, select, fetch);
             }
 
             boolean recache = isHinted(fetch, QueryHints.HINT_RECACHE_FINDER);
@@ -188,6 +218,57 @@ public class FinderCacheImpl
         return finder;
     }
 
+    /**
+     * Cache a Finder Query for the given mapping, select and a fetch plan
+     * other than the default one, if finders of such plans are cached.
+     */
+    private FinderQuery<ClassMapping, SelectExecutor, Result> cacheFetchPlan(ClassMapping mapping,
+        SelectExecutor select, FetchConfiguration fetch) {
+        FetchPlanKey key = getFetchPlanKey(mapping, fetch);
+        if (key == null || isExcluded(mapping) || _uncachables.containsKey(mapping.getDescribedType().getName())) {
+            return null;
+        }
+        boolean recache = isHinted(fetch, QueryHints.HINT_RECACHE_FINDER);
+        FinderQuery<ClassMapping, SelectExecutor, Result> finder = _fetchPlans.get(key);
+        if (finder != null && !recache) {
+            return finder;
+        }
+        finder = FinderQueryImpl.newFinder(mapping, select);
+        if (finder != null) {
+            _fetchPlans.put(key, finder);
+        } else {
+            _fetchPlans.remove(key);
+        }
+        return finder;
+    }
+
+    /**
+     * Gets the key of the given mapping under the given fetch plan, or null
+     * if finders of the plan are not cached.
+     */
+    private FetchPlanKey getFetchPlanKey(ClassMapping mapping, FetchConfiguration fetch) {
+        if (!_cacheFetchPlans) {
+            return null;
+        }
+        Object plan = fetch.getFetchPlanKey();
+        return (plan == null) ? null : new FetchPlanKey(mapping, plan);
+    }
+
+    /**
+     * Removes the finders cached for the given mapping under fetch plans
+     * other than the default one.
+     */
+    private boolean removeFetchPlans(ClassMapping mapping) {
+        boolean removed = false;
+        for (Iterator<FetchPlanKey> keys = _fetchPlans.keySet().iterator(); keys.hasNext();) {
+            if (keys.next()._mapping == mapping) {
+                keys.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
     /**
      * Affirms if the given mapping is excluded from being cached.
      */
@@ -221,6 +302,9 @@ public class FinderCacheImpl
                     _delegate.keySet());
             for (ClassMapping invalidMapping : invalidMappings)
                 markUncachable(invalidMapping, pattern);
+            for (Iterator<FetchPlanKey> keys = _fetchPlans.keySet().iterator(); keys.hasNext();)
+                if (matches(pattern, keys.next()._mapping))
+                    keys.remove();
         } finally {
             unlock();
         }
@@ -297,7 +381,8 @@ public class FinderCacheImpl
     public boolean invalidate(ClassMapping mapping) {
         lock();
         try {
-            return _delegate.remove(mapping) != null;
+            boolean removed = removeFetchPlans(mapping);
+            return _delegate.remove(mapping) != null || removed;
         } finally {
             unlock();
         }
@@ -318,6 +403,9 @@ public class FinderCacheImpl
             boolean excludedByUser = _uncachables.get(cls) == EXLUDED_BY_USER;
             if (!excludedByUser)
                 _uncachables.put(cls, reason);
+            for (Iterator<FetchPlanKey> keys = _fetchPlans.keySet().iterator(); keys.hasNext();)
+                if (matches(cls, keys.next()._mapping))
+                    keys.remove();
             return _delegate.remove(searchMappingByName(cls));
         } finally {
             unlock();
@@ -331,6 +419,7 @@ public class FinderCacheImpl
             boolean excludedByUser = _uncachables.get(cls) == EXLUDED_BY_USER;
             if (!excludedByUser)
                 _uncachables.put(cls, reason);
+            removeFetchPlans(mapping);
             return _delegate.remove(mapping);
         } finally {
             unlock();
@@ -395,6 +484,67 @@ public class FinderCacheImpl
     public boolean getEnableStats() {
         return _enableStats;
     }
+
+    /**
+     * Whether finders are also cached for fetch plans other than the
+     * default fetch plan of the persistence unit. Defaults to false.
+     *
+     * @since 4.2.0
+     */
+    public void setCacheFetchPlans(boolean b) {
+        _cacheFetchPlans = b;
+    }
+
+    /**
+     * Whether finders are also cached for fetch plans other than the
+     * default fetch plan of the persistence unit.
+     *
+     * @since 4.2.0
+     */
+    public boolean getCacheFetchPlans() {
+        return _cacheFetchPlans;
+    }
+
+    /**
+     * The maximum number of finders cached for fetch plans other than the
+     * default fetch plan of the persistence unit, or -1 for no limit.
+     * Defaults to 1000.
+     *
+     * @since 4.2.0
+     */
+    public void setMaxFetchPlans(int max) {
+        lock();
+        try {
+            ((CacheMap) _fetchPlans).setCacheSize(max);
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * The maximum number of finders cached for fetch plans other than the
+     * default fetch plan of the persistence unit.
+     *
+     * @since 4.2.0
+     */
+    public int getMaxFetchPlans() {
+        return ((CacheMap) _fetchPlans).getCacheSize();
+    }
+
+    /**
+     * Gets the number of finders cached for fetch plans other than the
+     * default fetch plan of the persistence unit.
+     *
+     * @since 4.2.0
+     */
+    public int getFetchPlanCount() {
+        lock();
+        try {
+            return _fetchPlans.size();
+        } finally {
+            unlock();
+        }
+    }
     // ----------------------------------------------------
     //  Configuration contract
     // ----------------------------------------------------
@@ -409,4 +559,32 @@ public class FinderCacheImpl
     @Override
     public void endConfiguration() {
     }
+
+    /**
+     * Key of a finder cached for a fetch plan other than the default one.
+     */
+    private static class FetchPlanKey {
+        private final ClassMapping _mapping;
+        private final Object _plan;
+
+        FetchPlanKey(ClassMapping mapping, Object plan) {
+            _mapping = mapping;
+            _plan = plan;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(_mapping) * 31 + _plan.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this)
+                return true;
+            if (!(other instanceof FetchPlanKey))
+                return false;
+            FetchPlanKey that = (FetchPlanKey) other;
+            return _mapping == that._mapping && Objects.equals(_plan, that._plan);
+        }
+    }
 }
@@ -49,6 +49,43 @@ public interface JDBCFetchConfiguration
      */
     JDBCFetchConfiguration setEagerFetchMode(int mode);
 
+    /**
+     * The number of objects whose relations are loaded together in
+     * {@link EagerFetchModes#EAGER_BATCH} mode. Defaults to the
+     * <code>openjpa.jdbc.EagerBatchSize</code> setting.
+     *
+     * @since 4.2.0
+     */
+    int getEagerBatchSize();
+
+    /**
+     * The number of objects whose relations are loaded together in
+     * {@link EagerFetchModes#EAGER_BATCH} mode. Defaults to the
+     * <code>openjpa.jdbc.EagerBatchSize</code> setting.
+     *
+     * @since 4.2.0
+     */
+    JDBCFetchConfiguration setEagerBatchSize(int size);
+
+    /**
+     * The maximum number of elements loaded into each inverse (mapped by)
+     * collection that is fetched eagerly, in the order of the collection.
+     * Returns -1 for no limit, the default.
+     *
+     * @since 4.2.0
+     */
+    int getEagerCollectionLimit();
+
+    /**
+     * The maximum number of elements loaded into each inverse (mapped by)
+     * collection that is fetched eagerly, in the order of the collection.
+     * Use -1 for no limit. Collections that reach the limit may only hold
+     * part of their elements, so they are not stored in the data cache.
+     *
+     * @since 4.2.0
+     */
+    JDBCFetchConfiguration setEagerCollectionLimit(int limit);
+
     /**
      * Return the subclass fetch mode. Defaults to the
      * <code>openjpa.jdbc.SubclassFetchMode</code> setting.
@@ -21,10 +21,12 @@ package org.apache.openjpa.jdbc.kernel;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.openjpa.conf.OpenJPAConfiguration;
 import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
@@ -67,6 +69,8 @@ public class JDBCFetchConfigurationImpl
         String[] prefixes = {"openjpa.FetchPlan", "openjpa.jdbc"};
         Class<?> target = JDBCFetchConfiguration.class;
         populateHintSetter(target, "EagerFetchMode", int.class, prefixes);
+        populateHintSetter(target, "EagerBatchSize", int.class, prefixes);
+        populateHintSetter(target, "EagerCollectionLimit", int.class, prefixes);
         populateHintSetter(target, "FetchDirection", int.class, prefixes);
         populateHintSetter(target, "Isolation", int.class, prefixes);
         populateHintSetter(target, "setIsolation", "TransactionIsolation", int.class, "openjpa.jdbc");
@@ -84,6 +88,8 @@ public class JDBCFetchConfigurationImpl
         
         private static final long serialVersionUID = 1L;
         public int eagerMode = 0;
+        public int eagerBatchSize = 100;
+        public int eagerCollectionLimit = -1;
         public int subclassMode = 0;
         public int type = 0;
         public int direction = 0;
@@ -121,6 +127,7 @@ public class JDBCFetchConfigurationImpl
             return;
 
         setEagerFetchMode(conf.getEagerFetchModeConstant());
+        setEagerBatchSize(conf.getEagerBatchSize());
         setSubclassFetchMode(conf.getSubclassFetchModeConstant());
         setResultSetType(conf.getResultSetTypeConstant());
         setFetchDirection(conf.getFetchDirectionConstant());
@@ -133,6 +140,8 @@ public class JDBCFetchConfigurationImpl
         super.copy(fetch);
         JDBCFetchConfiguration jf = (JDBCFetchConfiguration) fetch;
         setEagerFetchMode(jf.getEagerFetchMode());
+        setEagerBatchSize(jf.getEagerBatchSize());
+        setEagerCollectionLimit(jf.getEagerCollectionLimit());
         setSubclassFetchMode(jf.getSubclassFetchMode());
         setResultSetType(jf.getResultSetType());
         setFetchDirection(jf.getFetchDirection());
@@ -162,7 +171,9 @@ public class JDBCFetchConfigurationImpl
         if (mode != DEFAULT
             && mode != EagerFetchModes.EAGER_NONE
             && mode != EagerFetchModes.EAGER_JOIN
-            && mode != EagerFetchModes.EAGER_PARALLEL)
+            && mode != EagerFetchModes.EAGER_PARALLEL
+            && mode != EagerFetchModes.EAGER_BATCH
+            && mode != EagerFetchModes.EAGER_SUBSELECT)
             throw new IllegalArgumentException(_loc.get("bad-fetch-mode", mode).getMessage());
 
         if (mode == DEFAULT) {
@@ -175,6 +186,35 @@ public class JDBCFetchConfigurationImpl
         return this;
     }
 
+    @Override
+    public int getEagerBatchSize() {
+        return _state.eagerBatchSize;
+    }
+
+    @Override
+    public JDBCFetchConfiguration setEagerBatchSize(int size) {
+        if (size == DEFAULT) {
+            JDBCConfiguration conf = getJDBCConfiguration();
+            if (conf != null)
+                _state.eagerBatchSize = conf.getEagerBatchSize();
+        } else if (size > 1)
+            _state.eagerBatchSize = size;
+        else
+            throw new IllegalArgumentException(_loc.get("bad-eager-batch-size", size).getMessage());
+        return this;
+    }
+
+    @Override
+    public int getEagerCollectionLimit() {
+        return _state.eagerCollectionLimit;
+    }
+
+    @Override
+    public JDBCFetchConfiguration setEagerCollectionLimit(int limit) {
+        _state.eagerCollectionLimit = (limit > 0) ? limit : -1;
+        return this;
+    }
+
     @Override
     public int getSubclassFetchMode() {
         return _state.subclassMode;
@@ -195,7 +235,8 @@ public class JDBCFetchConfigurationImpl
         if (mode != DEFAULT
             && mode != EagerFetchModes.EAGER_NONE
             && mode != EagerFetchModes.EAGER_JOIN
-            && mode != EagerFetchModes.EAGER_PARALLEL)
+            && mode != EagerFetchModes.EAGER_PARALLEL
+            && mode != EagerFetchModes.EAGER_BATCH)
             throw new IllegalArgumentException(_loc.get("bad-fetch-mode", mode).getMessage());
 
         if (mode == DEFAULT) {
@@ -426,6 +467,16 @@ public class JDBCFetchConfigurationImpl
         return this;
     }
 
+    @Override
+    public Object getFetchPlanKey() {
+        Object key = super.getFetchPlanKey();
+        if (key == null)
+            return null;
+        return Arrays.asList(key, _state.eagerMode, _state.subclassMode,
+            _state.syntax, _state.isolationLevel, _state.ignoreDfgForFkSelect,
+            new TreeSet<>(getJoins()), new TreeSet<>(getFetchInnerJoins()));
+    }
+
     @Override
     public JDBCFetchConfiguration traverseJDBC(FieldMetaData fm) {
         return (JDBCFetchConfiguration) traverse(fm);
@@ -18,6 +18,11 @@
  */
 package org.apache.openjpa.jdbc.kernel;
 
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -27,6 +32,9 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,11 +49,15 @@ import org.apache.openjpa.jdbc.meta.ClassMapping;
 import org.apache.openjpa.jdbc.meta.Discriminator;
 import org.apache.openjpa.jdbc.meta.FieldMapping;
 import org.apache.openjpa.jdbc.meta.ValueMapping;
+import org.apache.openjpa.jdbc.meta.strats.FlatClassStrategy;
+import org.apache.openjpa.jdbc.meta.strats.FullClassStrategy;
 import org.apache.openjpa.jdbc.meta.strats.SuperclassDiscriminatorStrategy;
+import org.apache.openjpa.jdbc.schema.Column;
 import org.apache.openjpa.jdbc.sql.DBDictionary;
 import org.apache.openjpa.jdbc.sql.JoinSyntaxes;
 import org.apache.openjpa.jdbc.sql.Joins;
 import org.apache.openjpa.jdbc.sql.Result;
+import org.apache.openjpa.jdbc.sql.SQLBuffer;
 import org.apache.openjpa.jdbc.sql.SQLExceptions;
 import org.apache.openjpa.jdbc.sql.SQLFactory;
 import org.apache.openjpa.jdbc.sql.Select;
@@ -54,6 +66,7 @@ import org.apache.openjpa.jdbc.sql.Union;
 import org.apache.openjpa.kernel.BrokerImpl;
 import org.apache.openjpa.kernel.FetchConfiguration;
 import org.apache.openjpa.kernel.FinderCache;
+import org.apache.openjpa.kernel.LockLevels;
 import org.apache.openjpa.kernel.LockManager;
 import org.apache.openjpa.kernel.OpenJPAStateManager;
 import org.apache.openjpa.kernel.PCState;
@@ -69,6 +82,7 @@ import org.apache.openjpa.lib.jdbc.DelegatingStatement;
 import org.apache.openjpa.lib.log.Log;
 import org.apache.openjpa.lib.rop.MergedResultObjectProvider;
 import org.apache.openjpa.lib.rop.ResultObjectProvider;
+import org.apache.openjpa.lib.util.Closeable;
 import org.apache.openjpa.lib.util.Localizer;
 import org.apache.openjpa.meta.ClassMetaData;
 import org.apache.openjpa.meta.FieldMetaData;
@@ -102,6 +116,7 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
     private JDBCLockManager _lm = null;
     private DataSource _ds = null;
     private RefCountConnection _conn = null;
+    private BatchingPreparedStatementManagerImpl _deferredBatch = null;
     private boolean _active = false;
     private Log _log = null;
 
@@ -203,6 +218,8 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
 
     @Override
     public void commit() {
+        // a failure leaves the transaction active, so that it rolls back
+        flushDeferredBatch();
         try {
             if (!_ctx.isManaged() || !_conf.isConnectionFactoryModeManaged())
                 _conn.commit();
@@ -219,6 +236,8 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
 
     @Override
     public void rollback() {
+        releaseDeferredBatch();
+
         // already rolled back ourselves?
         if (!_active)
             return;
@@ -254,10 +273,52 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
 
     @Override
     public Connection getConnection() {
+        flushDeferredBatch();
         connect(true);
         return _conn;
     }
 
+    /**
+     * Keep the given batch open until a statement outside of the update
+     * manager's flushes needs the connection, or the transaction ends.
+     *
+     * @see AbstractUpdateManager#setDeferredBatchFlush
+     * @since 4.2.0
+     */
+    public void setDeferredBatch(BatchingPreparedStatementManagerImpl psMgr) {
+        _deferredBatch = psMgr;
+    }
+
+    /**
+     * Return the batch left open by the last flush, if any, without
+     * executing it. The caller takes over the batch.
+     *
+     * @since 4.2.0
+     */
+    public BatchingPreparedStatementManagerImpl removeDeferredBatch() {
+        BatchingPreparedStatementManagerImpl psMgr = _deferredBatch;
+        _deferredBatch = null;
+        return psMgr;
+    }
+
+    /**
+     * Execute the batch left open by the last flush, if any.
+     */
+    private void flushDeferredBatch() {
+        BatchingPreparedStatementManagerImpl psMgr = removeDeferredBatch();
+        if (psMgr != null)
+            psMgr.flushDeferredBatch();
+    }
+
+    /**
+     * Discard the batch left open by the last flush, if any.
+     */
+    private void releaseDeferredBatch() {
+        BatchingPreparedStatementManagerImpl psMgr = removeDeferredBatch();
+        if (psMgr != null)
+            psMgr.releaseDeferredBatch();
+    }
+
     protected DataSource getDataSource() {
         return _ds;
     }
@@ -705,7 +766,8 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
                         _log.trace("load field: '"+ fms[i].getName() + "' for oid="+sm.getObjectId()
                             +" "+mapping.getDescribedType());
                     }
-                    fms[i].load(sm, this, jfetch.traverseJDBC(fms[i]));
+                    if (!loadBatch(sm, fms[i], jfetch))
+                        fms[i].load(sm, this, jfetch.traverseJDBC(fms[i]));
                 }
             mapping.getVersion().afterLoad(sm, this);
             return true;
@@ -744,7 +806,174 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
     @Override
     public Collection loadAll(Collection sms, PCState state, int load,
         FetchConfiguration fetch, Object context) {
-        return ImplHelper.loadAll(sms, this, state, load, fetch, context);
+        if (context != null || sms.size() < 2
+            || fetch.getReadLockLevel() != LockLevels.LOCK_NONE)
+            return ImplHelper.loadAll(sms, this, state, load, fetch, context);
+
+        // initialize hollow instances of the same type in IN-list batches;
+        // everything else goes through the per-instance path
+        List<OpenJPAStateManager> rest = new ArrayList<>(sms.size());
+        Collection<Object> failed;
+        try {
+            failed = initializeAll(sms, state, (JDBCFetchConfiguration) fetch,
+                rest);
+        } catch (ClassNotFoundException cnfe) {
+            throw new UserException(cnfe);
+        } catch (SQLException se) {
+            throw SQLExceptions.getStore(se, _dict, fetch.getReadLockLevel());
+        }
+        Collection<?> restFailed = ImplHelper.loadAll(rest, this, state, load,
+            fetch, context);
+        if (failed == null)
+            return restFailed;
+        failed.addAll(restFailed);
+        return failed;
+    }
+
+    /**
+     * Initialize the hollow state managers among the given ones whose
+     * mapping allows it with one select per type and IN-list chunk, sized by
+     * {@link DBDictionary#inClauseLimit}. State managers that cannot be
+     * batched are added to <code>rest</code>.
+     *
+     * @return the ids of the instances that were not found, or null
+     */
+    private Collection<Object> initializeAll(Collection sms, PCState state,
+        JDBCFetchConfiguration fetch, List<OpenJPAStateManager> rest)
+        throws ClassNotFoundException, SQLException {
+        Map<ClassMapping, List<OpenJPAStateManager>> batches = null;
+        OpenJPAStateManager sm;
+        ClassMapping mapping;
+        List<OpenJPAStateManager> batch;
+        for (Object o : sms) {
+            sm = (OpenJPAStateManager) o;
+            mapping = (ClassMapping) sm.getMetaData();
+            if (sm.getManagedInstance() != null
+                || !(sm.getObjectId() instanceof OpenJPAId)
+                || (((OpenJPAId) sm.getObjectId()).hasSubclasses()
+                && mapping.getPCSubclasses().length > 0)
+                || !isBatchInitializable(mapping)) {
+                rest.add(sm);
+                continue;
+            }
+            if (batches == null)
+                batches = new LinkedHashMap<>();
+            batch = batches.get(mapping);
+            if (batch == null) {
+                batch = new ArrayList<>();
+                batches.put(mapping, batch);
+            }
+            batch.add(sm);
+        }
+        if (batches == null)
+            return null;
+
+        Collection<Object> failed = null;
+        int limit;
+        for (Map.Entry<ClassMapping, List<OpenJPAStateManager>> entry
+            : batches.entrySet()) {
+            batch = entry.getValue();
+            if (batch.size() == 1) {
+                rest.add(batch.get(0));
+                continue;
+            }
+            limit = (_dict.inClauseLimit > 0) ? _dict.inClauseLimit
+                : batch.size();
+            for (int low = 0, high; low < batch.size(); low = high) {
+                high = Math.min(low + limit, batch.size());
+                failed = initializeAll(entry.getKey(), batch.subList(low, high),
+                    state, fetch, failed);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Whether instances of the given mapping can be initialized from a
+     * select of their own table by a single primary key column.
+     */
+    private static boolean isBatchInitializable(ClassMapping mapping) {
+        if (!mapping.isMapped() || mapping.getEmbeddingMetaData() != null
+            || !(mapping.getStrategy() instanceof FullClassStrategy
+            || mapping.getStrategy() instanceof FlatClassStrategy))
+            return false;
+        ClassMapping base = mapping;
+        while (base.getJoinablePCSuperclassMapping() != null)
+            base = base.getJoinablePCSuperclassMapping();
+        return base.getTable() == mapping.getTable()
+            && base.isPrimaryKeyObjectId(false)
+            && base.getPrimaryKeyColumns().length == 1;
+    }
+
+    /**
+     * Initialize the given state managers of the given mapping from a
+     * single select restricting the primary key to their ids.
+     */
+    private Collection<Object> initializeAll(ClassMapping mapping,
+        List<OpenJPAStateManager> sms, PCState state,
+        JDBCFetchConfiguration fetch, Collection<Object> failed)
+        throws ClassNotFoundException, SQLException {
+        ClassMapping base = mapping;
+        while (base.getJoinablePCSuperclassMapping() != null)
+            base = base.getJoinablePCSuperclassMapping();
+        Column pk = base.getPrimaryKeyColumns()[0];
+
+        // set the where clause before selecting, so that any eager clones
+        // carry the restriction too
+        Select sel = _sql.newSelect();
+        SQLBuffer buf = new SQLBuffer(_dict);
+        buf.append(sel.getColumnAlias(pk)).append(" IN (");
+        Map<Object, OpenJPAStateManager> byId = new HashMap<>
+            ((int) (sms.size() * 1.33 + 1));
+        for (OpenJPAStateManager sm : sms) {
+            // skip instances already loaded through an eager join of an
+            // earlier batch
+            if (sm.getManagedInstance() != null)
+                continue;
+            if (!byId.isEmpty())
+                buf.append(", ");
+            buf.appendValue(base.toPrimaryKeyValue(sm.getObjectId(), pk, this),
+                pk);
+            byId.put(((OpenJPAId) sm.getObjectId()).getIdObject(), sm);
+        }
+        if (byId.isEmpty())
+            return failed;
+        buf.append(")");
+        sel.where(buf);
+        sel.select(mapping, Select.SUBS_EXACT, this, fetch,
+            Math.min(fetch.getEagerFetchMode(), EagerFetchModes.EAGER_JOIN));
+        if (_log.isTraceEnabled())
+            _log.trace("initializeAll: " + sms.size() + " instances of "
+                + mapping.getDescribedType());
+
+        Result res = sel.execute(this, fetch);
+        try {
+            Object oid;
+            OpenJPAStateManager sm;
+            ConnectionInfo info;
+            while (res.next()) {
+                oid = base.getObjectId(this, res, null, true, null);
+                if (!(oid instanceof OpenJPAId))
+                    continue;
+                sm = byId.remove(((OpenJPAId) oid).getIdObject());
+                if (sm == null || sm.getManagedInstance() != null)
+                    continue;
+                info = new ConnectionInfo();
+                info.result = res;
+                info.mapping = mapping;
+                if (!initializeState(sm, state, fetch, info))
+                    byId.put(((OpenJPAId) oid).getIdObject(), sm);
+            }
+        } finally {
+            res.close();
+        }
+
+        for (OpenJPAStateManager sm : byId.values()) {
+            if (failed == null)
+                failed = new ArrayList<>();
+            failed.add(sm.getId());
+        }
+        return failed;
     }
 
     @Override
@@ -931,7 +1160,7 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
         // decide between paging and standard iteration
         BitSet paged = PagingResultObjectProvider.getPagedFields(sel, mapping,
             this, fetch, EagerFetchModes.EAGER_PARALLEL,
-            Long.MAX_VALUE);
+            Long.MAX_VALUE, subclasses);
         if (paged == null)
             sel.selectIdentifier(mapping, subs, this, fetch,
                 EagerFetchModes.EAGER_PARALLEL);
@@ -993,6 +1222,7 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
 
     @Override
     public void close() {
+        releaseDeferredBatch();
         if (_conn != null)
             _conn.free();
     }
@@ -1226,7 +1456,8 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
 
         // optionally select subclass mappings
         if (subs == Select.SUBS_JOINABLE || subs == Select.SUBS_ANY_JOINABLE)
-            selectSubclassMappings(sel, mapping, sm, fetch);
+            selectSubclassMappings(sel, mapping, sm, fetch,
+                (ident) ? sel.getCandidateClassMeta() : null);
         if (sm != null)
             sel.setDistinct(false);
         return seld > 0;
@@ -1473,14 +1704,23 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
      * @param mapping the type whose subclasses to select
      * @param sm the instance being selected for, or null if none
      * @param fetch the fetch configuration
+     * @param types the concrete types the selected instances can have, or
+     * null if not restricted
      */
     private void selectSubclassMappings(Select sel, ClassMapping mapping,
-        OpenJPAStateManager sm, JDBCFetchConfiguration fetch) {
+        OpenJPAStateManager sm, JDBCFetchConfiguration fetch,
+        Collection<ClassMapping> types) {
         loadSubclasses(mapping);
         ClassMapping[] subMappings = mapping.getJoinablePCSubclassMappings();
         if (subMappings.length == 0)
             return;
 
+        // subclasses that cannot hold any of the types of the selected
+        // instances need not be joined, as long as the discriminator and
+        // not the presence of subclass rows tells the types apart
+        boolean prune = mapping.getDiscriminator() != null
+            && mapping.getDiscriminator().getColumns().length > 0;
+
         // select all subclass mappings that match the fetch configuration
         // and whose table is in the list of those selected so far; this
         // way we select the max possible without selecting any tables that
@@ -1490,9 +1730,13 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
         // primary table data
         FieldMapping[] fms;
         boolean joined;
+        int mode = fetch.getSubclassFetchMode(mapping);
         boolean canJoin = _dict.joinSyntax != JoinSyntaxes.SYNTAX_TRADITIONAL
-            && fetch.getSubclassFetchMode(mapping) != EagerFetchModes.EAGER_NONE;
+            && mode != EagerFetchModes.EAGER_NONE
+            && mode != EagerFetchModes.EAGER_BATCH;
         for (ClassMapping subMapping : subMappings) {
+            if (prune && !holdsType(subMapping, types))
+                continue;
             if (!subMapping.supportsEagerSelect(sel, sm, this, mapping,
                     fetch))
                 continue;
@@ -1525,6 +1769,26 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
         }
     }
 
+    /**
+     * Whether the given mapping or one of its subclasses is concrete and,
+     * unless the given types are null, one of them.
+     */
+    private static boolean holdsType(ClassMapping mapping,
+        Collection<ClassMapping> types) {
+        if (isCandidateType(mapping, types))
+            return true;
+        for (ClassMapping sub : mapping.getMappedPCSubclassMappings())
+            if (isCandidateType(sub, types))
+                return true;
+        return false;
+    }
+
+    private static boolean isCandidateType(ClassMapping mapping,
+        Collection<ClassMapping> types) {
+        return !Modifier.isAbstract(mapping.getDescribedType().getModifiers())
+            && (types == null || types.contains(mapping));
+    }
+
     /**
      * Helper method to join from class to its subclass. Recursive to allow
      * for multiple hops, starting from the base class.
@@ -1583,6 +1847,302 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
         _stmnts.remove(stmnt);
     }
 
+    /**
+     * Whether the given field is loaded in {@link EagerFetchModes#EAGER_BATCH}
+     * mode under the given fetch configuration.
+     */
+    static boolean isBatched(FieldMapping fm, JDBCFetchConfiguration fetch) {
+        int mode = fm.getEagerFetchMode();
+        if (mode == FetchConfiguration.DEFAULT)
+            mode = fetch.getEagerFetchMode();
+        return mode == EagerFetchModes.EAGER_BATCH;
+    }
+
+    /**
+     * Whether the data of the subclasses of the given mapping that is held
+     * in other tables is loaded in {@link EagerFetchModes#EAGER_BATCH}
+     * subclass fetch mode under the given fetch configuration.
+     */
+    static boolean isSubclassBatched(ClassMapping mapping,
+        JDBCFetchConfiguration fetch) {
+        if (fetch.getSubclassFetchMode(mapping) != EagerFetchModes.EAGER_BATCH)
+            return false;
+        for (ClassMapping sub : mapping.getJoinablePCSubclassMappings())
+            if (sub.getTable() != mapping.getTable())
+                return true;
+        return false;
+    }
+
+    /**
+     * Load the data that the query reading the given instances of the given
+     * mapping left out, such as the fields in the tables of their subclass,
+     * with a single select restricted to their primary keys.
+     */
+    void loadSubclassBatch(ClassMapping mapping, Object[] pcs,
+        JDBCFetchConfiguration fetch)
+        throws SQLException {
+        Select sel = _sql.newSelect();
+        if (!select(sel, mapping, Select.SUBS_EXACT, null, null, fetch,
+            EagerFetchModes.EAGER_JOIN, true, false))
+            return;
+        PagingResultObjectProvider.where(sel, mapping, pcs, 0, pcs.length,
+            this);
+        Result res = sel.execute(this, fetch);
+        try {
+            while (res.next())
+                load(mapping, fetch, null, res);
+        } finally {
+            res.close();
+        }
+    }
+
+    /**
+     * Record that the instances of the given page of query results were
+     * read together, so that loading a batched relation of one of them
+     * loads it for all of them.
+     */
+    void setBatchGroup(Object[] page) {
+        BatchGroup group = new BatchGroup(page.length);
+        for (Object pc : page)
+            addToBatchGroup(group, pc);
+    }
+
+    /**
+     * Whether the given field is loaded in
+     * {@link EagerFetchModes#EAGER_SUBSELECT} mode under the given fetch
+     * configuration.
+     */
+    static boolean isSubselected(FieldMapping fm,
+        JDBCFetchConfiguration fetch) {
+        int mode = fm.getEagerFetchMode();
+        if (mode == FetchConfiguration.DEFAULT)
+            mode = fetch.getEagerFetchMode();
+        return mode == EagerFetchModes.EAGER_SUBSELECT;
+    }
+
+    /**
+     * Return a group for the instances of the given mapping read by the
+     * given query select, retaining the conditions of the select so that
+     * loading a relation of one of them in
+     * {@link EagerFetchModes#EAGER_SUBSELECT} mode loads it for all of them.
+     * A ranged select cannot restrict the relations to its range, so its
+     * group loads them by the primary keys of its members instead.
+     * Return null if no relation of the mapping is loaded in that mode.
+     *
+     * @param sel the select of the query, before any data is selected
+     * @param ranged whether the query reads a range of its results
+     */
+    BatchGroup newSubselectGroup(Select sel, ClassMapping mapping,
+        boolean subclasses, boolean ranged, JDBCFetchConfiguration fetch) {
+        if (ranged || sel.getFromSelect() != null) {
+            for (FieldMapping fm : mapping.getFieldMappings())
+                if (isSubselected(fm, fetch)
+                    && fetch.requiresFetch(fm) == FetchConfiguration.FETCH_NONE)
+                    return new BatchGroup(16);
+            return null;
+        }
+        // the relations the query leaves for the group to load
+        Select where = (Select) sel.whereClone(1);
+        BitSet fields = new BitSet();
+        for (FieldMapping fm : mapping.getFieldMappings())
+            if (isSubselected(fm, fetch)
+                && fetch.requiresFetch(fm) == FetchConfiguration.FETCH_NONE
+                && fm.supportsSelect(where, Select.EAGER_PARALLEL, null, this,
+                fetch) > 0)
+                fields.set(fm.getIndex());
+        if (fields.isEmpty())
+            return null;
+
+        // add the class conditions the query adds when selecting the mapping
+        loadSubclasses(mapping);
+        mapping.getDiscriminator().addClassConditions(where, subclasses,
+            null);
+        where.setAutoDistinct(true);
+        return new BatchGroup(mapping, where, fields);
+    }
+
+    /**
+     * Add the given instance to the given group, unless it belongs to
+     * something else than a group.
+     */
+    void addToBatchGroup(BatchGroup group, Object pc) {
+        OpenJPAStateManager sm = (pc == null) ? null
+            : _ctx.getStateManager(pc);
+        if (sm != null && sm.getImplData() != group
+            && (sm.getImplData() == null
+            || sm.getImplData() instanceof BatchGroup)) {
+            sm.setImplData(group, false);
+            group.add(sm);
+        }
+    }
+
+    /**
+     * Load the given batched relation for the instance and all other
+     * instances of its batch group that have not loaded it yet, using a
+     * select restricted to their primary keys. If the group retains the
+     * conditions of the query that read it, a relation in subselect mode is
+     * loaded with a select restricted by those conditions instead. Members
+     * without rows in the result of that select, because they no longer
+     * match the conditions or have no related rows, load the relation with
+     * one more select restricted to their primary keys, and move to a group
+     * of their own. The group releases the retained select and its members
+     * once all its relations in subselect mode are loaded.
+     *
+     * @return false if the field is not loaded in the mode of the group or
+     * the instance is not part of a batch group
+     */
+    private boolean loadBatch(OpenJPAStateManager sm, FieldMapping fm,
+        JDBCFetchConfiguration fetch)
+        throws SQLException {
+        if (!(sm.getImplData() instanceof BatchGroup)
+            || sm.isDelayed(fm.getIndex()))
+            return false;
+        BatchGroup group = (BatchGroup) sm.getImplData();
+        ClassMapping mapping = fm.getDefiningMapping();
+        boolean subselect = group.getMapping() != null;
+        if (!subselect) {
+            if (!isBatched(fm, fetch) && !isSubselected(fm, fetch))
+                return false;
+        } else if (group.getSelect() == null || !isSubselected(fm, fetch)
+            || !mapping.getDescribedType().isAssignableFrom
+            (group.getMapping().getDescribedType()))
+            return false;
+
+        // collect the instances of the group that still need the field
+        List<OpenJPAStateManager> members = group.getMembers();
+        List<Object> pcs = new ArrayList<>(members.size());
+        pcs.add(sm.getPersistenceCapable());
+        for (OpenJPAStateManager other : members) {
+            if (other != sm && other.getContext() == _ctx
+                && other.isPersistent() && !other.isNew()
+                && !other.isDeleted()
+                && other.getPCState() != PCState.HOLLOW
+                && !other.getLoaded().get(fm.getIndex())
+                && !other.isDelayed(fm.getIndex())
+                && mapping.getDescribedType().isAssignableFrom
+                (other.getMetaData().getDescribedType()))
+                pcs.add(other.getPersistenceCapable());
+        }
+        if (pcs.size() == 1) {
+            if (subselect)
+                setLoaded(group, fm);
+            return false;
+        }
+
+        fetch = fetch.traverseJDBC(fm);
+        // the relation is not loaded eagerly, so load it in full
+        if (fetch.getEagerCollectionLimit() > 0) {
+            fetch = (JDBCFetchConfiguration) fetch.clone();
+            fetch.setEagerCollectionLimit(-1);
+        }
+        List<Object> missing = (subselect) ? new ArrayList<>() : null;
+        if (!loadBatch(fm, group.getSelect(), pcs.toArray(), fetch, missing))
+            return false;
+        if (subselect) {
+            if (!missing.isEmpty()) {
+                // load the instances without rows by their primary keys, and
+                // keep them together for their other relations
+                BatchGroup rest = new BatchGroup(missing.size());
+                for (Object pc : missing) {
+                    leaveBatchGroup(group, _ctx.getStateManager(pc));
+                    addToBatchGroup(rest, pc);
+                }
+                loadBatch(fm, null, missing.toArray(), fetch, null);
+            }
+            setLoaded(group, fm);
+        }
+        return true;
+    }
+
+    /**
+     * Select the given relation for the given instances with a select
+     * restricted by the given retained conditions, or by the primary keys of
+     * the instances if null, and load it into them.
+     *
+     * @param missing if not null, the instances without rows in the result
+     * are added to it rather than loaded
+     * @return false if the relation cannot be selected in parallel
+     */
+    private boolean loadBatch(FieldMapping fm, Select where, Object[] page,
+        JDBCFetchConfiguration fetch, List<Object> missing)
+        throws SQLException {
+        Select sel = (where == null) ? _sql.newSelect()
+            : (Select) where.whereClone(1);
+        int unions = fm.supportsSelect(sel, Select.EAGER_PARALLEL, null, this,
+            fetch);
+        if (unions == 0)
+            return false;
+        if (where == null)
+            PagingResultObjectProvider.where(sel, fm.getDefiningMapping(),
+                page, 0, page.length, this);
+        SelectExecutor esel = (unions > 1) ? sel.whereClone(unions) : sel;
+        fm.selectEagerParallel(esel, null, this, fetch,
+            EagerFetchModes.EAGER_PARALLEL);
+        Object res = esel.execute(this, fetch);
+        try {
+            for (int i = 0; i < page.length; i++) {
+                OpenJPAStateManager member = _ctx.getStateManager(page[i]);
+                // the result is processed into a map of the relations of
+                // each instance when loading the first one
+                if (missing != null && i > 0 && res instanceof Map
+                    && !((Map) res).containsKey(member.getObjectId())) {
+                    missing.add(page[i]);
+                    continue;
+                }
+                res = fm.loadEagerParallel(member, this, fetch, res);
+                if (missing != null && i == 0
+                    && isEmpty(member.fetchObject(fm.getIndex())))
+                    missing.add(page[i]);
+            }
+        } finally {
+            if (res instanceof Closeable)
+                try {
+                    ((Closeable) res).close();
+                } catch (Exception e) {
+                }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the given relation value holds no instance.
+     */
+    private static boolean isEmpty(Object val) {
+        if (val == null)
+            return true;
+        if (val instanceof Collection)
+            return ((Collection<?>) val).isEmpty();
+        if (val instanceof Map)
+            return ((Map<?, ?>) val).isEmpty();
+        if (val.getClass().isArray())
+            return Array.getLength(val) == 0;
+        return false;
+    }
+
+    /**
+     * Remove the given instance from the given group, so that it loads its
+     * relations on its own.
+     */
+    private static void leaveBatchGroup(BatchGroup group,
+        OpenJPAStateManager sm) {
+        if (sm.getImplData() == group)
+            sm.setImplData(null, false);
+        group.remove(sm);
+    }
+
+    /**
+     * Record that the given relation in subselect mode is loaded for the
+     * given group, and release the group once all are.
+     */
+    private static void setLoaded(BatchGroup group, FieldMapping fm) {
+        if (!group.setLoaded(fm))
+            return;
+        for (OpenJPAStateManager member : group.getMembers())
+            if (member.getImplData() == group)
+                member.setImplData(null, false);
+        group.release();
+    }
+
     FinderQueryImpl getFinder(ClassMapping mapping, FetchConfiguration fetch) {
         FinderCache cache = getFinderCache();
         return cache == null
@@ -1600,6 +2160,108 @@ public class JDBCStoreManager implements StoreManager, JDBCStore {
              ? getConfiguration().getFinderCacheInstance() : null;
     }
 
+    /**
+     * Instances of a page of query results whose batched relations are
+     * loaded together, or instances read by a query whose relations in
+     * subselect mode are loaded together. The group references its members
+     * weakly, as each member references the group.
+     */
+    static class BatchGroup
+        implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient ClassMapping _mapping;
+        private transient Select _sel;
+        private transient BitSet _pending;
+        private transient List<Reference<OpenJPAStateManager>> _members;
+
+        public BatchGroup(int size) {
+            _mapping = null;
+            _members = new ArrayList<>(size);
+        }
+
+        public BatchGroup(ClassMapping mapping, Select sel, BitSet pending) {
+            _mapping = mapping;
+            _sel = sel;
+            _pending = pending;
+            _members = new ArrayList<>();
+        }
+
+        /**
+         * The mapping of the query candidates, or null for a page.
+         */
+        public ClassMapping getMapping() {
+            return _mapping;
+        }
+
+        /**
+         * The conditions of the query that read the instances, or null for
+         * a page or once the group is released.
+         */
+        public Select getSelect() {
+            return _sel;
+        }
+
+        /**
+         * Add the given member.
+         */
+        public void add(OpenJPAStateManager sm) {
+            if (_members != null)
+                _members.add(new WeakReference<>(sm));
+        }
+
+        /**
+         * Remove the given member.
+         */
+        public void remove(OpenJPAStateManager sm) {
+            if (_members == null)
+                return;
+            for (Iterator<Reference<OpenJPAStateManager>> itr =
+                _members.iterator(); itr.hasNext();) {
+                OpenJPAStateManager member = itr.next().get();
+                if (member == null || member == sm)
+                    itr.remove();
+            }
+        }
+
+        /**
+         * The members that are still referenced.
+         */
+        public List<OpenJPAStateManager> getMembers() {
+            if (_members == null)
+                return Collections.emptyList();
+            List<OpenJPAStateManager> members =
+                new ArrayList<>(_members.size());
+            for (Reference<OpenJPAStateManager> ref : _members) {
+                OpenJPAStateManager member = ref.get();
+                if (member != null)
+                    members.add(member);
+            }
+            return members;
+        }
+
+        /**
+         * Record that the given relation is loaded for the members, and
+         * return whether all relations in subselect mode are.
+         */
+        public boolean setLoaded(FieldMapping fm) {
+            if (_pending == null)
+                return false;
+            _pending.clear(fm.getIndex());
+            return _pending.isEmpty();
+        }
+
+        /**
+         * Drop the retained select and the members.
+         */
+        public void release() {
+            _sel = null;
+            _pending = null;
+            _members = null;
+        }
+    }
+
     /**
      * Connection returned to client code. Makes sure its wrapped connection ref count is decremented on finalize.
      */
@@ -41,6 +41,7 @@ import org.apache.openjpa.jdbc.kernel.exps.QueryExpressionsState;
 import org.apache.openjpa.jdbc.kernel.exps.SQLEmbed;
 import org.apache.openjpa.jdbc.kernel.exps.SQLExpression;
 import org.apache.openjpa.jdbc.kernel.exps.SQLValue;
+import org.apache.openjpa.jdbc.kernel.exps.SelectConstructor;
 import org.apache.openjpa.jdbc.kernel.exps.Val;
 import org.apache.openjpa.jdbc.meta.ClassMapping;
 import org.apache.openjpa.jdbc.meta.Discriminator;
@@ -60,6 +61,7 @@ import org.apache.openjpa.kernel.ExpressionStoreQuery;
 import org.apache.openjpa.kernel.Filters;
 import org.apache.openjpa.kernel.OpenJPAStateManager;
 import org.apache.openjpa.kernel.OrderingMergedResultObjectProvider;
+import org.apache.openjpa.kernel.PreparedQueryCache;
 import org.apache.openjpa.kernel.QueryHints;
 import org.apache.openjpa.kernel.exps.Constant;
 import org.apache.openjpa.kernel.exps.Context;
@@ -170,6 +172,20 @@ public class JDBCStoreQuery
                 subclasses, facts, exps, params, range);
         }
 
+        // leave out the independent mappings, such as the tables of a
+        // table-per-class hierarchy, that hold none of the types the
+        // conditions of the query can match
+        if (metas.length > 1) {
+            BitSet keep = getCandidateMappings((ClassMapping[]) metas,
+                (ClassMapping) base, exps);
+            int size = keep.cardinality();
+            if (size > 0 && size < metas.length) {
+                metas = retain(metas, keep, new ClassMapping[size]);
+                facts = retain(facts, keep, new ExpressionFactory[size]);
+                exps = retain(exps, keep, new QueryExpressions[size]);
+            }
+        }
+
         Context[] ctxs = new Context[exps.length];
         for (int i = 0; i < exps.length; i++)
             ctxs[i] = exps[i].ctx();
@@ -210,16 +226,36 @@ public class JDBCStoreQuery
         boolean unionable = createWhereSelects(sels, mappings, selMappings,
             subclasses, subclassBits, nextBits, facts, exps, states, ctx,
             subclassMode)
-            && subclassMode == EagerFetchModes.EAGER_JOIN
+            && (subclassMode == EagerFetchModes.EAGER_JOIN
+            || subclassMode == EagerFetchModes.EAGER_BATCH)
             && start == 0
             && end == Long.MAX_VALUE;
 
+        // report the joins the selects leave out of their SQL
+        PreparedQueryCache cache = _store.getConfiguration().
+            getQuerySQLCacheInstance();
+        if (cache != null && cache.getEnableStatistics())
+            for (Object sel : sels)
+                if (sel instanceof SelectImpl)
+                    ((SelectImpl) sel).setQueryStatistics(
+                        cache.getStatistics(), this.ctx.getQueryString());
+
         // we might want to use lrs settings if we can't use the range
         if (sels.size() > 1)
             start = 0L;
         boolean lrs = range.lrs || (fetch.getFetchBatchSize() >= 0
             && (start != range.start || end != range.end));
 
+        // retain the conditions of a query for all its results, so that
+        // relations in subselect mode load for all of them at once
+        JDBCStoreManager.BatchGroup group = null;
+        if (sels.size() == 1 && exps[0].projections.length == 0
+            && _store instanceof JDBCStoreManager)
+            group = ((JDBCStoreManager) _store).newSubselectGroup(
+                (Select) sels.get(0), (ClassMapping) selMappings.get(0),
+                subclasses, range.start != 0 || range.end != Long.MAX_VALUE,
+                fetch);
+
         ResultObjectProvider[] rops = null;
         ResultObjectProvider rop = null;
         if (unionable) {
@@ -228,7 +264,8 @@ public class JDBCStoreQuery
             BitSet[] paged = populateUnion(union, mappings, subclasses, facts,
                 exps, states, ctx, lrs, eager, start, end);
             union.setLRS(lrs);
-            rop = executeUnion(union, mappings, exps, states, ctx, paged);
+            rop = executeUnion(union, mappings, exps, states, ctx, paged,
+                group);
         } else {
             if (sels.size() > 1)
                 rops = new ResultObjectProvider[sels.size()];
@@ -242,7 +279,7 @@ public class JDBCStoreQuery
                     exps[idx], states[idx], ctx, lrs, eager, start, end);
 
                 rop = executeSelect(sel, (ClassMapping) selMappings.get(i),
-                    exps[idx], states[idx], ctx, paged, start, end);
+                    exps[idx], states[idx], ctx, paged, start, end, group);
                 if (rops != null)
                     rops[i] = rop;
 
@@ -269,6 +306,38 @@ public class JDBCStoreQuery
         return rop;
     }
 
+    /**
+     * Return the indexes of the given independent mappings that hold one of
+     * the types the conditions of the query can match.
+     */
+    private static BitSet getCandidateMappings(ClassMapping[] mappings,
+        ClassMapping base, QueryExpressions[] exps) {
+        BitSet keep = new BitSet(mappings.length);
+        Collection<ClassMapping> types;
+        for (int i = 0; i < mappings.length; i++) {
+            types = SelectConstructor.getCandidateTypes(base, exps[i]);
+            if (types == null)
+                keep.set(i);
+            else
+                for (ClassMapping type : types)
+                    if (mappings[i].getDescribedType().isAssignableFrom
+                        (type.getDescribedType()))
+                        keep.set(i);
+        }
+        return keep;
+    }
+
+    /**
+     * Copy the elements of the given array at the given indexes into the
+     * given array.
+     */
+    private static <T> T[] retain(T[] elems, BitSet keep, T[] retained) {
+        for (int i = keep.nextSetBit(0), j = 0; i >= 0;
+            i = keep.nextSetBit(i + 1))
+            retained[j++] = elems[i];
+        return retained;
+    }
+
     /**
      * Select data for the given union, returning paged fields.
      */
@@ -305,7 +374,7 @@ public class JDBCStoreQuery
         BitSet paged = null;
         if (exps.projections.length == 0) {
             paged = PagingResultObjectProvider.getPagedFields(sel, mapping,
-                _store, ctx.fetch, eager, end - start);
+                _store, ctx.fetch, eager, end - start, subclasses);
             if (paged != null)
                 eager = EagerFetchModes.EAGER_JOIN;
         }
@@ -320,7 +389,8 @@ public class JDBCStoreQuery
      */
     private ResultObjectProvider executeUnion(Union union,
         ClassMapping[] mappings, QueryExpressions[] exps,
-        QueryExpressionsState[] states, ExpContext ctx, BitSet[] paged) {
+        QueryExpressionsState[] states, ExpContext ctx, BitSet[] paged,
+        JDBCStoreManager.BatchGroup group) {
         if (exps[0].projections.length > 0)
             return new ProjectionResultObjectProvider(union, exps, states, ctx);
 
@@ -330,6 +400,9 @@ public class JDBCStoreQuery
                     return new PagingResultObjectProvider(union, mappings,
                             _store, ctx.fetch, paged, Long.MAX_VALUE);
 
+        if (group != null)
+            return new SubselectResultObjectProvider(union, mappings[0],
+                _store, ctx.fetch, group);
         return new InstanceResultObjectProvider(union, mappings[0], _store,
             ctx.fetch);
     }
@@ -339,12 +412,16 @@ public class JDBCStoreQuery
      */
     private ResultObjectProvider executeSelect(Select sel, ClassMapping mapping,
         QueryExpressions exps, QueryExpressionsState state, ExpContext ctx,
-        BitSet paged, long start, long end) {
+        BitSet paged, long start, long end,
+        JDBCStoreManager.BatchGroup group) {
         if (exps.projections.length > 0)
             return new ProjectionResultObjectProvider(sel, exps, state, ctx);
         if (paged != null)
             return new PagingResultObjectProvider(sel, mapping, _store,
                 ctx.fetch, paged, end - start);
+        if (group != null)
+            return new SubselectResultObjectProvider(sel, mapping, _store,
+                ctx.fetch, group);
         return new InstanceResultObjectProvider(sel, mapping, _store,
             ctx.fetch);
     }
@@ -377,6 +454,9 @@ public class JDBCStoreQuery
             // create criteria select and clone for each vert mapping
             sel = ((JDBCExpressionFactory) facts[i]).getSelectConstructor().
                 evaluate(ctx, null, null, exps[i], states[i]);
+            if (subclasses)
+                sel.setCandidateClassMeta(SelectConstructor.getCandidateTypes
+                    (mappings[i], exps[i]));
             if (optHint != null)
                sel.setExpectedResultCount(optHint.intValue(), true);
             else if (this.ctx.isUnique())
@@ -23,6 +23,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.MessageFormat;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.openjpa.conf.OpenJPAConfiguration;
 import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
@@ -85,6 +86,11 @@ public class NativeJDBCSeq
     private boolean alreadyLoggedAlterSeqFailure = false;
     private boolean alreadyLoggedAlterSeqDisabled = false;
 
+    // guards the cached value range; a j.u.c. lock rather than a monitor
+    // because allocation talks to the database while holding it, and a
+    // monitor would pin the carrier of a virtual thread for that time
+    private final ReentrantLock _lock = new ReentrantLock();
+
     /**
      * The sequence name. Defaults to <code>OPENJPA_SEQUENCE</code>.
      */
@@ -199,18 +205,23 @@ public class NativeJDBCSeq
     }
 
     @Override
-    protected synchronized Object nextInternal(JDBCStore store, ClassMapping mapping)
+    protected Object nextInternal(JDBCStore store, ClassMapping mapping)
         throws SQLException {
-        if (!alterIncrementBy) {
-            allocateInternal(0, store, mapping);
-            alterIncrementBy = true;
-        }
-        if (_nextValue >= _maxValue) {
-            allocateInternal(0, store, mapping);
+        _lock.lock();
+        try {
+            if (!alterIncrementBy) {
+                allocateInternal(0, store, mapping);
+                alterIncrementBy = true;
+            }
+            if (_nextValue >= _maxValue) {
+                allocateInternal(0, store, mapping);
+            }
+            long result = _nextValue;
+            _nextValue += _increment;
+            return result;
+        } finally {
+            _lock.unlock();
         }
-        long result = _nextValue;
-        _nextValue += _increment;
-        return result;
     }
 
     /**
@@ -220,47 +231,52 @@ public class NativeJDBCSeq
      * @param mapping ignored
      */
     @Override
-    protected synchronized void allocateInternal(int additional, JDBCStore store, ClassMapping mapping)
+    protected void allocateInternal(int additional, JDBCStore store, ClassMapping mapping)
         throws SQLException {
-        Connection conn = getConnection(store);
+        _lock.lock();
         try {
-            if (!alterIncrementBy) {
-                DBDictionary dict = _conf.getDBDictionaryInstance();
-                if (!dict.disableAlterSeqenceIncrementBy) {
-                    // If this fails, we will warn the user at most one time and set _allocated and _increment to 1 so
-                    // as to not potentially insert records ahead of what the database thinks is the next sequence
-                    // value.
-
-                    // first we have to allocate a new connection as some databases do an implicit commit
-                    // if a DDL gets changed. Others do blow up on a DDL change
-                    try (Connection newConn = getConnection(store, true)) {
-                        if (updateSql(newConn, dict.getAlterSequenceSQL(_seq)) == -1) {
-                            newConn.commit(); // new connection has autoCommit=false
-                            if (!alreadyLoggedAlterSeqFailure) {
-                                Log log = _conf.getLog(OpenJPAConfiguration.LOG_RUNTIME);
-                                if (log.isWarnEnabled()) {
-                                    log.warn(_loc.get("fallback-no-seq-cache", _seqName));
+            Connection conn = getConnection(store);
+            try {
+                if (!alterIncrementBy) {
+                    DBDictionary dict = _conf.getDBDictionaryInstance();
+                    if (!dict.disableAlterSeqenceIncrementBy) {
+                        // If this fails, we will warn the user at most one time and set _allocated and _increment to 1 so
+                        // as to not potentially insert records ahead of what the database thinks is the next sequence
+                        // value.
+
+                        // first we have to allocate a new connection as some databases do an implicit commit
+                        // if a DDL gets changed. Others do blow up on a DDL change
+                        try (Connection newConn = getConnection(store, true)) {
+                            if (updateSql(newConn, dict.getAlterSequenceSQL(_seq)) == -1) {
+                                newConn.commit(); // new connection has autoCommit=false
+                                if (!alreadyLoggedAlterSeqFailure) {
+                                    Log log = _conf.getLog(OpenJPAConfiguration.LOG_RUNTIME);
+                                    if (log.isWarnEnabled()) {
+                                        log.warn(_loc.get("fallback-no-seq-cache", _seqName));
+                                    }
                                 }
+                                alreadyLoggedAlterSeqFailure = true;
+                                _allocate = 1;
                             }
-                            alreadyLoggedAlterSeqFailure = true;
-                            _allocate = 1;
                         }
-                    }
-                } else {
-                    if (!alreadyLoggedAlterSeqDisabled) {
-                        Log log = _conf.getLog(OpenJPAConfiguration.LOG_RUNTIME);
-                        if (log.isWarnEnabled()) {
-                            log.warn(_loc.get("alter-seq-disabled", _seqName));
+                    } else {
+                        if (!alreadyLoggedAlterSeqDisabled) {
+                            Log log = _conf.getLog(OpenJPAConfiguration.LOG_RUNTIME);
+                            if (log.isWarnEnabled()) {
+                                log.warn(_loc.get("alter-seq-disabled", _seqName));
+                            }
                         }
-                    }
 
-                    alreadyLoggedAlterSeqDisabled = true;
+                        alreadyLoggedAlterSeqDisabled = true;
+                    }
                 }
+                _nextValue = getSequence(conn);
+                _maxValue = _nextValue + (long) _allocate * _increment;
+            } finally {
+                closeConnection(conn);
             }
-            _nextValue = getSequence(conn);
-            _maxValue = _nextValue + (long) _allocate * _increment;
         } finally {
-            closeConnection(conn);
+            _lock.unlock();
         }
     }
 
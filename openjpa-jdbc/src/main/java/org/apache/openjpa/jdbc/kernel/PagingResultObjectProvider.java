@@ -19,8 +19,12 @@
 package org.apache.openjpa.jdbc.kernel;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.openjpa.jdbc.meta.ClassMapping;
 import org.apache.openjpa.jdbc.meta.FieldMapping;
@@ -60,6 +64,9 @@ public class PagingResultObjectProvider
     private final Object[] _page;
     private final int[] _idxs;
     private final BitSet[] _paged;
+    private final BitSet[] _excludes;
+    private final boolean _batched;
+    private final boolean _subclasses;
     private int _pos = -1; // logical pos
     private int _pagePos = -1; // pos of page start
 
@@ -73,6 +80,15 @@ public class PagingResultObjectProvider
     public static BitSet getPagedFields(Select sel, ClassMapping mapping,
         JDBCStore store, JDBCFetchConfiguration fetch, int eagerMode,
         long size) {
+        // batched fields are paged whenever the select may read more than
+        // one instance
+        if (eagerMode >= EagerFetchModes.EAGER_PARALLEL && size > 1) {
+            BitSet paged = getBatchedFields(sel, mapping, store, fetch,
+                eagerMode);
+            if (paged != null)
+                return paged;
+        }
+
         // if we have a range then we always use paging if there are any
         // eager select fields; otherwise it depends on lrs and fetch settings
         if (size == Long.MAX_VALUE || !sel.getAutoDistinct()) {
@@ -83,7 +99,38 @@ public class PagingResultObjectProvider
             if (fetch.getFetchBatchSize() < 0)
                 return null;
         }
+        return getParallelFields(sel, mapping, store, fetch, eagerMode);
+    }
 
+    /**
+     * Return a bit set representing batch select fields that will be paged,
+     * or null if this provider should not be used. When the select includes
+     * subclasses whose data is loaded in {@link EagerFetchModes#EAGER_BATCH}
+     * subclass fetch mode, the instances are read in pages regardless, and
+     * the returned set may be empty.
+     *
+     * @see #getPagedFields(Select, ClassMapping, JDBCStore,
+     * JDBCFetchConfiguration, int, long)
+     * @since 4.2.0
+     */
+    public static BitSet getPagedFields(Select sel, ClassMapping mapping,
+        JDBCStore store, JDBCFetchConfiguration fetch, int eagerMode,
+        long size, boolean subclasses) {
+        BitSet paged = getPagedFields(sel, mapping, store, fetch, eagerMode,
+            size);
+        if (paged != null || !subclasses || size <= 1
+            || !JDBCStoreManager.isSubclassBatched(mapping, fetch))
+            return paged;
+        paged = getParallelFields(sel, mapping, store, fetch, eagerMode);
+        return (paged == null) ? new BitSet() : paged;
+    }
+
+    /**
+     * Return a bit set representing the fields of the given mapping that
+     * use parallel selects, or null if none.
+     */
+    private static BitSet getParallelFields(Select sel, ClassMapping mapping,
+        JDBCStore store, JDBCFetchConfiguration fetch, int eagerMode) {
         // not configured for eager selects?
         eagerMode = Math.min(eagerMode, fetch.getEagerFetchMode());
         if (eagerMode != EagerFetchModes.EAGER_PARALLEL)
@@ -107,6 +154,39 @@ public class PagingResultObjectProvider
         return paged;
     }
 
+    /**
+     * Return a bit set representing the fields of the given mapping that
+     * are loaded in {@link EagerFetchModes#EAGER_BATCH} mode with separate
+     * selects, along with the fields that would otherwise use parallel
+     * selects, or null if no relation of the mapping is loaded in batch
+     * mode. The returned set is empty if all batched relations are lazy.
+     */
+    private static BitSet getBatchedFields(Select sel, ClassMapping mapping,
+        JDBCStore store, JDBCFetchConfiguration fetch, int eagerMode) {
+        boolean parallel = Math.min(eagerMode, fetch.getEagerFetchMode())
+            == EagerFetchModes.EAGER_PARALLEL;
+        FieldMapping[] fms = mapping.getFieldMappings();
+        BitSet paged = new BitSet();
+        boolean batched = false;
+        boolean batch;
+        for (FieldMapping fm : fms) {
+            if (fm.supportsSelect(sel, Select.EAGER_PARALLEL, null, store,
+                fetch) == 0)
+                continue;
+            batch = JDBCStoreManager.isBatched(fm, fetch);
+            batched |= batch;
+            if ((!batch && !parallel)
+                || fetch.requiresFetch(fm) != FetchConfiguration.FETCH_LOAD)
+                continue;
+
+            // to-one relations that can be joined still are
+            if (fm.isEagerSelectToMany() || fm.supportsSelect(sel,
+                Select.EAGER_OUTER, null, store, fetch) == 0)
+                paged.set(fm.getIndex());
+        }
+        return (batched) ? paged : null;
+    }
+
     /**
      * Constructor.
      *
@@ -153,9 +233,17 @@ public class PagingResultObjectProvider
         // it.  if the batch size is set, then use that; if it's sorta close
         // to the size, then use the size / 2 to get two full pages rather
         // than a possible big one and small one
+        // pages of batched fields hold as many instances as a batch
         int batch = getFetchConfiguration().getFetchBatchSize();
         int pageSize;
-        if (batch < 0)
+        _batched = isBatched(mappings, getFetchConfiguration());
+        _subclasses = isSubclassBatched(mappings, getFetchConfiguration());
+        _excludes = (_subclasses) ? getExcludedFields(mappings,
+            getFetchConfiguration(), paged) : paged;
+        if (_batched || _subclasses)
+            pageSize = (int) Math.min(size,
+                getFetchConfiguration().getEagerBatchSize());
+        else if (batch < 0)
             pageSize = (int) size;
         else {
             if (batch == 0)
@@ -178,6 +266,61 @@ public class PagingResultObjectProvider
             _idxs = null;
     }
 
+    /**
+     * Whether any field of the given mappings is loaded in
+     * {@link EagerFetchModes#EAGER_BATCH} mode, in which case the pages
+     * also group the instances for lazy loading.
+     */
+    private static boolean isBatched(ClassMapping[] mappings,
+        JDBCFetchConfiguration fetch) {
+        for (ClassMapping mapping : mappings)
+            for (FieldMapping fm : mapping.getFieldMappings())
+                if (JDBCStoreManager.isBatched(fm, fetch))
+                    return true;
+        return false;
+    }
+
+    /**
+     * Whether the data of the subclasses of any of the given mappings is
+     * loaded in {@link EagerFetchModes#EAGER_BATCH} subclass fetch mode,
+     * in which case it is loaded for the whole page with one select per
+     * subclass.
+     */
+    private static boolean isSubclassBatched(ClassMapping[] mappings,
+        JDBCFetchConfiguration fetch) {
+        for (ClassMapping mapping : mappings)
+            if (JDBCStoreManager.isSubclassBatched(mapping, fetch))
+                return true;
+        return false;
+    }
+
+    /**
+     * Return the fields to exclude from the initial load of the instances
+     * of each of the given mappings: its paged fields, along with the fields
+     * of its subclasses if their data is loaded for whole pages.
+     */
+    private static BitSet[] getExcludedFields(ClassMapping[] mappings,
+        JDBCFetchConfiguration fetch, BitSet[] paged) {
+        BitSet[] excludes = new BitSet[mappings.length];
+        int fields;
+        int subFields;
+        for (int i = 0; i < mappings.length; i++) {
+            excludes[i] = paged[i];
+            if (!JDBCStoreManager.isSubclassBatched(mappings[i], fetch))
+                continue;
+
+            // subclass fields follow the fields of their superclasses
+            fields = mappings[i].getFieldMappings().length;
+            subFields = fields;
+            for (ClassMapping sub : mappings[i].getJoinablePCSubclassMappings())
+                subFields = Math.max(subFields, sub.getFieldMappings().length);
+            excludes[i] = (paged[i] == null) ? new BitSet(subFields)
+                : (BitSet) paged[i].clone();
+            excludes[i].set(fields, subFields);
+        }
+        return excludes;
+    }
+
     /**
      * Return the page size in use.
      */
@@ -256,13 +399,17 @@ public class PagingResultObjectProvider
             // the store manager so we can pass in our eager-fetched fields as
             // fields to exclude from the initial load of the objects
             _page[i] = storeMgr.load(mapping, getFetchConfiguration(),
-                _paged[idx], res);
+                _excludes[idx], res);
             if (i != _page.length - 1 && !getResult().next()) {
                 setSize(_pos + i + 1);
                 break;
             }
         }
 
+        // let lazy batched fields of one instance load for the whole page
+        if (_batched)
+            storeMgr.setBatchGroup(_page);
+
         // load data for eager fields
         _pagePos = _pos;
         if (_page[0] != null) {
@@ -270,7 +417,40 @@ public class PagingResultObjectProvider
                 loadEagerFields();
             else
                 executeEagerSelects();
+            if (_subclasses)
+                loadSubclasses();
+        }
+    }
+
+    /**
+     * Load the data of the instances of the current page that belong to
+     * subclasses of the selected mappings, with one select per subclass.
+     */
+    private void loadSubclasses()
+        throws SQLException {
+        JDBCStoreManager storeMgr = (JDBCStoreManager) getStore();
+        StoreContext ctx = storeMgr.getContext();
+        JDBCFetchConfiguration fetch = getFetchConfiguration();
+        Map<ClassMapping, List<Object>> subs = new LinkedHashMap<>();
+        OpenJPAStateManager sm;
+        ClassMapping mapping;
+        List<Object> pcs;
+        for (int i = 0; i < _page.length && _page[i] != null; i++) {
+            sm = ctx.getStateManager(_page[i]);
+            mapping = (ClassMapping) sm.getMetaData();
+            if (mapping == _mappings[(_idxs == null) ? 0 : _idxs[i]]
+                || sm.getUnloaded(fetch).isEmpty())
+                continue;
+            pcs = subs.get(mapping);
+            if (pcs == null) {
+                pcs = new ArrayList<>();
+                subs.put(mapping, pcs);
+            }
+            pcs.add(_page[i]);
         }
+        for (Map.Entry<ClassMapping, List<Object>> entry : subs.entrySet())
+            storeMgr.loadSubclassBatch(entry.getKey(),
+                entry.getValue().toArray(), fetch);
     }
 
     /**
@@ -344,14 +524,7 @@ public class PagingResultObjectProvider
         // create where condition limiting instances to this page
         JDBCStore store = getStore();
         Select sel = store.getSQLFactory().newSelect();
-        DBDictionary dict = store.getDBDictionary();
-        SQLBuffer buf = new SQLBuffer(dict);
-        Column[] pks = mapping.getPrimaryKeyColumns();
-        if (pks.length == 1)
-            createInContains(sel, dict, buf, mapping, pks, start, end);
-        else
-            orContains(sel, buf, mapping, pks, start, end);
-        sel.where(buf);
+        where(sel, mapping, _page, start, end, store);
 
         StoreContext ctx = store.getContext();
         JDBCFetchConfiguration fetch = getFetchConfiguration();
@@ -397,21 +570,39 @@ public class PagingResultObjectProvider
         }
     }
 
+    /**
+     * Add a where condition limiting the given select to the given range of
+     * the given instances of the given mapping.
+     */
+    static void where(Select sel, ClassMapping mapping, Object[] page,
+        int start, int end, JDBCStore store) {
+        DBDictionary dict = store.getDBDictionary();
+        SQLBuffer buf = new SQLBuffer(dict);
+        Column[] pks = mapping.getPrimaryKeyColumns();
+        if (pks.length == 1)
+            createInContains(sel, dict, buf, mapping, pks, page, start, end,
+                store);
+        else
+            orContains(sel, buf, mapping, pks, page, start, end, store);
+        sel.where(buf);
+    }
+
     /**
      *  Based on the DBDictionary, create the needed IN clauses.
      */
-    private void createInContains(Select sel, DBDictionary dict, SQLBuffer buf,
-        ClassMapping mapping, Column[] pks, int start, int end) {
+    private static void createInContains(Select sel, DBDictionary dict,
+        SQLBuffer buf, ClassMapping mapping, Column[] pks, Object[] page,
+        int start, int end, JDBCStore store) {
         int inClauseLimit = dict.inClauseLimit;
         if (inClauseLimit <= 0 || end - start <= inClauseLimit)
-            inContains(sel, buf, mapping, pks, start, end);
+            inContains(sel, buf, mapping, pks, page, start, end, store);
         else {
             buf.append("(");
             for (int low = start, high; low < end; low = high) {
                 if (low > start)
                     buf.append(" OR ");
                 high = Math.min(low + inClauseLimit, end);
-                inContains(sel, buf, mapping, pks, low, high);
+                inContains(sel, buf, mapping, pks, page, low, high, store);
             }
             buf.append(")");
         }
@@ -420,14 +611,15 @@ public class PagingResultObjectProvider
     /**
      * Create an IN clause limiting the results to the current page.
      */
-    private void inContains(Select sel, SQLBuffer buf, ClassMapping mapping,
-        Column[] pks, int start, int end) {
+    private static void inContains(Select sel, SQLBuffer buf,
+        ClassMapping mapping, Column[] pks, Object[] page, int start, int end,
+        JDBCStore store) {
         buf.append(sel.getColumnAlias(pks[0])).append(" IN (");
-        for (int i = start; i < end && _page[i] != null; i++) {
+        for (int i = start; i < end && page[i] != null; i++) {
             if (i > start)
                 buf.append(", ");
-            buf.appendValue(mapping.toDataStoreValue(_page[i], pks,
-                getStore()), pks[0]);
+            buf.appendValue(mapping.toDataStoreValue(page[i], pks,
+                store), pks[0]);
         }
         buf.append(")");
     }
@@ -435,20 +627,21 @@ public class PagingResultObjectProvider
     /**
      * Create OR conditions limiting the results to the curent page.
      */
-    private void orContains(Select sel, SQLBuffer buf, ClassMapping mapping,
-        Column[] pks, int start, int end) {
+    private static void orContains(Select sel, SQLBuffer buf,
+        ClassMapping mapping, Column[] pks, Object[] page, int start, int end,
+        JDBCStore store) {
         String[] aliases = new String[pks.length];
         for (int i = 0; i < pks.length; i++)
             aliases[i] = sel.getColumnAlias(pks[i]);
 
         Object[] vals;
         buf.append("(");
-        for (int i = start; i < end && _page[i] != null; i++) {
+        for (int i = start; i < end && page[i] != null; i++) {
             if (i > start)
                 buf.append(" OR ");
 
-            vals = (Object[]) mapping.toDataStoreValue(_page[i], pks,
-                getStore());
+            vals = (Object[]) mapping.toDataStoreValue(page[i], pks,
+                store);
             buf.append("(");
             for (int j = 0; j < vals.length; j++) {
                 if (j > 0)
@@ -192,7 +192,7 @@ public class PreparedQueryImpl implements PreparedQuery {
             return new PreparedQueryCacheImpl.StrongExclusion(_id,
                 _loc.get("exclude-user-strategy", _id).getMessage());
 
-        if (isPaginated())
+        if (isPaginated() && !isKeysetPage(buffer))
             return new PreparedQueryCacheImpl.StrongExclusion(_id,
                 _loc.get("exclude-pagination", _id).getMessage());
 
@@ -243,6 +243,9 @@ public class PreparedQueryImpl implements PreparedQuery {
         if (provider instanceof RangeResultObjectProvider) {
             provider = ((RangeResultObjectProvider)provider).getDelegate();
         }
+        if (provider instanceof SubselectResultObjectProvider) {
+            return new Object[]{null, _loc.get("exclude-subselect-fetch", _id)};
+        }
         if (provider instanceof SelectResultObjectProvider) {
             return new Object[]{((SelectResultObjectProvider)provider).getSelect(), null};
         }
@@ -283,6 +286,25 @@ public class PreparedQueryImpl implements PreparedQuery {
         }
         return false;
     }
+
+    /**
+     * Whether the given SQL binds the values of a keyset and selects the
+     * leading rows only. Its identifier then includes the page size, so that
+     * every page of that size can run it.
+     */
+    private boolean isKeysetPage(SQLBuffer buffer) {
+        if (select.getStartIndex() != 0)
+            return false;
+        List<?> list = buffer.getUserParameters();
+        for (int i = 1; i < list.size(); i += 2) {
+            Object key = ((Parameter) list.get(i)).getParameterKey();
+            if (key instanceof String
+                && ((String) key).startsWith(KEYSET_PARAMETER))
+                return true;
+        }
+        return false;
+    }
+
     private boolean isUsingFieldStrategy() {
         for (QueryExpressions exp : _exps) {
             if (isUsingFieldStrategy(exp)) {
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.kernel;
+
+import java.sql.SQLException;
+
+import org.apache.openjpa.jdbc.meta.ClassMapping;
+import org.apache.openjpa.jdbc.sql.SelectExecutor;
+
+/**
+ * Object provider for the instances read by a query that have relations
+ * loaded in {@link EagerFetchModes#EAGER_SUBSELECT} mode. Every instance it
+ * returns joins a group retaining the conditions of the query, so that the
+ * first access to such a relation of one of them loads it for all of them.
+ *
+ * @since 4.2.0
+ */
+class SubselectResultObjectProvider
+    extends InstanceResultObjectProvider {
+
+    private final JDBCStoreManager.BatchGroup _group;
+
+    /**
+     * Constructor.
+     *
+     * @param sel the select to execute
+     * @param mapping the mapping for the base class of the result objects
+     * @param store the store to delegate loading to
+     * @param fetch the fetch configuration, or null for default
+     * @param group the group the result objects join
+     */
+    public SubselectResultObjectProvider(SelectExecutor sel,
+        ClassMapping mapping, JDBCStore store, JDBCFetchConfiguration fetch,
+        JDBCStoreManager.BatchGroup group) {
+        super(sel, mapping, store, fetch);
+        _group = group;
+    }
+
+    @Override
+    public Object getResultObject()
+        throws SQLException {
+        Object ret = super.getResultObject();
+        ((JDBCStoreManager) getStore()).addToBatchGroup(_group, ret);
+        return ret;
+    }
+}
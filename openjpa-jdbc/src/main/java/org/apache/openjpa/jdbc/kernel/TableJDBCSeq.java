@@ -25,6 +25,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 import jakarta.transaction.NotSupportedException;
 
@@ -300,13 +301,16 @@ public class TableJDBCSeq extends AbstractJDBCSeq implements Configurable {
                 getClass(), mapping));
 
         while (true) {
-            synchronized (stat) {
+            stat.lock.lock();
+            try {
                 // make sure seq is at least 1, since autoassigned ids of 0 can
                 // conflict with uninitialized values
                 stat.seq = Math.max(stat.seq, 1);
                 if (stat.seq < stat.max)
                     return stat.seq++;
                 allocateSequence(store, mapping, stat, _alloc, true);
+            } finally {
+                stat.lock.unlock();
             }
         }
     }
@@ -343,10 +347,13 @@ public class TableJDBCSeq extends AbstractJDBCSeq implements Configurable {
 
         while (true) {
             int available;
-            synchronized (stat) {
+            stat.lock.lock();
+            try {
                 available = (int) (stat.max - stat.seq);
                 if (available >= count)
                     return;
+            } finally {
+                stat.lock.unlock();
             }
             allocateSequence(store, mapping, stat, count - available, false);
         }
@@ -625,11 +632,14 @@ public class TableJDBCSeq extends AbstractJDBCSeq implements Configurable {
         }
 
         // setup new sequence range
-        synchronized (stat) {
+        stat.lock.lock();
+        try {
             if (updateStatSeq && stat.seq < cur)
                 stat.seq = cur;
             if (stat.max < cur + inc)
                 stat.max = cur + inc;
+        } finally {
+            stat.lock.unlock();
         }
         return true;
     }
@@ -814,12 +824,15 @@ public class TableJDBCSeq extends AbstractJDBCSeq implements Configurable {
     }
 
     /**
-     * Helper struct to hold status information.
+     * Helper struct to hold status information. The lock guards the range
+     * and is held while a new range is fetched from the database, so it
+     * must not be a monitor: a monitor would pin virtual threads.
      */
     protected static class Status implements Serializable {
         private static final long serialVersionUID = 1L;
         public long seq = 1L;
         public long max = 0L;
+        public final ReentrantLock lock = new ReentrantLock();
     }
 
     /**
@@ -45,6 +45,20 @@ class AndExpression
         _exp2 = exp2;
     }
 
+    /**
+     * The first combined expression.
+     */
+    Exp getExpression1() {
+        return _exp1;
+    }
+
+    /**
+     * The second combined expression.
+     */
+    Exp getExpression2() {
+        return _exp2;
+    }
+
     @Override
     public ExpState initialize(Select sel, ExpContext ctx, Map contains) {
         ExpState s1 = _exp1.initialize(sel, ctx, contains);
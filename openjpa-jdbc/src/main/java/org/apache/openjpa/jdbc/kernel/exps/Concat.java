@@ -18,7 +18,6 @@
  */
 package org.apache.openjpa.jdbc.kernel.exps;
 
-import java.lang.Math;
 import java.sql.SQLException;
 
 import org.apache.openjpa.jdbc.meta.JavaSQLTypes;
@@ -147,18 +146,9 @@ public class Concat
         DBDictionary dict = ctx.store.getDBDictionary();
         String func = dict.concatenateFunction;
         dict.assertSupport(func != null, "ConcatenateFunction");
-        int part1idx = func.indexOf("{0}");
-        int part2idx = func.indexOf("{1}");
-        String part1 = func.substring(0, Math.min(part1idx, part2idx));
-        String part2 = func.substring(Math.min(part1idx, part2idx) + 3,
-            Math.max(part1idx, part2idx));
-        String part3 = func.substring(Math.max(part1idx, part2idx) + 3);
-
-        sql.append(part1);
-        _val1.appendTo(sel, ctx, bstate.state1, sql, 0);
-        sql.append(part2);
-        _val2.appendTo(sel, ctx, bstate.state2, sql, 0);
-        sql.append(part3);
+        dict.getFunctionTemplate(func).appendTo(sql,
+            b -> _val1.appendTo(sel, ctx, bstate.state1, b, 0),
+            b -> _val2.appendTo(sel, ctx, bstate.state2, b, 0));
     }
 
     @Override
@@ -25,6 +25,7 @@ import org.apache.openjpa.jdbc.meta.FieldMapping;
 import org.apache.openjpa.jdbc.schema.Column;
 import org.apache.openjpa.jdbc.schema.Table;
 import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.jdbc.sql.FunctionTemplate;
 import org.apache.openjpa.jdbc.sql.SQLBuffer;
 import org.apache.openjpa.jdbc.sql.Select;
 import org.apache.openjpa.kernel.exps.ExpressionVisitor;
@@ -70,9 +71,9 @@ class EndsWithExpression
         String pre = null;
         String post = null;
         if (func != null) {
-            int idx = func.indexOf("{0}");
-            pre = func.substring(0, idx);
-            post = func.substring(idx + 3);
+            FunctionTemplate template = dict.getFunctionTemplate(func);
+            pre = template.getPrefix();
+            post = template.getSuffix();
         }
 
         if (_val1 instanceof Const && ((Const) _val1).getValue(ctx,
@@ -145,18 +145,10 @@ public class ExtractDateTimeField extends AbstractVal {
         DBDictionary dict = ctx.store.getDBDictionary();
         String func = dict.extractDateTimeFieldFunction;
 
-        int fieldPart = func.indexOf("{0}");
-        int fromPart = func.indexOf("{1}");
-        String part1 = func.substring(0, fieldPart);
-        String part2 = func.substring(fieldPart + 3, fromPart);
-        String part3 = func.substring(fromPart + 3);
-
         ExtractDateTimeFieldExpState edtstate = (ExtractDateTimeFieldExpState) state;
-        sql.append(part1);
-        sql.append(dict.getExtractField(_field));
-        sql.append(part2);
-        _val.appendTo(sel, ctx, edtstate.valueState, sql, 0);
-        sql.append(part3);
+        dict.getFunctionTemplate(func).appendTo(sql,
+            b -> b.append(dict.getExtractField(_field)),
+            b -> _val.appendTo(sel, ctx, edtstate.valueState, b, 0));
     }
 
     @Override
@@ -44,6 +44,13 @@ class NotExpression
         _exp = exp;
     }
 
+    /**
+     * The negated expression.
+     */
+    Exp getExpression() {
+        return _exp;
+    }
+
     @Override
     public ExpState initialize(Select sel, ExpContext ctx, Map contains) {
         ExpState state = _exp.initialize(sel, ctx, contains);
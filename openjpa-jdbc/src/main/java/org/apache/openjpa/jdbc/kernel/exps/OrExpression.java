@@ -46,6 +46,20 @@ class OrExpression
         _exp2 = exp2;
     }
 
+    /**
+     * The first combined expression.
+     */
+    Exp getExpression1() {
+        return _exp1;
+    }
+
+    /**
+     * The second combined expression.
+     */
+    Exp getExpression2() {
+        return _exp2;
+    }
+
     @Override
     public ExpState initialize(Select sel, ExpContext ctx, Map contains) {
         // when OR'ing expressions each expression gets its own copy of the
@@ -19,9 +19,14 @@
 package org.apache.openjpa.jdbc.kernel.exps;
 
 import java.io.Serializable;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.openjpa.jdbc.kernel.JDBCStoreQuery;
 import org.apache.openjpa.jdbc.meta.ClassMapping;
@@ -29,6 +34,8 @@ import org.apache.openjpa.jdbc.sql.DBDictionary;
 import org.apache.openjpa.jdbc.sql.Joins;
 import org.apache.openjpa.jdbc.sql.SQLBuffer;
 import org.apache.openjpa.jdbc.sql.Select;
+import org.apache.openjpa.kernel.PreparedQuery;
+import org.apache.openjpa.kernel.QueryHints;
 import org.apache.openjpa.kernel.exps.AbstractExpressionVisitor;
 import org.apache.openjpa.kernel.exps.Constant;
 import org.apache.openjpa.kernel.exps.Context;
@@ -37,7 +44,9 @@ import org.apache.openjpa.kernel.exps.QueryExpressions;
 import org.apache.openjpa.kernel.exps.Subquery;
 import org.apache.openjpa.kernel.exps.Value;
 import org.apache.openjpa.lib.util.Localizer;
+import org.apache.openjpa.meta.ClassMetaData;
 import org.apache.openjpa.util.UnsupportedException;
+import org.apache.openjpa.util.UserException;
 
 /**
  * Turns parsed queries into selects.
@@ -94,6 +103,14 @@ public class SelectConstructor
         Select inner = sel.getFromSelect();
         SQLBuffer where = buildWhere((inner != null) ? inner : sel, ctx,
             state.filter, exps.filter);
+        Object keyset = (parent == null)
+            ? ctx.fetch.getHint(QueryHints.HINT_KEYSET) : null;
+        if (keyset != null) {
+            SQLBuffer after = buildKeyset((inner != null) ? inner : sel, ctx,
+                exps, state, keyset);
+            where = (where == null) ? after
+                : where.append(" AND ").append(after);
+        }
         if (where == null && exps.projections.length == 0
             && exps.ordering.length == 0
             && (sel.getJoins() == null || sel.getJoins().isEmpty())) {
@@ -317,6 +334,48 @@ public class SelectConstructor
         return where.append(")");
     }
 
+    /**
+     * Create the condition that restricts the results to those following
+     * the result with the given ordering values.
+     */
+    private SQLBuffer buildKeyset(Select sel, ExpContext ctx,
+        QueryExpressions exps, QueryExpressionsState state, Object keyset) {
+        Object[] vals = (keyset instanceof Object[]) ? (Object[]) keyset
+            : (keyset instanceof Collection) ? ((Collection<?>) keyset).toArray()
+            : new Object[]{ keyset };
+        if (exps.ordering.length == 0 || exps.grouping.length > 0)
+            throw new UserException(_loc.get("keyset-no-ordering"));
+        if (vals.length != exps.ordering.length)
+            throw new UserException(_loc.get("keyset-mismatch",
+                vals.length, exps.ordering.length));
+
+        DBDictionary dict = ctx.store.getDBDictionary();
+        SQLBuffer[] cols = new SQLBuffer[vals.length];
+        SQLBuffer[] params = new SQLBuffer[vals.length];
+        Val val;
+        ExpState estate;
+        for (int i = 0; i < vals.length; i++) {
+            val = (Val) exps.ordering[i];
+            estate = state.ordering[i];
+            if (vals[i] == null)
+                throw new UserException(_loc.get("keyset-null", i));
+            if (val.length(sel, ctx, estate) != 1)
+                throw new UserException(_loc.get("keyset-multi-column",
+                    exps.orderingClauses[i]));
+            cols[i] = new SQLBuffer(dict);
+            val.appendTo(sel, ctx, estate, cols[i], 0);
+            // bound as a user parameter, so that a cached prepared query
+            // can bind the keyset of the next page into the same SQL
+            params[i] = new SQLBuffer(dict).appendValue(
+                val.toDataStoreValue(sel, ctx, estate, vals[i]),
+                (val instanceof PCPath)
+                    ? ((PCPath) val).getColumns(estate)[0] : null,
+                new Param(PreparedQuery.KEYSET_PARAMETER + i,
+                    vals[i].getClass()));
+        }
+        return dict.getKeysetCondition(cols, params, exps.ascending);
+    }
+
     /**
      * Select the data for this query.
      */
@@ -402,6 +461,125 @@ public class SelectConstructor
         }
     }
 
+    /**
+     * Return the concrete types among the given mapping and its subclasses
+     * that the conditions of the given query can match, as far as its
+     * <code>TYPE()</code> comparisons of the candidate to type literals
+     * restrict them, or null if the conditions do not restrict them. Type
+     * parameters are not taken into account, so that the SQL of the query
+     * holds for any of their values.
+     *
+     * @since 4.2.0
+     */
+    public static Set<ClassMapping> getCandidateTypes(ClassMapping mapping,
+        QueryExpressions exps) {
+        if (!(exps.filter instanceof Exp))
+            return null;
+        Set<ClassMapping> all = new LinkedHashSet<>();
+        if (!Modifier.isAbstract(mapping.getDescribedType().getModifiers()))
+            all.add(mapping);
+        for (ClassMapping sub : mapping.getMappedPCSubclassMappings())
+            if (!Modifier.isAbstract(sub.getDescribedType().getModifiers()))
+                all.add(sub);
+        return getCandidateTypes((Exp) exps.filter, all);
+    }
+
+    /**
+     * Return the types among the given ones that the given condition can
+     * match, or null if it does not restrict them.
+     */
+    private static Set<ClassMapping> getCandidateTypes(Exp exp,
+        Set<ClassMapping> all) {
+        Set<ClassMapping> types1;
+        Set<ClassMapping> types2;
+        if (exp instanceof AndExpression) {
+            types1 = getCandidateTypes(((AndExpression) exp).getExpression1(),
+                all);
+            types2 = getCandidateTypes(((AndExpression) exp).getExpression2(),
+                all);
+            if (types1 == null)
+                return types2;
+            if (types2 != null)
+                types1.retainAll(types2);
+            return types1;
+        }
+        if (exp instanceof OrExpression) {
+            types1 = getCandidateTypes(((OrExpression) exp).getExpression1(),
+                all);
+            types2 = getCandidateTypes(((OrExpression) exp).getExpression2(),
+                all);
+            if (types1 == null || types2 == null)
+                return null;
+            types1.addAll(types2);
+            return types1;
+        }
+        if (exp instanceof NotExpression) {
+            // only the types matched by a condition on types alone are
+            // known not to match its negation
+            Exp negated = ((NotExpression) exp).getExpression();
+            if (!isTypeCondition(negated))
+                return null;
+            types1 = getCandidateTypes(negated, all);
+            types2 = new LinkedHashSet<>(all);
+            types2.removeAll(types1);
+            return types2;
+        }
+
+        if (!(exp instanceof EqualTypeExpression))
+            return null;
+        ClassMetaData lit = getLiteralType((EqualTypeExpression) exp);
+        if (lit == null)
+            return null;
+        types1 = new LinkedHashSet<>(all);
+        types1.retainAll(Collections.singleton(lit));
+        return types1;
+    }
+
+    /**
+     * Whether the given condition consists only of <code>TYPE()</code>
+     * comparisons of the candidate to type literals.
+     */
+    private static boolean isTypeCondition(Exp exp) {
+        if (exp instanceof AndExpression)
+            return isTypeCondition(((AndExpression) exp).getExpression1())
+                && isTypeCondition(((AndExpression) exp).getExpression2());
+        if (exp instanceof OrExpression)
+            return isTypeCondition(((OrExpression) exp).getExpression1())
+                && isTypeCondition(((OrExpression) exp).getExpression2());
+        if (exp instanceof NotExpression)
+            return isTypeCondition(((NotExpression) exp).getExpression());
+        return exp instanceof EqualTypeExpression
+            && getLiteralType((EqualTypeExpression) exp) != null;
+    }
+
+    /**
+     * Return the type the given comparison matches the candidate to, or
+     * null if it does not compare the type of the candidate to a literal.
+     */
+    private static ClassMetaData getLiteralType(EqualTypeExpression exp) {
+        Val type = exp.getValue1();
+        Val lit = exp.getValue2();
+        if (!(type instanceof Type)) {
+            type = exp.getValue2();
+            lit = exp.getValue1();
+        }
+        if (!(type instanceof Type) || !(lit instanceof TypeLit)
+            || !isCandidatePath(((Type) type).getValue()))
+            return null;
+        return lit.getMetaData();
+    }
+
+    /**
+     * Whether the given value is the path to the candidate itself.
+     */
+    private static boolean isCandidatePath(Val val) {
+        if (!(val instanceof PCPath))
+            return false;
+        PCPath path = (PCPath) val;
+        return !path.isVariablePath() && !path.isSubqueryPath()
+            && path.last() == null;
+    }
+
     /**
      * Used to check whether a query's result projections are on the candidate.
      */
@@ -25,6 +25,7 @@ import org.apache.openjpa.jdbc.meta.FieldMapping;
 import org.apache.openjpa.jdbc.schema.Column;
 import org.apache.openjpa.jdbc.schema.Table;
 import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.jdbc.sql.FunctionTemplate;
 import org.apache.openjpa.jdbc.sql.SQLBuffer;
 import org.apache.openjpa.jdbc.sql.Select;
 import org.apache.openjpa.kernel.exps.ExpressionVisitor;
@@ -90,9 +91,9 @@ class StartsWithExpression
             DBDictionary dict = ctx.store.getDBDictionary();
             String func = dict.stringLengthFunction;
             if (func != null) {
-                int idx = func.indexOf("{0}");
-                pre = func.substring(0, idx);
-                post = func.substring(idx + 3);
+                FunctionTemplate template = dict.getFunctionTemplate(func);
+                pre = template.getPrefix();
+                post = template.getSuffix();
             }
 
             // if we can't use LIKE, we have to take the substring of the
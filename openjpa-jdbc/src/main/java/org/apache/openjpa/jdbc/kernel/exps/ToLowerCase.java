@@ -52,11 +52,8 @@ public class ToLowerCase
         } else {
             func = dict.getCastFunction(getValue(), func);
         }
-
-        int idx = func.indexOf("{0}");
-        buf.append(func.substring(0, idx));
-        getValue().appendTo(sel, ctx, state, buf, index);
-        buf.append(func.substring(idx + 3));
+        dict.getFunctionTemplate(func).appendTo(buf,
+            b -> getValue().appendTo(sel, ctx, state, b, index));
     }
 
     @Override
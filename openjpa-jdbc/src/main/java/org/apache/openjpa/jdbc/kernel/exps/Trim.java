@@ -18,11 +18,11 @@
  */
 package org.apache.openjpa.jdbc.kernel.exps;
 
-import java.lang.Math;
 import java.sql.SQLException;
 
 import org.apache.openjpa.jdbc.meta.JavaSQLTypes;
 import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.jdbc.sql.FunctionTemplate;
 import org.apache.openjpa.jdbc.sql.Joins;
 import org.apache.openjpa.jdbc.sql.Result;
 import org.apache.openjpa.jdbc.sql.SQLBuffer;
@@ -177,34 +177,15 @@ public class Trim
             func = dict.trimTrailingFunction;
             dict.assertSupport(func != null, "TrimTrailingFunction");
         }
-        func = dict.getCastFunction(_val, func);
-
-        int fromPart = func.indexOf("{0}");
-        int charPart = func.indexOf("{1}");
-        if (charPart == -1)
-            charPart = func.length();
-        String part1 = func.substring(0, Math.min(fromPart, charPart));
-        String part2 = func.substring(Math.min(fromPart, charPart) + 3,
-            Math.max(fromPart, charPart));
-        String part3 = null;
-        if (charPart != func.length())
-            part3 = func.substring(Math.max(fromPart, charPart) + 3);
+        FunctionTemplate template = dict.getFunctionTemplate(
+            dict.getCastFunction(_val, func));
 
         TrimExpState tstate = (TrimExpState) state;
-        sql.append(part1);
-        if (fromPart < charPart)
-            _val.appendTo(sel, ctx, tstate.valueState, sql, 0);
-        else
-            _trimChar.appendTo(sel, ctx, tstate.charState, sql, 0);
-        sql.append(part2);
-
-        if (charPart != func.length()) {
-            if (fromPart > charPart)
-                _val.appendTo(sel, ctx, tstate.valueState, sql, 0);
-            else
-                _trimChar.appendTo(sel, ctx, tstate.charState, sql, 0);
-            sql.append(part3);
-        } else {
+        template.appendTo(sql,
+            b -> _val.appendTo(sel, ctx, tstate.valueState, b, 0),
+            b -> _trimChar.appendTo(sel, ctx, tstate.charState, b, 0));
+
+        if (!template.hasArgument(1)) {
             // since the trim statement did not specify the token for
             // where to specify the trim char (denoted by "{1}"),
             // we do not have the ability to trim off non-whitespace
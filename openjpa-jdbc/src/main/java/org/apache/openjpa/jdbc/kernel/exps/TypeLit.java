@@ -105,8 +105,10 @@ public class TypeLit
         lstate.disc = lstate.mapping.getDiscriminator();
         lstate.discValue = lstate.disc != null ? lstate.disc.getValue() :
             null;
-        sel.select(((ClassMapping) getMetaData()).getPrimaryKeyColumns(),
-            lstate.joins);
+        // a literal compared to the type of a path needs no table of its own
+        if (other == null)
+            sel.select(((ClassMapping) getMetaData()).getPrimaryKeyColumns(),
+                lstate.joins);
     }
 
     @Override
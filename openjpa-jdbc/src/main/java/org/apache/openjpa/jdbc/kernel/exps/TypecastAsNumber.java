@@ -150,18 +150,10 @@ public class TypecastAsNumber extends AbstractVal {
         DBDictionary dict = ctx.store.getDBDictionary();
         String func = dict.castFunction;
 
-        int fieldPart = func.indexOf("{0}");
-        int targetPart = func.indexOf("{1}");
-        String part1 = func.substring(0, fieldPart);
-        String part2 = func.substring(fieldPart + 3, targetPart);
-        String part3 = func.substring(targetPart + 3);
-
         ExtractTypecastToNumberExpState etnstate = (ExtractTypecastToNumberExpState) state;
-        sql.append(part1);
-        _val.appendTo(sel, ctx, etnstate.valueState, sql, 0);
-        sql.append(part2);
-        sql.append(getDbNumberTargetTypeName(dict));
-        sql.append(part3);
+        dict.getFunctionTemplate(func).appendTo(sql,
+            b -> _val.appendTo(sel, ctx, etnstate.valueState, b, 0),
+            b -> b.append(getDbNumberTargetTypeName(dict)));
     }
 
     @Override
@@ -138,22 +138,16 @@ public class TypecastAsString extends AbstractVal {
         DBDictionary dict = ctx.store.getDBDictionary();
         String func = dict.castFunction;
 
-        int fieldPart = func.indexOf("{0}");
-        int targetPart = func.indexOf("{1}");
-        String part1 = func.substring(0, fieldPart);
-        String part2 = func.substring(fieldPart + 3, targetPart);
-        String part3 = func.substring(targetPart + 3);
-
         TypecastAsStringExpState casstate = (TypecastAsStringExpState) state;
-        sql.append(part1);
-        _val.appendTo(sel, ctx, casstate.valueState, sql, 0);
-        sql.append(part2);
-        if (dict.supportsUnsizedCharOnCast) {
-            sql.append(dict.varcharTypeName);
-        } else {
-            sql.append(dict.typecastToStringTypeName + "(" + dict.characterColumnSize + ")");
-        }
-        sql.append(part3);
+        dict.getFunctionTemplate(func).appendTo(sql,
+            b -> _val.appendTo(sel, ctx, casstate.valueState, b, 0),
+            b -> {
+                if (dict.supportsUnsizedCharOnCast) {
+                    b.append(dict.varcharTypeName);
+                } else {
+                    b.append(dict.typecastToStringTypeName + "(" + dict.characterColumnSize + ")");
+                }
+            });
     }
 
     @Override
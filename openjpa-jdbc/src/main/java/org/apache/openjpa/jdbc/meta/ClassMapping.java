@@ -54,6 +54,7 @@ import org.apache.openjpa.lib.util.Localizer;
 import org.apache.openjpa.meta.ClassMetaData;
 import org.apache.openjpa.meta.ValueMetaData;
 import org.apache.openjpa.util.ApplicationIds;
+import org.apache.openjpa.util.Id;
 import org.apache.openjpa.util.ImplHelper;
 import org.apache.openjpa.util.InternalException;
 import org.apache.openjpa.util.MetaDataException;
@@ -304,6 +305,21 @@ public class ClassMapping
         return ret;
     }
 
+    /**
+     * Return the value of the given primary key column of this mapping for
+     * the given oid.
+     *
+     * @since 4.2.0
+     */
+    public Object toPrimaryKeyValue(Object oid, Column pk, JDBCStore store) {
+        if (getIdentityType() != ClassMetaData.ID_APPLICATION)
+            return ((Id) oid).getId();
+        Object[] pks = ApplicationIds.toPKValues(oid, this);
+        Joinable join = assertJoinable(pk);
+        Object val = pks[getField(join.getFieldIndex()).getPrimaryKeyIndex()];
+        return join.getJoinValue(val, pk, store);
+    }
+
     /**
      * Return the joinable for the given column, or throw an exception if
      * none is available.
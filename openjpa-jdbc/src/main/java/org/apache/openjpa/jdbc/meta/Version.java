@@ -19,9 +19,12 @@
 package org.apache.openjpa.jdbc.meta;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
 
 import org.apache.openjpa.jdbc.kernel.JDBCStore;
+import org.apache.openjpa.jdbc.meta.strats.AbstractVersionStrategy;
 import org.apache.openjpa.jdbc.schema.Column;
 import org.apache.openjpa.jdbc.schema.ColumnIO;
 import org.apache.openjpa.jdbc.schema.Index;
@@ -382,6 +385,32 @@ public class Version
         return assertStrategy().checkVersion(sm, store, updateVersion);
     }
 
+    /**
+     * Check the versions of the given instances of this mapping without
+     * updating them. Strategies extending {@link AbstractVersionStrategy}
+     * may check them all together; others check one instance at a time.
+     *
+     * @return the instances whose version is out of date, or null
+     * @since 4.2.0
+     */
+    public Collection<OpenJPAStateManager> checkVersions
+        (Collection<OpenJPAStateManager> sms, JDBCStore store)
+        throws SQLException {
+        VersionStrategy strat = assertStrategy();
+        if (strat instanceof AbstractVersionStrategy)
+            return ((AbstractVersionStrategy) strat).checkVersions(sms, store);
+
+        Collection<OpenJPAStateManager> failed = null;
+        for (OpenJPAStateManager sm : sms) {
+            if (!strat.checkVersion(sm, store, false)) {
+                if (failed == null)
+                    failed = new ArrayList<>();
+                failed.add(sm);
+            }
+        }
+        return failed;
+    }
+
     @Override
     public int compareVersion(Object v1, Object v2) {
         return assertStrategy().compareVersion(v1, v2);
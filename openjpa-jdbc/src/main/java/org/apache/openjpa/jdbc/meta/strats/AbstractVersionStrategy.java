@@ -19,6 +19,8 @@
 package org.apache.openjpa.jdbc.meta.strats;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 
@@ -81,6 +83,28 @@ public abstract class AbstractVersionStrategy
         return !updateVersion;
     }
 
+    /**
+     * Check the versions of the given instances, which all use this version,
+     * without updating them. This implementation calls
+     * {@link #checkVersion} for each instance in turn.
+     *
+     * @return the instances whose version is out of date, or null
+     * @since 4.2.0
+     */
+    public Collection<OpenJPAStateManager> checkVersions
+        (Collection<OpenJPAStateManager> sms, JDBCStore store)
+        throws SQLException {
+        Collection<OpenJPAStateManager> failed = null;
+        for (OpenJPAStateManager sm : sms) {
+            if (!checkVersion(sm, store, false)) {
+                if (failed == null)
+                    failed = new ArrayList<>();
+                failed.add(sm);
+            }
+        }
+        return failed;
+    }
+
     @Override
     public int compareVersion(Object v1, Object v2) {
         return StoreManager.VERSION_SAME;
@@ -21,7 +21,12 @@ package org.apache.openjpa.jdbc.meta.strats;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.openjpa.jdbc.identifier.DBIdentifier;
 import org.apache.openjpa.jdbc.kernel.JDBCFetchConfiguration;
@@ -37,6 +42,7 @@ import org.apache.openjpa.jdbc.sql.Joins;
 import org.apache.openjpa.jdbc.sql.Result;
 import org.apache.openjpa.jdbc.sql.Row;
 import org.apache.openjpa.jdbc.sql.RowManager;
+import org.apache.openjpa.jdbc.sql.SQLBuffer;
 import org.apache.openjpa.jdbc.sql.Select;
 import org.apache.openjpa.kernel.LockLevels;
 import org.apache.openjpa.kernel.MixedLockLevels;
@@ -46,6 +52,7 @@ import org.apache.openjpa.lib.util.Localizer;
 import org.apache.openjpa.meta.JavaTypes;
 import org.apache.openjpa.util.InternalException;
 import org.apache.openjpa.util.MetaDataException;
+import org.apache.openjpa.util.OpenJPAId;
 
 /**
  * Uses a one or more column(s) and corresponding version object.
@@ -326,6 +333,101 @@ public abstract class ColumnVersionStrategy
         }
     }
 
+    /**
+     * Select the versions of the given instances by primary key with one
+     * IN-list query per {@link DBDictionary#inClauseLimit} instances and
+     * compare them in memory. Falls back to a query per instance if the
+     * mapping does not have a single primary key column.
+     */
+    @Override
+    public Collection<OpenJPAStateManager> checkVersions
+        (Collection<OpenJPAStateManager> sms, JDBCStore store)
+        throws SQLException {
+        ClassMapping mapping = vers.getClassMapping();
+        if (sms.size() < 2 || mapping.getJoinablePCSuperclassMapping() != null
+            || !mapping.isPrimaryKeyObjectId(false)
+            || mapping.getPrimaryKeyColumns().length != 1)
+            return super.checkVersions(sms, store);
+        for (OpenJPAStateManager sm : sms)
+            if (!(sm.getObjectId() instanceof OpenJPAId))
+                return super.checkVersions(sms, store);
+
+        List<OpenJPAStateManager> list = new ArrayList<>(sms);
+        DBDictionary dict = store.getDBDictionary();
+        int limit = (dict.inClauseLimit > 0) ? dict.inClauseLimit
+            : list.size();
+        Collection<OpenJPAStateManager> failed = null;
+        for (int low = 0, high; low < list.size(); low = high) {
+            high = Math.min(low + limit, list.size());
+            failed = checkVersions(list.subList(low, high), store, failed);
+        }
+        return failed;
+    }
+
+    /**
+     * Check the versions of the given instances with a single select.
+     */
+    private Collection<OpenJPAStateManager> checkVersions
+        (List<OpenJPAStateManager> sms, JDBCStore store,
+        Collection<OpenJPAStateManager> failed)
+        throws SQLException {
+        ClassMapping mapping = vers.getClassMapping();
+        Column pk = mapping.getPrimaryKeyColumns()[0];
+
+        Select sel = store.getSQLFactory().newSelect();
+        SQLBuffer buf = new SQLBuffer(store.getDBDictionary());
+        buf.append(sel.getColumnAlias(pk)).append(" IN (");
+        Map<Object, OpenJPAStateManager> byId = new HashMap<>
+            ((int) (sms.size() * 1.33 + 1));
+        for (OpenJPAStateManager sm : sms) {
+            if (!byId.isEmpty())
+                buf.append(", ");
+            buf.appendValue(mapping.toPrimaryKeyValue(sm.getObjectId(), pk,
+                store), pk);
+            byId.put(((OpenJPAId) sm.getObjectId()).getIdObject(), sm);
+        }
+        buf.append(")");
+        sel.where(buf);
+        sel.select(pk);
+        sel.select(vers.getColumns());
+
+        // never lock the version columns, as in checkVersion
+        JDBCFetchConfiguration fetch = store.getFetchConfiguration();
+        if (fetch.getReadLockLevel() >= MixedLockLevels.LOCK_PESSIMISTIC_READ) {
+            fetch = (JDBCFetchConfiguration) fetch.clone();
+            fetch.setReadLockLevel(LockLevels.LOCK_NONE);
+        }
+        Result res = sel.execute(store, fetch);
+        try {
+            Object oid;
+            OpenJPAStateManager sm;
+            while (res.next()) {
+                oid = mapping.getObjectId(store, res, null, false, null);
+                if (!(oid instanceof OpenJPAId))
+                    continue;
+                sm = byId.remove(((OpenJPAId) oid).getIdObject());
+                if (sm != null
+                    && compare(sm.getVersion(), populateFromResult(res, null)) < 0)
+                    failed = addFailed(failed, sm);
+            }
+        } finally {
+            res.close();
+        }
+
+        // instances whose rows are gone fail as well
+        for (OpenJPAStateManager sm : byId.values())
+            failed = addFailed(failed, sm);
+        return failed;
+    }
+
+    private static Collection<OpenJPAStateManager> addFailed
+        (Collection<OpenJPAStateManager> failed, OpenJPAStateManager sm) {
+        if (failed == null)
+            failed = new ArrayList<>();
+        failed.add(sm);
+        return failed;
+    }
+
     @Override
     public int compareVersion(Object v1, Object v2) {
         if (v1 == v2)
@@ -22,6 +22,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.openjpa.enhance.FieldManager;
@@ -36,8 +37,10 @@ import org.apache.openjpa.jdbc.meta.RelationId;
 import org.apache.openjpa.jdbc.meta.ValueMapping;
 import org.apache.openjpa.jdbc.schema.Column;
 import org.apache.openjpa.jdbc.schema.ForeignKey;
+import org.apache.openjpa.jdbc.schema.Table;
 import org.apache.openjpa.jdbc.sql.Joins;
 import org.apache.openjpa.jdbc.sql.Result;
+import org.apache.openjpa.jdbc.sql.SQLBuffer;
 import org.apache.openjpa.jdbc.sql.Select;
 import org.apache.openjpa.jdbc.sql.SelectExecutor;
 import org.apache.openjpa.jdbc.sql.Union;
@@ -46,6 +49,7 @@ import org.apache.openjpa.kernel.StateManagerImpl;
 import org.apache.openjpa.meta.ClassMetaData;
 import org.apache.openjpa.meta.FieldMetaData;
 import org.apache.openjpa.meta.JavaTypes;
+import org.apache.openjpa.meta.Order;
 import org.apache.openjpa.util.ChangeTracker;
 import org.apache.openjpa.util.proxy.DelayedProxy;
 import org.apache.openjpa.util.Id;
@@ -222,6 +226,8 @@ public abstract class StoreCollectionFieldStrategy
             sel.orderByPrimaryKey(field.getDefiningMapping(), true, true);
         Joins joins = sel.newJoins().setVariable("*");
         joins = join(joins, elem);
+        if (selectOid && eagerMode == EagerFetchModes.EAGER_PARALLEL)
+            limitElements(sel, elem, store, fetch, joins);
 
         // order, ref cols
         if (field.getOrderColumn() != null || field.getOrders().length > 0
@@ -243,6 +249,102 @@ public abstract class StoreCollectionFieldStrategy
         selectElement(sel, elem, store, fetch, eagerMode, joins);
     }
 
+    /**
+     * Return the maximum number of elements to load eagerly into the
+     * collection of each owner, or -1 for no limit. Only the elements of
+     * inverse collections are limited, as their owners never write them.
+     */
+    private int getElementLimit(JDBCFetchConfiguration fetch) {
+        if (field.getMappedBy() == null)
+            return -1;
+        return fetch.getEagerCollectionLimit();
+    }
+
+    /**
+     * Mark the given collection, just loaded into the given instance, as
+     * partial if it reached the element limit, so that it is kept out of
+     * the data cache.
+     */
+    private void setPartiallyLoaded(OpenJPAStateManager sm,
+        JDBCFetchConfiguration fetch, Object coll) {
+        int limit = getElementLimit(fetch);
+        if (limit <= 0 || coll == null || !(sm instanceof StateManagerImpl))
+            return;
+        int size = (coll instanceof Map) ? ((Map) coll).size()
+            : ((Collection) coll).size();
+        if (size >= limit)
+            ((StateManagerImpl) sm).setPartiallyLoaded(field.getIndex(), true);
+    }
+
+    /**
+     * Limit the elements selected for each owner in the database if the
+     * dictionary supports it. The elements beyond the limit are skipped
+     * when processing the result otherwise.
+     */
+    private void limitElements(Select sel, ClassMapping elem,
+        JDBCStore store, JDBCFetchConfiguration fetch, Joins joins) {
+        int max = getElementLimit(fetch);
+        ForeignKey fk = (max > 0) ? getJoinForeignKey(elem) : null;
+        if (fk == null || fk.getTable().getPrimaryKey() == null)
+            return;
+
+        Table table = fk.getTable();
+        List<Column> orders = new ArrayList<>();
+        List<Boolean> asc = new ArrayList<>();
+        if (field.getOrderColumn() != null) {
+            orders.add(field.getOrderColumn());
+            asc.add(Boolean.TRUE);
+        }
+        Column[] cols;
+        for (Order order : field.getOrders()) {
+            if (Order.ELEMENT.equals(order.getName()))
+                cols = (elem == null) ? null : elem.getPrimaryKeyColumns();
+            else {
+                FieldMapping fm = (elem == null) ? null
+                    : elem.getFieldMapping(order.getName());
+                cols = (fm == null) ? null : fm.getColumns();
+            }
+            if (cols == null || cols.length == 0)
+                return;
+            for (Column col : cols) {
+                orders.add(col);
+                asc.add(order.isAscending());
+            }
+        }
+        Column[] pks = table.getPrimaryKey().getColumns();
+        if (orders.isEmpty()) {
+            for (Column pk : pks) {
+                orders.add(pk);
+                asc.add(Boolean.TRUE);
+            }
+        }
+        for (Column col : orders)
+            if (col.getTable() != table)
+                return;
+
+        String[] aliases = new String[pks.length];
+        for (int i = 0; i < pks.length; i++)
+            aliases[i] = sel.getColumnAlias(pks[i], joins);
+        // restrict the numbered rows to the owners the select reads, as
+        // selected by a copy of its conditions
+        Column[] groups = fk.getColumns();
+        SQLBuffer owners = null;
+        ClassMapping owner = field.getDefiningMapping();
+        if (fk.getPrimaryKeyTable() == owner.getTable()) {
+            Select ownerSel = (Select) sel.whereClone(1);
+            ownerSel.select(fk.getPrimaryKeyColumns(), null);
+            owners = ownerSel.toSelect(false, fetch);
+        }
+        boolean[] ascending = new boolean[asc.size()];
+        for (int i = 0; i < ascending.length; i++)
+            ascending[i] = asc.get(i);
+        SQLBuffer cond = store.getDBDictionary().getGroupLimitCondition(table,
+            pks, aliases, groups, owners,
+            orders.toArray(new Column[orders.size()]), ascending, max);
+        if (cond != null)
+            sel.where(cond, joins);
+    }
+
     @Override
     public Object loadEagerParallel(OpenJPAStateManager sm, JDBCStore store,
         JDBCFetchConfiguration fetch, Object res)
@@ -264,6 +366,7 @@ public abstract class StoreCollectionFieldStrategy
                 coll = sm.newProxy(field.getIndex());
             sm.storeObject(field.getIndex(), coll);
         }
+        setPartiallyLoaded(sm, fetch, coll);
         return rels;
     }
 
@@ -291,6 +394,8 @@ public abstract class StoreCollectionFieldStrategy
         Object nextOid, oid = null;
         Object coll = null;
         int seq = 0;
+        int limit = getElementLimit(fetch);
+        int count = 0;
         while (res.next()) {
             // extract the owner id value
             nextOid = getNextObjectId(ownerMapping, store, res, oid);
@@ -303,6 +408,7 @@ public abstract class StoreCollectionFieldStrategy
                 // start a new collection
                 oid = nextOid;
                 seq = 0;
+                count = 0;
                 if (field.getTypeCode() == JavaTypes.ARRAY)
                     coll = new ArrayList();
                 else
@@ -310,12 +416,18 @@ public abstract class StoreCollectionFieldStrategy
                 rels.put(oid, coll);
             }
 
+            if (limit > 0 && count++ >= limit)
+                continue;
             if (field.getOrderColumn() != null)
                 seq = res.getInt(field.getOrderColumn(), orderJoins) + 1;
 
-            // for inverse relation field
-            setMappedBy(oid.equals(sm.getObjectId()) ?
-                sm.getPersistenceCapable() : oid, res);
+            // for inverse relation field; use owners that are already
+            // loaded, such as the other instances of a page of results,
+            // rather than their oids so that the elements do not look
+            // them up and load them again
+            Object owner = oid.equals(sm.getObjectId()) ?
+                sm.getPersistenceCapable() : store.getContext().findCached(oid, null);
+            setMappedBy((owner == null) ? oid : owner, res);
             Object val = loadElement(null, store, fetch, res, dataJoins);
             add(store, coll, val);
         }
@@ -423,6 +535,7 @@ public abstract class StoreCollectionFieldStrategy
         ClassMapping ownerMapping = field.getDefiningMapping();
         Object ref = null;
         int seq = 0;
+        int limit = getElementLimit(fetch);
         int typeIdx = res.indexOf();
         for (int i = 0; true; i++) {
             // extract the owner id value
@@ -447,7 +560,8 @@ public abstract class StoreCollectionFieldStrategy
             if (field.getOrderColumn() != null)
                 seq = res.getInt(field.getOrderColumn(), refJoins) + 1;
             res.setBaseMapping(null);
-            Object obj = loadElement(sm, store, fetch, res, dataJoins);
+            Object obj = (limit > 0 && i >= limit) ? null
+                : loadElement(sm, store, fetch, res, dataJoins);
             if (obj != null)
                 add(store, coll, obj);
             if (!res.next() || res.indexOf() != typeIdx) {
@@ -462,6 +576,7 @@ public abstract class StoreCollectionFieldStrategy
                 ((Collection) coll, field.getElement().getType()));
         else
             sm.storeObject(field.getIndex(), coll);
+        setPartiallyLoaded(sm, fetch, coll);
     }
 
     /**
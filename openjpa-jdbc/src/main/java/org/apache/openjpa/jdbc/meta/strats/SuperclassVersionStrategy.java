@@ -19,6 +19,7 @@
 package org.apache.openjpa.jdbc.meta.strats;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Map;
 
 import org.apache.openjpa.jdbc.kernel.JDBCStore;
@@ -49,6 +50,14 @@ public class SuperclassVersionStrategy
             checkVersion(sm, store, updateVersion);
     }
 
+    @Override
+    public Collection<OpenJPAStateManager> checkVersions
+        (Collection<OpenJPAStateManager> sms, JDBCStore store)
+        throws SQLException {
+        return vers.getClassMapping().getPCSuperclassMapping().getVersion().
+            checkVersions(sms, store);
+    }
+
     @Override
     public int compareVersion(Object v1, Object v2) {
         return vers.getClassMapping().getPCSuperclassMapping().getVersion().
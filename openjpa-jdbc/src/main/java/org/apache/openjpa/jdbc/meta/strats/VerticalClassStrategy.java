@@ -156,7 +156,7 @@ public class VerticalClassStrategy
     public Joins joinSuperclass(Joins joins, boolean toThis) {
         if (toThis)
             return joins.outerJoin(cls.getJoinForeignKey(), true, false);
-        return joins.join(cls.getJoinForeignKey(), false, false);
+        return joins.joinSuperclass(cls.getJoinForeignKey());
     }
 
     @Override
@@ -76,6 +76,7 @@ public class Column extends ReferenceCounter {
     private String _targetField = null;
     private int _flags = 0;
     private QualifiedDBIdentifier _fullPath = null;
+    private transient volatile RenderedName _dbName = null;
 
     private int _index = 0;
     private boolean _pk = false;
@@ -284,6 +285,28 @@ public class Column extends ReferenceCounter {
             throw new IllegalStateException();
         _name = name == null ? DBIdentifier.NULL : name;
         _fullPath = null;
+        _dbName = null;
+    }
+
+    /**
+     * Return the name of this column as rendered into SQL by the given
+     * dictionary, or null if that dictionary has not cached a rendering.
+     *
+     * @since 4.2.0
+     */
+    public String getDBName(DBDictionary dict) {
+        RenderedName name = _dbName;
+        return (name == null) ? null : name.get(dict);
+    }
+
+    /**
+     * Cache the name of this column as rendered into SQL by the given
+     * dictionary.
+     *
+     * @since 4.2.0
+     */
+    public void setDBName(DBDictionary dict, String name) {
+        _dbName = new RenderedName(dict, name);
     }
 
     /**
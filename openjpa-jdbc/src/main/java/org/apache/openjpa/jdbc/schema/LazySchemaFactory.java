@@ -21,6 +21,7 @@ package org.apache.openjpa.jdbc.schema;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
 import org.apache.openjpa.jdbc.identifier.DBIdentifier;
@@ -46,6 +47,7 @@ public class LazySchemaFactory
     private transient Connection _conn = null;
     private transient DatabaseMetaData _meta = null;
     private transient SchemaGenerator _gen = null;
+    private final ReentrantLock _lock = new ReentrantLock();
 
     private boolean _indexes = false;
     private boolean _pks = false;
@@ -154,9 +156,10 @@ public class LazySchemaFactory
         DBIdentifier schemaName = name.getSchemaName();
         DBIdentifier objectName = name.getIdentifier();
 
-        // we share a single connection across all schemas, so synch
-        // on the schema group
-        synchronized (this) {
+        // we share a single connection across all schemas, so lock the
+        // schema group; not a monitor, as it is held across metadata I/O
+        _lock.lock();
+        try {
             boolean close = false;
             try {
                 // use the existing connection if possible; this method
@@ -205,6 +208,8 @@ public class LazySchemaFactory
                     _conn = null;
                 }
             }
+        } finally {
+            _lock.unlock();
         }
     }
 
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.schema;
+
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+
+/**
+ * The name of a schema component as rendered into SQL by a dictionary.
+ * Immutable, so that a rendering is always published together with the
+ * dictionary that made it.
+ *
+ * @since 4.2.0
+ */
+final class RenderedName {
+
+    private final DBDictionary _dict;
+    private final String _name;
+
+    RenderedName(DBDictionary dict, String name) {
+        _dict = dict;
+        _name = name;
+    }
+
+    /**
+     * Return the rendering if it was made by the given dictionary, else null.
+     */
+    String get(DBDictionary dict) {
+        return (dict == _dict) ? _name : null;
+    }
+}
@@ -71,6 +71,7 @@ public class Table
     private int _colNum = 0;
     private boolean _isAssociation = false;
     private QualifiedDBIdentifier _fullPath = null;
+    private transient volatile RenderedName _dbName = null;
 
     /**
      * Default constructor.
@@ -131,6 +132,7 @@ public class Table
         _schema = null;
         _schemaName = DBIdentifier.NULL;
         _fullPath = null;
+        _dbName = null;
     }
 
     /**
@@ -168,6 +170,7 @@ public class Table
             throw new IllegalStateException();
         _schemaName = name;
         _fullPath = null;
+        _dbName = null;
     }
 
     /**
@@ -203,6 +206,28 @@ public class Table
             throw new IllegalStateException();
         _name = name;
         _fullPath = null;
+        _dbName = null;
+    }
+
+    /**
+     * Return the full name of this table as rendered into SQL by the given
+     * dictionary, or null if that dictionary has not cached a rendering.
+     *
+     * @since 4.2.0
+     */
+    public String getDBName(DBDictionary dict) {
+        RenderedName name = _dbName;
+        return (name == null) ? null : name.get(dict);
+    }
+
+    /**
+     * Cache the full name of this table as rendered into SQL by the given
+     * dictionary.
+     *
+     * @since 4.2.0
+     */
+    public void setDBName(DBDictionary dict, String name) {
+        _dbName = new RenderedName(dict, name);
     }
 
     /**
@@ -1067,6 +1067,11 @@ public abstract class AbstractResult
             return this;
         }
 
+        @Override
+        public Joins joinSuperclass(ForeignKey fk) {
+            return this;
+        }
+
         @Override
         public Joins joinRelation(String name, ForeignKey fk,
             ClassMapping target, int subs, boolean inverse, boolean toMany) {
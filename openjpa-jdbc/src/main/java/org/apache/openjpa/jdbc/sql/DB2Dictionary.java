@@ -107,6 +107,7 @@ public class DB2Dictionary
         platform = "DB2";
         validationSQL = "SELECT DISTINCT(CURRENT TIMESTAMP) FROM SYSIBM.SYSTABLES";
         supportsSelectEndIndex = true;
+        supportsWindowFunctions = true;
 
         nextSequenceQuery = "VALUES NEXTVAL FOR {0}";
 
@@ -889,27 +890,13 @@ public class DB2Dictionary
      * @param type the type of the case, e.g. {@link Types#NUMERIC}
      */
     public void appendCast(SQLBuffer buf, FilterValue val, int type) {
-
-        // Convert the cast function: "CAST({0} AS {1})"
-        int firstParam = castFunction.indexOf("{0}");
-        String pre = castFunction.substring(0, firstParam); // "CAST("
-        String mid = castFunction.substring(firstParam + 3);
-        int secondParam = mid.indexOf("{1}");
-        String post;
-        if (secondParam > -1) {
-            post = mid.substring(secondParam + 3); // ")"
-            mid = mid.substring(0, secondParam); // " AS "
-        } else
-            post = "";
-
         // No need to add CAST if the value is a constant
         if (val instanceof Lit || val instanceof Param) {
-            buf.append(pre);
-            val.appendTo(buf);
-            buf.append(mid);
-            buf.append(getTypeName(type));
-            appendLength(buf, type);
-            buf.append(post);
+            // render the cast function: "CAST({0} AS {1})"
+            getFunctionTemplate(castFunction).appendTo(buf, val::appendTo, b -> {
+                b.append(getTypeName(type));
+                appendLength(b, type);
+            });
         } else {
             val.appendTo(buf);
             String sqlString = buf.getSQL(false);
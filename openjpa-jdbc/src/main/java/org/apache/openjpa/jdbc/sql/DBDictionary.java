@@ -70,6 +70,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import javax.sql.DataSource;
@@ -263,6 +264,8 @@ public class DBDictionary
     public boolean supportsSubselect = true;
     public boolean supportsCorrelatedSubselect = true;
     public boolean supportsHaving = true;
+    public boolean supportsWindowFunctions = false;
+    public boolean supportsRowValueComparison = false;
     public boolean supportsSelectStartIndex = false;
     public boolean supportsSelectEndIndex = false;
     public int rangePosition = RANGE_POST_SELECT;
@@ -528,12 +531,39 @@ public class DBDictionary
     // first time it happens we can warn the user
     private Set<Class<?>> _precisionWarnedTypes = null;
 
+    // function templates split into their parts, keyed by template
+    private final Map<String, FunctionTemplate> _functionTemplates =
+        new ConcurrentHashMap<>();
+
     // batchLimit value:
     // -1 = unlimited
     // 0  = no batch
     // any positive number = batch limit
     public int batchLimit = NO_BATCH;
 
+    // streamed query results: the fetch size of streams whose fetch plan
+    // sets none, and whether the driver only reads the results a fetch size
+    // at a time through a cursor when auto-commit is off
+    public int streamingFetchSize = 100;
+    public boolean requiresTransactionForCursor = false;
+
+    // multi-row inserts: when enabled, batched inserts into the same table
+    // are coalesced into one INSERT with a VALUES list per row, with at most
+    // maxStatementParameters parameters per statement (-1 = unlimited)
+    public boolean supportsMultiRowInsert = false;
+    public boolean useMultiRowInsert = false;
+    public int maxStatementParameters = UNLIMITED;
+
+    // multi-row deletes: when enabled, batched deletes by primary key from
+    // the same table are coalesced into one DELETE with an IN list of at most
+    // inClauseLimit keys
+    public boolean useMultiRowDelete = false;
+
+    // whether the keys generated by a batch of inserts can all be read
+    // back after executeBatch, in batch order, so that inserts of tables
+    // with auto-assigned primary keys can be batched
+    public boolean supportsBatchGeneratedKeys = false;
+
     public final Map<Integer,Set<String>> sqlStateCodes =
         new HashMap<>();
 
@@ -2756,7 +2786,7 @@ public class DBDictionary
                         first));
                 first = false;
                 if (itr.hasNext() && join.isCorrelated()) {
-                    if (fromSQL.getSQL().length() > 0)
+                    if (!fromSQL.isEmpty())
                         fromSQL.append(", ");
                     first = true;
                 }
@@ -2765,7 +2795,7 @@ public class DBDictionary
             for (Object alias : aliases) {
                 String tableAlias = alias.toString();
                 if (fromSQL.getSQL().indexOf(tableAlias) == -1) {
-                    if (!first && fromSQL.getSQL().length() > 0)
+                    if (!first && !fromSQL.isEmpty())
                         fromSQL.append(", ");
                     fromSQL.append(tableAlias);
                     if (forUpdate && tableForUpdateClause != null)
@@ -3101,7 +3131,8 @@ public class DBDictionary
             SQLBuffer where, SQLBuffer group, SQLBuffer having, SQLBuffer order,
             boolean distinct, long start, long end, String forUpdateClause,
             boolean subselect, boolean checkTableForUpdate) {
-        SQLBuffer buf = new SQLBuffer(this);
+        SQLBuffer buf = new SQLBuffer(this, getOperationLength(op, selects,
+            from, where, group, having, order));
         buf.append(op);
 
         boolean range = start != 0 || end != Long.MAX_VALUE;
@@ -3138,6 +3169,136 @@ public class DBDictionary
         return buf;
     }
 
+    /**
+     * Estimate the length of the SQL for the given operation, keywords and
+     * ranges included, so that its buffer is allocated once.
+     */
+    private static int getOperationLength(String op, SQLBuffer... parts) {
+        int len = op.length() + 64;
+        for (SQLBuffer part : parts)
+            if (part != null)
+                len += part.length() + 16;
+        return len;
+    }
+
+    /**
+     * Return a condition that keeps only the first <code>max</code> rows of
+     * each group of rows of the given table with equal values in the given
+     * group columns, in the given order. The condition matches rows by the
+     * given primary key columns as aliased in the enclosing select. The rows
+     * are numbered once, in a derived table restricted to the groups that
+     * the given select returns the values of, so that the database neither
+     * numbers the rows of the whole table nor numbers them again for each
+     * enclosing row. The derived table holds no reference to the enclosing
+     * select. Returns null if this dictionary does not support window
+     * functions.
+     *
+     * @param table the table whose rows to limit
+     * @param pks the primary key columns of the table
+     * @param pkAliases the aliases of the primary key columns in the
+     * enclosing select
+     * @param groups the columns whose values group the rows
+     * @param owners a select of the values of the groups to number, or null
+     * to number all groups
+     * @param orders the columns ordering the rows of a group
+     * @param asc whether each order column is ascending
+     * @param max the maximum number of rows of each group
+     * @since 4.2.0
+     */
+    public SQLBuffer getGroupLimitCondition(Table table, Column[] pks,
+        String[] pkAliases, Column[] groups, SQLBuffer owners,
+        Column[] orders, boolean[] asc, int max) {
+        if (!supportsWindowFunctions || !supportsSubselect)
+            return null;
+
+        SQLBuffer buf = new SQLBuffer(this);
+        buf.append("EXISTS (SELECT 1 FROM (SELECT ");
+        for (Column pk : pks)
+            buf.append(getColumnDBName(pk)).append(", ");
+        buf.append("ROW_NUMBER() OVER (PARTITION BY ");
+        for (int i = 0; i < groups.length; i++) {
+            if (i > 0)
+                buf.append(", ");
+            buf.append(getColumnDBName(groups[i]));
+        }
+        buf.append(" ORDER BY ");
+        for (int i = 0; i < orders.length; i++) {
+            if (i > 0)
+                buf.append(", ");
+            buf.append(getColumnDBName(orders[i]))
+                .append(asc[i] ? " ASC" : " DESC");
+        }
+        buf.append(") AS rn_ FROM ").append(getFullName(table, false));
+        if (owners != null && (groups.length == 1
+            || supportsRowValueComparison)) {
+            buf.append(" WHERE ");
+            if (groups.length > 1)
+                buf.append("(");
+            for (int i = 0; i < groups.length; i++) {
+                if (i > 0)
+                    buf.append(", ");
+                buf.append(getColumnDBName(groups[i]));
+            }
+            if (groups.length > 1)
+                buf.append(")");
+            buf.append(" IN (").append(owners).append(")");
+        }
+        buf.append(") r_ WHERE r_.rn_ <= ").append(Integer.toString(max));
+        for (int i = 0; i < pks.length; i++)
+            buf.append(" AND r_.").append(getColumnDBName(pks[i]))
+                .append(" = ").append(pkAliases[i]);
+        buf.append(")");
+        return buf;
+    }
+
+    /**
+     * Return a condition that matches the rows that follow, in the given
+     * order, the row with the given ordering values. The condition is a row
+     * value comparison if this dictionary supports it and all orderings have
+     * the same direction, and nested comparisons of the leading orderings
+     * otherwise, which also let the database seek an index on them.
+     *
+     * @param cols the ordering expressions
+     * @param vals the ordering values of the row to follow
+     * @param asc whether each ordering is ascending
+     * @since 4.2.0
+     */
+    public SQLBuffer getKeysetCondition(SQLBuffer[] cols, SQLBuffer[] vals,
+        boolean[] asc) {
+        SQLBuffer buf = new SQLBuffer(this);
+        boolean same = true;
+        for (boolean a : asc)
+            same &= a == asc[0];
+        if (cols.length > 1 && same && supportsRowValueComparison) {
+            buf.append("(");
+            for (int i = 0; i < cols.length; i++)
+                buf.append((i == 0) ? "" : ", ").append(cols[i]);
+            buf.append(asc[0] ? ") > (" : ") < (");
+            for (int i = 0; i < vals.length; i++)
+                buf.append((i == 0) ? "" : ", ").append(vals[i]);
+            return buf.append(")");
+        }
+        appendKeysetCondition(buf, cols, vals, asc, 0);
+        return buf;
+    }
+
+    /**
+     * Append the comparison of the given ordering and the ones after it.
+     */
+    private void appendKeysetCondition(SQLBuffer buf, SQLBuffer[] cols,
+        SQLBuffer[] vals, boolean[] asc, int i) {
+        String op = asc[i] ? " > " : " < ";
+        buf.append("(").append(cols[i]);
+        if (i == cols.length - 1) {
+            buf.append(op).append(vals[i]).append(")");
+            return;
+        }
+        buf.append(asc[i] ? " >= " : " <= ").append(vals[i]).append(" AND (")
+            .append(cols[i]).append(op).append(vals[i]).append(" OR ");
+        appendKeysetCondition(buf, cols, vals, asc, i + 1);
+        buf.append("))");
+    }
+
     /**
      * If this dictionary can select ranges,
      * use this method to append the range SQL.
@@ -3491,29 +3652,18 @@ public class DBDictionary
      * @param type the type of the case, e.g. {@link Types#NUMERIC}
      */
     public void appendCast(SQLBuffer buf, Object val, int type) {
-        // Convert the cast function: "CAST({0} AS {1})"
-        int firstParam = castFunction.indexOf("{0}");
-        String pre = castFunction.substring(0, firstParam); // "CAST("
-        String mid = castFunction.substring(firstParam + 3);
-        int secondParam = mid.indexOf("{1}");
-        String post;
-        if (secondParam > -1) {
-            post = mid.substring(secondParam + 3); // ")"
-            mid = mid.substring(0, secondParam); // " AS "
-        } else
-            post = "";
-
-        buf.append(pre);
-        if (val instanceof FilterValue)
-            ((FilterValue) val).appendTo(buf);
-        else if (val instanceof SQLBuffer)
-            buf.append(((SQLBuffer) val));
-        else
-            buf.append(val.toString());
-        buf.append(mid);
-        buf.append(getTypeName(type));
-        appendLength(buf, type);
-        buf.append(post);
+        // render the cast function: "CAST({0} AS {1})"
+        getFunctionTemplate(castFunction).appendTo(buf, b -> {
+            if (val instanceof FilterValue)
+                ((FilterValue) val).appendTo(b);
+            else if (val instanceof SQLBuffer)
+                b.append(((SQLBuffer) val));
+            else
+                b.append(val.toString());
+        }, b -> {
+            b.append(getTypeName(type));
+            appendLength(b, type);
+        });
     }
 
     protected void appendLength(SQLBuffer buf, int type) {
@@ -3552,8 +3702,19 @@ public class DBDictionary
         return column.getIdentifier();
     }
 
+    /**
+     * Returns the name of the column as rendered into SQL. Once connected,
+     * the rendering is cached on the column.
+     */
     public String getColumnDBName(Column column) {
-        return toDBName(getColumnIdentifier(column));
+        if (column == null || !connected)
+            return toDBName(getColumnIdentifier(column));
+        String name = column.getDBName(this);
+        if (name == null) {
+            name = toDBName(getColumnIdentifier(column));
+            column.setDBName(this, name);
+        }
+        return name;
     }
 
     public String toSnakeCase(final String name) {
@@ -3592,10 +3753,19 @@ public class DBDictionary
         return table.getFullIdentifier();
     }
 
+    /**
+     * Returns the full name of the table as rendered into SQL. Once
+     * connected, the physical rendering is cached on the table.
+     */
     public String getFullName(Table table, boolean logical) {
-        if (!useSchemaName || DBIdentifier.isNull(table.getSchemaIdentifier()))
-            return toDBName(table.getIdentifier());
-        return toDBName(table.getFullIdentifier());
+        if (!connected || logical)
+            return toDBName(getFullIdentifier(table, logical));
+        String name = table.getDBName(this);
+        if (name == null) {
+            name = toDBName(getFullIdentifier(table, logical));
+            table.setDBName(this, name);
+        }
+        return name;
     }
 
     /**
@@ -3955,6 +4125,28 @@ public class DBDictionary
         return batchFetchSize;
     }
 
+    /**
+     * Prepare the given statement to stream its results through a server-side
+     * cursor. Sets the fetch size of the statement, falling back on
+     * {@link #streamingFetchSize} when the given one is not positive, and
+     * switches auto-commit off if the driver needs it to keep a cursor.
+     *
+     * @return whether auto-commit was switched off, in which case the caller
+     * restores it once the results are closed
+     * @since 4.2.0
+     */
+    public boolean configureStreaming(Connection conn, PreparedStatement stmnt,
+        int fetchSize) throws SQLException {
+        if (fetchSize <= 0)
+            fetchSize = streamingFetchSize;
+        if (fetchSize > 0)
+            stmnt.setFetchSize(getBatchFetchSize(fetchSize));
+        if (!requiresTransactionForCursor || !conn.getAutoCommit())
+            return false;
+        conn.setAutoCommit(false);
+        return true;
+    }
+
     protected StringBuilder comment(StringBuilder buf, String comment) {
         return buf.append("-- ").append(comment);
     }
@@ -5343,6 +5535,36 @@ public class DBDictionary
             dictionaryClassName = getClass().getSuperclass().getName();
         }
         codeReader.parse(stream, dictionaryClassName, this);
+
+        // split the configured function templates up front
+        for (String func : new String[]{ castFunction, toLowerCaseFunction,
+            toUpperCaseFunction, stringLengthFunction, bitLengthFunction,
+            trimLeadingFunction, trimTrailingFunction, trimBothFunction,
+            concatenateFunction, extractDateTimeFieldFunction })
+            getFunctionTemplate(func);
+    }
+
+    /**
+     * Return the given function template, such as
+     * {@link #concatenateFunction}, split into the literal parts around its
+     * placeholders. Each template is split once and then cached; those of
+     * the configured functions are split when the configuration ends.
+     *
+     * @return the split template, or null for a null template
+     * @since 4.2.0
+     */
+    public FunctionTemplate getFunctionTemplate(String func) {
+        if (func == null)
+            return null;
+        FunctionTemplate template = _functionTemplates.get(func);
+        if (template == null) {
+            template = new FunctionTemplate(func);
+            FunctionTemplate existing = _functionTemplates.putIfAbsent(func,
+                template);
+            if (existing != null)
+                template = existing;
+        }
+        return template;
     }
 
     public void addErrorCode(int errorType, String errorCode) {
@@ -5796,13 +6018,16 @@ public class DBDictionary
      * Validate the batch process. In some cases, we can't batch the statements
      * due to some restrictions. For example, if the GeneratedType=IDENTITY,
      * we have to disable the batch process because we need to get the ID value
-     * right away for the in-memory entity to use.
+     * right away for the in-memory entity to use, unless the generated keys
+     * of a batch can be read back; see {@link #supportsBatchGeneratedKeys}.
      */
     public boolean validateBatchProcess(RowImpl row, Column[] autoAssign,
             OpenJPAStateManager  sm, ClassMapping cmd ) {
         boolean disableBatch = false;
         if (getBatchLimit()== 0) return false;
-        if (autoAssign != null && sm != null) {
+        if (autoAssign != null && sm != null
+            && !(supportsBatchGeneratedKeys
+            && Boolean.TRUE.equals(supportsGetGeneratedKeys))) {
             FieldMetaData[] fmd = cmd.getPrimaryKeyFields();
             int i = 0;
             while (!disableBatch && i < fmd.length) {
@@ -5818,6 +6043,25 @@ public class DBDictionary
         return disableBatch;
     }
 
+    /**
+     * Insert the given rows, which all share the same INSERT statement,
+     * with the database's native bulk load facility. This is used when
+     * flushing in bulk insert mode; see
+     * {@link org.apache.openjpa.jdbc.kernel.BatchingPreparedStatementManagerImpl#HINT_BULK_INSERT}.
+     * This implementation returns false.
+     *
+     * @param chunkSize the maximum number of rows to prepare for loading at
+     * a time, or -1 for no limit
+     * @return false if the rows cannot be bulk loaded, in which case they
+     * are inserted with batched statements instead
+     * @since 4.2.0
+     */
+    public boolean insertBulk(Connection conn, List<RowImpl> rows,
+        int chunkSize, JDBCStore store)
+        throws SQLException {
+        return false;
+    }
+
     /**
      * Allow each Dictionary to validate its own batch process.
      */
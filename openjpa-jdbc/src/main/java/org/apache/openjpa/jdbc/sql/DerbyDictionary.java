@@ -69,6 +69,11 @@ public class DerbyDictionary
         supportsNullUniqueColumn = false;
 
         supportsComments = true;
+
+        // each row of a multi-row insert is compiled into the statement's
+        // generated class, so keep the statements small
+        supportsMultiRowInsert = true;
+        maxStatementParameters = 2000;
         
         // Derby does still not support 'WITH TIMEZONE' from the SQL92 standard
 
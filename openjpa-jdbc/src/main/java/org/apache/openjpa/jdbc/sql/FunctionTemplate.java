@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A function template of a dictionary, such as
+ * {@link DBDictionary#concatenateFunction}, split once into the literal
+ * parts around its <code>{0}</code>, <code>{1}</code>, ... placeholders, so
+ * that rendering it only appends the parts and the arguments in turn.
+ *
+ * @see DBDictionary#getFunctionTemplate
+ * @since 4.2.0
+ */
+public class FunctionTemplate {
+
+    private final String _template;
+    private final String[] _parts;
+    private final int[] _args;
+
+    /**
+     * Split the given template.
+     */
+    public FunctionTemplate(String template) {
+        _template = template;
+        List<String> parts = new ArrayList<>();
+        List<Integer> args = new ArrayList<>();
+        int start = 0;
+        int open = template.indexOf('{');
+        while (open != -1) {
+            int close = template.indexOf('}', open);
+            if (close == -1)
+                break;
+            int arg = toArgument(template, open + 1, close);
+            if (arg != -1) {
+                parts.add(template.substring(start, open));
+                args.add(arg);
+                start = close + 1;
+            }
+            open = template.indexOf('{', open + 1);
+        }
+        parts.add(template.substring(start));
+
+        _parts = parts.toArray(new String[parts.size()]);
+        _args = new int[args.size()];
+        for (int i = 0; i < _args.length; i++)
+            _args[i] = args.get(i);
+    }
+
+    /**
+     * Return the argument index between the given positions, or -1 if the
+     * text there is not a placeholder.
+     */
+    private static int toArgument(String template, int start, int end) {
+        if (start == end)
+            return -1;
+        int arg = 0;
+        for (int i = start; i < end; i++) {
+            char c = template.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            arg = arg * 10 + (c - '0');
+        }
+        return arg;
+    }
+
+    /**
+     * The template this instance was split from.
+     */
+    public String getTemplate() {
+        return _template;
+    }
+
+    /**
+     * Whether the template has a placeholder for the given argument.
+     */
+    public boolean hasArgument(int arg) {
+        for (int i = 0; i < _args.length; i++)
+            if (_args[i] == arg)
+                return true;
+        return false;
+    }
+
+    /**
+     * The literal text before the first placeholder.
+     */
+    public String getPrefix() {
+        return _parts[0];
+    }
+
+    /**
+     * The literal text after the last placeholder.
+     */
+    public String getSuffix() {
+        return _parts[_parts.length - 1];
+    }
+
+    /**
+     * Render the template into the given buffer, appending the given
+     * argument at each of its placeholders. Placeholders without an
+     * argument are left empty.
+     */
+    public void appendTo(SQLBuffer buf, Argument... args) {
+        for (int i = 0; i < _args.length; i++) {
+            buf.append(_parts[i]);
+            if (_args[i] < args.length && args[_args[i]] != null)
+                args[_args[i]].appendTo(buf);
+        }
+        buf.append(_parts[_args.length]);
+    }
+
+    @Override
+    public String toString() {
+        return _template;
+    }
+
+    /**
+     * An argument of a function, rendered at its placeholders.
+     */
+    public interface Argument {
+
+        /**
+         * Append the SQL of this argument to the given buffer.
+         */
+        void appendTo(SQLBuffer buf);
+    }
+}
@@ -178,8 +178,12 @@ public class H2Dictionary extends DBDictionary {
 
         supportsSelectStartIndex = true;
         supportsSelectEndIndex = true;
+        supportsRowValueComparison = true;
         rangePosition = RANGE_POST_LOCK;
         supportsDeferredConstraints = false;
+        supportsMultiRowInsert = true;
+        supportsBatchGeneratedKeys = true;
+        maxStatementParameters = 65535;
 
         supportsNullTableForGetPrimaryKeys = true;
         supportsNullTableForGetIndexInfo = true;
@@ -253,6 +257,7 @@ public class H2Dictionary extends DBDictionary {
         super.connectedConfiguration(conn);
         if (versionLaterThan(1)) {
             supportsGetGeneratedKeys = true;
+            supportsWindowFunctions = true;
             supportsNullTableForGetPrimaryKeys = false;
             supportsNullTableForGetIndexInfo = false;
             autoAssignClause = "GENERATED ALWAYS AS IDENTITY";
@@ -80,6 +80,7 @@ public class HSQLDictionary extends DBDictionary {
         supportsQueryTimeout = false;
         supportsSelectStartIndex = true;
         supportsSelectEndIndex = true;
+        supportsRowValueComparison = true;
         supportsDeferredConstraints = false;
 
         supportsNullTableForGetPrimaryKeys = false;
@@ -47,6 +47,7 @@ public class Join
     private boolean _inverse;
     private boolean _correlated = false;
     private boolean _isNotMyJoin = false;
+    private boolean _superclass = false;
 
     /**
      * Constructor for inner and outer joins.
@@ -155,6 +156,7 @@ public class Join
         join._subs = _subs;
         join._joins = _joins;
         join._correlated = _correlated;
+        join._superclass = _superclass;
         return join;
     }
 
@@ -214,5 +216,25 @@ public class Join
     public void setIsNotMyJoin() {
         _isNotMyJoin = true;
     }
+
+    /**
+     * Whether this join goes from the table of a class to the table of its
+     * superclass.
+     *
+     * @since 4.2.0
+     */
+    public boolean isSuperclass() {
+        return _superclass;
+    }
+
+    /**
+     * Mark this join as going from the table of a class to the table of its
+     * superclass.
+     *
+     * @since 4.2.0
+     */
+    public void setSuperclass() {
+        _superclass = true;
+    }
 }
 
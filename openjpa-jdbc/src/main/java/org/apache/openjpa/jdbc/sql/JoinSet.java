@@ -260,6 +260,7 @@ class JoinSet {
             return false;
         if (remove(join, join.getIndex1())) {
             _size--;
+            _sorted = null;
             return remove(join, join.getIndex2());
         }
         return false;
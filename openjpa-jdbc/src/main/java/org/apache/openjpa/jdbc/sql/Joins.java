@@ -55,6 +55,16 @@ public interface Joins {
      */
     Joins outerJoin(ForeignKey fk, boolean inverse, boolean toMany);
 
+    /**
+     * Join the table of a class to the table of its superclass through the
+     * given foreign key. Every row of the class table has a matching row, so
+     * a select may leave the join out if nothing refers to the superclass
+     * table.
+     *
+     * @since 4.2.0
+     */
+    Joins joinSuperclass(ForeignKey fk);
+
     /**
      * Join the columns of the given foreign key, which represents a relation
      * via the given field name.
@@ -1103,6 +1103,16 @@ public class LogicalUnion
             return sel.getExcludedJoinedTableClassMeta();
         }
 
+        @Override
+        public void setCandidateClassMeta(Collection<ClassMapping> meta) {
+            sel.setCandidateClassMeta(meta);
+        }
+
+        @Override
+        public Collection<ClassMapping> getCandidateClassMeta() {
+            return sel.getCandidateClassMeta();
+        }
+
         @Override
         public DBDictionary getDictionary() {
             return dict;
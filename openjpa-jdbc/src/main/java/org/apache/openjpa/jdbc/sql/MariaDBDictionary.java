@@ -102,6 +102,7 @@ public class MariaDBDictionary extends DBDictionary {
         requiresTargetForDelete = true;
         supportsSelectStartIndex = true;
         supportsSelectEndIndex = true;
+        supportsRowValueComparison = true;
 
         datePrecision = MICRO;
 
@@ -206,6 +207,7 @@ public class MariaDBDictionary extends DBDictionary {
         supportsXMLColumn = true;
 
         if (maj > 10 || (maj == 10 && min > 1)) {
+            supportsWindowFunctions = true;
             // MariaDB supports fraction of a second
             timestampTypeName = "DATETIME{0}";
             fixedSizeTypeNameSet.remove(timestampTypeName);
@@ -95,12 +95,16 @@ public class MySQLDictionary
         distinctCountColumnSeparator = ",";
 
         supportsDeferredConstraints = false;
+        supportsMultiRowInsert = true;
+        supportsBatchGeneratedKeys = true;
+        maxStatementParameters = 65535;
         constraintNameMode = CONS_NAME_MID;
         supportsMultipleNontransactionalResultSets = false;
         requiresAliasForSubselect = true; // new versions
         requiresTargetForDelete = true;
         supportsSelectStartIndex = true;
         supportsSelectEndIndex = true;
+        supportsRowValueComparison = true;
 
         datePrecision = MICRO;
 
@@ -229,6 +233,13 @@ public class MySQLDictionary
             fractionalTypeNameSet.add(timeTypeName);
         }
 
+        // window functions came with 8.0; the group limit condition keeps
+        // outer references out of its derived table, which older 8.0
+        // releases reject
+        if (maj >= 8) {
+            supportsWindowFunctions = true;
+        }
+
         if (metaData.getDriverMajorVersion() < 5) {
             driverDeserializesBlobs = true;
         }
@@ -194,6 +194,7 @@ public class OracleDictionary
         supportsLockingWithDistinctClause = false;
         supportsSelectStartIndex = true;
         supportsSelectEndIndex = true;
+        supportsWindowFunctions = true;
 
         systemSchemaSet.addAll(Arrays.asList(new String[]{
             "AUDSYS", "CTXSYS", "MDSYS", "SYS", "SYSTEM", "WKSYS", "WMSYS", "XDB",
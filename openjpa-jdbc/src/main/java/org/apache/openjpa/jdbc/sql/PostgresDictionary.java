@@ -22,9 +22,13 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
 import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -32,17 +36,25 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.sql.Types;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -74,6 +86,15 @@ public class PostgresDictionary extends DBDictionary {
 
     private static final Localizer _loc = Localizer.forPackage(PostgresDictionary.class);
 
+    /**
+     * The number of rows converted to COPY text at a time when the batch
+     * limit does not bound them.
+     */
+    private static final int COPY_CHUNK_ROWS = 1000;
+
+    private static final DateTimeFormatter COPY_TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSSSSSSSSxxx", Locale.ROOT);
+
 
     private Method dbcpGetDelegate;
     private Method connectionUnwrap;
@@ -133,8 +154,15 @@ public class PostgresDictionary extends DBDictionary {
         datePrecision = MICRO;
         supportsAlterTableWithDropColumn = false;
         supportsDeferredConstraints = true;
+        supportsMultiRowInsert = true;
+        supportsBatchGeneratedKeys = true;
+        // the wire protocol counts parameters in a signed 16 bit integer
+        maxStatementParameters = 32767;
         supportsSelectStartIndex = true;
         supportsSelectEndIndex = true;
+        supportsRowValueComparison = true;
+        requiresTransactionForCursor = true;
+        supportsWindowFunctions = true;
 
         maxTableNameLength = 63;
         maxColumnNameLength = 63;
@@ -1197,6 +1225,319 @@ public class PostgresDictionary extends DBDictionary {
         return getPGConnection(conn).getLargeObjectAPI();
     }
 
+    /**
+     * Stream the rows through <code>COPY ... FROM STDIN</code> in text
+     * format, converting them to text a chunk of rows at a time as the
+     * driver reads them. Rows holding values that have no unambiguous text
+     * representation, such as binary or stream values, are not copied.
+     * They are found before the copy starts, as a failed copy would abort
+     * the transaction. The values of each row are recorded once, through a
+     * single recording statement, and reused to write the row.
+     */
+    @Override
+    public boolean insertBulk(Connection conn, List<RowImpl> rows,
+        int chunkSize, JDBCStore store)
+        throws SQLException {
+        RowImpl first = rows.get(0);
+        Column[] cols = first.getInsertColumns();
+        if (cols.length == 0)
+            return false;
+        CopyRecorder recorder = new CopyRecorder();
+        List<CopyValues> vals = new ArrayList<>(rows.size());
+        for (RowImpl row : rows) {
+            CopyValues rowVals = recorder.record(row, store);
+            if (!isCopyValues(rowVals))
+                return false;
+            vals.add(rowVals);
+        }
+
+        StringBuilder sql = new StringBuilder("COPY ").
+            append(getFullName(first.getTable(), false)).append(" (");
+        for (int i = 0; i < cols.length; i++) {
+            if (i > 0)
+                sql.append(", ");
+            sql.append(getColumnDBName(cols[i]));
+        }
+        sql.append(") FROM STDIN");
+
+        PGConnection pgConn = (conn instanceof DelegatingConnection)
+            ? getPGConnection((DelegatingConnection) conn)
+            : (PGConnection) unwrapConnection(conn, PGConnection.class);
+        long count;
+        try {
+            count = pgConn.getCopyAPI().copyIn(sql.toString(),
+                new CopyReader(rows, vals, (chunkSize > 0) ? chunkSize
+                : COPY_CHUNK_ROWS));
+        } catch (IOException ioe) {
+            if (ioe.getCause() instanceof SQLException)
+                throw (SQLException) ioe.getCause();
+            throw new SQLException(ioe.getMessage(), ioe);
+        }
+        if (count != rows.size())
+            throw new SQLException(_loc.get("copy-count-mismatch",
+                String.valueOf(count), String.valueOf(rows.size()),
+                sql).getMessage());
+        return true;
+    }
+
+    /**
+     * Whether all insert values of the given row can be copied as text.
+     */
+    boolean isCopyRow(RowImpl row, JDBCStore store)
+        throws SQLException {
+        return isCopyValues(new CopyRecorder().record(row, store));
+    }
+
+    /**
+     * Append a line in COPY text format holding the insert values of the
+     * given row. The values are converted by the same
+     * {@link #setTyped} calls that bind them to an INSERT statement, so
+     * the boolean representation, character storage and timestamp
+     * precision of this dictionary apply.
+     *
+     * @return false if any of the values cannot be copied as text
+     */
+    boolean appendCopyRow(StringBuilder buf, RowImpl row, JDBCStore store)
+        throws SQLException {
+        return appendCopyValues(buf, new CopyRecorder().record(row, store));
+    }
+
+    /**
+     * Whether all of the given recorded row values can be copied as text.
+     */
+    private static boolean isCopyValues(CopyValues vals) {
+        if (vals == null)
+            return false;
+        for (Object val : vals.values)
+            if (!isCopyValue(val))
+                return false;
+        return true;
+    }
+
+    /**
+     * Append a line in COPY text format holding the given recorded row
+     * values.
+     *
+     * @return false if any of the values cannot be copied as text
+     */
+    private static boolean appendCopyValues(StringBuilder buf,
+        CopyValues vals) {
+        if (vals == null)
+            return false;
+
+        int len = buf.length();
+        for (int i = 0; i < vals.values.length; i++) {
+            if (i > 0)
+                buf.append('\t');
+            if (!appendCopyValue(buf, vals.values[i], vals.calendars[i])) {
+                buf.setLength(len);
+                return false;
+            }
+        }
+        buf.append('\n');
+        return true;
+    }
+
+    /**
+     * Whether the given bound parameter value can be copied as text.
+     */
+    private static boolean isCopyValue(Object val) {
+        return val == CopyValues.NULL || val instanceof Boolean
+            || val instanceof Number || val instanceof LocalDate
+            || val instanceof LocalTime || val instanceof LocalDateTime
+            || val instanceof OffsetDateTime || val instanceof Timestamp
+            || val instanceof java.sql.Date || val instanceof Time
+            || val instanceof String;
+    }
+
+    /**
+     * Append the given bound parameter value in COPY text format.
+     *
+     * @return false if the value cannot be copied as text
+     */
+    private static boolean appendCopyValue(StringBuilder buf, Object val,
+        Calendar cal) {
+        ZoneId zone = (cal == null) ? ZoneId.systemDefault()
+            : cal.getTimeZone().toZoneId();
+        if (val == CopyValues.NULL)
+            buf.append("\\N");
+        else if (val instanceof Boolean)
+            buf.append(((Boolean) val) ? 't' : 'f');
+        else if (val instanceof BigDecimal)
+            buf.append(((BigDecimal) val).toPlainString());
+        else if (val instanceof Number || val instanceof LocalDate
+            || val instanceof LocalTime || val instanceof LocalDateTime
+            || val instanceof OffsetDateTime)
+            buf.append(val);
+        else if (val instanceof Timestamp) {
+            // the offset is ignored by columns without time zone
+            buf.append(COPY_TIMESTAMP_FORMAT.format(
+                ((Timestamp) val).toInstant().atZone(zone)));
+        } else if (val instanceof java.sql.Date)
+            buf.append(Instant.ofEpochMilli(((java.sql.Date) val).getTime()).
+                atZone(zone).toLocalDate());
+        else if (val instanceof Time)
+            buf.append(Instant.ofEpochMilli(((Time) val).getTime()).
+                atZone(zone).toLocalTime());
+        else if (val instanceof String)
+            appendCopyText(buf, (String) val);
+        else
+            return false;
+        return true;
+    }
+
+    /**
+     * Append the given text escaped for COPY text format.
+     */
+    private static void appendCopyText(StringBuilder buf, String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '\\':
+                    buf.append("\\\\");
+                    break;
+                case '\t':
+                    buf.append("\\t");
+                    break;
+                case '\n':
+                    buf.append("\\n");
+                    break;
+                case '\r':
+                    buf.append("\\r");
+                    break;
+                default:
+                    buf.append(c);
+            }
+        }
+    }
+
+    /**
+     * Reads the rows to copy in COPY text format, converting their recorded
+     * values to text a chunk of rows at a time, so that only one chunk of
+     * text is held in memory.
+     */
+    private static class CopyReader extends Reader {
+
+        private final List<RowImpl> _rows;
+        private final List<CopyValues> _vals;
+        private final int _chunk;
+        private final StringBuilder _buf = new StringBuilder();
+        private int _next = 0;
+        private int _pos = 0;
+
+        CopyReader(List<RowImpl> rows, List<CopyValues> vals, int chunk) {
+            _rows = rows;
+            _vals = vals;
+            _chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (_pos == _buf.length() && !fill())
+                return -1;
+            int n = Math.min(len, _buf.length() - _pos);
+            _buf.getChars(_pos, _pos + n, cbuf, off);
+            _pos += n;
+            return n;
+        }
+
+        /**
+         * Convert the next chunk of rows, returning false if none are left.
+         */
+        private boolean fill() throws IOException {
+            if (_next == _rows.size())
+                return false;
+            _buf.setLength(0);
+            _pos = 0;
+            int end = Math.min(_next + _chunk, _rows.size());
+            try {
+                for (; _next < end; _next++)
+                    if (!appendCopyValues(_buf, _vals.get(_next)))
+                        throw new SQLException(_loc.get("copy-row-rejected",
+                            _rows.get(_next).getTable()).getMessage());
+            } catch (SQLException se) {
+                throw new IOException(se.getMessage(), se);
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * The insert values of a row as they are bound to an INSERT statement.
+     * A value that has no text representation, such as a stream, is
+     * recorded as bound, and {@link PostgresDictionary#appendCopyValue}
+     * then rejects it.
+     */
+    private static class CopyValues {
+
+        static final Object NULL = new Object();
+
+        final Object[] values;
+        final Calendar[] calendars;
+
+        CopyValues(int size) {
+            values = new Object[size];
+            calendars = new Calendar[size];
+        }
+    }
+
+    /**
+     * Records the parameters bound to a statement so that rows can be
+     * converted to COPY text. The recording statement is created once and
+     * reused for each row.
+     */
+    private class CopyRecorder implements InvocationHandler {
+
+        private final PreparedStatement _stmnt = (PreparedStatement)
+            Proxy.newProxyInstance(PostgresDictionary.class.getClassLoader(),
+            new Class[]{ PreparedStatement.class }, this);
+        private CopyValues _vals = null;
+
+        /**
+         * Record the insert values of the given row, or return null if it
+         * has none.
+         */
+        CopyValues record(RowImpl row, JDBCStore store)
+            throws SQLException {
+            if (row.getInsertValues() == null)
+                return null;
+
+            _vals = new CopyValues(row.getInsertColumns().length);
+            boolean flushed = row.isFlushed();
+            try {
+                row.flush(_stmnt, PostgresDictionary.this, store);
+                return _vals;
+            } finally {
+                row.setFlushed(flushed);
+                _vals = null;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+            throws SQLException {
+            String name = method.getName();
+            if (!name.startsWith("set") || args == null || args.length < 2
+                || !(args[0] instanceof Integer))
+                throw new SQLException(name);
+
+            int idx = (Integer) args[0] - 1;
+            if ("setNull".equals(name))
+                _vals.values[idx] = CopyValues.NULL;
+            else
+                _vals.values[idx] = args[1];
+            if (args.length > 2 && args[2] instanceof Calendar)
+                _vals.calendars[idx] = (Calendar) args[2];
+            return null;
+        }
+    }
+
     /**
      * Get the native PostgreSQL connection from the given connection.
      * Various attempts of unwrapping are being performed.
@@ -29,8 +29,10 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 
 import org.apache.openjpa.jdbc.kernel.JDBCStore;
@@ -879,7 +881,27 @@ public class RowImpl
      * Return the SQL for a prepared statement insert on this row.
      */
     private String getInsertSQL(DBDictionary dict) {
-        StringBuilder buf = new StringBuilder();
+        return getInsertSQL(dict, 1, new StringBuilder());
+    }
+
+    /**
+     * Return the SQL that inserts the given number of rows with the same
+     * columns as this insert row in a single statement, by repeating its
+     * values list. The parameters of each row are set with
+     * {@link #flush(PreparedStatement, int, DBDictionary, JDBCStore)},
+     * starting every {@link #getInsertParameterCount} parameters.
+     *
+     * @since 4.2.0
+     */
+    public String getMultiRowInsertSQL(DBDictionary dict, int rows) {
+        // make sure all values are set
+        String sql = getSQL(dict);
+        if (rows == 1)
+            return sql;
+        return getInsertSQL(dict, rows, new StringBuilder());
+    }
+
+    private String getInsertSQL(DBDictionary dict, int rows, StringBuilder buf) {
         StringBuilder vals = new StringBuilder();
         buf.append("INSERT INTO ").
             append(dict.getFullName(getTable(), false)).append(" (");
@@ -901,10 +923,107 @@ public class RowImpl
             hasVal = true;
         }
 
-        buf.append(") VALUES (").append(vals.toString()).append(")");
+        buf.append(") VALUES (").append(vals).append(")");
+        for (int i = 1; i < rows; i++)
+            buf.append(", (").append(vals).append(")");
         return buf.toString();
     }
 
+    /**
+     * The number of parameters that {@link #flush} sets for this insert row.
+     *
+     * @since 4.2.0
+     */
+    public int getInsertParameterCount() {
+        int count = 0;
+        for (int i = 0; i < _cols.length; i++)
+            if (_vals[i] == NULL || (_vals[i] != null && _types[i] != RAW))
+                count++;
+        return count;
+    }
+
+    /**
+     * The columns this insert row sets, in the order of its INSERT statement.
+     *
+     * @since 4.2.0
+     */
+    public Column[] getInsertColumns() {
+        List<Column> cols = new ArrayList<>(_cols.length);
+        for (int i = 0; i < _cols.length; i++)
+            if (_vals[i] != null)
+                cols.add(_cols[i]);
+        return cols.toArray(new Column[cols.size()]);
+    }
+
+    /**
+     * The values this insert row sets for its {@link #getInsertColumns}, with
+     * <code>null</code> for SQL NULL. Returns <code>null</code> if any of
+     * the values is a raw SQL fragment rather than a parameter.
+     *
+     * @since 4.2.0
+     */
+    public Object[] getInsertValues() {
+        List<Object> vals = new ArrayList<>(_cols.length);
+        for (int i = 0; i < _cols.length; i++) {
+            if (_vals[i] == null)
+                continue;
+            if (_vals[i] == NULL)
+                vals.add(null);
+            else if (_types[i] == RAW)
+                return null;
+            else
+                vals.add(_vals[i]);
+        }
+        return vals.toArray();
+    }
+
+    /**
+     * The only column of the WHERE clause of this row, or null if the clause
+     * compares more than one column or does not compare the column with a
+     * parameter. The SQL of the row must have been generated.
+     *
+     * @since 4.2.0
+     */
+    public Column getWhereKeyColumn() {
+        Column key = null;
+        int idx;
+        for (int i = 0; i < _cols.length; i++) {
+            idx = getWhereIndex(_cols[i]);
+            if (_vals[idx] == null)
+                continue;
+            if (key != null || _vals[idx] == NULL || _types[idx] == RAW)
+                return null;
+            key = _cols[i];
+        }
+        return key;
+    }
+
+    /**
+     * Return the SQL that deletes the given number of rows of the same table
+     * as this delete row in a single statement, with an IN list on its
+     * {@link #getWhereKeyColumn}. The parameter of each row is set with
+     * {@link #flush(PreparedStatement, int, DBDictionary, JDBCStore)}.
+     *
+     * @since 4.2.0
+     */
+    public String getMultiRowDeleteSQL(DBDictionary dict, int rows) {
+        // make sure all values are set
+        String sql = getSQL(dict);
+        if (rows == 1)
+            return sql;
+
+        StringBuilder buf = new StringBuilder();
+        buf.append("DELETE FROM ").
+            append(dict.getFullName(getTable(), false)).append(" WHERE ").
+            append(dict.getColumnDBName(getWhereKeyColumn())).append(" IN (");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0)
+                buf.append(", ");
+            buf.append("?");
+        }
+        return buf.append(")").toString();
+    }
+
     /**
      * Return the SQL for a prepared statement delete on this row.
      */
@@ -63,7 +63,7 @@ public final class SQLBuffer
     private static final String PARAMETER_TOKEN = "?";
 
     private final DBDictionary _dict;
-    private final StringBuilder _sql = new StringBuilder();
+    private final StringBuilder _sql;
     private List _subsels = null;
     private List _params = null;
     private List _cols = null;
@@ -78,6 +78,18 @@ public final class SQLBuffer
      */
     public SQLBuffer(DBDictionary dict) {
         _dict = dict;
+        _sql = new StringBuilder();
+    }
+
+    /**
+     * Constructor for a buffer that will hold SQL of about the given length,
+     * sparing the copies of a growing buffer.
+     *
+     * @since 4.2.0
+     */
+    public SQLBuffer(DBDictionary dict, int capacity) {
+        _dict = dict;
+        _sql = new StringBuilder(capacity);
     }
 
     /**
@@ -85,6 +97,7 @@ public final class SQLBuffer
      */
     public SQLBuffer(SQLBuffer buf) {
         _dict = buf._dict;
+        _sql = new StringBuilder(buf._sql.length());
         append(buf);
     }
 
@@ -103,6 +116,16 @@ public final class SQLBuffer
         return _sql.length() == 0;
     }
 
+    /**
+     * Return the length of the SQL appended so far, without resolving
+     * subselects.
+     *
+     * @since 4.2.0
+     */
+    public int length() {
+        return _sql.length();
+    }
+
     /**
      * Append all SQL and parameters of the given buffer.
      */
@@ -138,6 +138,7 @@ public class SQLServerDictionary extends AbstractSQLServerDictionary {
                 rangePosition = RANGE_POST_SELECT;
                 supportsSelectStartIndex = true;
                 supportsSelectEndIndex = true;
+                supportsWindowFunctions = true;
             }
             if (driverName != null) {
                 if (driverName.startsWith("Microsoft SQL Server")) {
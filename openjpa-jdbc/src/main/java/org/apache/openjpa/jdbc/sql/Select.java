@@ -786,5 +786,26 @@ public interface Select
      */
     List getExcludedJoinedTableClassMeta();
 
+    /**
+     * Set the concrete types of the candidates a polymorphic query can
+     * match, or null if they are not restricted. Subclasses that cannot hold
+     * one of them are not joined when selecting the candidates. Ignores the
+     * types by default, so that every subclass is joined.
+     *
+     * @since 4.2.0
+     */
+    default void setCandidateClassMeta(Collection<ClassMapping> meta) {
+    }
+
+    /**
+     * Get the concrete types of the candidates a polymorphic query can
+     * match, or null if they are not restricted. Returns null by default.
+     *
+     * @since 4.2.0
+     */
+    default Collection<ClassMapping> getCandidateClassMeta() {
+        return null;
+    }
+
     DBDictionary getDictionary() ;
 }
@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
@@ -51,11 +52,16 @@ import org.apache.openjpa.jdbc.meta.ValueMapping;
 import org.apache.openjpa.jdbc.meta.strats.RelationStrategies;
 import org.apache.openjpa.jdbc.schema.Column;
 import org.apache.openjpa.jdbc.schema.ForeignKey;
+import org.apache.openjpa.jdbc.schema.PrimaryKey;
 import org.apache.openjpa.jdbc.schema.Table;
+import org.apache.openjpa.jdbc.schema.Unique;
+import org.apache.openjpa.kernel.QueryHints;
+import org.apache.openjpa.kernel.QueryStatistics;
 import org.apache.openjpa.kernel.StoreContext;
 import org.apache.openjpa.kernel.exps.Context;
 import org.apache.openjpa.kernel.exps.QueryExpressions;
 import org.apache.openjpa.kernel.exps.Value;
+import org.apache.openjpa.lib.jdbc.DelegatingConnection;
 import org.apache.openjpa.lib.log.Log;
 import org.apache.openjpa.lib.util.Localizer;
 import org.apache.openjpa.lib.util.StringUtil;
@@ -148,6 +154,12 @@ public class SelectImpl
     private SQLBuffer _having = null;
     private SQLBuffer _full = null;
 
+    // number of joins left out of the SQL of this select, and the query
+    // statistics to report them to
+    private int _prunedJoins = 0;
+    private QueryStatistics<String> _stats = null;
+    private String _query = null;
+
     // joins to add to the end of our where clause, and joins to prepend to
     // all selects (see select(classmapping) method)
     private SelectJoins _joins = null;
@@ -176,6 +188,7 @@ public class SelectImpl
     private ClassMapping _tpcMeta = null;
     private List _joinedTables = null;
     private List _exJoinedTables = null;
+    private Collection<ClassMapping> _candidateTypes = null;
 
     @Override
     public ClassMapping getTablePerClassMeta() {
@@ -206,6 +219,16 @@ public class SelectImpl
         return _exJoinedTables;
     }
 
+    @Override
+    public void setCandidateClassMeta(Collection<ClassMapping> meta) {
+        _candidateTypes = meta;
+    }
+
+    @Override
+    public Collection<ClassMapping> getCandidateClassMeta() {
+        return _candidateTypes;
+    }
+
 
     /**
      * Helper method to return the proper table alias for the given alias index.
@@ -269,10 +292,197 @@ public class SelectImpl
 
     @Override
     public SQLBuffer toSelect(boolean forUpdate, JDBCFetchConfiguration fetch) {
+        // joined tables are locked along with the rows they join to
+        if (!forUpdate)
+            pruneJoins();
         _full = _dict.toSelect(this, forUpdate, fetch);
         return _full;
     }
 
+    /**
+     * Remove the joins that cannot change the result of this select. A join
+     * is removed when nothing else in the select refers to the table it
+     * joins to, and it either outer joins at most one row of that table,
+     * joins the table of a superclass, or inner joins the row that a foreign
+     * key enforced by the database refers to. In the latter case the join is
+     * replaced by a condition that the foreign key is not null. Such joins
+     * are left behind when a relation is navigated only for the foreign key
+     * the joining table holds, or when the tables of a class hierarchy are
+     * joined but none of their columns end up being selected.
+     *
+     * @return the number of joins removed
+     * @since 4.2.0
+     */
+    public int pruneJoins() {
+        if (_joins == null || _joins.joins() == null
+            || _joins.joins().isEmpty() || _tables == null)
+            return 0;
+        // subselects and set operations may refer to our tables in ways
+        // that do not show in our own clauses; a select that only might
+        // have subselects has none once it is rendered without them
+        if (_parent != null || _from != null || _outer != null
+            || (_subsels != null && !_subsels.isEmpty())
+            || _setOperatorBuf != null)
+            return 0;
+
+        // class conditions of joined relations refer to the joined tables
+        addJoinClassConditions();
+        String sql = getReferencingSQL();
+        JoinSet joins = _joins.joins();
+        int pruned = 0;
+        for (Join join = getPrunableJoin(joins, sql); join != null;
+            join = getPrunableJoin(joins, sql)) {
+            joins.remove(join);
+            _tables.remove(join.getIndex2());
+            if (join.getType() == Join.TYPE_INNER && !join.isSuperclass())
+                whereNotNull(join);
+            pruned++;
+        }
+        _prunedJoins += pruned;
+        if (_stats != null)
+            _stats.recordPrunedJoins(_query, pruned);
+        return pruned;
+    }
+
+    /**
+     * Report the joins left out of the SQL of this select to the given
+     * statistics under the given query.
+     *
+     * @since 4.2.0
+     */
+    public void setQueryStatistics(QueryStatistics<String> stats,
+        String query) {
+        _stats = stats;
+        _query = query;
+    }
+
+    /**
+     * The number of joins left out of the SQL of this select.
+     *
+     * @since 4.2.0
+     */
+    public int getPrunedJoinCount() {
+        return _prunedJoins;
+    }
+
+    /**
+     * Return the lower-cased SQL of the clauses of this select that may
+     * refer to the joined tables.
+     */
+    private String getReferencingSQL() {
+        StringBuilder buf = new StringBuilder();
+        for (Object alias : getSelectAliases()) {
+            if (alias instanceof SQLBuffer)
+                buf.append(((SQLBuffer) alias).getSQL());
+            else
+                buf.append(alias);
+            buf.append(' ');
+        }
+        SQLBuffer[] clauses = { _where, _ordering, _grouping, _having };
+        for (SQLBuffer clause : clauses)
+            if (clause != null)
+                buf.append(clause.getSQL()).append(' ');
+        return buf.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Return a join, as it will be rendered, that can be left out of the
+     * given joins, or null if there is none.
+     */
+    private static Join getPrunableJoin(JoinSet joins, String sql) {
+        Join join;
+        for (Iterator itr = joins.joinIterator(); itr.hasNext();) {
+            join = (Join) itr.next();
+            if (isPrunable(join, joins, sql))
+                return join;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the given join can be left out of the given joins without
+     * changing the result of the select with the given SQL.
+     */
+    private static boolean isPrunable(Join join, JoinSet joins, String sql) {
+        ForeignKey fk = join.getForeignKey();
+        if (fk == null || join.getType() == Join.TYPE_CROSS
+            || join.isCorrelated() || join.getRelationTarget() != null)
+            return false;
+
+        // an inner join drops the rows without a match, unless it joins a
+        // class table to its superclass table or follows a foreign key that
+        // the database enforces, which only leaves rows with a null key
+        if (join.getType() == Join.TYPE_INNER
+            && (join.isForeignKeyInversed() || (!join.isSuperclass()
+            && !isEnforced(fk))))
+            return false;
+
+        // nothing else may refer to the joined table
+        int idx = join.getIndex2();
+        Join other;
+        for (Iterator itr = joins.iterator(); itr.hasNext();) {
+            other = (Join) itr.next();
+            if (!other.equals(join)
+                && (other.getIndex1() == idx || other.getIndex2() == idx))
+                return false;
+        }
+        if (isReferenced(sql, join.getAlias2()))
+            return false;
+
+        // the join must not repeat the rows it joins from
+        Column[] cols = (join.isForeignKeyInversed()) ? fk.getColumns()
+            : fk.getPrimaryKeyColumns();
+        return isUnique(join.getTable2(), cols);
+    }
+
+    /**
+     * Whether the database guarantees that every non-null value of the given
+     * foreign key refers to an existing row.
+     */
+    private static boolean isEnforced(ForeignKey fk) {
+        return !fk.isLogical() && !fk.isDeferred()
+            && fk.getConstantColumns().length == 0
+            && fk.getConstantPrimaryKeyColumns().length == 0;
+    }
+
+    /**
+     * Keep the rows that the given pruned inner join dropped for having a
+     * null foreign key out of the result.
+     */
+    private void whereNotNull(Join join) {
+        for (Column col : join.getForeignKey().getColumns())
+            if (!col.isNotNull())
+                where(join.getAlias1() + "." + _dict.getColumnDBName(col)
+                    + " IS NOT NULL");
+    }
+
+    /**
+     * Whether the given SQL refers to the columns of the given table alias.
+     */
+    private static boolean isReferenced(String sql, String alias) {
+        String ref = alias + ".";
+        for (int i = sql.indexOf(ref); i != -1; i = sql.indexOf(ref, i + 1))
+            if (i == 0 || !Character.isJavaIdentifierPart(sql.charAt(i - 1)))
+                return true;
+        return false;
+    }
+
+    /**
+     * Whether the given columns include the primary key or a unique
+     * constraint of the given table.
+     */
+    private static boolean isUnique(Table table, Column[] cols) {
+        PrimaryKey pk = table.getPrimaryKey();
+        if (pk != null && pk.getColumns().length > 0
+            && containsAll(cols, pk.getColumns()))
+            return true;
+        for (Unique unq : table.getUniques())
+            if (unq.getColumns().length > 0
+                && containsAll(cols, unq.getColumns()))
+                return true;
+        return false;
+    }
+
     @Override
     public SQLBuffer getSQL() {
         return _full;
@@ -448,6 +658,7 @@ public class SelectImpl
         Connection conn = store.getConnection();
         PreparedStatement stmnt = null;
         ResultSet rs = null;
+        boolean resetAutoCommit = false;
         try {
             if (isLRS)
                 stmnt = prepareStatement(conn, sql, fetch, rsType, -1, true);
@@ -455,15 +666,25 @@ public class SelectImpl
                 stmnt = prepareStatement(conn, sql, null, rsType, -1, false);
 
             _dict.setTimeouts(stmnt, fetch, forUpdate);
+            if (isLRS && fetch.getHint(QueryHints.HINT_RESULT_STREAM) != null)
+                resetAutoCommit = _dict.configureStreaming(conn, stmnt,
+                    fetch.getFetchBatchSize());
 
             rs = executeQuery(conn, stmnt, sql, isLRS, store);
         } catch (SQLException se) {
             // clean up statement
             if (stmnt != null)
                 try { stmnt.close(); } catch (SQLException se2) {}
+            if (resetAutoCommit)
+                try {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                } catch (SQLException se2) {}
             try { conn.close(); } catch (SQLException se2) {}
             throw se;
         }
+        if (resetAutoCommit)
+            conn = new CursorConnection(conn, store.getContext());
         return getEagerResult(conn, stmnt, rs, store, fetch, forUpdate, sql);
     }
 
@@ -785,7 +1006,7 @@ public class SelectImpl
      * Return the alias for the given column.
      */
     private String getColumnAlias(Column col, PathJoins pj) {
-        return getColumnAlias(col.getIdentifier().getName(), col.getTable(), pj);
+        return getTableAlias(col.getTable(), pj).append(_dict.getColumnDBName(col)).toString();
     }
 
     @Override
@@ -814,8 +1035,7 @@ public class SelectImpl
                 else if (join.getTable2() == table)
                     tableAlias = join.getAlias2();
                 if (tableAlias != null)
-                    return tableAlias + "." +
-                            _dict.toDBName(col.getIdentifier());
+                    return tableAlias + "." + _dict.getColumnDBName(col);
             }
         }
         throw new InternalException("Can not resolve alias for field: " +
@@ -1884,6 +2104,7 @@ public class SelectImpl
             sel._flags = _flags;
             sel._expectedResultCount = _expectedResultCount;
             sel._selects.addAll(_selects);
+            sel._candidateTypes = _candidateTypes;
             if (_ordering != null)
                 sel._ordering = new SQLBuffer(_ordering);
             sel._orders = _orders;
@@ -2348,7 +2569,8 @@ public class SelectImpl
 
     @Override
     public String toString() {
-        return toSelect(false, null).getSQL();
+        // not pruned, as the select may still be under construction
+        return _dict.toSelect(this, false, null).getSQL();
     }
 
     ////////////////////////////
@@ -2414,6 +2636,11 @@ public class SelectImpl
         return new SelectJoins(this).outerJoin(fk, inverse, toMany);
     }
 
+    @Override
+    public Joins joinSuperclass(ForeignKey fk) {
+        return new SelectJoins(this).joinSuperclass(fk);
+    }
+
     @Override
     public Joins joinRelation(String name, ForeignKey fk, ClassMapping target,
         int subs, boolean inverse, boolean toMany) {
@@ -2454,6 +2681,35 @@ public class SelectImpl
     private static class Placeholder {
     }
 
+    /**
+     * Connection of a streamed result for which auto-commit was switched off
+     * to keep its cursor. Rolls back the cursor's read-only transaction
+     * rather than committing it, and restores auto-commit when the result
+     * closes it, unless a transaction began in the meantime.
+     */
+    private static class CursorConnection
+        extends DelegatingConnection {
+
+        private final StoreContext _ctx;
+
+        public CursorConnection(Connection conn, StoreContext ctx) {
+            super(conn);
+            _ctx = ctx;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (!_ctx.isActive()) {
+                    rollback();
+                    setAutoCommit(true);
+                }
+            } finally {
+                super.close();
+            }
+        }
+    }
+
     public SelectImpl clone(Context ctx) {
         SelectImpl sel = (SelectImpl) _conf.getSQLFactoryInstance().newSelect();
         sel._ctx = ctx;
@@ -2748,7 +3004,7 @@ public class SelectImpl
                 return alias + "_" + col;
             }
             alias = SelectImpl.toAlias(_sel.getTableIndex(col.getTable(), pj, false));
-            return (alias == null) ? null : alias + "." + _sel._dict.toDBName(DBIdentifier.newColumn(col.toString()));
+            return (alias == null) ? null : alias + "." + _sel._dict.getColumnDBName(col);
         }
 
         ////////////////////////////
@@ -2814,6 +3070,11 @@ public class SelectImpl
             return this;
         }
 
+        @Override
+        public Joins joinSuperclass(ForeignKey fk) {
+            return this;
+        }
+
         @Override
         public Joins joinRelation(String name, ForeignKey fk,
             ClassMapping target, int subs, boolean inverse, boolean toMany) {
@@ -2996,6 +3257,11 @@ public class SelectImpl
             return this;
         }
 
+        @Override
+        public Joins joinSuperclass(ForeignKey fk) {
+            return join(fk, false, false);
+        }
+
         @Override
         public Joins joinRelation(String name, ForeignKey fk,
             ClassMapping target, int subs, boolean inverse, boolean toMany) {
@@ -3173,28 +3439,34 @@ public class SelectImpl
 
         @Override
         public Joins join(ForeignKey fk, boolean inverse, boolean toMany) {
-            return join(null, fk, null, -1, inverse, toMany, false);
+            return join(null, fk, null, -1, inverse, toMany, false, false);
         }
 
         @Override
         public Joins outerJoin(ForeignKey fk, boolean inverse, boolean toMany) {
-            return join(null, fk, null, -1, inverse, toMany, true);
+            return join(null, fk, null, -1, inverse, toMany, true, false);
+        }
+
+        @Override
+        public Joins joinSuperclass(ForeignKey fk) {
+            return join(null, fk, null, -1, false, false, false, true);
         }
 
         @Override
         public Joins joinRelation(String name, ForeignKey fk,
             ClassMapping target, int subs, boolean inverse, boolean toMany) {
-            return join(name, fk, target, subs, inverse, toMany, false);
+            return join(name, fk, target, subs, inverse, toMany, false, false);
         }
 
         @Override
         public Joins outerJoinRelation(String name, ForeignKey fk,
             ClassMapping target, int subs, boolean inverse, boolean toMany) {
-            return join(name, fk, target, subs, inverse, toMany, true);
+            return join(name, fk, target, subs, inverse, toMany, true, false);
         }
 
         private Joins join(String name, ForeignKey fk, ClassMapping target,
-            int subs, boolean inverse, boolean toMany, boolean outer) {
+            int subs, boolean inverse, boolean toMany, boolean outer,
+            boolean superclass) {
             // don't let the get alias methods see that a var has been set
             // until we get past the local table
             String var = this.var;
@@ -3250,6 +3522,8 @@ public class SelectImpl
                     alias2 = _sel.getTableIndex(table2, this, createIndex);
                 Join j = new Join(table1, alias1, table2, alias2, fk, inverse);
                 j.setType((outer) ? Join.TYPE_OUTER : Join.TYPE_INNER);
+                if (superclass)
+                    j.setSuperclass();
 
                 if (_joins == null)
                     _joins = new JoinSet();
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestBatchLimitTuner {
+
+    private static final String TABLE = "T";
+
+    @Test
+    public void testInitialLimitIsClamped() {
+        assertEquals(50, new BatchLimitTuner(10, 50, 100, null).getBatchLimit(TABLE));
+        assertEquals(10, new BatchLimitTuner(10, 50, 5, null).getBatchLimit(TABLE));
+        assertEquals(50, new BatchLimitTuner(10, 50, -1, null).getBatchLimit(TABLE));
+    }
+
+    @Test
+    public void testLimitConvergesToBestThroughput() {
+        BatchLimitTuner tuner = new BatchLimitTuner(10, 1000, 10, null);
+        for (int i = 0; i < 100; i++) {
+            int limit = tuner.getBatchLimit(TABLE);
+            tuner.recordBatch(TABLE, limit, cost(limit));
+        }
+        int limit = tuner.getBatchLimit(TABLE);
+        assertTrue("limit " + limit, limit >= 80 && limit <= 320);
+    }
+
+    @Test
+    public void testPartialBatchesAloneKeepLimit() {
+        BatchLimitTuner tuner = new BatchLimitTuner(10, 1000, 20, null);
+        for (int i = 0; i < 10; i++)
+            tuner.recordBatch(TABLE, 5, 1);
+        assertEquals(20, tuner.getBatchLimit(TABLE));
+    }
+
+    @Test
+    public void testFasterPartialBatchesLowerLimit() {
+        BatchLimitTuner tuner = new BatchLimitTuner(10, 1000, 20, null);
+        for (int i = 0; i < BatchLimitTuner.SAMPLES; i++)
+            tuner.recordBatch(TABLE, 20, 20000);
+        assertEquals(40, tuner.getBatchLimit(TABLE));
+        for (int i = 0; i < BatchLimitTuner.SAMPLES; i++)
+            tuner.recordBatch(TABLE, 10, 1000);
+        assertEquals(20, tuner.getBatchLimit(TABLE));
+    }
+
+    @Test
+    public void testLimitsAreReported() {
+        BatchStatistics stats = new BatchStatistics();
+        BatchLimitTuner tuner = new BatchLimitTuner(10, 1000, 20, stats);
+        for (int i = 0; i < BatchLimitTuner.SAMPLES; i++)
+            tuner.recordBatch(TABLE, 20, 1000);
+        assertEquals(Integer.valueOf(40), stats.getBatchLimits().get(TABLE));
+        stats.reset();
+        assertEquals(Integer.valueOf(40), stats.getBatchLimits().get(TABLE));
+    }
+
+    /**
+     * Nanoseconds a batch of the given size takes: a fixed round trip plus
+     * a per-row cost that grows beyond 160 rows, so that the throughput
+     * peaks around 160 rows.
+     */
+    private static long cost(int rows) {
+        long perRow = 1000 + Math.max(0, rows - 160) * 50L;
+        return 100000 + rows * perRow;
+    }
+}
@@ -18,9 +18,13 @@
  */
 package org.apache.openjpa.jdbc.sql;
 
+import org.apache.openjpa.jdbc.identifier.DBIdentifier;
+import org.apache.openjpa.jdbc.schema.Column;
+import org.apache.openjpa.jdbc.schema.Table;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class TestDBDictionary {
     @Test
@@ -32,4 +36,24 @@ public class TestDBDictionary {
         assertEquals("o_f_o_ob", dictionary.toSnakeCase("oFOOb"));
         assertEquals("\"foo_bar\"", dictionary.toSnakeCase("\"fooBar\""));
     }
+
+    @Test
+    public void namesAreCachedOnceConnected() {
+        final DBDictionary dictionary = new DBDictionary();
+        final Table table = new Table(DBIdentifier.newTable("T"), null);
+        final Column column = table.addColumn(DBIdentifier.newColumn("C"));
+        assertEquals("C", dictionary.getColumnDBName(column));
+        assertNull(column.getDBName(dictionary));
+
+        dictionary.connected = true;
+        assertEquals("C", dictionary.getColumnDBName(column));
+        assertEquals("C", column.getDBName(dictionary));
+        assertNull(column.getDBName(new DBDictionary()));
+        assertEquals("T", dictionary.getFullName(table, false));
+        assertEquals("T", table.getDBName(dictionary));
+
+        table.setIdentifier(DBIdentifier.newTable("U"));
+        assertNull(table.getDBName(dictionary));
+        assertEquals("U", dictionary.getFullName(table, false));
+    }
 }
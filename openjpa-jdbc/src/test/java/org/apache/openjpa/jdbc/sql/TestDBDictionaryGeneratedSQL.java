@@ -19,9 +19,15 @@
 package org.apache.openjpa.jdbc.sql;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
 import org.apache.openjpa.jdbc.identifier.DBIdentifier;
 import org.apache.openjpa.jdbc.identifier.DBIdentifierUtilImpl;
@@ -224,4 +230,102 @@ public class TestDBDictionaryGeneratedSQL {
         assertEquals(1, sqls.length);
         assertEquals(sqls[0], "ALTER TABLE `NameIsRight` DROP COLUMN `MyColumn`");
     }
+
+    @Test
+    public void testGroupLimitCondition() {
+        final JDBCConfiguration mockConfiguration = context.mock(JDBCConfiguration.class);
+        final DBIdentifierUtilImpl idImpl = new DBIdentifierUtilImpl();
+
+        context.checking(new Expectations()
+        {
+            {
+                allowing(mockConfiguration).getIdentifierUtilInstance();
+                will(returnValue(idImpl));
+
+                allowing(mockConfiguration);
+            }
+        });
+
+        DBDictionary dict = new DBDictionary();
+        dict.setConfiguration(mockConfiguration);
+
+        Table table = new Table();
+        table.setIdentifier(DBIdentifier.newTable("CHILD"));
+        Column id = table.addColumn(DBIdentifier.newColumn("ID"));
+        Column parent = table.addColumn(DBIdentifier.newColumn("PARENT_ID"));
+        Column name = table.addColumn(DBIdentifier.newColumn("NAME"));
+        Column[] pks = new Column[]{ id };
+        String[] aliases = new String[]{ "t1.ID" };
+        Column[] groups = new Column[]{ parent };
+        SQLBuffer owners = new SQLBuffer(dict).append("SELECT t0.ID FROM PARENT t0 WHERE t0.NAME = ").appendValue("x");
+        Column[] orders = new Column[]{ name };
+        boolean[] asc = new boolean[]{ false };
+
+        assertNull(dict.getGroupLimitCondition(table, pks, aliases, groups, owners, orders, asc, 5));
+
+        dict.supportsWindowFunctions = true;
+        SQLBuffer cond = dict.getGroupLimitCondition(table, pks, aliases, groups, owners, orders, asc, 5);
+        assertEquals("EXISTS (SELECT 1 FROM (SELECT ID, ROW_NUMBER() OVER (PARTITION BY PARENT_ID ORDER BY NAME DESC) "
+            + "AS rn_ FROM CHILD WHERE PARENT_ID IN (SELECT t0.ID FROM PARENT t0 WHERE t0.NAME = ?)) r_ "
+            + "WHERE r_.rn_ <= 5 AND r_.ID = t1.ID)", cond.getSQL());
+        assertEquals(1, cond.getParameters().size());
+        assertEquals("EXISTS (SELECT 1 FROM (SELECT ID, ROW_NUMBER() OVER (PARTITION BY PARENT_ID ORDER BY NAME DESC) "
+            + "AS rn_ FROM CHILD) r_ WHERE r_.rn_ <= 5 AND r_.ID = t1.ID)",
+            dict.getGroupLimitCondition(table, pks, aliases, groups, null, orders, asc, 5).getSQL());
+    }
+
+    @Test
+    public void testKeysetCondition() {
+        final JDBCConfiguration mockConfiguration = context.mock(JDBCConfiguration.class);
+        final DBIdentifierUtilImpl idImpl = new DBIdentifierUtilImpl();
+
+        context.checking(new Expectations()
+        {
+            {
+                allowing(mockConfiguration).getIdentifierUtilInstance();
+                will(returnValue(idImpl));
+
+                allowing(mockConfiguration);
+            }
+        });
+
+        DBDictionary dict = new DBDictionary();
+        dict.setConfiguration(mockConfiguration);
+
+        SQLBuffer[] cols = new SQLBuffer[]{ new SQLBuffer(dict).append("t0.A"), new SQLBuffer(dict).append("t0.B") };
+        SQLBuffer[] vals = new SQLBuffer[]{ new SQLBuffer(dict).appendValue(1), new SQLBuffer(dict).appendValue(2) };
+
+        SQLBuffer cond = dict.getKeysetCondition(cols, vals, new boolean[]{ true, true });
+        assertEquals("(t0.A >= ? AND (t0.A > ? OR (t0.B > ?)))", cond.getSQL());
+        assertEquals(3, cond.getParameters().size());
+        assertEquals("(t0.A <= ? AND (t0.A < ? OR (t0.B > ?)))",
+            dict.getKeysetCondition(cols, vals, new boolean[]{ false, true }).getSQL());
+
+        dict.supportsRowValueComparison = true;
+        assertEquals("(t0.A, t0.B) < (?, ?)", dict.getKeysetCondition(cols, vals, new boolean[]{ false, false }).getSQL());
+        assertEquals("(t0.A <= ? AND (t0.A < ? OR (t0.B > ?)))",
+            dict.getKeysetCondition(cols, vals, new boolean[]{ false, true }).getSQL());
+    }
+
+    @Test
+    public void testConfigureStreaming() throws SQLException {
+        final Connection mockConnection = context.mock(Connection.class);
+        final PreparedStatement mockStatement = context.mock(PreparedStatement.class);
+
+        context.checking(new Expectations()
+        {
+            {
+                oneOf(mockStatement).setFetchSize(100);
+                oneOf(mockStatement).setFetchSize(25);
+                allowing(mockConnection).getAutoCommit();
+                will(returnValue(true));
+                oneOf(mockConnection).setAutoCommit(false);
+            }
+        });
+
+        DBDictionary dict = new DBDictionary();
+        assertFalse(dict.configureStreaming(mockConnection, mockStatement, 0));
+        dict.requiresTransactionForCursor = true;
+        assertTrue(dict.configureStreaming(mockConnection, mockStatement, 25));
+    }
 }
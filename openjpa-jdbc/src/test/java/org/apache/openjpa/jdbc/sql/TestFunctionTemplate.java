@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestFunctionTemplate {
+
+    private final DBDictionary _dict = new DBDictionary();
+
+    private String render(String func, String... args) {
+        FunctionTemplate.Argument[] vals = new FunctionTemplate.Argument[args.length];
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            vals[i] = b -> b.append(arg);
+        }
+        SQLBuffer buf = new SQLBuffer(_dict);
+        new FunctionTemplate(func).appendTo(buf, vals);
+        return buf.getSQL();
+    }
+
+    @Test
+    public void testArgumentsAreRenderedAtPlaceholders() {
+        assertEquals("CAST(t0.A AS INTEGER)", render("CAST({0} AS {1})", "t0.A", "INTEGER"));
+        assertEquals("UPPER(t0.A)", render("UPPER({0})", "t0.A"));
+        assertEquals("TRIM('x' FROM t0.A)", render("TRIM({1} FROM {0})", "t0.A", "'x'"));
+        assertEquals("(t0.A + t0.A)", render("({0} + {0})", "t0.A"));
+        assertEquals("CURRENT_DATE", render("CURRENT_DATE"));
+    }
+
+    @Test
+    public void testOtherBracesAreLiteral() {
+        assertEquals("{fn UCASE(t0.A)}", render("{fn UCASE({0})}", "t0.A"));
+        assertEquals("LTRIM(t0.A){}", render("LTRIM({0}){}", "t0.A"));
+    }
+
+    @Test
+    public void testParts() {
+        FunctionTemplate template = new FunctionTemplate("LTRIM({0})");
+        assertEquals("LTRIM(", template.getPrefix());
+        assertEquals(")", template.getSuffix());
+        assertTrue(template.hasArgument(0));
+        assertFalse(template.hasArgument(1));
+    }
+
+    @Test
+    public void testTemplatesAreCachedByDictionary() {
+        FunctionTemplate template = _dict.getFunctionTemplate(_dict.concatenateFunction);
+        assertSame(template, _dict.getFunctionTemplate(new String(_dict.concatenateFunction)));
+        assertNull(_dict.getFunctionTemplate(null));
+    }
+}
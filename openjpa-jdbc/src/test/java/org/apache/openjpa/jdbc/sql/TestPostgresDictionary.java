@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.jdbc.sql;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.apache.openjpa.jdbc.identifier.DBIdentifier;
+import org.apache.openjpa.jdbc.schema.Column;
+import org.apache.openjpa.jdbc.schema.Table;
+import org.apache.openjpa.meta.JavaTypes;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the COPY text encoding of insert rows by {@link PostgresDictionary}.
+ */
+public class TestPostgresDictionary {
+
+    private static Column addColumn(Table table, String name, int type,
+        int javaType) {
+        Column col = table.addColumn(DBIdentifier.newColumn(name));
+        col.setType(type);
+        col.setJavaType(javaType);
+        return col;
+    }
+
+    private static String copyRow(PostgresDictionary dict, RowImpl row)
+        throws Exception {
+        StringBuilder buf = new StringBuilder();
+        assertTrue(dict.appendCopyRow(buf, row, null));
+        return buf.toString();
+    }
+
+    @Test
+    public void testCopyTextNullsAndEscapes() throws Exception {
+        Table table = new Table(DBIdentifier.newTable("T"), null);
+        Column name = addColumn(table, "NAME", Types.VARCHAR, JavaTypes.STRING);
+        Column note = addColumn(table, "NOTE", Types.VARCHAR, JavaTypes.STRING);
+        RowImpl row = new RowImpl(table, Row.ACTION_INSERT);
+        row.setString(name, "a\\b\tc\nd\re");
+        row.setNull(note);
+
+        assertEquals("a\\\\b\\tc\\nd\\re\t\\N\n",
+            copyRow(new PostgresDictionary(), row));
+        assertTrue(new PostgresDictionary().isCopyRow(row, null));
+    }
+
+    @Test
+    public void testCopyTextBooleans() throws Exception {
+        Table table = new Table(DBIdentifier.newTable("T"), null);
+        Column yes = addColumn(table, "YES", Types.BOOLEAN, JavaTypes.BOOLEAN);
+        Column no = addColumn(table, "NO", Types.BOOLEAN, JavaTypes.BOOLEAN);
+        RowImpl row = new RowImpl(table, Row.ACTION_INSERT);
+        row.setBoolean(yes, true);
+        row.setBoolean(no, false);
+
+        PostgresDictionary dict = new PostgresDictionary();
+        assertEquals("t\tf\n", copyRow(dict, row));
+
+        dict.booleanRepresentation = BooleanRepresentationFactory.valueOf(
+            "STRING_YN", getClass().getClassLoader());
+        assertEquals("Y\tN\n", copyRow(dict, row));
+        dict.booleanRepresentation = BooleanRepresentationFactory.INT_10;
+        assertEquals("1\t0\n", copyRow(dict, row));
+    }
+
+    @Test
+    public void testCopyTextChars() throws Exception {
+        Table table = new Table(DBIdentifier.newTable("T"), null);
+        Column text = addColumn(table, "TEXT", Types.CHAR, JavaTypes.CHAR);
+        Column number = addColumn(table, "NUM", Types.INTEGER, JavaTypes.CHAR);
+        Column zero = addColumn(table, "ZERO", Types.CHAR, JavaTypes.CHAR);
+        RowImpl row = new RowImpl(table, Row.ACTION_INSERT);
+        row.setChar(text, '\t');
+        row.setChar(number, 'A');
+        row.setChar(zero, (char) 0);
+
+        assertEquals("\\t\t65\t\\N\n", copyRow(new PostgresDictionary(), row));
+    }
+
+    @Test
+    public void testCopyTextTimestamps() throws Exception {
+        Table table = new Table(DBIdentifier.newTable("T"), null);
+        Column micros = addColumn(table, "MICROS", Types.TIMESTAMP, JavaTypes.DATE);
+        Column millis = addColumn(table, "MILLIS", Types.TIMESTAMP, JavaTypes.DATE);
+        millis.setPrecision(3);
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        Calendar plusTwo = Calendar.getInstance(TimeZone.getTimeZone("GMT+02:00"));
+        Timestamp ts = Timestamp.from(Instant.parse("2024-01-02T03:04:05.123456789Z"));
+        RowImpl row = new RowImpl(table, Row.ACTION_INSERT);
+        row.setTimestamp(micros, ts, utc);
+        row.setTimestamp(millis, ts, plusTwo);
+
+        assertEquals("2024-01-02 03:04:05.123457000+00:00\t"
+            + "2024-01-02 05:04:05.123000000+02:00\n",
+            copyRow(new PostgresDictionary(), row));
+    }
+
+    @Test
+    public void testBinaryValuesAreNotCopied() throws Exception {
+        Table table = new Table(DBIdentifier.newTable("T"), null);
+        Column name = addColumn(table, "NAME", Types.VARCHAR, JavaTypes.STRING);
+        Column data = addColumn(table, "DATA", Types.VARBINARY, JavaTypes.OBJECT);
+        RowImpl row = new RowImpl(table, Row.ACTION_INSERT);
+        row.setString(name, "name");
+        row.setBytes(data, new byte[1]);
+
+        assertFalse(new PostgresDictionary().isCopyRow(row, null));
+        StringBuilder buf = new StringBuilder("x");
+        assertFalse(new PostgresDictionary().appendCopyRow(buf, row, null));
+        assertEquals("x", buf.toString());
+        assertFalse(row.isFlushed());
+    }
+}
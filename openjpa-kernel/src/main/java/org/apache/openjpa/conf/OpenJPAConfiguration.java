@@ -2138,5 +2138,28 @@ public interface OpenJPAConfiguration
      * @since 3.1.1
      */
     void setTypesWithoutEnhancement(Collection<Class<?>> typesWithoutEnhancement);
-}
 
+    /**
+     * The maximum number of closed brokers the factory keeps for reuse.
+     * A broker is only pooled once its facade has been garbage collected,
+     * and every instance it managed is detached when it is closed.
+     * Defaults to 0, which disables broker pooling.
+     *
+     * @since 4.2.0
+     */
+    int getBrokerPoolSize();
+
+    /**
+     * The maximum number of closed brokers the factory keeps for reuse.
+     *
+     * @since 4.2.0
+     */
+    void setBrokerPoolSize(int size);
+
+    /**
+     * Wrapper for JCA usage of {@link #setBrokerPoolSize(int)}.
+     *
+     * @since 4.2.0
+     */
+    void setBrokerPoolSize(Integer size);
+}
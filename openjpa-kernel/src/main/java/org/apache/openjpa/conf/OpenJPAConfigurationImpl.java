@@ -182,6 +182,7 @@ public class OpenJPAConfigurationImpl
     public BooleanValue optimizeIdCopy;
     public BooleanValue useTcclForSelectNew;
     public ClassListValue typesWithoutEnhancement;
+    public IntValue brokerPoolSize;
 
     // JPA Properties
     public IntValue databaseAction;
@@ -690,6 +691,10 @@ public class OpenJPAConfigurationImpl
 
         typesWithoutEnhancement = new ClassListValue();
 
+        brokerPoolSize = addInt("BrokerPoolSize");
+        brokerPoolSize.setDefault("0");
+        brokerPoolSize.set(0);
+
         // initialize supported options that some runtimes may not support
         supportedOptions.add(OPTION_NONTRANS_READ);
         supportedOptions.add(OPTION_OPTIMISTIC);
@@ -2395,5 +2400,20 @@ public class OpenJPAConfigurationImpl
     public void setTypesWithoutEnhancement(Collection<Class<?>> value) {
         typesWithoutEnhancement.set(value.toArray(new Class[value.size()]));
     }
-}
 
+    @Override
+    public int getBrokerPoolSize() {
+        return brokerPoolSize.get();
+    }
+
+    @Override
+    public void setBrokerPoolSize(int size) {
+        brokerPoolSize.set(size);
+    }
+
+    @Override
+    public void setBrokerPoolSize(Integer size) {
+        if (size != null)
+            setBrokerPoolSize(size.intValue());
+    }
+}
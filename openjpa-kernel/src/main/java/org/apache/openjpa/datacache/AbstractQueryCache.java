@@ -491,10 +491,11 @@ public abstract class AbstractQueryCache
         private static final float LOAD_FACTOR = 0.75f;
         private static final int CONCURRENCY = 16;
 
-        private static final int ARRAY_SIZE = 3;
+        private static final int ARRAY_SIZE = 4;
         private static final int READ  = 0;
         private static final int HIT   = 1;
         private static final int EVICT = 2;
+        private static final int PRUNE = 3;
 
         private long[] astat = new long[ARRAY_SIZE];
         private long[] stat  = new long[ARRAY_SIZE];
@@ -574,6 +575,26 @@ public abstract class AbstractQueryCache
             return astat[EVICT];
         }
 
+        @Override
+        public long getPrunedJoinCount() {
+            return stat[PRUNE];
+        }
+
+        @Override
+        public long getTotalPrunedJoinCount() {
+            return astat[PRUNE];
+        }
+
+        @Override
+        public long getPrunedJoinCount(T query) {
+            return getCount(stats, query, PRUNE);
+        }
+
+        @Override
+        public long getTotalPrunedJoinCount(T query) {
+            return getCount(astats, query, PRUNE);
+        }
+
         private long getCount(Map<T, long[]> target, T query, int i) {
             long[] row = target.get(query);
             return (row == null) ? 0 : row[i];
@@ -607,18 +628,22 @@ public abstract class AbstractQueryCache
         }
 
         private void addSample(T query, int index) {
-            stat[index]++;
-            astat[index]++;
-            addSample(stats, query, index);
-            addSample(astats, query, index);
+            addSample(query, index, 1);
+        }
+
+        private void addSample(T query, int index, int count) {
+            stat[index] += count;
+            astat[index] += count;
+            addSample(stats, query, index, count);
+            addSample(astats, query, index, count);
         }
 
-        private void addSample(Map<T, long[]> target, T query, int i) {
+        private void addSample(Map<T, long[]> target, T query, int i, int count) {
             long[] row = target.get(query);
             if (row == null) {
                 row = new long[ARRAY_SIZE];
             }
-            row[i]++;
+            row[i] += count;
             target.put(query, row);
         }
 
@@ -640,6 +665,13 @@ public abstract class AbstractQueryCache
             addSample(query, EVICT);
         }
 
+        @Override
+        public void recordPrunedJoins(T query, int count) {
+            if (query == null || count <= 0)
+                return;
+            addSample(query, PRUNE, count);
+        }
+
         @Override
         public void dump(PrintStream out) {
             String header = "Query Statistics starting from " + start;
@@ -25,6 +25,7 @@ import org.apache.openjpa.kernel.OpenJPAStateManager;
 import org.apache.openjpa.kernel.PCData;
 import org.apache.openjpa.kernel.PCDataImpl;
 import org.apache.openjpa.kernel.PCState;
+import org.apache.openjpa.kernel.StateManagerImpl;
 import org.apache.openjpa.kernel.StoreContext;
 import org.apache.openjpa.meta.ClassMetaData;
 import org.apache.openjpa.meta.FieldMetaData;
@@ -157,6 +158,14 @@ public class DataCachePCDataImpl
             return;
         int index = fmd.getIndex();
 
+        // a field holding only part of its value, such as a collection
+        // loaded up to an element limit, must not be cached
+        if (sm instanceof StateManagerImpl
+            && ((StateManagerImpl) sm).isPartiallyLoaded(index)) {
+            clearData(index);
+            return;
+        }
+
         // if the field is a collection and has "order by" set, don't cache
         // it if this store is coming from a create or update (i.e., only
         // enlist in cache if this is coming from a database read).
@@ -35,6 +35,7 @@ import org.apache.openjpa.kernel.FetchConfiguration;
 import org.apache.openjpa.kernel.LockLevels;
 import org.apache.openjpa.kernel.OpenJPAStateManager;
 import org.apache.openjpa.kernel.QueryContext;
+import org.apache.openjpa.kernel.QueryHints;
 import org.apache.openjpa.kernel.ResultShape;
 import org.apache.openjpa.kernel.StoreContext;
 import org.apache.openjpa.kernel.StoreQuery;
@@ -349,6 +350,10 @@ public class QueryCacheStoreQuery
         @Override
         public ResultObjectProvider executeQuery(StoreQuery q, Object[] params, Range range) {
             QueryCacheStoreQuery cq = (QueryCacheStoreQuery) q;
+            // the results of a keyset page depend on the keyset, which is not
+            // part of the cache key
+            if (cq.getContext().getFetchConfiguration().getHint(QueryHints.HINT_KEYSET) != null)
+                return _ex.executeQuery(cq.getDelegate(), params, range);
             Object parsed = cq.getDelegate().getCompilation();
             QueryKey key =
                 QueryKey.newInstance(cq.getContext(), _ex.isPacking(q), params, _candidate, _subs, range.start,
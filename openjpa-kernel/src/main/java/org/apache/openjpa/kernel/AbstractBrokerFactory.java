@@ -29,8 +29,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import jakarta.transaction.Status;
@@ -113,6 +116,10 @@ public abstract class AbstractBrokerFactory implements BrokerFactory {
     // transaction listeners to pass to each broker
     private transient List<Object> _transactionListeners = null;
 
+    // closed brokers kept for reuse when broker pooling is enabled
+    private transient Queue<BrokerImpl> _brokerPool = new ConcurrentLinkedQueue<>();
+    private transient AtomicInteger _brokerPoolSize = new AtomicInteger();
+
     // key under which this instance can be stored in the broker pool
     // and later identified
     private Object _poolKey;
@@ -209,7 +216,9 @@ public abstract class AbstractBrokerFactory implements BrokerFactory {
             if (findExisting)
                 broker = findBroker(user, pass, managed);
             if (broker == null) {
-                broker = newBrokerImpl(user, pass);
+                broker = reuseBroker(user, pass, managed);
+                if (broker == null)
+                    broker = newBrokerImpl(user, pass);
                 broker.setConnectionFactoryName(cf1Name);
                 broker.setConnectionFactory2Name(cf2Name);
                 initializeBroker(managed, connRetainMode, broker, false);
@@ -403,6 +412,8 @@ public abstract class AbstractBrokerFactory implements BrokerFactory {
                     (_conf.getMetaDataRepositoryInstance());
             }
 
+            _brokerPool.clear();
+            _brokerPoolSize.set(0);
             _conf.close();
             _closed = true;
             Log log = _conf.getLog(OpenJPAConfiguration.LOG_RUNTIME);
@@ -506,6 +517,8 @@ public abstract class AbstractBrokerFactory implements BrokerFactory {
         // reset these transient fields to empty values
         _transactional = new ConcurrentHashMap<>();
         _brokers = newBrokerSet();
+        _brokerPool = new ConcurrentLinkedQueue<>();
+        _brokerPoolSize = new AtomicInteger();
 
         // turn off logging while de-serializing BrokerFactory
         String saveLogConfig = _conf.getLog();
@@ -556,6 +569,29 @@ public abstract class AbstractBrokerFactory implements BrokerFactory {
         return null;
     }
 
+    /**
+     * Take a closed broker from the broker pool for reuse, or return null if
+     * none is available. Releasing a broker to the pool advances its
+     * generation, so facades that used it before treat it as closed. The
+     * broker is initialized again by the caller. Brokers are never pooled
+     * when using managed transactions.
+     *
+     * @since 4.2.0
+     */
+    protected BrokerImpl reuseBroker(String user, String pass, boolean managed) {
+        if (managed || _brokerPool.isEmpty())
+            return null;
+        for (BrokerImpl broker : _brokerPool) {
+            if (Objects.equals(user, broker.getConnectionUserName())
+                && Objects.equals(pass, broker.getConnectionPassword())
+                && _brokerPool.remove(broker)) {
+                _brokerPoolSize.decrementAndGet();
+                return broker;
+            }
+        }
+        return null;
+    }
+
     /**
      * Return a broker configured with the proper settings.
      * By default, this method constructs a new
@@ -818,6 +854,15 @@ public abstract class AbstractBrokerFactory implements BrokerFactory {
      */
     protected void releaseBroker(BrokerImpl broker) {
         _brokers.remove(broker);
+
+        // keep the most recently closed brokers; older ones whose facade is
+        // still reachable would otherwise occupy the pool forever
+        if (broker.isPooled() && !_closed) {
+            _brokerPool.add(broker);
+            if (_brokerPoolSize.incrementAndGet() > _conf.getBrokerPoolSize()
+                && _brokerPool.poll() != null)
+                _brokerPoolSize.decrementAndGet();
+        }
     }
 
     /**
@@ -35,7 +35,9 @@ import org.apache.openjpa.event.LifecycleEvent;
 import org.apache.openjpa.lib.util.Localizer;
 import org.apache.openjpa.meta.ClassMetaData;
 import org.apache.openjpa.meta.FieldMetaData;
+import org.apache.openjpa.meta.JavaTypes;
 import org.apache.openjpa.meta.ValueMetaData;
+import org.apache.openjpa.util.ApplicationIds;
 import org.apache.openjpa.util.CallbackException;
 import org.apache.openjpa.util.Exceptions;
 import org.apache.openjpa.util.ImplHelper;
@@ -102,6 +104,7 @@ public class AttachManager {
 
         CallbackException excep = null;
         try {
+            preload(Collections.singleton(pc));
             return attach(pc, null, null, null, true);
         } catch (CallbackException ce) {
             excep = ce;
@@ -127,6 +130,7 @@ public class AttachManager {
         boolean opt = true;
         boolean failFast = false;
         try {
+            preload(instances);
             int i = 0;
             for (Iterator itr = instances.iterator(); itr.hasNext(); i++) {
                 try {
@@ -159,6 +163,131 @@ public class AttachManager {
         return attached;
     }
 
+    /**
+     * Walk the detached graph reachable from the given instances through
+     * attach-cascading relations and load all the detached instances that
+     * are not yet cached in the broker with a single
+     * {@link Broker#findAll} call. The store can then fetch them in bulk
+     * rather than one select per instance, and the per-instance attach below
+     * finds them already loaded.
+     */
+    private void preload(Collection instances) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        LinkedList<Object> graph = new LinkedList<>(instances);
+        List<Object> oids = null;
+        Object obj;
+        Object oid;
+        PersistenceCapable pc;
+        Boolean detached;
+        while (!graph.isEmpty()) {
+            obj = graph.removeFirst();
+            if (obj == null || !ImplHelper.isManageable(obj)
+                || !visited.add(obj))
+                continue;
+            pc = ImplHelper.toPersistenceCapable(obj,
+                _broker.getConfiguration());
+            if (pc.pcGetStateManager() != null
+                && !(pc.pcGetStateManager() instanceof DetachedStateManager))
+                continue;
+
+            // instances with a detached state manager are copied from their
+            // own state rather than looked up; instances without detached
+            // state are looked up by the attach to tell whether they are new
+            detached = pc.pcIsDetached();
+            if (pc.pcGetStateManager() != null || Boolean.FALSE.equals(detached))
+                oid = null;
+            else if (detached == null)
+                oid = ApplicationIds.create(pc, _broker.getConfiguration()
+                    .getMetaDataRepositoryInstance().getMetaData(
+                    ImplHelper.getManagedInstance(pc).getClass(),
+                    _broker.getClassLoader(), true));
+            else
+                oid = getDetachedObjectId(obj);
+            if (oid != null && _broker.getStateManagerImplById(oid, false) == null) {
+                if (oids == null)
+                    oids = new ArrayList<>();
+                oids.add(oid);
+            }
+            addCascadedValues(obj, graph);
+        }
+
+        // a single instance would be found with a single select anyway
+        if (oids != null && oids.size() > 1)
+            _broker.findAll(oids, true, null);
+    }
+
+    /**
+     * Add the non-embedded instances held by the attach-cascading relation
+     * fields of the given detached instance to the given list.
+     */
+    private void addCascadedValues(Object obj, List<Object> graph) {
+        DetachedValueStateManager dsm = new DetachedValueStateManager(obj,
+            _broker);
+        FieldMetaData[] fmds = dsm.getMetaData().getFields();
+        Object val;
+        for (FieldMetaData fmd : fmds) {
+            if (fmd.getManagement() != FieldMetaData.MANAGE_PERSISTENT)
+                continue;
+            switch (fmd.getDeclaredTypeCode()) {
+                case JavaTypes.PC:
+                case JavaTypes.PC_UNTYPED:
+                    if (fmd.getCascadeAttach() != ValueMetaData.CASCADE_IMMEDIATE
+                        || fmd.isEmbeddedPC())
+                        continue;
+                    val = fetchDetached(dsm, fmd);
+                    if (val != null)
+                        graph.add(val);
+                    break;
+                case JavaTypes.COLLECTION:
+                case JavaTypes.ARRAY:
+                    if (!isCascadedRelation(fmd.getElement()))
+                        continue;
+                    val = fetchDetached(dsm, fmd);
+                    if (val instanceof Collection)
+                        graph.addAll((Collection) val);
+                    else if (val instanceof Object[])
+                        Collections.addAll(graph, (Object[]) val);
+                    break;
+                case JavaTypes.MAP:
+                    boolean keys = isCascadedRelation(fmd.getKey());
+                    boolean values = isCascadedRelation(fmd.getElement());
+                    if (!keys && !values)
+                        continue;
+                    val = fetchDetached(dsm, fmd);
+                    if (!(val instanceof Map))
+                        continue;
+                    if (keys)
+                        graph.addAll(((Map) val).keySet());
+                    if (values)
+                        graph.addAll(((Map) val).values());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Whether the given value holds non-embedded persistent instances that
+     * the attach cascades to.
+     */
+    private static boolean isCascadedRelation(ValueMetaData vmd) {
+        return vmd.isTypePC() && !vmd.isEmbeddedPC()
+            && vmd.getCascadeAttach() == ValueMetaData.CASCADE_IMMEDIATE;
+    }
+
+    /**
+     * Fetch the given field of a detached instance, or null if the field
+     * cannot be read; preloading is only an optimization, so any problem is
+     * left for the attach itself to report.
+     */
+    private static Object fetchDetached(DetachedValueStateManager dsm,
+        FieldMetaData fmd) {
+        try {
+            return dsm.fetch(fmd.getIndex());
+        } catch (OpenJPAException ke) {
+            return null;
+        }
+    }
+
     /**
      * Invoke postAttach() on any attached instances that implement
      * PostAttachCallback. This will be done after the entire graph has
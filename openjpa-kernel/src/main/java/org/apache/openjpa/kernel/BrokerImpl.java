@@ -262,6 +262,19 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
     private transient DetachManagerLite _dmLite;
 
     private transient boolean _initializeWasInvoked = false;
+
+    // uninitialized copy holding the default options and the default fetch
+    // configuration, whether this broker sits in the factory's broker pool,
+    // and the number of times it has been released to the pool; facades
+    // remember the generation they were created in and become stale once
+    // it changes
+    private transient BrokerImpl _defaults = null;
+    private transient FetchConfiguration _defaultFetch = null;
+    private transient boolean _pooled = false;
+    private transient volatile int _generation = 0;
+    // set when a pooled broker is freed within an operation; it is released
+    // to the pool once the outermost operation ends
+    private transient boolean _releasePending = false;
     private transient boolean _fromWriteBehindCallback = false;
     private LinkedList<FetchConfiguration> _fcs;
 
@@ -326,6 +339,11 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
     public void initialize(AbstractBrokerFactory factory,
         DelegatingStoreManager sm, boolean managed, int connMode,
         boolean fromDeserialization, boolean fromWriteBehindCallback) {
+        boolean reuse = _pooled;
+        if (reuse)
+            resetPooledState();
+        else if (!fromDeserialization && factory.getConfiguration().getBrokerPoolSize() > 0)
+            _defaults = newDefaults();
         _fromWriteBehindCallback = fromWriteBehindCallback;
         _initializeWasInvoked = true;
         _loader = Thread.currentThread().getContextClassLoader();
@@ -336,11 +354,17 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
         _compat = _conf.getCompatibilityInstance();
         _factory = factory;
         _log = _conf.getLog(OpenJPAConfiguration.LOG_RUNTIME);
-        if (!fromDeserialization)
+        if (!fromDeserialization && !reuse)
             _cache = new ManagedCache(this);
-        // Force creation of a new operating set
-        _operatingDirty = true;
-        initializeOperatingSet();
+        // Force creation of a new operating set, unless a pooled broker can
+        // empty the one it already has
+        if (reuse && _operating != null) {
+            _operating.clear();
+            _operatingDirty = false;
+        } else {
+            _operatingDirty = true;
+            initializeOperatingSet();
+        }
 
         _connRetainMode = connMode;
         _managed = managed;
@@ -373,9 +397,15 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
 
         if (_connRetainMode == CONN_RETAIN_ALWAYS)
             retainConnection();
-        if (!fromDeserialization) {
+        if (reuse && _defaultFetch != null) {
+            // clones share their fetch groups, fields and hints until written
+            _fc = (FetchConfiguration) _defaultFetch.clone();
+            _fc.setContext(this);
+        } else if (!fromDeserialization) {
             _fc = _store.newFetchConfiguration();
             _fc.setContext(this);
+            if (_defaults != null)
+                _defaultFetch = (FetchConfiguration) _fc.clone();
         }
 
         _instm = _conf.getInstrumentationManagerInstance();
@@ -397,6 +427,90 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
             beginInternal();
     }
 
+    /**
+     * Return an uninitialized copy of this broker that remembers its
+     * default options, so that they can be restored when it is reused.
+     */
+    private BrokerImpl newDefaults() {
+        try {
+            BrokerImpl defaults = (BrokerImpl) super.clone();
+            // never initialized; keep the finalizing subclass from freeing it
+            defaults._closed = true;
+            return defaults;
+        } catch (CloneNotSupportedException cnse) {
+            throw new InternalException(cnse);
+        }
+    }
+
+    /**
+     * Reset the state left over from the previous use of a pooled broker.
+     * Options are restored to their defaults before the factory configures
+     * the broker again.
+     */
+    private void resetPooledState() {
+        _pooled = false;
+        _releasePending = false;
+        _closed = false;
+        _closedException = null;
+        _operationCount = 0;
+        findAllDepth = 0;
+        _loading = null;
+        _transAdditions = null;
+        _derefAdditions = null;
+        _fcs = null;
+
+        _nontransRead = _defaults._nontransRead;
+        _nontransWrite = _defaults._nontransWrite;
+        _retainState = _defaults._retainState;
+        _autoClear = _defaults._autoClear;
+        _restoreState = _defaults._restoreState;
+        _optimistic = _defaults._optimistic;
+        _ignoreChanges = _defaults._ignoreChanges;
+        _multithreaded = _defaults._multithreaded;
+        _lock = (_multithreaded) ? new ReentrantLock() : null;
+        _transCallbackMode = _defaults._transCallbackMode;
+        _lifeCallbackMode = _defaults._lifeCallbackMode;
+        _syncManaged = _defaults._syncManaged;
+        _evictDataCache = _defaults._evictDataCache;
+        _populateDataCache = _defaults._populateDataCache;
+        _largeTransaction = _defaults._largeTransaction;
+        _autoDetach = _defaults._autoDetach;
+        _detachState = _defaults._detachState;
+        _detachedNew = _defaults._detachedNew;
+        _orderDirty = _defaults._orderDirty;
+        _cachePreparedQuery = _defaults._cachePreparedQuery;
+        _suppressBatchOLELogging = _defaults._suppressBatchOLELogging;
+        _allowReferenceToSiblingContext = _defaults._allowReferenceToSiblingContext;
+        _postLoadOnMerge = _defaults._postLoadOnMerge;
+    }
+
+    /**
+     * Whether this broker was released to the factory's broker pool when it
+     * was closed.
+     */
+    boolean isPooled() {
+        return _pooled;
+    }
+
+    /**
+     * The number of times this broker has been released to the factory's
+     * broker pool. A facade whose generation differs from the current one
+     * belongs to an earlier use of this broker and must treat it as closed.
+     */
+    int getGeneration() {
+        return _generation;
+    }
+
+    /**
+     * Throw the exception of a closed broker if this broker has been
+     * released to the broker pool since the given generation.
+     */
+    void assertGeneration(int generation) {
+        if (generation != _generation)
+            throw new InvalidStateException(_loc.get("closed-notrace"))
+                .setFatal(true);
+    }
+
     @SuppressWarnings("unchecked")
     private void initializeOperatingSet() {
         if(_operatingDirty) {
@@ -2086,7 +2200,12 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
             _operationCount--;
             if (_operationCount == 0)
                 initializeOperatingSet();
+            boolean release = _operationCount == 0 && _releasePending;
+            if (release)
+                _releasePending = false;
             unlock();
+            if (release)
+                _factory.releaseBroker(this);
         }
     }
 
@@ -4608,7 +4727,11 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
      */
     protected void free() {
         RuntimeException err = null;
-        if ((_autoDetach & DETACH_CLOSE) != 0) {
+
+        // a broker that is going to be pooled detaches everything it manages
+        // so that no instance keeps a reference to it once it is reused
+        boolean pool = _defaults != null && _call != null && !_managed;
+        if ((_autoDetach & DETACH_CLOSE) != 0 || pool) {
             try {
                 detachAllInternal(_call);
             } catch (RuntimeException re) {
@@ -4617,7 +4740,10 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
         }
 
         _sync = null;
-        _userObjects = null;
+        if (pool && _userObjects != null)
+            _userObjects.clear();
+        else
+            _userObjects = null;
         _cache.clear();
         _transCache = null;
         _persistedClss = null;
@@ -4673,7 +4799,18 @@ public class BrokerImpl implements Broker, FindCallbacks, Cloneable, Serializabl
         if (_log.isTraceEnabled())
             _closedException = new IllegalStateException();
 
-        _factory.releaseBroker(this);
+        if (pool && err == null) {
+            _pooled = true;
+            _generation++;
+            _call = null;
+            _extrans = null;
+        }
+        // another thread may reuse a pooled broker as soon as the factory
+        // has it, so hand it over only once the closing operation has ended
+        if (_pooled && _operationCount > 0)
+            _releasePending = true;
+        else
+            _factory.releaseBroker(this);
 
         if (err != null)
             throw err;
@@ -28,10 +28,12 @@ import java.util.Set;
 import org.apache.openjpa.conf.OpenJPAConfiguration;
 import org.apache.openjpa.ee.ManagedRuntime;
 import org.apache.openjpa.event.LifecycleEventManager;
+import org.apache.openjpa.lib.util.Localizer;
 import org.apache.openjpa.meta.ClassMetaData;
 import org.apache.openjpa.meta.FieldMetaData;
 import org.apache.openjpa.meta.ValueMetaData;
 import org.apache.openjpa.util.Exceptions;
+import org.apache.openjpa.util.InvalidStateException;
 import org.apache.openjpa.util.OpenJPAException;
 import org.apache.openjpa.util.RuntimeExceptionTranslator;
 
@@ -50,10 +52,18 @@ import org.apache.openjpa.util.RuntimeExceptionTranslator;
 public class DelegatingBroker
     implements Broker {
 
+    private static final Localizer _loc = Localizer.forPackage
+        (DelegatingBroker.class);
+
     private final Broker _broker;
     private final DelegatingBroker _del;
     private final RuntimeExceptionTranslator _trans;
 
+    // pooled broker and the generation it was in when this facade was
+    // created; once the broker is released to the pool it is closed to us
+    private final BrokerImpl _pooled;
+    private final int _generation;
+
     /**
      * Constructor; supply delegate.
      */
@@ -71,6 +81,35 @@ public class DelegatingBroker
         else
             _del = null;
         _trans = trans;
+
+        Broker inner = getInnermostDelegate();
+        if (inner instanceof BrokerImpl) {
+            _pooled = (BrokerImpl) inner;
+            _generation = _pooled.getGeneration();
+        } else {
+            _pooled = null;
+            _generation = 0;
+        }
+    }
+
+    /**
+     * Whether the delegate has been released to the factory's broker pool
+     * since this facade was created, and may now serve another facade.
+     */
+    private boolean isStale() {
+        return _pooled != null && _pooled.getGeneration() != _generation;
+    }
+
+    /**
+     * Return the delegate to call, or throw the same exception a closed
+     * broker would if the delegate has been released to the broker pool
+     * since this facade was created.
+     */
+    private Broker delegate() {
+        if (isStale())
+            throw translate(new InvalidStateException(
+                _loc.get("closed-notrace")).setFatal(true));
+        return _broker;
     }
 
     /**
@@ -135,7 +174,7 @@ public class DelegatingBroker
     @Override
     public OpenJPAConfiguration getConfiguration() {
         try {
-            return _broker.getConfiguration();
+            return delegate().getConfiguration();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -144,7 +183,7 @@ public class DelegatingBroker
     @Override
     public FetchConfiguration getFetchConfiguration() {
         try {
-            return _broker.getFetchConfiguration();
+            return delegate().getFetchConfiguration();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -153,7 +192,7 @@ public class DelegatingBroker
     @Override
     public FetchConfiguration pushFetchConfiguration() {
         try {
-            return _broker.pushFetchConfiguration();
+            return delegate().pushFetchConfiguration();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -162,7 +201,7 @@ public class DelegatingBroker
     @Override
     public FetchConfiguration pushFetchConfiguration(FetchConfiguration fc) {
         try {
-            return _broker.pushFetchConfiguration(fc);
+            return delegate().pushFetchConfiguration(fc);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -171,7 +210,7 @@ public class DelegatingBroker
     @Override
     public void popFetchConfiguration() {
         try {
-            _broker.popFetchConfiguration();
+            delegate().popFetchConfiguration();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -180,7 +219,7 @@ public class DelegatingBroker
     @Override
     public ClassLoader getClassLoader() {
         try {
-            return _broker.getClassLoader();
+            return delegate().getClassLoader();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -189,7 +228,7 @@ public class DelegatingBroker
     @Override
     public LockManager getLockManager() {
         try {
-            return _broker.getLockManager();
+            return delegate().getLockManager();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -198,7 +237,7 @@ public class DelegatingBroker
     @Override
     public DelegatingStoreManager getStoreManager() {
         try {
-            return _broker.getStoreManager();
+            return delegate().getStoreManager();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -207,7 +246,7 @@ public class DelegatingBroker
     @Override
     public String getConnectionUserName() {
         try {
-            return _broker.getConnectionUserName();
+            return delegate().getConnectionUserName();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -216,7 +255,7 @@ public class DelegatingBroker
     @Override
     public String getConnectionPassword() {
         try {
-            return _broker.getConnectionPassword();
+            return delegate().getConnectionPassword();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -225,7 +264,7 @@ public class DelegatingBroker
     @Override
     public Map<String,Object> getProperties() {
         try {
-            return _broker.getProperties();
+            return delegate().getProperties();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -234,7 +273,7 @@ public class DelegatingBroker
     @Override
     public Set<String> getSupportedProperties() {
         try {
-            return _broker.getSupportedProperties();
+            return delegate().getSupportedProperties();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -243,7 +282,7 @@ public class DelegatingBroker
     @Override
     public Object find(Object oid, boolean validate, FindCallbacks call) {
         try {
-            return _broker.find(oid, validate, call);
+            return delegate().find(oid, validate, call);
         } catch (RuntimeException re) {
             throw translate(re, oid);
         }
@@ -253,7 +292,7 @@ public class DelegatingBroker
     public Object[] findAll(Collection oids, boolean validate,
         FindCallbacks call) {
         try {
-            return _broker.findAll(oids, validate, call);
+            return delegate().findAll(oids, validate, call);
         } catch (RuntimeException re) {
             throw translate(re, oids);
         }
@@ -262,7 +301,7 @@ public class DelegatingBroker
     @Override
     public Object findCached(Object oid, FindCallbacks call) {
         try {
-            return _broker.findCached(oid, call);
+            return delegate().findCached(oid, call);
         } catch (RuntimeException re) {
             throw translate(re, oid);
         }
@@ -272,7 +311,7 @@ public class DelegatingBroker
     public Object find(Object oid, FetchConfiguration fetch, BitSet exclude,
         Object edata, int flags) {
         try {
-            return _broker.find(oid, fetch, exclude, edata, flags);
+            return delegate().find(oid, fetch, exclude, edata, flags);
         } catch (RuntimeException re) {
             throw translate(re, oid);
         }
@@ -282,7 +321,7 @@ public class DelegatingBroker
     public Object[] findAll(Collection oids, FetchConfiguration fetch,
         BitSet exclude, Object edata, int flags) {
         try {
-            return _broker.findAll(oids, fetch, exclude, edata, flags);
+            return delegate().findAll(oids, fetch, exclude, edata, flags);
         } catch (RuntimeException re) {
             throw translate(re, oids);
         }
@@ -292,7 +331,7 @@ public class DelegatingBroker
     public Iterator extentIterator(Class cls, boolean subs,
         FetchConfiguration fetch, boolean ignoreChanges) {
         try {
-            return _broker.extentIterator(cls, subs, fetch, ignoreChanges);
+            return delegate().extentIterator(cls, subs, fetch, ignoreChanges);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -301,7 +340,7 @@ public class DelegatingBroker
     @Override
     public void retrieve(Object obj, boolean fgOnly, OpCallbacks call) {
         try {
-            _broker.retrieve(obj, fgOnly, call);
+            delegate().retrieve(obj, fgOnly, call);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -310,7 +349,7 @@ public class DelegatingBroker
     @Override
     public void retrieveAll(Collection objs, boolean fgOnly, OpCallbacks call) {
         try {
-            _broker.retrieveAll(objs, fgOnly, call);
+            delegate().retrieveAll(objs, fgOnly, call);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -320,7 +359,7 @@ public class DelegatingBroker
     public OpenJPAStateManager embed(Object obj, Object id,
         OpenJPAStateManager owner, ValueMetaData ownerMeta) {
         try {
-            return _broker.embed(obj, id, owner, ownerMeta);
+            return delegate().embed(obj, id, owner, ownerMeta);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -329,7 +368,7 @@ public class DelegatingBroker
     @Override
     public Class getObjectIdType(Class cls) {
         try {
-            return _broker.getObjectIdType(cls);
+            return delegate().getObjectIdType(cls);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -338,7 +377,7 @@ public class DelegatingBroker
     @Override
     public Object newObjectId(Class cls, Object val) {
         try {
-            return _broker.newObjectId(cls, val);
+            return delegate().newObjectId(cls, val);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -347,7 +386,7 @@ public class DelegatingBroker
     @Override
     public Collection getManagedObjects() {
         try {
-            return _broker.getManagedObjects();
+            return delegate().getManagedObjects();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -356,7 +395,7 @@ public class DelegatingBroker
     @Override
     public Collection getTransactionalObjects() {
         try {
-            return _broker.getTransactionalObjects();
+            return delegate().getTransactionalObjects();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -365,7 +404,7 @@ public class DelegatingBroker
     @Override
     public Collection getPendingTransactionalObjects() {
         try {
-            return _broker.getPendingTransactionalObjects();
+            return delegate().getPendingTransactionalObjects();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -374,7 +413,7 @@ public class DelegatingBroker
     @Override
     public Collection getDirtyObjects() {
         try {
-            return _broker.getDirtyObjects();
+            return delegate().getDirtyObjects();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -383,7 +422,7 @@ public class DelegatingBroker
     @Override
     public boolean getOrderDirtyObjects() {
         try {
-            return _broker.getOrderDirtyObjects();
+            return delegate().getOrderDirtyObjects();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -392,7 +431,7 @@ public class DelegatingBroker
     @Override
     public void setOrderDirtyObjects(boolean order) {
         try {
-            _broker.setOrderDirtyObjects(order);
+            delegate().setOrderDirtyObjects(order);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -401,7 +440,7 @@ public class DelegatingBroker
     @Override
     public Collection getPersistedTypes() {
         try {
-            return _broker.getPersistedTypes();
+            return delegate().getPersistedTypes();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -410,7 +449,7 @@ public class DelegatingBroker
     @Override
     public Collection getUpdatedTypes() {
         try {
-            return _broker.getUpdatedTypes();
+            return delegate().getUpdatedTypes();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -419,7 +458,7 @@ public class DelegatingBroker
     @Override
     public Collection getDeletedTypes() {
         try {
-            return _broker.getDeletedTypes();
+            return delegate().getDeletedTypes();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -428,7 +467,7 @@ public class DelegatingBroker
     @Override
     public OpenJPAStateManager getStateManager(Object obj) {
         try {
-            return _broker.getStateManager(obj);
+            return delegate().getStateManager(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -437,7 +476,7 @@ public class DelegatingBroker
     @Override
     public int getLockLevel(Object obj) {
         try {
-            return _broker.getLockLevel(obj);
+            return delegate().getLockLevel(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -446,7 +485,7 @@ public class DelegatingBroker
     @Override
     public Object getVersion(Object obj) {
         try {
-            return _broker.getVersion(obj);
+            return delegate().getVersion(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -455,7 +494,7 @@ public class DelegatingBroker
     @Override
     public boolean isDirty(Object obj) {
         try {
-            return _broker.isDirty(obj);
+            return delegate().isDirty(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -464,7 +503,7 @@ public class DelegatingBroker
     @Override
     public boolean isTransactional(Object obj) {
         try {
-            return _broker.isTransactional(obj);
+            return delegate().isTransactional(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -473,7 +512,7 @@ public class DelegatingBroker
     @Override
     public boolean isPersistent(Object obj) {
         try {
-            return _broker.isPersistent(obj);
+            return delegate().isPersistent(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -482,7 +521,7 @@ public class DelegatingBroker
     @Override
     public boolean isNew(Object obj) {
         try {
-            return _broker.isNew(obj);
+            return delegate().isNew(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -491,7 +530,7 @@ public class DelegatingBroker
     @Override
     public boolean isDeleted(Object obj) {
         try {
-            return _broker.isDeleted(obj);
+            return delegate().isDeleted(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -500,7 +539,7 @@ public class DelegatingBroker
     @Override
     public Object getObjectId(Object obj) {
         try {
-            return _broker.getObjectId(obj);
+            return delegate().getObjectId(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -509,7 +548,7 @@ public class DelegatingBroker
     @Override
     public boolean isManaged() {
         try {
-            return _broker.isManaged();
+            return delegate().isManaged();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -518,7 +557,7 @@ public class DelegatingBroker
     @Override
     public boolean isActive() {
         try {
-            return _broker.isActive();
+            return delegate().isActive();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -527,7 +566,7 @@ public class DelegatingBroker
     @Override
     public boolean isStoreActive() {
         try {
-            return _broker.isStoreActive();
+            return delegate().isStoreActive();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -536,7 +575,7 @@ public class DelegatingBroker
     @Override
     public boolean hasConnection() {
         try {
-            return _broker.hasConnection();
+            return delegate().hasConnection();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -545,7 +584,7 @@ public class DelegatingBroker
     @Override
     public Object getConnection() {
         try {
-            return _broker.getConnection();
+            return delegate().getConnection();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -554,7 +593,7 @@ public class DelegatingBroker
     @Override
     public void lock() {
         try {
-            _broker.lock();
+            delegate().lock();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -563,7 +602,7 @@ public class DelegatingBroker
     @Override
     public void unlock() {
         try {
-            _broker.unlock();
+            delegate().unlock();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -572,7 +611,7 @@ public class DelegatingBroker
     @Override
     public boolean beginOperation(boolean read) {
         try {
-            return _broker.beginOperation(read);
+            return delegate().beginOperation(read);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -581,7 +620,7 @@ public class DelegatingBroker
     @Override
     public boolean endOperation() {
         try {
-            return _broker.endOperation();
+            return delegate().endOperation();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -591,7 +630,7 @@ public class DelegatingBroker
     public void setImplicitBehavior(OpCallbacks call,
         RuntimeExceptionTranslator ex) {
         try {
-            _broker.setImplicitBehavior(call, ex);
+            delegate().setImplicitBehavior(call, ex);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -600,7 +639,7 @@ public class DelegatingBroker
     @Override
     public BrokerFactory getBrokerFactory() {
         try {
-            return _broker.getBrokerFactory();
+            return delegate().getBrokerFactory();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -609,7 +648,7 @@ public class DelegatingBroker
     @Override
     public int getConnectionRetainMode() {
         try {
-            return _broker.getConnectionRetainMode();
+            return delegate().getConnectionRetainMode();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -618,7 +657,7 @@ public class DelegatingBroker
     @Override
     public ManagedRuntime getManagedRuntime() {
         try {
-            return _broker.getManagedRuntime();
+            return delegate().getManagedRuntime();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -627,7 +666,7 @@ public class DelegatingBroker
     @Override
     public InverseManager getInverseManager() {
         try {
-            return _broker.getInverseManager();
+            return delegate().getInverseManager();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -636,7 +675,7 @@ public class DelegatingBroker
     @Override
     public boolean getMultithreaded() {
         try {
-            return _broker.getMultithreaded();
+            return delegate().getMultithreaded();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -645,7 +684,7 @@ public class DelegatingBroker
     @Override
     public void setMultithreaded(boolean multi) {
         try {
-            _broker.setMultithreaded(multi);
+            delegate().setMultithreaded(multi);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -654,7 +693,7 @@ public class DelegatingBroker
     @Override
     public boolean getIgnoreChanges() {
         try {
-            return _broker.getIgnoreChanges();
+            return delegate().getIgnoreChanges();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -663,7 +702,7 @@ public class DelegatingBroker
     @Override
     public void setIgnoreChanges(boolean ignore) {
         try {
-            _broker.setIgnoreChanges(ignore);
+            delegate().setIgnoreChanges(ignore);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -672,7 +711,7 @@ public class DelegatingBroker
     @Override
     public boolean getNontransactionalRead() {
         try {
-            return _broker.getNontransactionalRead();
+            return delegate().getNontransactionalRead();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -681,7 +720,7 @@ public class DelegatingBroker
     @Override
     public void setNontransactionalRead(boolean read) {
         try {
-            _broker.setNontransactionalRead(read);
+            delegate().setNontransactionalRead(read);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -690,7 +729,7 @@ public class DelegatingBroker
     @Override
     public boolean getNontransactionalWrite() {
         try {
-            return _broker.getNontransactionalWrite();
+            return delegate().getNontransactionalWrite();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -699,7 +738,7 @@ public class DelegatingBroker
     @Override
     public void setNontransactionalWrite(boolean write) {
         try {
-            _broker.setNontransactionalWrite(write);
+            delegate().setNontransactionalWrite(write);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -708,7 +747,7 @@ public class DelegatingBroker
     @Override
     public int getRestoreState() {
         try {
-            return _broker.getRestoreState();
+            return delegate().getRestoreState();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -717,7 +756,7 @@ public class DelegatingBroker
     @Override
     public void setRestoreState(int restore) {
         try {
-            _broker.setRestoreState(restore);
+            delegate().setRestoreState(restore);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -726,7 +765,7 @@ public class DelegatingBroker
     @Override
     public boolean getOptimistic() {
         try {
-            return _broker.getOptimistic();
+            return delegate().getOptimistic();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -735,7 +774,7 @@ public class DelegatingBroker
     @Override
     public void setOptimistic(boolean opt) {
         try {
-            _broker.setOptimistic(opt);
+            delegate().setOptimistic(opt);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -744,7 +783,7 @@ public class DelegatingBroker
     @Override
     public boolean getRetainState() {
         try {
-            return _broker.getRetainState();
+            return delegate().getRetainState();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -753,7 +792,7 @@ public class DelegatingBroker
     @Override
     public void setRetainState(boolean retain) {
         try {
-            _broker.setRetainState(retain);
+            delegate().setRetainState(retain);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -762,7 +801,7 @@ public class DelegatingBroker
     @Override
     public int getAutoClear() {
         try {
-            return _broker.getAutoClear();
+            return delegate().getAutoClear();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -771,7 +810,7 @@ public class DelegatingBroker
     @Override
     public void setAutoClear(int clear) {
         try {
-            _broker.setAutoClear(clear);
+            delegate().setAutoClear(clear);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -780,7 +819,7 @@ public class DelegatingBroker
     @Override
     public int getAutoDetach() {
         try {
-            return _broker.getAutoDetach();
+            return delegate().getAutoDetach();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -789,7 +828,7 @@ public class DelegatingBroker
     @Override
     public void setAutoDetach(int flags) {
         try {
-            _broker.setAutoDetach(flags);
+            delegate().setAutoDetach(flags);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -798,7 +837,7 @@ public class DelegatingBroker
     @Override
     public void setAutoDetach(int flag, boolean on) {
         try {
-            _broker.setAutoDetach(flag, on);
+            delegate().setAutoDetach(flag, on);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -807,7 +846,7 @@ public class DelegatingBroker
     @Override
     public int getDetachState() {
         try {
-            return _broker.getDetachState();
+            return delegate().getDetachState();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -816,7 +855,7 @@ public class DelegatingBroker
     @Override
     public void setDetachState(int mode) {
         try {
-            _broker.setDetachState(mode);
+            delegate().setDetachState(mode);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -825,7 +864,7 @@ public class DelegatingBroker
     @Override
     public boolean isDetachedNew() {
         try {
-            return _broker.isDetachedNew();
+            return delegate().isDetachedNew();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -834,7 +873,7 @@ public class DelegatingBroker
     @Override
     public void setDetachedNew(boolean isNew) {
         try {
-            _broker.setDetachedNew(isNew);
+            delegate().setDetachedNew(isNew);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -843,7 +882,7 @@ public class DelegatingBroker
     @Override
     public boolean getSyncWithManagedTransactions() {
         try {
-            return _broker.getSyncWithManagedTransactions();
+            return delegate().getSyncWithManagedTransactions();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -852,7 +891,7 @@ public class DelegatingBroker
     @Override
     public void setSyncWithManagedTransactions(boolean sync) {
         try {
-            _broker.setSyncWithManagedTransactions(sync);
+            delegate().setSyncWithManagedTransactions(sync);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -861,7 +900,7 @@ public class DelegatingBroker
     @Override
     public boolean getEvictFromDataCache() {
         try {
-            return _broker.getEvictFromDataCache();
+            return delegate().getEvictFromDataCache();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -870,7 +909,7 @@ public class DelegatingBroker
     @Override
     public void setEvictFromDataCache(boolean evict) {
         try {
-            _broker.setEvictFromDataCache(evict);
+            delegate().setEvictFromDataCache(evict);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -879,7 +918,7 @@ public class DelegatingBroker
     @Override
     public boolean getPopulateDataCache() {
         try {
-            return _broker.getPopulateDataCache();
+            return delegate().getPopulateDataCache();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -888,7 +927,7 @@ public class DelegatingBroker
     @Override
     public void setPopulateDataCache(boolean cache) {
         try {
-            _broker.setPopulateDataCache(cache);
+            delegate().setPopulateDataCache(cache);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -897,7 +936,7 @@ public class DelegatingBroker
     @Override
     public boolean isTrackChangesByType() {
         try {
-            return _broker.isTrackChangesByType();
+            return delegate().isTrackChangesByType();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -906,7 +945,7 @@ public class DelegatingBroker
     @Override
     public void setTrackChangesByType(boolean largeTransaction) {
         try {
-            _broker.setTrackChangesByType(largeTransaction);
+            delegate().setTrackChangesByType(largeTransaction);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -915,7 +954,7 @@ public class DelegatingBroker
     @Override
     public Object putUserObject(Object key, Object val) {
         try {
-            return _broker.putUserObject(key, val);
+            return delegate().putUserObject(key, val);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -924,7 +963,7 @@ public class DelegatingBroker
     @Override
     public Object getUserObject(Object key) {
         try {
-            return _broker.getUserObject(key);
+            return delegate().getUserObject(key);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -933,7 +972,7 @@ public class DelegatingBroker
     @Override
     public void addTransactionListener(Object listener) {
         try {
-            _broker.addTransactionListener(listener);
+            delegate().addTransactionListener(listener);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -942,7 +981,7 @@ public class DelegatingBroker
     @Override
     public void removeTransactionListener(Object listener) {
         try {
-            _broker.removeTransactionListener(listener);
+            delegate().removeTransactionListener(listener);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -951,7 +990,7 @@ public class DelegatingBroker
     @Override
     public Collection<Object> getTransactionListeners() {
         try {
-            return _broker.getTransactionListeners();
+            return delegate().getTransactionListeners();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -960,7 +999,7 @@ public class DelegatingBroker
     @Override
     public int getTransactionListenerCallbackMode() {
         try {
-            return _broker.getTransactionListenerCallbackMode();
+            return delegate().getTransactionListenerCallbackMode();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -969,7 +1008,7 @@ public class DelegatingBroker
     @Override
     public void setTransactionListenerCallbackMode(int mode) {
         try {
-            _broker.setTransactionListenerCallbackMode(mode);
+            delegate().setTransactionListenerCallbackMode(mode);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -978,7 +1017,7 @@ public class DelegatingBroker
     @Override
     public void addLifecycleListener(Object listener, Class[] classes) {
         try {
-            _broker.addLifecycleListener(listener, classes);
+            delegate().addLifecycleListener(listener, classes);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -987,7 +1026,7 @@ public class DelegatingBroker
     @Override
     public void removeLifecycleListener(Object listener) {
         try {
-            _broker.removeLifecycleListener(listener);
+            delegate().removeLifecycleListener(listener);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -996,7 +1035,7 @@ public class DelegatingBroker
     @Override
     public int getLifecycleListenerCallbackMode() {
         try {
-            return _broker.getLifecycleListenerCallbackMode();
+            return delegate().getLifecycleListenerCallbackMode();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1005,7 +1044,7 @@ public class DelegatingBroker
     @Override
     public void setLifecycleListenerCallbackMode(int mode) {
         try {
-            _broker.setLifecycleListenerCallbackMode(mode);
+            delegate().setLifecycleListenerCallbackMode(mode);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1014,7 +1053,7 @@ public class DelegatingBroker
     @Override
     public LifecycleEventManager getLifecycleEventManager() {
         try {
-            return _broker.getLifecycleEventManager();
+            return delegate().getLifecycleEventManager();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1023,7 +1062,7 @@ public class DelegatingBroker
     @Override
     public void begin() {
         try {
-            _broker.begin();
+            delegate().begin();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1032,7 +1071,7 @@ public class DelegatingBroker
     @Override
     public void commit() {
         try {
-            _broker.commit();
+            delegate().commit();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1041,7 +1080,7 @@ public class DelegatingBroker
     @Override
     public void rollback() {
         try {
-            _broker.rollback();
+            delegate().rollback();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1050,7 +1089,7 @@ public class DelegatingBroker
     @Override
     public boolean syncWithManagedTransaction() {
         try {
-            return _broker.syncWithManagedTransaction();
+            return delegate().syncWithManagedTransaction();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1059,7 +1098,7 @@ public class DelegatingBroker
     @Override
     public void commitAndResume() {
         try {
-            _broker.commitAndResume();
+            delegate().commitAndResume();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1068,7 +1107,7 @@ public class DelegatingBroker
     @Override
     public void rollbackAndResume() {
         try {
-            _broker.rollbackAndResume();
+            delegate().rollbackAndResume();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1077,7 +1116,7 @@ public class DelegatingBroker
     @Override
     public void setRollbackOnly() {
         try {
-            _broker.setRollbackOnly();
+            delegate().setRollbackOnly();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1086,7 +1125,7 @@ public class DelegatingBroker
     @Override
     public void setRollbackOnly(Throwable cause) {
         try {
-            _broker.setRollbackOnly(cause);
+            delegate().setRollbackOnly(cause);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1095,7 +1134,7 @@ public class DelegatingBroker
     @Override
     public Throwable getRollbackCause() {
         try {
-            return _broker.getRollbackCause();
+            return delegate().getRollbackCause();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1104,7 +1143,7 @@ public class DelegatingBroker
     @Override
     public boolean getRollbackOnly() {
         try {
-            return _broker.getRollbackOnly();
+            return delegate().getRollbackOnly();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1113,7 +1152,7 @@ public class DelegatingBroker
     @Override
     public void setSavepoint(String name) {
         try {
-            _broker.setSavepoint(name);
+            delegate().setSavepoint(name);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1122,7 +1161,7 @@ public class DelegatingBroker
     @Override
     public void rollbackToSavepoint() {
         try {
-            _broker.rollbackToSavepoint();
+            delegate().rollbackToSavepoint();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1131,7 +1170,7 @@ public class DelegatingBroker
     @Override
     public void rollbackToSavepoint(String name) {
         try {
-            _broker.rollbackToSavepoint(name);
+            delegate().rollbackToSavepoint(name);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1140,7 +1179,7 @@ public class DelegatingBroker
     @Override
     public void releaseSavepoint() {
         try {
-            _broker.releaseSavepoint();
+            delegate().releaseSavepoint();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1149,7 +1188,7 @@ public class DelegatingBroker
     @Override
     public void releaseSavepoint(String name) {
         try {
-            _broker.releaseSavepoint(name);
+            delegate().releaseSavepoint(name);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1158,7 +1197,7 @@ public class DelegatingBroker
     @Override
     public void flush() {
         try {
-            _broker.flush();
+            delegate().flush();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1167,7 +1206,7 @@ public class DelegatingBroker
     @Override
     public void preFlush() {
         try {
-            _broker.preFlush();
+            delegate().preFlush();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1176,7 +1215,7 @@ public class DelegatingBroker
     @Override
     public void validateChanges() {
         try {
-            _broker.validateChanges();
+            delegate().validateChanges();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1185,7 +1224,7 @@ public class DelegatingBroker
     @Override
     public void beginStore() {
         try {
-            _broker.beginStore();
+            delegate().beginStore();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1194,7 +1233,7 @@ public class DelegatingBroker
     @Override
     public void persist(Object obj, OpCallbacks call) {
         try {
-            _broker.persist(obj, call);
+            delegate().persist(obj, call);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1203,7 +1242,7 @@ public class DelegatingBroker
     @Override
     public void persistAll(Collection objs, OpCallbacks call) {
         try {
-            _broker.persistAll(objs, call);
+            delegate().persistAll(objs, call);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1213,7 +1252,7 @@ public class DelegatingBroker
     public OpenJPAStateManager persist(Object obj, Object id,
         OpCallbacks call) {
         try {
-            return _broker.persist(obj, id, call);
+            return delegate().persist(obj, id, call);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1222,7 +1261,7 @@ public class DelegatingBroker
     @Override
     public void delete(Object obj, OpCallbacks call) {
         try {
-            _broker.delete(obj, call);
+            delegate().delete(obj, call);
         } catch (RuntimeException re) {
             throw translate(re, obj);
         }
@@ -1231,7 +1270,7 @@ public class DelegatingBroker
     @Override
     public void deleteAll(Collection objs, OpCallbacks call) {
         try {
-            _broker.deleteAll(objs, call);
+            delegate().deleteAll(objs, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1240,7 +1279,7 @@ public class DelegatingBroker
     @Override
     public void release(Object obj, OpCallbacks call) {
         try {
-            _broker.release(obj, call);
+            delegate().release(obj, call);
         } catch (RuntimeException re) {
             throw translate(re, obj);
         }
@@ -1249,7 +1288,7 @@ public class DelegatingBroker
     @Override
     public void releaseAll(Collection objs, OpCallbacks call) {
         try {
-            _broker.releaseAll(objs, call);
+            delegate().releaseAll(objs, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1258,7 +1297,7 @@ public class DelegatingBroker
     @Override
     public void refresh(Object obj, OpCallbacks call) {
         try {
-            _broker.refresh(obj, call);
+            delegate().refresh(obj, call);
         } catch (RuntimeException re) {
             throw translate(re, obj);
         }
@@ -1267,7 +1306,7 @@ public class DelegatingBroker
     @Override
     public void refreshAll(Collection objs, OpCallbacks call) {
         try {
-            _broker.refreshAll(objs, call);
+            delegate().refreshAll(objs, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1276,7 +1315,7 @@ public class DelegatingBroker
     @Override
     public void evict(Object obj, OpCallbacks call) {
         try {
-            _broker.evict(obj, call);
+            delegate().evict(obj, call);
         } catch (RuntimeException re) {
             throw translate(re, obj);
         }
@@ -1285,7 +1324,7 @@ public class DelegatingBroker
     @Override
     public void evictAll(Collection objs, OpCallbacks call) {
         try {
-            _broker.evictAll(objs, call);
+            delegate().evictAll(objs, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1294,7 +1333,7 @@ public class DelegatingBroker
     @Override
     public void evictAll(OpCallbacks call) {
         try {
-            _broker.evictAll(call);
+            delegate().evictAll(call);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1303,7 +1342,7 @@ public class DelegatingBroker
     @Override
     public void evictAll(Extent extent, OpCallbacks call) {
         try {
-            _broker.evictAll(extent, call);
+            delegate().evictAll(extent, call);
         } catch (RuntimeException re) {
             throw translate(re, extent.getElementType());
         }
@@ -1312,7 +1351,7 @@ public class DelegatingBroker
     @Override
     public Object detach(Object obj, OpCallbacks call) {
         try {
-            return _broker.detach(obj, call);
+            return delegate().detach(obj, call);
         } catch (RuntimeException re) {
             throw translate(re, obj);
         }
@@ -1321,7 +1360,7 @@ public class DelegatingBroker
     @Override
     public Object[] detachAll(Collection objs, OpCallbacks call) {
         try {
-            return _broker.detachAll(objs, call);
+            return delegate().detachAll(objs, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1330,7 +1369,7 @@ public class DelegatingBroker
     @Override
     public void detachAll(OpCallbacks call) {
         try {
-            _broker.detachAll(call);
+            delegate().detachAll(call);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1339,7 +1378,7 @@ public class DelegatingBroker
     @Override
     public void detachAll(OpCallbacks call, boolean flush) {
         try {
-            _broker.detachAll(call, flush);
+            delegate().detachAll(call, flush);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1348,7 +1387,7 @@ public class DelegatingBroker
     @Override
     public Object attach(Object obj, boolean copyNew, OpCallbacks call) {
         try {
-            return _broker.attach(obj, copyNew, call);
+            return delegate().attach(obj, copyNew, call);
         } catch (RuntimeException re) {
             throw translate(re, obj);
         }
@@ -1358,7 +1397,7 @@ public class DelegatingBroker
     public Object[] attachAll(Collection objs, boolean copyNew,
         OpCallbacks call) {
         try {
-            return _broker.attachAll(objs, copyNew, call);
+            return delegate().attachAll(objs, copyNew, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1368,7 +1407,7 @@ public class DelegatingBroker
     public void transactional(Object pc, boolean updateVersion, OpCallbacks
         call) {
         try {
-            _broker.transactional(pc, updateVersion, call);
+            delegate().transactional(pc, updateVersion, call);
         } catch (RuntimeException re) {
             throw translate(re, pc);
         }
@@ -1378,7 +1417,7 @@ public class DelegatingBroker
     public void transactionalAll(Collection objs, boolean updateVersion,
         OpCallbacks call) {
         try {
-            _broker.transactionalAll(objs, updateVersion, call);
+            delegate().transactionalAll(objs, updateVersion, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1387,7 +1426,7 @@ public class DelegatingBroker
     @Override
     public void nontransactional(Object pc, OpCallbacks call) {
         try {
-            _broker.nontransactional(pc, call);
+            delegate().nontransactional(pc, call);
         } catch (RuntimeException re) {
             throw translate(re, pc);
         }
@@ -1396,7 +1435,7 @@ public class DelegatingBroker
     @Override
     public void nontransactionalAll(Collection objs, OpCallbacks call) {
         try {
-            _broker.nontransactionalAll(objs, call);
+            delegate().nontransactionalAll(objs, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1405,7 +1444,7 @@ public class DelegatingBroker
     @Override
     public Extent newExtent(Class cls, boolean subs) {
         try {
-            return _broker.newExtent(cls, subs);
+            return delegate().newExtent(cls, subs);
         } catch (RuntimeException re) {
             throw translate(re, cls);
         }
@@ -1414,7 +1453,7 @@ public class DelegatingBroker
     @Override
     public Query newQuery(String language, Class cls, Object query) {
         try {
-            return _broker.newQuery(language, cls, query);
+            return delegate().newQuery(language, cls, query);
         } catch (RuntimeException re) {
             throw translate(re, query);
         }
@@ -1423,7 +1462,7 @@ public class DelegatingBroker
     @Override
     public Query newQuery(String language, Object query) {
         try {
-            return _broker.newQuery(language, query);
+            return delegate().newQuery(language, query);
         } catch (RuntimeException re) {
             throw translate(re, query);
         }
@@ -1432,7 +1471,7 @@ public class DelegatingBroker
     @Override
     public Seq getIdentitySequence(ClassMetaData meta) {
         try {
-            return _broker.getIdentitySequence(meta);
+            return delegate().getIdentitySequence(meta);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1441,7 +1480,7 @@ public class DelegatingBroker
     @Override
     public Seq getValueSequence(FieldMetaData fmd) {
         try {
-            return _broker.getValueSequence(fmd);
+            return delegate().getValueSequence(fmd);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1450,7 +1489,7 @@ public class DelegatingBroker
     @Override
     public void lock(Object obj, int level, int timeout, OpCallbacks call) {
         try {
-            _broker.lock(obj, level, timeout, call);
+            delegate().lock(obj, level, timeout, call);
         } catch (RuntimeException re) {
             throw translate(re, obj);
         }
@@ -1459,7 +1498,7 @@ public class DelegatingBroker
     @Override
     public void lock(Object obj, OpCallbacks call) {
         try {
-            _broker.lock(obj, call);
+            delegate().lock(obj, call);
         } catch (RuntimeException re) {
             throw translate(re, obj);
         }
@@ -1469,7 +1508,7 @@ public class DelegatingBroker
     public void lockAll(Collection objs, int level, int timeout,
         OpCallbacks call) {
         try {
-            _broker.lockAll(objs, level, timeout, call);
+            delegate().lockAll(objs, level, timeout, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1478,7 +1517,7 @@ public class DelegatingBroker
     @Override
     public void lockAll(Collection objs, OpCallbacks call) {
         try {
-            _broker.lockAll(objs, call);
+            delegate().lockAll(objs, call);
         } catch (RuntimeException re) {
             throw translate(re, objs);
         }
@@ -1487,7 +1526,7 @@ public class DelegatingBroker
     @Override
     public boolean cancelAll() {
         try {
-            return _broker.cancelAll();
+            return delegate().cancelAll();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1496,7 +1535,7 @@ public class DelegatingBroker
     @Override
     public void dirtyType(Class cls) {
         try {
-            _broker.dirtyType(cls);
+            delegate().dirtyType(cls);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1505,7 +1544,7 @@ public class DelegatingBroker
     @Override
     public void close() {
         try {
-            _broker.close();
+            delegate().close();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1514,7 +1553,7 @@ public class DelegatingBroker
     @Override
     public boolean isClosed() {
         try {
-            return _broker.isClosed();
+            return isStale() || _broker.isClosed();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1523,7 +1562,7 @@ public class DelegatingBroker
     @Override
     public boolean isCloseInvoked() {
         try {
-            return _broker.isCloseInvoked();
+            return isStale() || _broker.isCloseInvoked();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1532,7 +1571,7 @@ public class DelegatingBroker
     @Override
     public void assertOpen() {
         try {
-            _broker.assertOpen();
+            delegate().assertOpen();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1541,7 +1580,7 @@ public class DelegatingBroker
     @Override
     public void assertActiveTransaction() {
         try {
-            _broker.assertActiveTransaction();
+            delegate().assertActiveTransaction();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1550,7 +1589,7 @@ public class DelegatingBroker
     @Override
     public void assertNontransactionalRead() {
         try {
-            _broker.assertNontransactionalRead();
+            delegate().assertNontransactionalRead();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1559,7 +1598,7 @@ public class DelegatingBroker
     @Override
     public void assertWriteOperation() {
         try {
-            _broker.assertWriteOperation();
+            delegate().assertWriteOperation();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1572,7 +1611,7 @@ public class DelegatingBroker
     @Override
     public void beforeCompletion() {
         try {
-            _broker.beforeCompletion();
+            delegate().beforeCompletion();
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1581,7 +1620,7 @@ public class DelegatingBroker
     @Override
     public void afterCompletion(int status) {
         try {
-            _broker.afterCompletion(status);
+            delegate().afterCompletion(status);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1590,7 +1629,7 @@ public class DelegatingBroker
     @Override
     public Object newInstance(Class cls) {
         try {
-            return _broker.newInstance(cls);
+            return delegate().newInstance(cls);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1599,7 +1638,7 @@ public class DelegatingBroker
     @Override
     public boolean isDetached(Object obj) {
         try {
-            return _broker.isDetached(obj);
+            return delegate().isDetached(obj);
         } catch (RuntimeException re) {
             throw translate(re);
         }
@@ -1607,67 +1646,67 @@ public class DelegatingBroker
 
     @Override
     public boolean getCachePreparedQuery() {
-        return _broker.getCachePreparedQuery();
+        return delegate().getCachePreparedQuery();
     }
 
     @Override
     public void setCachePreparedQuery(boolean flag) {
-        _broker.setCachePreparedQuery(flag);
+        delegate().setCachePreparedQuery(flag);
     }
 
     @Override
     public String getConnectionFactoryName() {
-        return _broker.getConnectionFactoryName();
+        return delegate().getConnectionFactoryName();
     }
 
     @Override
     public void setConnectionFactoryName(String connectionFactoryName) {
-        _broker.setConnectionFactoryName(connectionFactoryName);
+        delegate().setConnectionFactoryName(connectionFactoryName);
     }
 
     @Override
     public String getConnectionFactory2Name() {
-        return _broker.getConnectionFactory2Name();
+        return delegate().getConnectionFactory2Name();
     }
 
     @Override
     public void setConnectionFactory2Name(String connectionFactory2Name) {
-        _broker.setConnectionFactory2Name(connectionFactory2Name);
+        delegate().setConnectionFactory2Name(connectionFactory2Name);
     }
 
     @Override
     public Object getConnectionFactory() {
-        return _broker.getConnectionFactory();
+        return delegate().getConnectionFactory();
     }
 
     @Override
     public Object getConnectionFactory2() {
-        return _broker.getConnectionFactory2();
+        return delegate().getConnectionFactory2();
     }
 
     @Override
     public boolean isCached(List<Object> oid) {
-        return _broker.isCached(oid);
+        return delegate().isCached(oid);
     }
 
     @Override
     public boolean getAllowReferenceToSiblingContext() {
-        return _broker.getAllowReferenceToSiblingContext();
+        return delegate().getAllowReferenceToSiblingContext();
     }
 
     @Override
     public void setAllowReferenceToSiblingContext(boolean allow) {
-        _broker.setAllowReferenceToSiblingContext(allow);
+        delegate().setAllowReferenceToSiblingContext(allow);
     }
 
     @Override
     public boolean getPostLoadOnMerge() {
-        return _broker.getPostLoadOnMerge();
+        return delegate().getPostLoadOnMerge();
     }
 
     @Override
     public void setPostLoadOnMerge(boolean allow) {
-        _broker.setPostLoadOnMerge(allow);
+        delegate().setPostLoadOnMerge(allow);
     }
 
 
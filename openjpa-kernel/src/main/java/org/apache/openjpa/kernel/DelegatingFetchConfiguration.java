@@ -666,4 +666,13 @@ public class DelegatingFetchConfiguration
             throw translate(re);
         }
     }
+
+    @Override
+    public Object getFetchPlanKey() {
+        try {
+            return _fetch.getFetchPlanKey();
+        } catch (RuntimeException re) {
+            throw translate(re);
+        }
+    }
 }
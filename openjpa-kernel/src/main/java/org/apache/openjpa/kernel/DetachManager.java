@@ -263,6 +263,20 @@ public class DetachManager
      * flushed if needed, and that we're detaching in-place
      */
     public DetachManager(BrokerImpl broker, boolean full, OpCallbacks call) {
+        this(broker, full, !full && broker.getConfiguration().
+            getCompatibilityInstance().getCopyOnDetach(), call);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param broker owning broker
+     * @param full whether the entire broker cache is being detached
+     * @param copy whether to detach copies rather than the instances
+     * themselves; instances detached in place are released from the broker
+     */
+    DetachManager(BrokerImpl broker, boolean full, boolean copy,
+        OpCallbacks call) {
         _broker = broker;
         _proxy = broker.getConfiguration().getProxyManagerInstance();
         _opts = broker.getConfiguration().getDetachStateInstance();
@@ -287,12 +301,7 @@ public class DetachManager
         _flushBeforeDetach = compatibility.getFlushBeforeDetach();
         _reloadOnDetach = compatibility.getReloadOnDetach();
         _cascadeWithDetach = compatibility.getCascadeWithDetach();
-        if (full) {
-            _copy = false;
-        }
-        else {
-            _copy = compatibility.getCopyOnDetach();
-        }
+        _copy = copy;
     }
 
     /**
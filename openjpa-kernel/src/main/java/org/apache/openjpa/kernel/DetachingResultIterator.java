@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.kernel;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.openjpa.lib.rop.ResultList;
+import org.apache.openjpa.lib.util.Closeable;
+import org.apache.openjpa.util.GeneralException;
+import org.apache.openjpa.util.ImplHelper;
+import org.apache.openjpa.util.OpenJPAException;
+import org.apache.openjpa.util.RuntimeExceptionTranslator;
+
+/**
+ * Iterator over a query result that detaches each persistent instance as
+ * it is read. Instances are detached in place, so that they are released
+ * from the broker as soon as they are returned rather than when the whole
+ * result has been read; iterating over a large-result-set query therefore
+ * runs in bounded memory. Related instances are detached along with each
+ * result only as far as the detach cascades; instances reached through
+ * other relations remain managed.
+ * <p>
+ * Alternatively, results are returned managed and detached only once the
+ * next result is read, when they are behind the cursor.
+ * <p>
+ * In either mode, an instance that has changes to flush or was already
+ * managed when the iteration began is never detached, so that pending
+ * changes and instances the application holds are left alone.
+ *
+ * @since 4.2.0
+ */
+public class DetachingResultIterator<T>
+    implements Iterator<T>, Closeable {
+
+    private final BrokerImpl _broker;
+    private final ResultList<T> _results;
+    private final Iterator<T> _itr;
+    private final DetachManager _detach;
+    private final RuntimeExceptionTranslator _trans;
+    private final boolean _behind;
+    private final Set<Object> _managed;
+    private Object _last;
+    private boolean _closed;
+
+    /**
+     * Constructor.
+     *
+     * @param broker the broker that loaded the results
+     * @param results the results to iterate, typically a large result set
+     * @param call callbacks consulted for each instance to detach
+     * @param trans exception translator, or null
+     */
+    public DetachingResultIterator(Broker broker, ResultList<T> results,
+        OpCallbacks call, RuntimeExceptionTranslator trans) {
+        this(broker, results, call, trans, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param broker the broker that loaded the results
+     * @param results the results to iterate, typically a large result set
+     * @param call callbacks consulted for each instance to detach
+     * @param trans exception translator, or null
+     * @param behind whether to return results managed and detach each one
+     * once the next result is read
+     */
+    public DetachingResultIterator(Broker broker, ResultList<T> results,
+        OpCallbacks call, RuntimeExceptionTranslator trans, boolean behind) {
+        if (broker instanceof DelegatingBroker)
+            broker = ((DelegatingBroker) broker).getInnermostDelegate();
+        _broker = (BrokerImpl) broker;
+        _results = results;
+        _trans = trans;
+        _behind = behind;
+        _managed = Collections.newSetFromMap(new IdentityHashMap<>());
+        _managed.addAll(_broker.getManagedObjects());
+        try {
+            _itr = results.iterator();
+            _detach = new DetachManager(_broker, false, false, call);
+        } catch (RuntimeException re) {
+            throw translate(re);
+        }
+    }
+
+    /**
+     * Whether there are more results. The underlying result is closed once
+     * they are exhausted, so that a cursor is not left open by callers that
+     * read to the end without closing this iterator.
+     */
+    @Override
+    public boolean hasNext() {
+        if (_closed)
+            return false;
+        try {
+            if (_itr.hasNext())
+                return true;
+            close();
+            return false;
+        } catch (RuntimeException re) {
+            throw translate(re);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        _broker.beginOperation(true);
+        try {
+            if (_behind) {
+                if (_last instanceof Object[]) {
+                    for (Object val : (Object[]) _last)
+                        detach(val);
+                } else
+                    detach(_last);
+                T next = _itr.next();
+                _last = next;
+                return next;
+            }
+
+            T next = _itr.next();
+            if (next instanceof Object[]) {
+                Object[] row = (Object[]) next;
+                for (int i = 0; i < row.length; i++)
+                    row[i] = detach(row[i]);
+                return next;
+            }
+            return (T) detach(next);
+        } catch (OpenJPAException ke) {
+            throw translate(ke);
+        } catch (RuntimeException re) {
+            throw translate(new GeneralException(re));
+        } finally {
+            _broker.endOperation();
+        }
+    }
+
+    /**
+     * Detach the given result value if it is managed by our broker, has no
+     * changes to flush and was not already managed when we began.
+     */
+    private Object detach(Object obj) {
+        if (obj == null || !ImplHelper.isManageable(obj))
+            return obj;
+        StateManagerImpl sm = _broker.getStateManagerImpl(obj, false);
+        if (sm == null || sm.getBroker() != _broker)
+            return obj;
+        if (sm.isDirty() || sm.isNew() || sm.isDeleted()
+            || _managed.contains(obj))
+            return obj;
+        return _detach.detach(obj);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Close the underlying result.
+     */
+    @Override
+    public void close() {
+        if (_closed)
+            return;
+        _closed = true;
+        try {
+            _results.close();
+        } catch (RuntimeException re) {
+            throw translate(re);
+        }
+    }
+
+    private RuntimeException translate(RuntimeException re) {
+        return (_trans == null) ? re : _trans.translate(re);
+    }
+}
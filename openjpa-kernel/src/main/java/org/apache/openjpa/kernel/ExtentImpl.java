@@ -56,6 +56,9 @@ public class ExtentImpl<T>
     private final ReentrantLock _lock;
     private boolean _ignore = false;
 
+    // generation of a pooled broker when this extent was created
+    private final int _generation;
+
     // set of open iterators
     private ReferenceHashSet _openItrs = null;
 
@@ -76,6 +79,8 @@ public class ExtentImpl<T>
         else
             _fc = (FetchConfiguration) broker.getFetchConfiguration().clone();
         _ignore = broker.getIgnoreChanges();
+        _generation = (broker instanceof BrokerImpl)
+            ? ((BrokerImpl) broker).getGeneration() : 0;
         if (broker.getMultithreaded())
             _lock = new ReentrantLock();
         else
@@ -94,10 +99,20 @@ public class ExtentImpl<T>
 
     @Override
     public void setIgnoreChanges(boolean ignoreChanges) {
+        assertGeneration();
         _broker.assertOpen();
         _ignore = ignoreChanges;
     }
 
+    /**
+     * Fail as a closed broker would if the broker has been released to the
+     * broker pool since this extent was created.
+     */
+    private void assertGeneration() {
+        if (_broker instanceof BrokerImpl)
+            ((BrokerImpl) _broker).assertGeneration(_generation);
+    }
+
     @Override
     public List<T> list() {
         List<T> list = new ArrayList<>();
@@ -113,6 +128,7 @@ public class ExtentImpl<T>
 
     @Override
     public Iterator<T> iterator() {
+        assertGeneration();
         _broker.assertNontransactionalRead();
         CloseableIterator citr = null;
         try {
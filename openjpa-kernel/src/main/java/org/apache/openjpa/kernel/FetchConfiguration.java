@@ -479,4 +479,14 @@ public interface FetchConfiguration
      * Whether SQL generated by the FetchConfiguration's current configuration should be cached.
      */
     boolean isFetchConfigurationSQLCacheAdmissible();
+
+    /**
+     * Key identifying the data this configuration selects at its current
+     * point of traversal. Configurations with equal keys generate the same
+     * SQL for any given class. Returns null if SQL generated by this
+     * configuration should never be cached.
+     *
+     * @since 4.2.0
+     */
+    Object getFetchPlanKey();
 }
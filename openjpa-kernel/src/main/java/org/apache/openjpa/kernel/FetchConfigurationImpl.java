@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.openjpa.conf.OpenJPAConfiguration;
 import org.apache.openjpa.lib.rop.EagerResultList;
@@ -152,8 +153,16 @@ public class FetchConfigurationImpl
         public DataCacheRetrieveMode cacheRetrieveMode = DataCacheRetrieveMode.USE;
         public DataCacheStoreMode cacheStoreMode = DataCacheStoreMode.USE;
         public boolean cacheNonDefaultFetchPlanQueries = false;
+
+        // fetch groups, fields and hints shared with a clone; a shared
+        // structure is copied before it is first modified
+        public int shared = 0;
     }
 
+    private static final int SHARED_FETCH_GROUPS = 1 << 0;
+    private static final int SHARED_FIELDS = 1 << 1;
+    private static final int SHARED_HINTS = 1 << 2;
+
     private final ConfigurationState _state;
     private FetchConfigurationImpl _parent;
     private String _fromField;
@@ -238,13 +247,17 @@ public class FetchConfigurationImpl
         setLockTimeout(fetch.getLockTimeout());
         setQueryTimeout(fetch.getQueryTimeout());
         setLockScope(fetch.getLockScope());
-        clearFetchGroups(false);
-        addFetchGroups(fetch.getFetchGroups());
-        clearFields();
+        if (fetch instanceof FetchConfigurationImpl)
+            share((FetchConfigurationImpl) fetch);
+        else {
+            clearFetchGroups(false);
+            addFetchGroups(fetch.getFetchGroups());
+            clearFields();
+            addFields(fetch.getFields());
+        }
         copyHints(fetch);
         setCacheRetrieveMode(fetch.getCacheRetrieveMode());
         setCacheStoreMode(fetch.getCacheStoreMode());
-        addFields(fetch.getFields());
 
         // don't use setters because require active transaction
         _state.readLockLevel = fetch.getReadLockLevel();
@@ -252,17 +265,112 @@ public class FetchConfigurationImpl
     }
 
 
+    /**
+     * Take over the fetch groups and fields of the given configuration,
+     * sharing them with it until either side modifies them. The structures
+     * are marked shared under the lock of the given configuration, and
+     * taken over under the lock of this one.
+     */
+    private void share(FetchConfigurationImpl from) {
+        if (from._state == _state)
+            return;
+        ConfigurationState state = from._state;
+        Set<String> fetchGroups;
+        Set<String> fields;
+        boolean containsAll;
+        boolean containsDefault;
+        from.lock();
+        try {
+            state.shared |= SHARED_FETCH_GROUPS | SHARED_FIELDS;
+            fetchGroups = state.fetchGroups;
+            fields = state.fields;
+            containsAll = state.fetchGroupContainsAll;
+            containsDefault = state.fetchGroupContainsDefault;
+        } finally {
+            from.unlock();
+        }
+
+        lock();
+        try {
+            _state.fetchGroups = fetchGroups;
+            _state.fields = fields;
+            _state.shared |= SHARED_FETCH_GROUPS | SHARED_FIELDS;
+            _state.fetchGroupContainsAll = containsAll;
+            _state.fetchGroupContainsDefault = containsDefault;
+        } finally {
+            verifyDefaultPUFetchGroups();
+            unlock();
+        }
+    }
+
     void copyHints(FetchConfiguration fetch) {
         if (!(fetch instanceof FetchConfigurationImpl))
             return;
         FetchConfigurationImpl from = (FetchConfigurationImpl)fetch;
-        if (from._state == null || from._state.hints == null)
+        if (from._state == null || this._state == null
+            || this._state == from._state)
             return;
-        if (this._state == null)
+        Map<String,Object> hints;
+        from.lock();
+        try {
+            hints = from._state.hints;
+            if (hints != null)
+                from._state.shared |= SHARED_HINTS;
+        } finally {
+            from.unlock();
+        }
+        if (hints == null)
             return;
-        if (this._state.hints == null)
-            this._state.hints = new HashMap<>();
-        this._state.hints.putAll(from._state.hints);
+
+        lock();
+        try {
+            if (this._state.hints == null || this._state.hints.isEmpty()) {
+                this._state.hints = hints;
+                this._state.shared |= SHARED_HINTS;
+            } else
+                hintsForWrite().putAll(hints);
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Return the fetch groups for modification, copying them first if they
+     * are shared with another configuration.
+     */
+    private Set<String> fetchGroupsForWrite() {
+        if ((_state.shared & SHARED_FETCH_GROUPS) != 0) {
+            _state.fetchGroups = (_state.fetchGroups == null) ? new HashSet<>() : new HashSet<>(_state.fetchGroups);
+            _state.shared &= ~SHARED_FETCH_GROUPS;
+        } else if (_state.fetchGroups == null)
+            _state.fetchGroups = new HashSet<>();
+        return _state.fetchGroups;
+    }
+
+    /**
+     * Return the fields for modification, copying them first if they are
+     * shared with another configuration.
+     */
+    private Set<String> fieldsForWrite() {
+        if ((_state.shared & SHARED_FIELDS) != 0) {
+            _state.fields = (_state.fields == null) ? new HashSet<>() : new HashSet<>(_state.fields);
+            _state.shared &= ~SHARED_FIELDS;
+        } else if (_state.fields == null)
+            _state.fields = new HashSet<>();
+        return _state.fields;
+    }
+
+    /**
+     * Return the hints for modification, copying them first if they are
+     * shared with another configuration.
+     */
+    private Map<String,Object> hintsForWrite() {
+        if ((_state.shared & SHARED_HINTS) != 0) {
+            _state.hints = (_state.hints == null) ? new HashMap<>() : new HashMap<>(_state.hints);
+            _state.shared &= ~SHARED_HINTS;
+        } else if (_state.hints == null)
+            _state.hints = new HashMap<>();
+        return _state.hints;
     }
 
     @Override
@@ -375,9 +483,7 @@ public class FetchConfigurationImpl
 
         lock();
         try {
-            if (_state.fetchGroups == null)
-                _state.fetchGroups = new HashSet<>();
-            _state.fetchGroups.add(name);
+            fetchGroupsForWrite().add(name);
 
             if (FetchGroup.NAME_ALL.equals(name))
                 _state.fetchGroupContainsAll = true;
@@ -412,7 +518,7 @@ public class FetchConfigurationImpl
         lock();
         try {
             if (_state.fetchGroups != null) {
-                _state.fetchGroups.remove(group);
+                fetchGroupsForWrite().remove(group);
                 if (FetchGroup.NAME_ALL.equals(group))
                     _state.fetchGroupContainsAll = false;
                 else if (FetchGroup.NAME_DEFAULT.equals(group))
@@ -449,11 +555,7 @@ public class FetchConfigurationImpl
     private FetchConfiguration clearFetchGroups(boolean restoresDefault) {
         lock();
         try {
-            if (_state.fetchGroups != null) {
-                _state.fetchGroups.clear();
-            } else {
-                _state.fetchGroups = new HashSet<>();
-            }
+            fetchGroupsForWrite().clear();
 
             _state.fetchGroupContainsAll = false;
 
@@ -522,6 +624,26 @@ public class FetchConfigurationImpl
         }
     }
 
+    @Override
+    public Object getFetchPlanKey() {
+        if (_state == null || _state.cacheNonDefaultFetchPlanQueries)
+            return null;
+        List<Object> key = new ArrayList<>();
+        key.add(new TreeSet<>(getFetchGroups()));
+        key.add(new TreeSet<>(getFields()));
+        key.add(_state.maxFetchDepth);
+        key.add(_availableDepth);
+        key.add(_availableRecursion);
+        key.add(_load);
+        key.add(_directRelationOwner);
+        // the traversal path decides the recursion depths of fields
+        for (FetchConfigurationImpl f = this; f._parent != null; f = f._parent) {
+            key.add(f._fromField);
+            key.add(f._fromType);
+        }
+        return key;
+    }
+
     @Override
     public Set<String> getFields() {
         if (_state.fields == null) return Collections.emptySet();
@@ -540,9 +662,7 @@ public class FetchConfigurationImpl
 
         lock();
         try {
-            if (_state.fields == null)
-                _state.fields = new HashSet<>();
-            _state.fields.add(field);
+            fieldsForWrite().add(field);
             _state.fetchGroupIsPUDefault = false;
         } finally {
             unlock();
@@ -557,9 +677,7 @@ public class FetchConfigurationImpl
 
         lock();
         try {
-            if (_state.fields == null)
-                _state.fields = new HashSet<>();
-            _state.fields.addAll(fields);
+            fieldsForWrite().addAll(fields);
         } finally {
             verifyDefaultPUFetchGroups();
             unlock();
@@ -572,7 +690,7 @@ public class FetchConfigurationImpl
         lock();
         try {
             if (_state.fields != null) {
-                _state.fields.remove(field);
+                fieldsForWrite().remove(field);
 
                 if (_state.fields.size() == 0) {
                     verifyDefaultPUFetchGroups();
@@ -589,7 +707,7 @@ public class FetchConfigurationImpl
         lock();
         try {
             if (_state.fields != null)
-                _state.fields.removeAll(fields);
+                fieldsForWrite().removeAll(fields);
         } finally {
             unlock();
         }
@@ -600,8 +718,8 @@ public class FetchConfigurationImpl
     public FetchConfiguration clearFields() {
         lock();
         try {
-            if (_state.fields != null)
-                _state.fields.clear();
+            if (_state.fields != null && !_state.fields.isEmpty())
+                fieldsForWrite().clear();
         } finally {
             verifyDefaultPUFetchGroups();
             unlock();
@@ -812,8 +930,14 @@ public class FetchConfigurationImpl
     public void removeHint(String...keys) {
         if (keys == null || _state.hints == null )
             return;
-        for (String key : keys) {
-            _state.hints.remove(key);
+        lock();
+        try {
+            Map<String,Object> hints = hintsForWrite();
+            for (String key : keys) {
+                hints.remove(key);
+            }
+        } finally {
+            unlock();
         }
     }
 
@@ -878,9 +1002,7 @@ public class FetchConfigurationImpl
     private void addHint(String name, Object value) {
         lock();
         try {
-            if (_state.hints == null)
-                _state.hints = new HashMap<>();
-            _state.hints.put(name, value);
+            hintsForWrite().put(name, value);
         } finally {
             unlock();
         }
@@ -892,7 +1014,14 @@ public class FetchConfigurationImpl
     }
 
     public Object removeHint(String name) {
-        return (_state.hints == null) ? null : _state.hints.remove(name);
+        if (_state.hints == null)
+            return null;
+        lock();
+        try {
+            return hintsForWrite().remove(name);
+        } finally {
+            unlock();
+        }
     }
 
     @Override
@@ -51,6 +51,15 @@ import org.apache.openjpa.kernel.PreparedQueryCache.Exclusion;
  * @since 2.0.0
  */
 public interface PreparedQuery  {
+    /**
+     * Prefix of the keys of the user parameters that bind the
+     * {@link QueryHints#HINT_KEYSET keyset} values in the target query,
+     * followed by the position of the value among the orderings.
+     *
+     * @since 4.2.0
+     */
+    String KEYSET_PARAMETER = "openjpa.keyset.";
+
     /**
      * Get the immutable identifier of this receiver used for
      * * {@link PreparedQueryCache cache}.
@@ -108,4 +108,25 @@ public interface QueryHints {
      * if possible.
      */
     String HINT_USE_LITERAL_IN_SQL = "openjpa.hint.UseLiteralInSQL";
+
+    /**
+     * The ordering values of the last result of the previous page, as an
+     * array or a list with a value per ordering of the query. The query
+     * then only returns the results that follow that result in its order,
+     * so that a page is selected by a key range rather than by skipping
+     * the rows of the previous pages.
+     *
+     * @since 4.2.0
+     */
+    String HINT_KEYSET = "openjpa.hint.Keyset";
+
+    /**
+     * Whether <code>getResultStream</code> reads the results through a
+     * server-side cursor a fetch size at a time, detaching them once the
+     * stream has moved past them. Defaults to false, in which case the
+     * stream is over the managed result list.
+     *
+     * @since 4.2.0
+     */
+    String HINT_RESULT_STREAM = "openjpa.hint.ResultStream";
 }
@@ -82,6 +82,9 @@ public class QueryImpl implements Query {
     private final String _language;
     private final StoreQuery _storeQuery;
     private transient final BrokerImpl _broker;
+    // generation of the broker when this query was created; the query is
+    // closed once the broker has been released to the broker pool
+    private transient final int _generation;
     private transient final Log _log;
     private transient ClassLoader _loader = null;
 
@@ -133,6 +136,7 @@ public class QueryImpl implements Query {
      */
     public QueryImpl(Broker broker, String language, StoreQuery storeQuery) {
         _broker = (BrokerImpl) broker;
+        _generation = _broker.getGeneration();
         _language = language;
         _storeQuery = storeQuery;
         _fc = (FetchConfiguration) broker.getFetchConfiguration().clone();
@@ -847,6 +851,7 @@ public class QueryImpl implements Query {
         lock();
         try {
             assertNotSerialized();
+            _broker.assertGeneration(_generation);
             _broker.beginOperation(true);
             try {
                 assertOpen();
@@ -888,6 +893,8 @@ public class QueryImpl implements Query {
 
         lock();
         try {
+            assertNotSerialized();
+            _broker.assertGeneration(_generation);
             _broker.beginOperation(true);
             try {
                 assertNotSerialized();
@@ -1807,8 +1814,10 @@ public class QueryImpl implements Query {
 
     @Override
     public void assertOpen() {
-        if (_broker != null)
+        if (_broker != null) {
+            _broker.assertGeneration(_generation);
             _broker.assertOpen();
+        }
     }
 
     @Override
@@ -58,6 +58,16 @@ public interface QueryStatistics<T> extends Serializable {
      */
     void recordEviction(T query);
 
+    /**
+     * Record that the given number of joins were left out of the SQL
+     * generated for the given query because they could not change its
+     * result. Ignores the joins by default.
+     *
+     * @since 4.2.0
+     */
+    default void recordPrunedJoins(T query, int count) {
+    }
+
 	/**
 	 * Gets number of total query execution since last reset.
 	 */
@@ -110,6 +120,45 @@ public interface QueryStatistics<T> extends Serializable {
      */
     long getTotalEvictionCount();
 
+    /**
+     * Gets number of joins left out of the SQL of all queries since last
+     * reset.
+     *
+     * @since 4.2.0
+     */
+    default long getPrunedJoinCount() {
+        return 0;
+    }
+
+    /**
+     * Gets number of joins left out of the SQL of all queries since start.
+     *
+     * @since 4.2.0
+     */
+    default long getTotalPrunedJoinCount() {
+        return 0;
+    }
+
+    /**
+     * Gets number of joins left out of the SQL of the given query since
+     * last reset.
+     *
+     * @since 4.2.0
+     */
+    default long getPrunedJoinCount(T query) {
+        return 0;
+    }
+
+    /**
+     * Gets number of joins left out of the SQL of the given query since
+     * start.
+     *
+     * @since 4.2.0
+     */
+    default long getTotalPrunedJoinCount(T query) {
+        return 0;
+    }
+
 	/**
 	 * Gets the time of last reset.
 	 */
@@ -149,10 +198,11 @@ public interface QueryStatistics<T> extends Serializable {
 	    private static final float LOAD_FACTOR = 0.75f;
 	    private static final int CONCURRENCY = 16;
 
-		private static final int ARRAY_SIZE = 3;
+		private static final int ARRAY_SIZE = 4;
         private static final int READ  = 0;
         private static final int HIT   = 1;
         private static final int EVICT = 2;
+        private static final int PRUNE = 3;
 
 		private long[] astat = new long[ARRAY_SIZE];
 		private long[] stat  = new long[ARRAY_SIZE];
@@ -255,18 +305,22 @@ public interface QueryStatistics<T> extends Serializable {
 
 
 		private void addSample(T query, int index) {
-			stat[index]++;
-			astat[index]++;
-			addSample(stats, query, index);
-			addSample(astats, query, index);
+			addSample(query, index, 1);
+		}
+
+		private void addSample(T query, int index, int count) {
+			stat[index] += count;
+			astat[index] += count;
+			addSample(stats, query, index, count);
+			addSample(astats, query, index, count);
 		}
 
-		private void addSample(Map<T, long[]> target, T query, int i) {
+		private void addSample(Map<T, long[]> target, T query, int i, int count) {
 			long[] row = target.get(query);
 			if (row == null) {
 				row = new long[ARRAY_SIZE];
 			}
-			row[i]++;
+			row[i] += count;
 			target.put(query, row);
 		}
 
@@ -288,6 +342,14 @@ public interface QueryStatistics<T> extends Serializable {
             addSample(query, EVICT);
         }
 
+        @Override
+        public void recordPrunedJoins(T query, int count) {
+            if (query == null || count <= 0) {
+                return;
+            }
+            addSample(query, PRUNE, count);
+        }
+
 		@Override
         public void dump(PrintStream out) {
             String header = "Query Statistics starting from " + start;
@@ -334,6 +396,26 @@ public interface QueryStatistics<T> extends Serializable {
         public long getTotalEvictionCount() {
             return astat[EVICT];
         }
+
+        @Override
+        public long getPrunedJoinCount() {
+            return stat[PRUNE];
+        }
+
+        @Override
+        public long getTotalPrunedJoinCount() {
+            return astat[PRUNE];
+        }
+
+        @Override
+        public long getPrunedJoinCount(T query) {
+            return getCount(stats, query, PRUNE);
+        }
+
+        @Override
+        public long getTotalPrunedJoinCount(T query) {
+            return getCount(astats, query, PRUNE);
+        }
 	}
 
 	/**
@@ -123,6 +123,7 @@ public class StateManagerImpl implements OpenJPAStateManager, Serializable {
     private BitSet _flush = null;
 
     private BitSet _delayed = null;
+    private BitSet _partial = null;
     private int _flags = 0;
 
     // id is the state manager identity; oid is the persistent identity.  oid
@@ -1704,6 +1705,40 @@ public class StateManagerImpl implements OpenJPAStateManager, Serializable {
         }
     }
 
+    /**
+     * Whether the given loaded field may hold only part of its stored
+     * value, such as a collection loaded up to an element limit. Such
+     * fields are not stored in the data cache.
+     *
+     * @since 4.2.0
+     */
+    public boolean isPartiallyLoaded(int field) {
+        if (_partial == null) {
+            return false;
+        }
+        return _partial.get(field);
+    }
+
+    /**
+     * Mark the given loaded field as holding only part of its stored value.
+     * The mark is cleared when the field is unloaded.
+     *
+     * @since 4.2.0
+     */
+    public void setPartiallyLoaded(int field, boolean partial) {
+        if (_partial == null) {
+            if (!partial) {
+                return;
+            }
+            _partial = new BitSet();
+        }
+        if (partial) {
+            _partial.set(field);
+        } else {
+            _partial.clear(field);
+        }
+    }
+
     /**
      * Loads a delayed access field.
      */
@@ -3414,8 +3449,11 @@ public class StateManagerImpl implements OpenJPAStateManager, Serializable {
 
         if (isLoaded)
             _loaded.set(field);
-        else
+        else {
             _loaded.clear(field);
+            if (_partial != null)
+                _partial.clear(field);
+        }
     }
 
     /**
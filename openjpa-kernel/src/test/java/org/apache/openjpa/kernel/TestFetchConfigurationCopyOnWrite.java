@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Test;
+
+/**
+ * Tests that cloned fetch configurations share their fetch groups, fields
+ * and hints until one side modifies them.
+ */
+public class TestFetchConfigurationCopyOnWrite {
+    private static final int CLONES = 10000;
+
+    private static FetchConfigurationImpl newFetch(int size) {
+        FetchConfigurationImpl fetch = new FetchConfigurationImpl();
+        for (int i = 0; i < size; i++) {
+            fetch.addFetchGroup("group" + i);
+            fetch.addField("Type.field" + i);
+            fetch.setHint("hint" + i, i);
+        }
+        return fetch;
+    }
+
+    @Test
+    public void testCloneSharesStructures() {
+        FetchConfigurationImpl fetch = newFetch(5);
+        FetchConfigurationImpl clone = (FetchConfigurationImpl) fetch.clone();
+        assertSame(fetch.getFetchGroups(), clone.getFetchGroups());
+        assertSame(fetch.getFields(), clone.getFields());
+        assertEquals(fetch.getHints(), clone.getHints());
+        assertTrue(clone.hasFetchGroup("group3"));
+        assertTrue(clone.hasField("Type.field3"));
+        assertEquals(3, clone.getHint("hint3"));
+    }
+
+    @Test
+    public void testCloneModificationIsIsolated() {
+        FetchConfigurationImpl fetch = newFetch(5);
+        FetchConfigurationImpl clone = (FetchConfigurationImpl) fetch.clone();
+        clone.addFetchGroup("extra");
+        clone.removeField("Type.field0");
+        clone.setHint("hint0", "changed");
+
+        assertTrue(clone.hasFetchGroup("extra"));
+        assertFalse(fetch.hasFetchGroup("extra"));
+        assertFalse(clone.hasField("Type.field0"));
+        assertTrue(fetch.hasField("Type.field0"));
+        assertEquals("changed", clone.getHint("hint0"));
+        assertEquals(0, fetch.getHint("hint0"));
+    }
+
+    @Test
+    public void testOriginalModificationIsIsolated() {
+        FetchConfigurationImpl fetch = newFetch(5);
+        FetchConfigurationImpl clone = (FetchConfigurationImpl) fetch.clone();
+        fetch.clearFetchGroups();
+        fetch.clearFields();
+        fetch.removeHint("hint1");
+
+        assertTrue(clone.hasFetchGroup("group1"));
+        assertTrue(clone.hasField("Type.field1"));
+        assertEquals(1, clone.getHint("hint1"));
+        assertFalse(fetch.hasFetchGroup("group1"));
+        assertFalse(fetch.hasField("Type.field1"));
+        assertNull(fetch.getHint("hint1"));
+    }
+
+    @Test
+    public void testCloneOfCloneIsIsolated() {
+        FetchConfigurationImpl fetch = newFetch(2);
+        FetchConfigurationImpl clone = (FetchConfigurationImpl) fetch.clone();
+        FetchConfigurationImpl clone2 = (FetchConfigurationImpl) clone.clone();
+        clone.addField("Type.other");
+        assertFalse(fetch.hasField("Type.other"));
+        assertFalse(clone2.hasField("Type.other"));
+        clone2.addField("Type.other2");
+        assertFalse(fetch.hasField("Type.other2"));
+        assertFalse(clone.hasField("Type.other2"));
+    }
+
+    /**
+     * Cloning no longer copies the shared structures, so the memory a clone
+     * allocates does not grow with the number of fetch groups, fields and
+     * hints of the configuration it was cloned from.
+     */
+    @Test
+    public void testCloneAllocationIndependentOfSize() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            return;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled())
+            return;
+
+        FetchConfigurationImpl small = newFetch(1);
+        FetchConfigurationImpl large = newFetch(50);
+        // warm up
+        allocatedPerClone(threads, small);
+        allocatedPerClone(threads, large);
+
+        long smallBytes = allocatedPerClone(threads, small);
+        long largeBytes = allocatedPerClone(threads, large);
+        assertTrue("Clone of a large configuration allocated " + largeBytes
+            + " bytes, of a small one " + smallBytes, largeBytes < smallBytes * 2);
+    }
+
+    private static long allocatedPerClone(com.sun.management.ThreadMXBean threads, FetchConfigurationImpl fetch) {
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < CLONES; i++)
+            fetch.clone();
+        return (threads.getThreadAllocatedBytes(id) - before) / CLONES;
+    }
+}
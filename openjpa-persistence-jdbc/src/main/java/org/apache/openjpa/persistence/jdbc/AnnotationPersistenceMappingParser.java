@@ -1294,6 +1294,10 @@ public class AnnotationPersistenceMappingParser
                 return EagerFetchModes.EAGER_JOIN;
             case PARALLEL:
                 return EagerFetchModes.EAGER_PARALLEL;
+            case BATCH:
+                return EagerFetchModes.EAGER_BATCH;
+            case SUBSELECT:
+                return EagerFetchModes.EAGER_SUBSELECT;
             default:
                 throw new InternalException();
         }
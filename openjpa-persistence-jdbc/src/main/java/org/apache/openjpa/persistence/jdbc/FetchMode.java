@@ -32,7 +32,9 @@ import org.apache.openjpa.persistence.OpenJPAEnum;
 public enum FetchMode implements OpenJPAEnum<FetchMode>{
     NONE(EagerFetchModes.EAGER_NONE, "none"),
     JOIN(EagerFetchModes.EAGER_JOIN, "join"),
-    PARALLEL(EagerFetchModes.EAGER_PARALLEL, "parallel");
+    PARALLEL(EagerFetchModes.EAGER_PARALLEL, "parallel"),
+    BATCH(EagerFetchModes.EAGER_BATCH, "batch"),
+    SUBSELECT(EagerFetchModes.EAGER_SUBSELECT, "subselect");
 
     private final int eagerFetchConstant;
     private final String[] _names;
@@ -58,6 +60,12 @@ public enum FetchMode implements OpenJPAEnum<FetchMode>{
             case EagerFetchModes.EAGER_PARALLEL:
                 return PARALLEL;
 
+            case EagerFetchModes.EAGER_BATCH:
+                return BATCH;
+
+            case EagerFetchModes.EAGER_SUBSELECT:
+                return SUBSELECT;
+
             default:
                 throw new IllegalArgumentException(kernelConstant + "");
         }
@@ -48,6 +48,40 @@ public interface JDBCFetchPlan
      */
     JDBCFetchPlan setEagerFetchMode(FetchMode mode);
 
+    /**
+     * Number of instances whose relations are loaded together in
+     * {@link FetchMode#BATCH} mode.
+     *
+     * @since 4.2.0
+     */
+    int getEagerBatchSize();
+
+    /**
+     * Number of instances whose relations are loaded together in
+     * {@link FetchMode#BATCH} mode.
+     *
+     * @since 4.2.0
+     */
+    JDBCFetchPlan setEagerBatchSize(int size);
+
+    /**
+     * Maximum number of elements loaded into each inverse collection that
+     * is fetched eagerly, or -1 for no limit.
+     *
+     * @since 4.2.0
+     */
+    int getEagerCollectionLimit();
+
+    /**
+     * Maximum number of elements loaded into each inverse collection that
+     * is fetched eagerly, in the order of the collection. Use -1 for no
+     * limit. Collections that reach the limit are not stored in the data
+     * cache.
+     *
+     * @since 4.2.0
+     */
+    JDBCFetchPlan setEagerCollectionLimit(int limit);
+
     /**
      * Eager fetch mode in loading subclasses.
      */
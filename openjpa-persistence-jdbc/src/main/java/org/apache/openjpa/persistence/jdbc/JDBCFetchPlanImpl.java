@@ -46,12 +46,16 @@ public class JDBCFetchPlanImpl
     private DelegatingJDBCFetchConfiguration _fetch;
     static {
         registerHint(new String[]{"openjpa.FetchPlan.EagerFetchMode", "openjpa.jdbc.EagerFetchMode"},
-            new HintValueConverter.StringToInteger(new String[]{"none", "0", "join", "1", "parallel", "2"},
+            new HintValueConverter.StringToInteger(new String[]{"none", "0", "join", "1", "parallel", "2", "batch", "3",
+                "subselect", "4"},
                 new int[]{EagerFetchModes.EAGER_NONE, EagerFetchModes.EAGER_NONE,
                           EagerFetchModes.EAGER_JOIN, EagerFetchModes.EAGER_JOIN,
-                          EagerFetchModes.EAGER_PARALLEL,EagerFetchModes.EAGER_PARALLEL}),
+                          EagerFetchModes.EAGER_PARALLEL,EagerFetchModes.EAGER_PARALLEL,
+                          EagerFetchModes.EAGER_BATCH, EagerFetchModes.EAGER_BATCH,
+                          EagerFetchModes.EAGER_SUBSELECT, EagerFetchModes.EAGER_SUBSELECT}),
             new HintValueConverter.EnumToInteger(FetchMode.class,
-                new int[]{EagerFetchModes.EAGER_NONE, EagerFetchModes.EAGER_JOIN, EagerFetchModes.EAGER_PARALLEL}));
+                new int[]{EagerFetchModes.EAGER_NONE, EagerFetchModes.EAGER_JOIN, EagerFetchModes.EAGER_PARALLEL,
+                    EagerFetchModes.EAGER_BATCH, EagerFetchModes.EAGER_SUBSELECT}));
         registerHint(new String[]{"openjpa.JoinSyntax", "openjpa.jdbc.JoinSyntax","openjpa.FetchPlan.JoinSyntax"},
             new HintValueConverter.EnumToInteger(JoinSyntax.class,
                 new int[]{JoinSyntaxes.SYNTAX_SQL92, JoinSyntaxes.SYNTAX_TRADITIONAL, JoinSyntaxes.SYNTAX_DATABASE}),
@@ -120,6 +124,28 @@ public class JDBCFetchPlanImpl
         return this;
     }
 
+    @Override
+    public int getEagerBatchSize() {
+        return _fetch.getEagerBatchSize();
+    }
+
+    @Override
+    public JDBCFetchPlanImpl setEagerBatchSize(int size) {
+        _fetch.setEagerBatchSize(size);
+        return this;
+    }
+
+    @Override
+    public int getEagerCollectionLimit() {
+        return _fetch.getEagerCollectionLimit();
+    }
+
+    @Override
+    public JDBCFetchPlanImpl setEagerCollectionLimit(int limit) {
+        _fetch.setEagerCollectionLimit(limit);
+        return this;
+    }
+
     @Override
     public FetchMode getSubclassFetchMode() {
         return FetchMode.fromKernelConstant(_fetch.getSubclassFetchMode());
@@ -1871,6 +1871,10 @@ public class XMLPersistenceMappingParser
             return EagerFetchModes.EAGER_JOIN;
         else if (mode.equals("PARALLEL"))
             return EagerFetchModes.EAGER_PARALLEL;
+        else if (mode.equals("BATCH"))
+            return EagerFetchModes.EAGER_BATCH;
+        else if (mode.equals("SUBSELECT"))
+            return EagerFetchModes.EAGER_SUBSELECT;
         else
             throw new InternalException();
     }
@@ -2089,6 +2093,10 @@ public class XMLPersistenceMappingParser
                 fm.setEagerFetchMode(EagerFetchModes.EAGER_JOIN);
             } else if (eagerFetchMode.equalsIgnoreCase("PARALLEL")) {
                 fm.setEagerFetchMode(EagerFetchModes.EAGER_PARALLEL);
+            } else if (eagerFetchMode.equalsIgnoreCase("BATCH")) {
+                fm.setEagerFetchMode(EagerFetchModes.EAGER_BATCH);
+            } else if (eagerFetchMode.equalsIgnoreCase("SUBSELECT")) {
+                fm.setEagerFetchMode(EagerFetchModes.EAGER_SUBSELECT);
             }
         }
     }
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.kernel.AbstractUpdateManager;
+import org.apache.openjpa.jdbc.kernel.BatchStatistics;
+import org.apache.openjpa.persistence.batch.exception.Ent1;
+import org.apache.openjpa.persistence.test.SingleEMFTestCase;
+
+/**
+ * Verifies that an adaptive batch limit keeps batches within its bounds
+ * and reports the limit it chose for each table.
+ */
+public class TestAdaptiveBatchLimit extends SingleEMFTestCase {
+    private static final int ROWS = 60;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Ent1.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100",
+            "openjpa.jdbc.UpdateManager", "batching-constraint(AdaptiveBatchLimit=true,MinBatchLimit=2,MaxBatchLimit=8)",
+            "openjpa.Instrumentation", "jmx(Instrument='Batch')");
+    }
+
+    public void testBatchesStayWithinBounds() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new Ent1(i, "name" + i));
+        em.getTransaction().commit();
+        em.close();
+        assertEquals(ROWS, count(Ent1.class));
+
+        JDBCConfiguration conf = (JDBCConfiguration) emf.getConfiguration();
+        BatchStatistics stats = ((AbstractUpdateManager) conf.getUpdateManagerInstance()).getBatchStatistics();
+        assertTrue(stats.getMaxBatchSize() <= 8);
+        Map<String, Integer> limits = stats.getBatchLimits();
+        assertEquals(limits.toString(), 1, limits.size());
+        int limit = limits.values().iterator().next();
+        assertTrue(limit >= 2 && limit <= 8);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = server.queryNames(new ObjectName(
+            "org.apache.openjpa:type=Batch,cfgid=" + conf.getId() + ",*"), null);
+        assertEquals(1, names.size());
+        assertEquals(limits, server.getAttribute(names.iterator().next(), "BatchLimits"));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.kernel.BatchingConstraintUpdateManager;
+import org.apache.openjpa.jdbc.kernel.BatchingPreparedStatementManagerImpl;
+import org.apache.openjpa.jdbc.kernel.JDBCStore;
+import org.apache.openjpa.jdbc.kernel.PreparedStatementManager;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.jdbc.sql.DerbyDictionary;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that the keys of batched inserts of instances with IDENTITY
+ * keys are assigned to the instances in batch order. The driver used for
+ * the tests only returns the key of the last row of a batch, so the
+ * statement manager of this test derives the keys of the other rows of
+ * the batch the way drivers that support batched generated keys return
+ * them.
+ */
+public class TestBatchGeneratedKeys extends SQLListenerTestCase {
+    private static final int ROWS = 10;
+
+    private static int _maxKeyBatch;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, IdentityItem.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100",
+            "openjpa.jdbc.UpdateManager", KeysUpdateManager.class.getName());
+        DBDictionary dict = ((JDBCConfiguration) emf.getConfiguration()).getDBDictionaryInstance();
+        if (!(dict instanceof DerbyDictionary)) {
+            getLog().warn("Skipping " + getName() + ": the statement manager of the test expects Derby keys");
+            setTestsDisabled(true);
+            return;
+        }
+        // Derby returns the identity value of the last inserted row even
+        // though its metadata does not report generated key support
+        dict.supportsGetGeneratedKeys = true;
+        dict.supportsBatchGeneratedKeys = true;
+        _maxKeyBatch = 0;
+    }
+
+    public void testBatchedKeysAreAssignedInOrder() {
+        List<IdentityItem> items = new ArrayList<>();
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        IdentityItem child = null;
+        for (int i = 0; i < ROWS; i++) {
+            IdentityItem root = new IdentityItem("root" + i, null);
+            child = new IdentityItem("child" + i, root);
+            items.add(root);
+            items.add(child);
+        }
+        items.add(new IdentityItem("grandchild", child));
+        for (IdentityItem item : items)
+            em.persist(item);
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+
+        assertTrue(String.valueOf(_maxKeyBatch), _maxKeyBatch > 1);
+        assertTrue(sql.toString(), getInsertCount() < items.size());
+
+        Set<Long> ids = new HashSet<>();
+        for (IdentityItem item : items)
+            assertTrue(ids.add(item.getId()));
+        em = emf.createEntityManager();
+        for (IdentityItem item : items) {
+            IdentityItem found = em.find(IdentityItem.class, item.getId());
+            assertEquals(item.getName(), found.getName());
+            if (item.getParent() == null)
+                assertNull(found.getParent());
+            else
+                assertEquals(item.getParent().getName(), found.getParent().getName());
+        }
+        em.close();
+    }
+
+    private int getInsertCount() {
+        int count = 0;
+        for (String s : sql)
+            if (s.startsWith("INSERT"))
+                count++;
+        return count;
+    }
+
+    public static class KeysUpdateManager extends BatchingConstraintUpdateManager {
+        @Override
+        protected PreparedStatementManager newPreparedStatementManager(JDBCStore store, Connection conn) {
+            return new KeysPreparedStatementManager(store, conn, dict.getBatchLimit());
+        }
+    }
+
+    /**
+     * Returns the keys of all rows of a batch. The identity values of the
+     * rows of a batch are consecutive, as only one connection inserts them.
+     */
+    static class KeysPreparedStatementManager extends BatchingPreparedStatementManagerImpl {
+        private int _executed;
+
+        KeysPreparedStatementManager(JDBCStore store, Connection conn, int batchLimit) {
+            super(store, conn, batchLimit);
+        }
+
+        @Override
+        protected int[] executeBatch(PreparedStatement ps) throws SQLException {
+            int[] rtn = super.executeBatch(ps);
+            _executed = rtn.length;
+            return rtn;
+        }
+
+        @Override
+        protected List<Object> getGeneratedKeys(PreparedStatement stmnt, String[] autoAssignColNames)
+            throws SQLException {
+            List<Object> keys = super.getGeneratedKeys(stmnt, autoAssignColNames);
+            if (keys.size() != 1 || autoAssignColNames.length != 1)
+                return keys;
+            long last = ((Number) keys.get(0)).longValue();
+            List<Object> batchKeys = new ArrayList<>(_executed);
+            for (int i = _executed - 1; i >= 0; i--)
+                batchKeys.add(last - i);
+            _maxKeyBatch = Math.max(_maxKeyBatch, _executed);
+            return batchKeys;
+        }
+    }
+}
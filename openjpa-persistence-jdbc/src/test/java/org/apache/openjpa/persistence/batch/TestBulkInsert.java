@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.kernel.BatchingPreparedStatementManagerImpl;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.batch.exception.Ent1;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies the bulk insert mode requested with the
+ * {@link BatchingPreparedStatementManagerImpl#HINT_BULK_INSERT} hint on
+ * dictionaries without a native bulk load facility.
+ */
+public class TestBulkInsert extends SQLListenerTestCase {
+    private static final int ROWS = 20;
+
+    private DBDictionary dict;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Ent1.class);
+        dict = ((JDBCConfiguration) emf.getConfiguration()).getDBDictionaryInstance();
+    }
+
+    public void testBulkInsertAllClasses() {
+        persist(Boolean.TRUE);
+        assertBulk();
+        assertPersisted();
+    }
+
+    public void testBulkInsertNamedClass() {
+        persist(Ent1.class.getName());
+        assertBulk();
+        assertPersisted();
+    }
+
+    public void testBulkInsertClass() {
+        persist(Ent1.class);
+        assertBulk();
+        assertPersisted();
+    }
+
+    public void testOtherClassesAreNotBulkInserted() {
+        persist("org.example.Other");
+        if (dict.getBatchLimit() == 0)
+            assertEquals(ROWS, getInsertCount());
+        assertPersisted();
+    }
+
+    public void testFallbackToBatch() {
+        boolean multiRow = dict.supportsMultiRowInsert;
+        dict.supportsMultiRowInsert = false;
+        try {
+            persist(Boolean.TRUE);
+        } finally {
+            dict.supportsMultiRowInsert = multiRow;
+        }
+        for (String s : sql)
+            assertFalse(s, s.contains("), ("));
+        assertPersisted();
+    }
+
+    private void persist(Object hint) {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        em.getFetchPlan().setHint(BatchingPreparedStatementManagerImpl.HINT_BULK_INSERT, hint);
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new Ent1(i, "name" + i));
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    private int getInsertCount() {
+        int count = 0;
+        for (String s : sql)
+            if (s.startsWith("INSERT"))
+                count++;
+        return count;
+    }
+
+    private void assertBulk() {
+        if (!dict.supportsMultiRowInsert)
+            return;
+        assertEquals(1, getInsertCount());
+        for (String s : sql)
+            if (s.startsWith("INSERT"))
+                assertTrue(s, s.contains("), ("));
+    }
+
+    private void assertPersisted() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        for (int i = 0; i < ROWS; i++)
+            assertEquals("name" + i, em.find(Ent1.class, i).getName());
+        em.close();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.kernel.AbstractUpdateManager;
+import org.apache.openjpa.jdbc.kernel.BatchStatistics;
+import org.apache.openjpa.persistence.batch.exception.Ent1;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that batches stay open across flushes until a query or the
+ * commit needs the database to reflect them.
+ */
+public class TestDeferredBatchFlush extends SQLListenerTestCase {
+    private static final int ROWS = 5;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Ent1.class, UpdateItem.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100",
+            "openjpa.jdbc.UpdateManager", "batching-constraint(DeferredBatchFlush=true)");
+    }
+
+    public void testBatchIsDeferredUntilCommit() {
+        BatchStatistics stats = ((AbstractUpdateManager) ((JDBCConfiguration) emf.getConfiguration())
+            .getUpdateManagerInstance()).getBatchStatistics();
+        stats.reset();
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        resetSQL();
+        for (int i = 0; i < 3 * ROWS; i++) {
+            em.persist(new Ent1(i, "name" + i));
+            if (i % ROWS == ROWS - 1)
+                em.flush();
+        }
+        assertTrue(sql.toString(), sql.isEmpty());
+        em.getTransaction().commit();
+        em.close();
+        assertFalse(sql.isEmpty());
+        assertEquals(3 * ROWS, count(Ent1.class));
+
+        // the batch left open by the flushes is counted once, as it executes
+        assertEquals(1, stats.getBatchCount());
+        assertEquals(3 * ROWS, stats.getBatchedRowCount());
+        assertEquals(3 * ROWS, stats.getMaxBatchSize());
+    }
+
+    public void testQueryExecutesDeferredBatch() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new Ent1(i, "name" + i));
+        em.flush();
+        assertEquals((long) ROWS, em.createQuery("select count(e) from Ent1 e").getSingleResult());
+        em.getTransaction().rollback();
+        em.close();
+        assertEquals(0, count(Ent1.class));
+    }
+
+    public void testVersionCheckExecutesDeferredBatch() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.persist(new UpdateItem(1));
+        em.getTransaction().commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        UpdateItem item = em.find(UpdateItem.class, 1);
+        resetSQL();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new Ent1(i, "name" + i));
+        em.flush();
+        em.lock(item, LockModeType.OPTIMISTIC);
+        em.getTransaction().commit();
+        em.close();
+        assertEquals(ROWS, count(Ent1.class));
+
+        // the rows of the first flush execute before the version check
+        int insert = -1;
+        int check = -1;
+        for (int i = 0; i < sql.size(); i++) {
+            if (insert == -1 && sql.get(i).startsWith("INSERT INTO Ent1"))
+                insert = i;
+            if (check == -1 && sql.get(i).startsWith("SELECT") && sql.get(i).contains("UpdateItem"))
+                check = i;
+        }
+        assertTrue(sql.toString(), insert != -1 && check != -1);
+        assertTrue(sql.toString(), insert < check);
+    }
+
+    public void testRollbackDiscardsDeferredBatch() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new Ent1(i, "name" + i));
+        em.flush();
+        resetSQL();
+        em.getTransaction().rollback();
+        em.close();
+        assertTrue(sql.toString(), sql.isEmpty());
+        assertEquals(0, count(Ent1.class));
+    }
+
+    public void testDeferredBatchFailureFailsCommit() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.persist(new Ent1(0, "name"));
+        em.getTransaction().commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new Ent1(i, "name" + i));
+        em.flush();
+        try {
+            em.getTransaction().commit();
+            fail("Expected the duplicate key to fail the commit");
+        } catch (RuntimeException e) {
+            // expected
+        } finally {
+            if (em.getTransaction().isActive())
+                em.getTransaction().rollback();
+            em.close();
+        }
+        assertEquals(1, count(Ent1.class));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that inserts of instances with IDENTITY keys are batched when
+ * the dictionary reads back the generated keys of a batch, and that rows
+ * referring to such keys are only flushed once the keys are known.
+ */
+public class TestIdentityBatching extends SQLListenerTestCase {
+    private static final int ROWS = 10;
+
+    private DBDictionary dict;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, IdentityItem.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100");
+        dict = ((JDBCConfiguration) emf.getConfiguration()).getDBDictionaryInstance();
+    }
+
+    public void testIdentityInserts() {
+        List<IdentityItem> items = persist();
+        if (dict.supportsBatchGeneratedKeys && Boolean.TRUE.equals(dict.supportsGetGeneratedKeys))
+            assertTrue(getInsertCount() < items.size());
+        else
+            assertEquals(items.size(), getInsertCount());
+        assertPersisted(items);
+    }
+
+    public void testIdentityInsertsWithoutBatchGeneratedKeys() {
+        boolean batchKeys = dict.supportsBatchGeneratedKeys;
+        dict.supportsBatchGeneratedKeys = false;
+        List<IdentityItem> items;
+        try {
+            items = persist();
+        } finally {
+            dict.supportsBatchGeneratedKeys = batchKeys;
+        }
+        assertEquals(items.size(), getInsertCount());
+        assertPersisted(items);
+    }
+
+    /**
+     * Persist roots, each followed by a child referring to it, and a child
+     * of the last child.
+     */
+    private List<IdentityItem> persist() {
+        List<IdentityItem> items = new ArrayList<>();
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        IdentityItem child = null;
+        for (int i = 0; i < ROWS; i++) {
+            IdentityItem root = new IdentityItem("root" + i, null);
+            child = new IdentityItem("child" + i, root);
+            items.add(root);
+            items.add(child);
+        }
+        items.add(new IdentityItem("grandchild", child));
+        for (IdentityItem item : items)
+            em.persist(item);
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+        return items;
+    }
+
+    private void assertPersisted(List<IdentityItem> items) {
+        Set<Long> ids = new HashSet<>();
+        for (IdentityItem item : items)
+            assertTrue(ids.add(item.getId()));
+
+        EntityManager em = emf.createEntityManager();
+        for (IdentityItem item : items) {
+            IdentityItem found = em.find(IdentityItem.class, item.getId());
+            assertEquals(item.getName(), found.getName());
+            if (item.getParent() == null)
+                assertNull(found.getParent());
+            else
+                assertEquals(item.getParent().getId(), found.getParent().getId());
+        }
+        em.close();
+    }
+
+    private int getInsertCount() {
+        int count = 0;
+        for (String s : sql)
+            if (s.startsWith("INSERT"))
+                count++;
+        return count;
+    }
+}
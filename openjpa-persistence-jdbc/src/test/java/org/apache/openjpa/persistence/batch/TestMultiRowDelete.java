@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.persistence.batch.exception.Ent1;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that batched deletes by primary key are coalesced into DELETE
+ * statements with an IN list when the dictionary enables them.
+ */
+public class TestMultiRowDelete extends SQLListenerTestCase {
+    private static final int ROWS = 20;
+
+    private DBDictionary dict;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Ent1.class, UpdateItem.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100,useMultiRowDelete=true,inClauseLimit=8");
+        dict = ((JDBCConfiguration) emf.getConfiguration()).getDBDictionaryInstance();
+    }
+
+    public void testDeletesAreCoalescedUpToInClauseLimit() {
+        persist();
+        delete(Ent1.class);
+        assertEquals(3, getDeleteCount());
+        for (String s : sql)
+            if (s.startsWith("DELETE"))
+                assertTrue(s, s.contains(" IN ("));
+        assertEquals(0, count(Ent1.class));
+    }
+
+    public void testVersionedDeletesAreNotCoalesced() {
+        persist();
+        delete(UpdateItem.class);
+        assertTrue(getDeleteCount() > 0);
+        for (String s : sql)
+            assertFalse(s, s.contains(" IN ("));
+        assertEquals(0, count(UpdateItem.class));
+    }
+
+    public void testDisabledUsesSingleRowDeletes() {
+        persist();
+        dict.useMultiRowDelete = false;
+        try {
+            delete(Ent1.class);
+        } finally {
+            dict.useMultiRowDelete = true;
+        }
+        for (String s : sql)
+            assertFalse(s, s.contains(" IN ("));
+        assertEquals(0, count(Ent1.class));
+    }
+
+    public void testAlreadyDeletedRowsAreTolerated() {
+        persist();
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.remove(em.find(Ent1.class, i));
+
+        EntityManager other = emf.createEntityManager();
+        other.getTransaction().begin();
+        other.createQuery("delete from Ent1 e where e.pk < 5").executeUpdate();
+        other.getTransaction().commit();
+        other.close();
+
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+        assertEquals(3, getDeleteCount());
+        assertEquals(0, count(Ent1.class));
+    }
+
+    private void persist() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++) {
+            em.persist(new Ent1(i, "name" + i));
+            em.persist(new UpdateItem(i));
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    private void delete(Class<?> type) {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (Object o : em.createQuery("select e from " + type.getSimpleName() + " e").getResultList())
+            em.remove(o);
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    private int getDeleteCount() {
+        int count = 0;
+        for (String s : sql)
+            if (s.startsWith("DELETE"))
+                count++;
+        return count;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.persistence.batch.exception.Ent1;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that batched inserts into the same table are coalesced into
+ * multi-row INSERT statements when the dictionary enables them.
+ */
+public class TestMultiRowInsert extends SQLListenerTestCase {
+    private static final int BATCH = 100;
+
+    private DBDictionary dict;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Ent1.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=" + BATCH + ",useMultiRowInsert=true");
+        dict = ((JDBCConfiguration) emf.getConfiguration()).getDBDictionaryInstance();
+    }
+
+    public void testInsertsAreCoalescedUpToBatchLimit() {
+        if (!dict.supportsMultiRowInsert)
+            return;
+        persist(0, 250);
+        assertEquals(3, getInsertCount());
+        assertMultiRow();
+        assertPersisted(0, 250);
+    }
+
+    public void testRowsPerStatementBoundByParameterLimit() {
+        if (!dict.supportsMultiRowInsert)
+            return;
+        int max = dict.maxStatementParameters;
+        // two parameters per row
+        dict.maxStatementParameters = 10;
+        try {
+            persist(0, 12);
+        } finally {
+            dict.maxStatementParameters = max;
+        }
+        assertEquals(3, getInsertCount());
+        assertPersisted(0, 12);
+    }
+
+    public void testDisabledUsesSingleRowInserts() {
+        dict.useMultiRowInsert = false;
+        try {
+            persist(0, 5);
+        } finally {
+            dict.useMultiRowInsert = true;
+        }
+        assertTrue(getInsertCount() > 0);
+        for (String s : sql)
+            assertFalse(s, s.contains("), ("));
+        assertPersisted(0, 5);
+    }
+
+    public void testDuplicateKeyFailsWholeFlush() {
+        if (!dict.supportsMultiRowInsert)
+            return;
+        persist(0, 1);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 10; i > 0; i--)
+            em.persist(new Ent1(i - 1, "dup" + i));
+        try {
+            em.getTransaction().commit();
+            fail("Expected a duplicate key failure");
+        } catch (RuntimeException e) {
+            // expected
+        } finally {
+            if (em.getTransaction().isActive())
+                em.getTransaction().rollback();
+            em.close();
+        }
+        em = emf.createEntityManager();
+        assertEquals(1L, em.createQuery("select count(e) from Ent1 e").getSingleResult());
+        em.close();
+    }
+
+    private void persist(int from, int to) {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = from; i < to; i++)
+            em.persist(new Ent1(i, "name" + i));
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    private int getInsertCount() {
+        int count = 0;
+        for (String s : sql)
+            if (s.startsWith("INSERT"))
+                count++;
+        return count;
+    }
+
+    private void assertMultiRow() {
+        for (String s : sql)
+            if (s.startsWith("INSERT"))
+                assertTrue(s, s.contains("), ("));
+    }
+
+    private void assertPersisted(int from, int to) {
+        EntityManager em = emf.createEntityManager();
+        for (int i = from; i < to; i++)
+            assertEquals("name" + i, em.find(Ent1.class, i).getName());
+        em.close();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.RollbackException;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.kernel.AbstractUpdateManager;
+import org.apache.openjpa.jdbc.sql.DBDictionary;
+import org.apache.openjpa.persistence.batch.exception.Ent1;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that pipelined flushes execute statements in order and report
+ * the failure of a batch flushed on the pipeline.
+ */
+public class TestPipelinedFlush extends SQLListenerTestCase {
+    private static final int ROWS = 10;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, BatchParent.class, BatchChild.class, Ent1.class, UpdateItem.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100",
+            "openjpa.jdbc.SchemaFactory", "native(ForeignKeys=true)",
+            "openjpa.jdbc.MappingDefaults", "ForeignKeyDeleteAction=restrict, JoinForeignKeyDeleteAction=restrict",
+            "openjpa.jdbc.UpdateManager", "batching-constraint(PipelinedFlush=true)");
+    }
+
+    public void testPipelinedFlushPreservesOrder() {
+        AbstractUpdateManager updateMgr = (AbstractUpdateManager)
+            ((JDBCConfiguration) emf.getConfiguration()).getUpdateManagerInstance();
+        assertTrue(updateMgr.getPipelinedFlush());
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++) {
+            BatchParent parent = new BatchParent(i, null);
+            em.persist(new BatchChild(i, parent));
+            em.persist(parent);
+            em.persist(new Ent1(i, "name" + i));
+        }
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+
+        int parents = indexOf("INSERT INTO APP.BATCHPARENT");
+        int children = indexOf("INSERT INTO APP.BatchChild");
+        assertTrue(parents >= 0);
+        assertTrue(children > parents);
+        assertEquals(3 * ROWS, updateMgr.getBatchStatistics().getLastFlushRowCount());
+
+        em = emf.createEntityManager();
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(i, em.find(BatchChild.class, i).getParent().getId());
+            assertEquals("name" + i, em.find(Ent1.class, i).getName());
+        }
+        em.close();
+    }
+
+    public void testChunksReuseStatement() {
+        EntityManagerFactory chunkedEMF = createEMF(Ent1.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=3",
+            "openjpa.jdbc.UpdateManager", "batching-constraint(PipelinedFlush=true)");
+        try {
+            EntityManager em = chunkedEMF.createEntityManager();
+            em.getTransaction().begin();
+            for (int i = 0; i < ROWS; i++)
+                em.persist(new Ent1(i, "name" + i));
+            em.getTransaction().commit();
+            em.close();
+
+            em = chunkedEMF.createEntityManager();
+            for (int i = 0; i < ROWS; i++)
+                assertEquals("name" + i, em.find(Ent1.class, i).getName());
+            em.close();
+        } finally {
+            closeEMF(chunkedEMF);
+        }
+    }
+
+    public void testFailedBatchRollsBackFlush() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.persist(new Ent1(0, "name0"));
+        em.getTransaction().commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++) {
+            BatchParent parent = new BatchParent(i, null);
+            em.persist(new BatchChild(i, parent));
+            em.persist(parent);
+            em.persist(new Ent1(ROWS - i - 1, "dup" + i));
+        }
+        try {
+            em.getTransaction().commit();
+            fail("Expected a duplicate key failure");
+        } catch (RollbackException e) {
+            // expected
+        } finally {
+            if (em.getTransaction().isActive())
+                em.getTransaction().rollback();
+            em.close();
+        }
+
+        em = emf.createEntityManager();
+        assertEquals(1L, em.createQuery("select count(e) from Ent1 e").getSingleResult());
+        assertEquals(0L, em.createQuery("select count(p) from BatchParent p").getSingleResult());
+        em.close();
+    }
+
+    public void testStaleUpdateFailsPipelinedFlush() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new UpdateItem(i));
+        em.getTransaction().commit();
+        em.close();
+
+        EntityManager stale = emf.createEntityManager();
+        for (int i = 0; i < ROWS; i++)
+            stale.find(UpdateItem.class, i);
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.find(UpdateItem.class, 1).setName("changed");
+        em.getTransaction().commit();
+        em.close();
+
+        // batches of two rows, the first batch of names holding the stale
+        // instance and executing on the pipeline while quantities are batched
+        DBDictionary dict = ((JDBCConfiguration) emf.getConfiguration()).getDBDictionaryInstance();
+        int batchLimit = dict.batchLimit;
+        dict.batchLimit = 2;
+        stale.getTransaction().begin();
+        try {
+            for (int i = 0; i < ROWS; i++) {
+                UpdateItem item = stale.find(UpdateItem.class, i);
+                if (i < ROWS / 2)
+                    item.setName("stale" + i);
+                else
+                    item.setQuantity(i);
+            }
+            stale.getTransaction().commit();
+            fail("Expected an optimistic failure");
+        } catch (RollbackException e) {
+            assertTrue(e.getCause() instanceof OptimisticLockException);
+        } finally {
+            dict.batchLimit = batchLimit;
+            if (stale.getTransaction().isActive())
+                stale.getTransaction().rollback();
+            stale.close();
+        }
+
+        em = emf.createEntityManager();
+        assertEquals("changed", em.find(UpdateItem.class, 1).getName());
+        assertEquals(0, em.find(UpdateItem.class, ROWS - 1).getQuantity());
+        em.close();
+    }
+
+    private int indexOf(String prefix) {
+        for (int i = 0; i < sql.size(); i++)
+            if (sql.get(i).startsWith(prefix))
+                return i;
+        return -1;
+    }
+}
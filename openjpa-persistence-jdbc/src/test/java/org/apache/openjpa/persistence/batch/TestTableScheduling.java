@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.kernel.AbstractUpdateManager;
+import org.apache.openjpa.jdbc.kernel.BatchStatistics;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that rows with foreign key dependencies are grouped by table
+ * when the update manager schedules by table, and that the resulting
+ * batches are reported.
+ */
+public class TestTableScheduling extends SQLListenerTestCase {
+    private static final int PARENTS = 10;
+
+    public void testDepthFirstOrderInterleavesTables() {
+        setUp(CLEAR_TABLES, BatchParent.class, BatchChild.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100",
+            "openjpa.jdbc.SchemaFactory", "native(ForeignKeys=true)",
+            "openjpa.jdbc.MappingDefaults", "ForeignKeyDeleteAction=restrict, JoinForeignKeyDeleteAction=restrict");
+        persistFamilies();
+        assertTrue(getStatistics().getLastFlushBatchCount() > 2);
+    }
+
+    public void testScheduleByTableGroupsRows() throws Exception {
+        setUp(CLEAR_TABLES, BatchParent.class, BatchChild.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100",
+            "openjpa.jdbc.SchemaFactory", "native(ForeignKeys=true)",
+            "openjpa.jdbc.MappingDefaults", "ForeignKeyDeleteAction=restrict, JoinForeignKeyDeleteAction=restrict",
+            "openjpa.jdbc.UpdateManager", "batching-constraint(ScheduleByTable=true)",
+            "openjpa.Instrumentation", "jmx(Instrument='Batch')");
+        persistFamilies();
+
+        BatchStatistics stats = getStatistics();
+        assertEquals(2, stats.getLastFlushBatchCount());
+        assertEquals(3 * PARENTS, stats.getLastFlushRowCount());
+        assertEquals(2 * PARENTS, stats.getMaxBatchSize());
+        assertEquals(2, getInsertCount());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = server.queryNames(new ObjectName(
+            "org.apache.openjpa:type=Batch,cfgid=" + emf.getConfiguration().getId() + ",*"), null);
+        assertEquals(1, names.size());
+        ObjectName name = names.iterator().next();
+        assertEquals(2, server.getAttribute(name, "LastFlushBatchCount"));
+        assertEquals(1.5 * PARENTS, server.getAttribute(name, "LastFlushAverageBatchSize"));
+    }
+
+    /**
+     * Persist parents, owned parents and children interleaved in one flush.
+     * The owned parents and the children depend on the same rows, so depth
+     * first order places them at the same level.
+     */
+    private void persistFamilies() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < PARENTS; i++) {
+            BatchParent parent = new BatchParent(i, null);
+            em.persist(new BatchChild(i, parent));
+            em.persist(new BatchParent(PARENTS + i, parent));
+            em.persist(parent);
+        }
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        for (int i = 0; i < PARENTS; i++) {
+            assertEquals(i, em.find(BatchChild.class, i).getParent().getId());
+            assertEquals(i, em.find(BatchParent.class, PARENTS + i).getOwner().getId());
+        }
+        em.close();
+    }
+
+    private BatchStatistics getStatistics() {
+        JDBCConfiguration conf = (JDBCConfiguration) emf.getConfiguration();
+        return ((AbstractUpdateManager) conf.getUpdateManagerInstance()).getBatchStatistics();
+    }
+
+    private int getInsertCount() {
+        int count = 0;
+        for (String s : sql)
+            if (s.startsWith("INSERT"))
+                count++;
+        return count;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that updates modifying different columns are grouped into
+ * batches when the update manager sorts updates or writes full rows.
+ */
+public class TestUpdateBatching extends SQLListenerTestCase {
+    private static final int ROWS = 10;
+
+    public void testUnsortedUpdatesInterleave() {
+        setUp(CLEAR_TABLES, UpdateItem.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100");
+        assertEquals(ROWS, updateAlternately());
+    }
+
+    public void testSortedUpdatesBatchByColumns() {
+        setUp(CLEAR_TABLES, UpdateItem.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100",
+            "openjpa.jdbc.UpdateManager", "batching-constraint(SortUpdates=true)");
+        assertEquals(2, updateAlternately());
+    }
+
+    public void testFullRowUpdatesShareStatement() {
+        setUp(CLEAR_TABLES, UpdateItem.class,
+            "openjpa.jdbc.DBDictionary", "batchLimit=100",
+            "openjpa.jdbc.UpdateManager", "batching-constraint(FullRowUpdateTypes="
+            + UpdateItem.class.getName() + ")");
+        assertEquals(1, updateAlternately());
+    }
+
+    /**
+     * Update the name of even and the quantity of odd rows in one flush.
+     *
+     * @return the number of UPDATE statements executed
+     */
+    private int updateAlternately() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new UpdateItem(i));
+        em.getTransaction().commit();
+        em.clear();
+
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++) {
+            UpdateItem item = em.find(UpdateItem.class, i);
+            if (i % 2 == 0)
+                item.setName("changed" + i);
+            else
+                item.setQuantity(i);
+        }
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+
+        int updates = 0;
+        for (String s : sql)
+            if (s.startsWith("UPDATE"))
+                updates++;
+
+        em = emf.createEntityManager();
+        for (int i = 0; i < ROWS; i++) {
+            UpdateItem item = em.find(UpdateItem.class, i);
+            assertEquals((i % 2 == 0) ? "changed" + i : "name" + i, item.getName());
+            assertEquals((i % 2 == 0) ? 0 : i, item.getQuantity());
+            assertEquals(2, item.getVersion());
+        }
+        em.close();
+        return updates;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.batch;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.RollbackException;
+
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that the versions of read-locked instances are checked at commit
+ * with IN-list selects, chunked by the dictionary's IN clause limit.
+ */
+public class TestVersionCheckBatching extends SQLListenerTestCase {
+    private static final int ROWS = 20;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, UpdateItem.class,
+            "openjpa.jdbc.DBDictionary", "inClauseLimit=8");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new UpdateItem(i));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testVersionChecksAreBatched() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        lockAll(em);
+        resetSQL();
+        em.getTransaction().commit();
+        em.close();
+
+        assertEquals(3, getSelectCount());
+        for (String s : sql)
+            assertTrue(s, s.contains(" IN ("));
+    }
+
+    public void testStaleVersionFails() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        lockAll(em);
+
+        EntityManager other = emf.createEntityManager();
+        other.getTransaction().begin();
+        other.find(UpdateItem.class, ROWS / 2).setName("changed");
+        other.getTransaction().commit();
+        other.close();
+
+        resetSQL();
+        try {
+            em.getTransaction().commit();
+            fail("Expected an optimistic lock failure");
+        } catch (RollbackException e) {
+            // expected
+        } finally {
+            if (em.getTransaction().isActive())
+                em.getTransaction().rollback();
+            em.close();
+        }
+        assertEquals(3, getSelectCount());
+    }
+
+    private void lockAll(EntityManager em) {
+        for (int i = 0; i < ROWS; i++)
+            em.lock(em.find(UpdateItem.class, i), LockModeType.OPTIMISTIC);
+    }
+
+    private int getSelectCount() {
+        int count = 0;
+        for (String s : sql)
+            if (s.startsWith("SELECT"))
+                count++;
+        return count;
+    }
+}
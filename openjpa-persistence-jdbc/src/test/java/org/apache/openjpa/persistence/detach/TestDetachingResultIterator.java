@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.detach;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.openjpa.persistence.OpenJPAQuery;
+import org.apache.openjpa.persistence.test.SingleEMFTestCase;
+
+/**
+ * Verifies that the detaching result iterator hands out detached instances
+ * and does not accumulate them in the persistence context.
+ */
+public class TestDetachingResultIterator extends SingleEMFTestCase {
+    private static final int COUNT = 120;
+    private static final int BATCH = 20;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Entity20.class);
+
+        OpenJPAEntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < COUNT; i++)
+            em.persist(new Entity20(i));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testResultsAreDetachedAndReleased() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        OpenJPAQuery<Entity20> q = (OpenJPAQuery<Entity20>) em.createQuery(
+            "select e from Entity20 e order by e.id", Entity20.class);
+        q.getFetchPlan().setFetchBatchSize(BATCH);
+        Iterator<Entity20> itr = q.getDetachedResultIterator();
+        Set<Integer> ids = new HashSet<>();
+        try {
+            while (itr.hasNext()) {
+                Entity20 e = itr.next();
+                assertTrue(em.isDetached(e));
+                assertFalse(em.contains(e));
+                assertEquals(String.valueOf(e.getId()), e.getName());
+                // at most the window of prefetched results is managed
+                assertTrue(em.getManagedObjects().size() <= BATCH);
+                ids.add(e.getId());
+            }
+        } finally {
+            OpenJPAPersistence.close(itr);
+        }
+        assertEquals(COUNT, ids.size());
+        assertTrue(em.getManagedObjects().isEmpty());
+        try {
+            itr.next();
+            fail("Expected end of results");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        em.close();
+    }
+
+    public void testProjectionsAreDetached() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        OpenJPAQuery<Object[]> q = (OpenJPAQuery<Object[]>) em.createQuery(
+            "select e, e.name from Entity20 e where e.id < 10", Object[].class);
+        Iterator<Object[]> itr = q.getDetachedResultIterator();
+        int count = 0;
+        try {
+            while (itr.hasNext()) {
+                Object[] row = itr.next();
+                assertTrue(em.isDetached(row[0]));
+                assertEquals(((Entity20) row[0]).getName(), row[1]);
+                count++;
+            }
+        } finally {
+            OpenJPAPersistence.close(itr);
+        }
+        assertEquals(10, count);
+        assertTrue(em.getManagedObjects().isEmpty());
+        em.close();
+    }
+
+    public void testManagedAndDirtyInstancesStayManaged() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        Entity20 held = em.find(Entity20.class, 1);
+        em.getTransaction().begin();
+        Entity20 dirty = em.find(Entity20.class, 2);
+        dirty.setName("changed");
+        OpenJPAQuery<Entity20> q = (OpenJPAQuery<Entity20>) em.createQuery(
+            "select e from Entity20 e where e.id < 4", Entity20.class);
+        Iterator<Entity20> itr = q.getDetachedResultIterator();
+        int count = 0;
+        try {
+            while (itr.hasNext()) {
+                Entity20 e = itr.next();
+                if (e.getId() == 1 || e.getId() == 2)
+                    assertTrue(em.contains(e));
+                else
+                    assertTrue(em.isDetached(e));
+                count++;
+            }
+        } finally {
+            OpenJPAPersistence.close(itr);
+        }
+        assertEquals(4, count);
+        assertTrue(em.contains(held));
+        em.getTransaction().commit();
+        em.clear();
+        assertEquals("changed", em.find(Entity20.class, 2).getName());
+        em.close();
+    }
+
+    public void testFetchBatchSizeIsRestored() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        OpenJPAQuery<Entity20> q = (OpenJPAQuery<Entity20>) em.createQuery(
+            "select e from Entity20 e", Entity20.class);
+        int batch = q.getFetchPlan().getFetchBatchSize();
+        OpenJPAPersistence.close(q.getDetachedResultIterator());
+        assertEquals(batch, q.getFetchPlan().getFetchBatchSize());
+        em.close();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.fetchgroups;
+
+import org.apache.openjpa.jdbc.conf.JDBCConfiguration;
+import org.apache.openjpa.jdbc.kernel.FinderCacheImpl;
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that finders of fetch plans other than the default one are
+ * cached apart from each other when the finder cache is told to.
+ */
+public class TestFetchPlanFinderCache extends SQLListenerTestCase {
+    private static final int EMPLOYEES = 3;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, FGManager.class, FGDepartment.class, FGEmployee.class, FGAddress.class,
+            "openjpa.jdbc.FinderCache", "true(CacheFetchPlans=true)",
+            "openjpa.DataCache", "false");
+        OpenJPAEntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 1; i <= EMPLOYEES; i++)
+            em.persist(new FGEmployee(i, "First-" + i, "Last-" + i, "Desc-" + i, null, null, null, "Rating-" + i));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testFinderIsCachedPerFetchPlan() {
+        FinderCacheImpl cache = getCache();
+        OpenJPAEntityManager em = emf.createEntityManager();
+
+        em.getFetchPlan().addFetchGroup("DescFetchGroup");
+        for (int i = 1; i <= EMPLOYEES; i++) {
+            FGEmployee e = em.find(FGEmployee.class, i);
+            em.clear();
+            assertEquals("Desc-" + i, e.getDescription());
+            assertNull(e.getRating());
+        }
+        assertEquals(1, cache.getFetchPlanCount());
+
+        em.getFetchPlan().removeFetchGroup("DescFetchGroup").addFetchGroup("RatingFetchGroup");
+        for (int i = 1; i <= EMPLOYEES; i++) {
+            FGEmployee e = em.find(FGEmployee.class, i);
+            em.clear();
+            assertNull(e.getDescription());
+            assertEquals("Rating-" + i, e.getRating());
+        }
+        assertEquals(2, cache.getFetchPlanCount());
+
+        em.getFetchPlan().resetFetchGroups();
+        FGEmployee e = em.find(FGEmployee.class, 1);
+        em.clear();
+        assertNull(e.getDescription());
+        assertNull(e.getRating());
+        assertEquals(2, cache.getFetchPlanCount());
+        em.close();
+    }
+
+    public void testCachedFinderReusesSQL() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        em.getFetchPlan().addFetchGroup("DescFetchGroup");
+        resetSQL();
+        for (int i = 1; i <= EMPLOYEES; i++) {
+            em.find(FGEmployee.class, i);
+            em.clear();
+        }
+        em.close();
+        assertEquals(EMPLOYEES, sql.size());
+        for (String s : sql)
+            assertEquals(sql.get(0), s);
+    }
+
+    public void testFetchPlansAreBounded() {
+        FinderCacheImpl cache = getCache();
+        int max = cache.getMaxFetchPlans();
+        cache.setMaxFetchPlans(1);
+        try {
+            OpenJPAEntityManager em = emf.createEntityManager();
+            em.getFetchPlan().addFetchGroup("DescFetchGroup");
+            em.find(FGEmployee.class, 1);
+            em.clear();
+            em.getFetchPlan().removeFetchGroup("DescFetchGroup").addFetchGroup("RatingFetchGroup");
+            em.find(FGEmployee.class, 1);
+            em.close();
+            assertEquals(1, cache.getFetchPlanCount());
+        } finally {
+            cache.setMaxFetchPlans(max);
+        }
+    }
+
+    public void testInvalidateRemovesFetchPlans() {
+        FinderCacheImpl cache = getCache();
+        OpenJPAEntityManager em = emf.createEntityManager();
+        em.getFetchPlan().addFetchGroup("DescFetchGroup");
+        em.find(FGEmployee.class, 1);
+        em.close();
+        assertEquals(1, cache.getFetchPlanCount());
+
+        cache.invalidate(((JDBCConfiguration) emf.getConfiguration()).getMappingRepositoryInstance()
+            .getMapping(FGEmployee.class, null, true));
+        assertEquals(0, cache.getFetchPlanCount());
+    }
+
+    private FinderCacheImpl getCache() {
+        return (FinderCacheImpl) ((JDBCConfiguration) emf.getConfiguration()).getFinderCacheInstance();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.inheritance.entity;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.jdbc.FetchMode;
+import org.apache.openjpa.persistence.jdbc.JDBCFetchPlan;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that a query for a joined hierarchy with a discriminator only
+ * joins the subclass tables its <code>TYPE()</code> conditions can match,
+ * and that the batch subclass fetch mode loads the subclass fields of the
+ * results with one select per subclass.
+ */
+public class TestTypeRestrictedQuery extends SQLListenerTestCase {
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Employee.class, FTEmployee.class, PTEmployee.class,
+            Manager.class, Department.class,
+            "openjpa.DataCache", "false");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < 2; i++) {
+            FTEmployee ft = new FTEmployee();
+            ft.setId(i * 10 + 1);
+            ft.setSalary(1000 + i);
+            em.persist(ft);
+            PTEmployee pt = new PTEmployee();
+            pt.setId(i * 10 + 2);
+            pt.setHourlyWage(10 + i);
+            em.persist(pt);
+            Manager mgr = new Manager();
+            mgr.setId(i * 10 + 3);
+            mgr.setSalary(5000 + i);
+            em.persist(mgr);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    /**
+     * Whether the given SQL joins the given subclass table to the candidate.
+     */
+    private static boolean joinsSubclass(String sql, String table) {
+        return Pattern.compile("JOIN " + table + " t\\d+ ON t0\\.id = ")
+            .matcher(sql).find();
+    }
+
+    public void testTypeLiteralOmitsOtherSubclassJoins() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<Employee> emps = em.createQuery("select e from Employee e where TYPE(e) = PTEmployee",
+            Employee.class).getResultList();
+        assertEquals(2, emps.size());
+        assertEquals(sql.toString(), 1, sql.size());
+        assertTrue(sql.get(0), joinsSubclass(sql.get(0), "PTEmployee"));
+        assertFalse(sql.get(0), joinsSubclass(sql.get(0), "FTEmployee"));
+        assertFalse(sql.get(0), joinsSubclass(sql.get(0), "Manager"));
+
+        for (Employee emp : emps)
+            assertTrue(((PTEmployee) emp).getHourlyWage() >= 10);
+        assertEquals(sql.toString(), 1, sql.size());
+        em.close();
+    }
+
+    public void testTypeLiteralsKeepJoinsToMatchedSubclasses() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<Employee> emps = em.createQuery("select e from Employee e where TYPE(e) IN (PTEmployee, Manager)",
+            Employee.class).getResultList();
+        assertEquals(4, emps.size());
+        assertEquals(sql.toString(), 1, sql.size());
+        assertTrue(sql.get(0), joinsSubclass(sql.get(0), "PTEmployee"));
+        assertTrue(sql.get(0), joinsSubclass(sql.get(0), "FTEmployee"));
+        em.close();
+    }
+
+    public void testTypeParameterKeepsAllSubclassJoins() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<Employee> emps = em.createQuery("select e from Employee e where TYPE(e) = :type", Employee.class)
+            .setParameter("type", PTEmployee.class).getResultList();
+        assertEquals(2, emps.size());
+        assertTrue(sql.get(0), joinsSubclass(sql.get(0), "PTEmployee"));
+        assertTrue(sql.get(0), joinsSubclass(sql.get(0), "FTEmployee"));
+        em.close();
+    }
+
+    public void testBatchSubclassFetchMode() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        ((JDBCFetchPlan) em.getFetchPlan()).setSubclassFetchMode(FetchMode.BATCH);
+        resetSQL();
+        List<Employee> emps = em.createQuery("select e from Employee e order by e.id", Employee.class)
+            .getResultList();
+        assertEquals(6, emps.size());
+
+        // the base select and one select per subclass of the results
+        assertEquals(sql.toString(), 4, sql.size());
+        assertFalse(sql.get(0), joinsSubclass(sql.get(0), "PTEmployee"));
+        assertFalse(sql.get(0), joinsSubclass(sql.get(0), "FTEmployee"));
+        for (int i = 1; i < sql.size(); i++)
+            assertTrue(sql.get(i), sql.get(i).contains(" IN (?, ?)"));
+
+        resetSQL();
+        for (int i = 0; i < 2; i++) {
+            assertEquals(1000 + i, ((FTEmployee) emps.get(i * 3)).getSalary(), 0);
+            assertEquals(10 + i, ((PTEmployee) emps.get(i * 3 + 1)).getHourlyWage(), 0);
+            assertEquals(5000 + i, ((Manager) emps.get(i * 3 + 2)).getSalary(), 0);
+        }
+        assertTrue(sql.toString(), sql.isEmpty());
+        em.close();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.inheritance.jointable;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.kernel.QueryHints;
+import org.apache.openjpa.kernel.QueryStatistics;
+import org.apache.openjpa.persistence.relations.Child;
+import org.apache.openjpa.persistence.relations.GrandChild;
+import org.apache.openjpa.persistence.relations.Parent;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that joins which cannot change the result of a query are left
+ * out of its SQL, and that the statistics of the prepared query cache
+ * report them.
+ */
+public class TestJoinPruning extends SQLListenerTestCase {
+    private static final String COUNT = "select count(c) from Contractor c";
+    private static final String OUTER = "select c.ctrProp1 from Contractor c left join c.dept d order by c.ctrProp1";
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Contractor.class, Employee.class, Department.class, Person.class,
+            FulltimeEmployee.class, ParttimeEmployee.class, Parent.class, Child.class, GrandChild.class,
+            "openjpa.jdbc.QuerySQLCache", "true(EnableStatistics=true)");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Department dept = new Department();
+        dept.setDescription("dept");
+        em.persist(dept);
+        for (int i = 0; i < 3; i++) {
+            Contractor c = new Contractor("ctr" + i);
+            c.setCtrProp1("prop" + i);
+            if (i > 0)
+                c.setDept(dept);
+            em.persist(c);
+        }
+        em.getTransaction().commit();
+        em.close();
+        emf.getConfiguration().getQuerySQLCacheInstance().getStatistics().clear();
+    }
+
+    public void testUnreferencedSuperclassJoinsArePruned() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        assertEquals(3, ((Number) em.createQuery(COUNT).getSingleResult()).intValue());
+        assertEquals(sql.toString(), 1, sql.size());
+        assertFalse(sql.get(0), sql.get(0).contains("JOIN"));
+        em.close();
+    }
+
+    public void testUnreferencedOuterJoinIsPruned() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<?> props = em.createQuery(OUTER).getResultList();
+        assertEquals(3, props.size());
+        assertEquals("prop0", props.get(0));
+        assertFalse(sql.get(0), sql.get(0).contains("JOIN"));
+        em.close();
+    }
+
+    public void testReferencedJoinsAreKept() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<?> names = em.createQuery("select c.description from Contractor c left join c.dept d "
+            + "where d.description = 'dept' order by c.description").getResultList();
+        assertEquals(2, names.size());
+        assertTrue(sql.get(0), sql.get(0).contains("WDept"));
+        assertTrue(sql.get(0), sql.get(0).contains("WEmployee"));
+
+        // an inner join to a relation filters the rows without one
+        resetSQL();
+        List<?> props = em.createQuery("select c.ctrProp1 from Contractor c join c.dept d").getResultList();
+        assertEquals(2, props.size());
+        assertTrue(sql.get(0), sql.get(0).contains("WDept"));
+        em.close();
+    }
+
+    public void testInnerJoinThroughEnforcedForeignKeyIsPruned() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        Parent parent = new Parent();
+        parent.setId(1);
+        em.persist(parent);
+        for (int i = 0; i < 3; i++) {
+            Child child = new Child();
+            child.setId(i);
+            child.setName("child" + i);
+            if (i > 0)
+                child.setParent(parent);
+            em.persist(child);
+        }
+        em.getTransaction().commit();
+        em.clear();
+
+        // the join keeps the rows without a parent out of the result
+        resetSQL();
+        List<?> names = em.createQuery("select c.name from Child c join c.parent p order by c.name").getResultList();
+        assertEquals(2, names.size());
+        assertEquals("child1", names.get(0));
+        assertFalse(sql.get(0), sql.get(0).contains("JOIN"));
+        assertTrue(sql.get(0), sql.get(0).contains("IS NOT NULL"));
+
+        resetSQL();
+        names = em.createQuery("select c.name from Child c join c.parent p where p.id = :id")
+            .setParameter("id", 1).getResultList();
+        assertEquals(2, names.size());
+        assertFalse(sql.get(0), sql.get(0).contains("JOIN"));
+        em.close();
+    }
+
+    public void testPrunedJoinsAreReported() {
+        QueryStatistics<String> stats = emf.getConfiguration().getQuerySQLCacheInstance().getStatistics();
+        EntityManager em = emf.createEntityManager();
+        for (int i = 0; i < 2; i++)
+            assertEquals(3, em.createQuery(OUTER).getResultList().size());
+
+        // counted once, when the SQL of the query is cached
+        assertEquals(2, stats.getExecutionCount(OUTER));
+        assertEquals(1, stats.getPrunedJoinCount(OUTER));
+        assertEquals(1, stats.getTotalPrunedJoinCount());
+
+        stats.reset();
+        assertEquals(0, stats.getPrunedJoinCount());
+        assertEquals(1, stats.getTotalPrunedJoinCount(OUTER));
+        em.close();
+    }
+
+    public void testPrunedJoinsOfUncachedQueriesAreReported() {
+        QueryStatistics<String> stats = emf.getConfiguration().getQuerySQLCacheInstance().getStatistics();
+        EntityManager em = emf.createEntityManager();
+        for (int i = 0; i < 2; i++)
+            assertEquals(3, em.createQuery(OUTER).setHint(QueryHints.HINT_IGNORE_PREPARED_QUERY, true)
+                .getResultList().size());
+
+        // counted each time the select is built
+        assertEquals(2, stats.getPrunedJoinCount(OUTER));
+        em.close();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.inheritance.polymorphic;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that a query for an abstract table-per-class root only reads the
+ * tables of the subclasses its <code>TYPE()</code> conditions can match.
+ */
+public class TestTablePerClassTypeQuery extends SQLListenerTestCase {
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Translation.class, BaseEntity.class,
+            EnglishParagraph.class, FrenchParagraph.class,
+            GermanParagraph.class, Translatable.class,
+            "openjpa.DataCache", "false");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < 2; i++) {
+            EnglishParagraph english = new EnglishParagraph();
+            english.setContent("Hello" + i);
+            em.persist(english);
+            FrenchParagraph french = new FrenchParagraph();
+            french.setContent("Bonjour" + i);
+            em.persist(french);
+            GermanParagraph german = new GermanParagraph();
+            german.setContent("Hallo" + i);
+            em.persist(german);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testTypeLiteralReadsMatchedTableOnly() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<Translatable> ts = em.createQuery("select t from Translatable t where TYPE(t) = EnglishParagraph",
+            Translatable.class).getResultList();
+        assertEquals(2, ts.size());
+        for (Translatable t : ts)
+            assertTrue(((EnglishParagraph) t).getContent().startsWith("Hello"));
+        assertEquals(sql.toString(), 1, sql.size());
+        assertTrue(sql.get(0), sql.get(0).contains("FROM EnglishParagraph"));
+        em.close();
+    }
+
+    public void testTypeLiteralsReadMatchedTablesOnly() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<Translatable> ts = em.createQuery("select t from Translatable t "
+            + "where TYPE(t) = EnglishParagraph OR TYPE(t) = GermanParagraph", Translatable.class)
+            .getResultList();
+        assertEquals(4, ts.size());
+        assertEquals(sql.toString(), 2, sql.size());
+        assertNotSQL(".*FrenchParagraph.*");
+        em.close();
+    }
+
+    public void testTypeParameterReadsAllTables() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<Translatable> ts = em.createQuery("select t from Translatable t where TYPE(t) = :type",
+            Translatable.class).setParameter("type", FrenchParagraph.class).getResultList();
+        assertEquals(2, ts.size());
+        for (Translatable t : ts)
+            assertTrue(t instanceof FrenchParagraph);
+        assertEquals(sql.toString(), 3, sql.size());
+        em.close();
+    }
+}
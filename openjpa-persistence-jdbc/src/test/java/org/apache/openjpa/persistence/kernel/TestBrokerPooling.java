@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.kernel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.openjpa.event.AbstractTransactionListener;
+import org.apache.openjpa.event.TransactionEvent;
+import org.apache.openjpa.kernel.Broker;
+import org.apache.openjpa.kernel.DelegatingBroker;
+import org.apache.openjpa.kernel.Extent;
+import org.apache.openjpa.kernel.Query;
+import org.apache.openjpa.kernel.jpql.JPQLParser;
+import org.apache.openjpa.persistence.JPAFacadeHelper;
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.detach.Entity20;
+import org.apache.openjpa.persistence.test.SingleEMFTestCase;
+
+/**
+ * Verifies that closed brokers are reused when broker pooling is enabled,
+ * and that no state leaks from one use of a pooled broker to the next.
+ */
+public class TestBrokerPooling extends SingleEMFTestCase {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 50;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, Entity20.class, "openjpa.BrokerPoolSize", "4");
+    }
+
+    public void testClosedBrokerIsReusedWithoutState() throws Exception {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        Broker broker = toBrokerImpl(em);
+        int depth = em.getFetchPlan().getMaxFetchDepth();
+        boolean optimistic = em.getOptimistic();
+        boolean multithreaded = em.getMultithreaded();
+
+        AtomicInteger commits = new AtomicInteger();
+        em.addTransactionListener(new AbstractTransactionListener() {
+            @Override
+            protected void eventOccurred(TransactionEvent event) {
+                if (event.getType() == TransactionEvent.AFTER_COMMIT)
+                    commits.incrementAndGet();
+            }
+        });
+        em.putUserObject("key", "value");
+        em.setOptimistic(!optimistic);
+        em.setMultithreaded(!multithreaded);
+        em.getFetchPlan().setMaxFetchDepth(depth + 3);
+        em.getTransaction().begin();
+        Entity20 pc = new Entity20(1);
+        em.persist(pc);
+        em.getTransaction().commit();
+        assertEquals(1, commits.get());
+        em.close();
+
+        em = emf.createEntityManager();
+        assertSame(broker, toBrokerImpl(em));
+        assertTrue(em.isOpen());
+        assertTrue(em.getManagedObjects().isEmpty());
+        assertNull(em.getUserObject("key"));
+        assertEquals(optimistic, em.getOptimistic());
+        assertEquals(multithreaded, em.getMultithreaded());
+        assertEquals(depth, em.getFetchPlan().getMaxFetchDepth());
+        assertFalse(em.contains(pc));
+        assertTrue(em.isDetached(pc));
+
+        em.getTransaction().begin();
+        em.persist(new Entity20(2));
+        em.getTransaction().commit();
+        assertEquals("Listener of the previous use was notified", 1,
+            commits.get());
+        assertEquals("1", em.find(Entity20.class, 1).getName());
+        em.close();
+    }
+
+    public void testClosedFacadeCannotReachReusedBroker() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        Broker broker = toBrokerImpl(em);
+        em.close();
+
+        OpenJPAEntityManager em2 = emf.createEntityManager();
+        assertSame(broker, toBrokerImpl(em2));
+        assertFalse(em.isOpen());
+        assertTrue(em2.isOpen());
+        try {
+            em.find(Entity20.class, 1);
+            fail("Closed facade used the reused broker");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+        try {
+            em.close();
+            fail("Closed facade closed the reused broker");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+        assertTrue(em2.isOpen());
+        em2.close();
+    }
+
+    public void testQueryOfClosedFacadeCannotReachReusedBroker() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        Broker broker = toBrokerImpl(em);
+        Query query = JPAFacadeHelper.toBroker(em).newQuery(
+            JPQLParser.LANG_JPQL, "select e from Entity20 e");
+        Extent extent = JPAFacadeHelper.toBroker(em).newExtent(
+            Entity20.class, false);
+        em.close();
+
+        OpenJPAEntityManager em2 = emf.createEntityManager();
+        assertSame(broker, toBrokerImpl(em2));
+        try {
+            query.execute();
+            fail("Query of a closed facade used the reused broker");
+        } catch (RuntimeException re) {
+            // expected
+        }
+        try {
+            extent.iterator();
+            fail("Extent of a closed facade used the reused broker");
+        } catch (RuntimeException re) {
+            // expected
+        }
+        assertTrue(em2.isOpen());
+        em2.getTransaction().begin();
+        em2.persist(new Entity20(3));
+        em2.getTransaction().commit();
+        em2.close();
+    }
+
+    public void testConcurrentUseDoesNotLeakState() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        Set<Broker> brokers = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++)
+                results.add(threads.submit(new Worker(i, brokers)));
+            int total = 0;
+            for (Future<Integer> result : results)
+                total += result.get();
+            assertEquals(THREADS * ITERATIONS, total);
+            assertTrue("Expected closed brokers to be reused",
+                brokers.size() < total);
+        } finally {
+            threads.shutdown();
+        }
+
+        OpenJPAEntityManager em = emf.createEntityManager();
+        assertEquals((long) THREADS * ITERATIONS, em.createQuery(
+            "select count(e) from Entity20 e").getSingleResult());
+        em.close();
+    }
+
+    private class Worker implements Callable<Integer> {
+        private final int _thread;
+        private final Set<Broker> _brokers;
+
+        Worker(int thread, Set<Broker> brokers) {
+            _thread = thread;
+            _brokers = brokers;
+        }
+
+        @Override
+        public Integer call() {
+            int depth = -1;
+            int count = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                OpenJPAEntityManager em = emf.createEntityManager();
+                try {
+                    _brokers.add(toBrokerImpl(em));
+                    assertTrue(em.getManagedObjects().isEmpty());
+                    assertNull(em.getUserObject("thread"));
+                    assertFalse(em.getTransaction().isActive());
+                    if (i == 0)
+                        depth = em.getFetchPlan().getMaxFetchDepth();
+                    assertEquals(depth, em.getFetchPlan().getMaxFetchDepth());
+
+                    em.putUserObject("thread", _thread);
+                    em.getFetchPlan().setMaxFetchDepth(depth + 1 + i);
+                    em.getTransaction().begin();
+                    int id = _thread * ITERATIONS + i;
+                    em.persist(new Entity20(id));
+                    em.getTransaction().commit();
+                    em.clear();
+
+                    Entity20 found = em.find(Entity20.class, id);
+                    assertEquals(String.valueOf(id), found.getName());
+                    assertEquals(1, em.getManagedObjects().size());
+                    count++;
+                } finally {
+                    em.close();
+                }
+            }
+            return count;
+        }
+    }
+
+    private static Broker toBrokerImpl(OpenJPAEntityManager em) {
+        Broker broker = JPAFacadeHelper.toBroker(em);
+        return (broker instanceof DelegatingBroker)
+            ? ((DelegatingBroker) broker).getInnermostDelegate() : broker;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.merge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.openjpa.persistence.merge.model.Toy;
+import org.apache.openjpa.persistence.merge.model.ToyBox;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that merging a large detached graph loads the detached instances
+ * in bulk rather than with one select per instance.
+ */
+public class TestBulkMerge extends SQLListenerTestCase {
+    private static final int TOYS = 25;
+
+    @Override
+    public void setUp() {
+        // without a detached state manager, merge looks up each instance
+        setUp(CLEAR_TABLES, Toy.class, ToyBox.class,
+            "openjpa.DetachState", "loaded(DetachedStateField=false)");
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        ToyBox box = new ToyBox(1);
+        box.setOwnerName("Evan");
+        em.persist(box);
+        for (int i = 1; i <= TOYS; i++) {
+            Toy toy = new Toy(i);
+            toy.setToyName("Toy " + i);
+            toy.setToybox(box);
+            box.getToyList().add(toy);
+            em.persist(toy);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testMergeDetachedCollectionLoadsChildrenInBulk() {
+        EntityManager em = emf.createEntityManager();
+        ToyBox box = em.find(ToyBox.class, 1);
+        assertEquals(TOYS, box.getToyList().size());
+        em.close();
+        for (Toy toy : box.getToyList())
+            toy.setToyName(toy.getToyName() + " (merged)");
+
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        resetSQL();
+        ToyBox merged = em.merge(box);
+        assertTrue("Expected the detached toys to be loaded in bulk, not per "
+            + "instance: " + sql, getSelectCount() < TOYS / 2);
+        assertEquals(TOYS, merged.getToyList().size());
+        em.getTransaction().commit();
+        em.close();
+
+        assertMerged();
+    }
+
+    public void testMergeAllLoadsInBulk() {
+        EntityManager em = emf.createEntityManager();
+        List<Toy> toys = new ArrayList<>();
+        for (int i = 1; i <= TOYS; i++)
+            toys.add(em.find(Toy.class, i));
+        em.close();
+        for (Toy toy : toys)
+            toy.setToyName(toy.getToyName() + " (merged)");
+
+        OpenJPAEntityManager oem = OpenJPAPersistence.cast(
+            emf.createEntityManager());
+        oem.getTransaction().begin();
+        resetSQL();
+        Collection<?> merged = oem.mergeAll(toys);
+        assertTrue("Expected the detached toys to be loaded in bulk, not per "
+            + "instance: " + sql, getSelectCount() < TOYS / 2);
+        assertEquals(TOYS, merged.size());
+        oem.getTransaction().commit();
+        oem.close();
+
+        assertMerged();
+    }
+
+    public void testMergeAllOfDeletedInstanceFails() {
+        EntityManager em = emf.createEntityManager();
+        List<Toy> toys = new ArrayList<>();
+        for (int i = 1; i <= 3; i++)
+            toys.add(em.find(Toy.class, i));
+        em.close();
+
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        em.remove(em.find(Toy.class, 2));
+        em.getTransaction().commit();
+        em.close();
+
+        OpenJPAEntityManager oem = OpenJPAPersistence.cast(
+            emf.createEntityManager());
+        oem.getTransaction().begin();
+        try {
+            oem.mergeAll(toys);
+            fail("Merging a deleted instance should fail");
+        } catch (RuntimeException e) {
+            // expected
+        } finally {
+            oem.getTransaction().rollback();
+            oem.close();
+        }
+    }
+
+    private int getSelectCount() {
+        int count = 0;
+        for (String s : sql)
+            if (s.startsWith("SELECT"))
+                count++;
+        return count;
+    }
+
+    private void assertMerged() {
+        EntityManager em = emf.createEntityManager();
+        for (int i = 1; i <= TOYS; i++)
+            assertEquals("Toy " + i + " (merged)",
+                em.find(Toy.class, i).getToyName());
+        em.close();
+    }
+}
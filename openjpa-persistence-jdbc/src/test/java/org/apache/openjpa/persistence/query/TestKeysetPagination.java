@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.kernel.QueryLanguages;
+import org.apache.openjpa.persistence.ArgumentException;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.openjpa.persistence.OpenJPAQuery;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that keyset pages follow the last result of the previous page
+ * in the order of the query.
+ */
+public class TestKeysetPagination extends SQLListenerTestCase {
+    private static final int ROWS = 20;
+    private static final int PAGE = 3;
+    private static final String JPQL = "select e from simple e where e.value <> :skip order by e.name, e.value desc";
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, SimpleEntity.class,
+            "openjpa.jdbc.QuerySQLCache", "true");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < ROWS; i++)
+            em.persist(new SimpleEntity("name" + (i % 4), "value" + (10 + i)));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testPagesFollowEachOther() {
+        EntityManager em = emf.createEntityManager();
+        List<SimpleEntity> all = em.createQuery(JPQL, SimpleEntity.class).setParameter("skip", "value10")
+            .getResultList();
+        assertEquals(ROWS - 1, all.size());
+
+        List<SimpleEntity> paged = new ArrayList<>();
+        SimpleEntity last = null;
+        int pages = 0;
+        resetSQL();
+        do {
+            OpenJPAQuery<SimpleEntity> q = OpenJPAPersistence.cast(em.createQuery(JPQL, SimpleEntity.class));
+            q.setParameter("skip", "value10").setMaxResults(PAGE);
+            if (last != null)
+                q.setKeyset(last.getName(), last.getValue());
+            List<SimpleEntity> page = q.getResultList();
+            assertTrue(page.size() <= PAGE);
+            // the SQL of the second page is cached and bound to each keyset
+            if (pages++ > 1)
+                assertEquals(QueryLanguages.LANG_PREPARED_SQL, q.getLanguage());
+            paged.addAll(page);
+            last = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (last != null);
+        em.close();
+
+        assertEquals(all, paged);
+        // every page after the first one runs the same statement
+        for (int i = 2; i < sql.size(); i++)
+            assertEquals(sql.get(1), sql.get(i));
+        assertFalse(sql.get(0).equals(sql.get(1)));
+    }
+
+    public void testKeysetIsCleared() {
+        EntityManager em = emf.createEntityManager();
+        OpenJPAQuery<SimpleEntity> q = OpenJPAPersistence.cast(em.createQuery(JPQL, SimpleEntity.class));
+        q.setParameter("skip", "value10");
+        q.setKeyset("name3", "value11");
+        assertTrue(q.getResultList().isEmpty());
+        q.setKeyset();
+        assertEquals(ROWS - 1, q.getResultList().size());
+        em.close();
+    }
+
+    public void testKeysetHint() {
+        EntityManager em = emf.createEntityManager();
+        List<String> keyset = new ArrayList<>();
+        keyset.add("name2");
+        keyset.add("value10");
+        List<SimpleEntity> res = em.createQuery(JPQL, SimpleEntity.class).setParameter("skip", "value10")
+            .setHint("openjpa.hint.Keyset", keyset).getResultList();
+        assertEquals(5, res.size());
+        assertEquals("name3", res.get(0).getName());
+        em.close();
+    }
+
+    public void testKeysetMustMatchOrdering() {
+        EntityManager em = emf.createEntityManager();
+        OpenJPAQuery<SimpleEntity> q = OpenJPAPersistence.cast(em.createQuery(JPQL, SimpleEntity.class));
+        q.setParameter("skip", "value10").setKeyset("name1");
+        try {
+            q.getResultList();
+            fail("Expected a keyset without a value per ordering to fail");
+        } catch (ArgumentException e) {
+            // expected
+        }
+        em.close();
+    }
+}
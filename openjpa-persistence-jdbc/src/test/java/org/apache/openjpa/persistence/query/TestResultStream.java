@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.query;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.openjpa.kernel.QueryHints;
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.openjpa.persistence.OpenJPAQuery;
+import org.apache.openjpa.persistence.test.SingleEMFTestCase;
+
+/**
+ * Verifies that result streams read their results lazily when asked to and
+ * then do not keep the results they have moved past in the persistence
+ * context, and that they are otherwise over managed results.
+ */
+public class TestResultStream extends SingleEMFTestCase {
+    private static final int COUNT = 120;
+    private static final int BATCH = 20;
+    private static final String JPQL = "select e from simple e order by e.value";
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, SimpleEntity.class);
+        OpenJPAEntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < COUNT; i++)
+            em.persist(new SimpleEntity("name" + i, "value" + (1000 + i)));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testStreamKeepsOnlyCurrentResultsManaged() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        OpenJPAQuery<SimpleEntity> q = OpenJPAPersistence.cast(em.createQuery(JPQL, SimpleEntity.class));
+        q.getFetchPlan().setFetchBatchSize(BATCH);
+        q.setHint(QueryHints.HINT_RESULT_STREAM, true);
+        int count = 0;
+        try (Stream<SimpleEntity> stream = q.getResultStream()) {
+            Iterator<SimpleEntity> itr = stream.iterator();
+            while (itr.hasNext()) {
+                SimpleEntity e = itr.next();
+                assertTrue(em.contains(e));
+                assertEquals("value" + (1000 + count), e.getValue());
+                // at most the window of prefetched results is managed
+                assertTrue(em.getManagedObjects().size() <= BATCH + 1);
+                count++;
+            }
+        }
+        assertEquals(COUNT, count);
+        assertEquals(BATCH, q.getFetchPlan().getFetchBatchSize());
+        em.close();
+    }
+
+    public void testDefaultStreamKeepsResultsManaged() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        OpenJPAQuery<SimpleEntity> q = OpenJPAPersistence.cast(em.createQuery(JPQL, SimpleEntity.class));
+        q.getFetchPlan().setFetchBatchSize(BATCH);
+        List<SimpleEntity> results = q.getResultStream().collect(Collectors.toList());
+        assertEquals(COUNT, results.size());
+        for (SimpleEntity e : results)
+            assertTrue(em.contains(e));
+        em.close();
+    }
+
+    public void testExhaustedStreamReleasesCursor() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        OpenJPAQuery<SimpleEntity> q = OpenJPAPersistence.cast(em.createQuery(JPQL, SimpleEntity.class));
+        q.setHint(QueryHints.HINT_RESULT_STREAM, true);
+        int[] count = new int[1];
+        q.getResultStream().forEach(e -> count[0]++);
+        assertEquals(COUNT, count[0]);
+        em.getTransaction().begin();
+        em.persist(new SimpleEntity("extra", "value9999"));
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testChangedResultsStayManaged() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        try (Stream<SimpleEntity> stream = em.createQuery(JPQL, SimpleEntity.class)
+            .setHint(QueryHints.HINT_RESULT_STREAM, true).getResultStream()) {
+            stream.filter(e -> e.getName().endsWith("0")).forEach(e -> e.setName(e.getName() + "-changed"));
+        }
+        em.getTransaction().commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        assertEquals(COUNT / 10, ((Number) em.createQuery(
+            "select count(e) from simple e where e.name like '%-changed'").getSingleResult()).intValue());
+        em.close();
+    }
+
+    public void testResultsManagedBeforeStreamStayManaged() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        SimpleEntity first = em.createQuery(JPQL, SimpleEntity.class).setMaxResults(1).getSingleResult();
+        try (Stream<SimpleEntity> stream = em.createQuery(JPQL, SimpleEntity.class)
+            .setHint(QueryHints.HINT_RESULT_STREAM, true).getResultStream()) {
+            Iterator<SimpleEntity> itr = stream.iterator();
+            assertSame(first, itr.next());
+            int count = 1;
+            while (itr.hasNext()) {
+                itr.next();
+                count++;
+            }
+            assertEquals(COUNT, count);
+        }
+        assertTrue(em.contains(first));
+        em.close();
+    }
+
+    public void testClosedStreamReleasesCursor() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        OpenJPAQuery<SimpleEntity> q = OpenJPAPersistence.cast(em.createQuery(JPQL, SimpleEntity.class));
+        q.setHint(QueryHints.HINT_RESULT_STREAM, true);
+        try (Stream<SimpleEntity> stream = q.getResultStream()) {
+            assertEquals(5, stream.limit(5).count());
+        }
+        assertEquals(COUNT, q.getResultList().size());
+        em.close();
+    }
+}
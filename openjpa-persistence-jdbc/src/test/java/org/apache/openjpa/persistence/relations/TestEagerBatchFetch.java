@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.relations;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.jdbc.FetchMode;
+import org.apache.openjpa.persistence.jdbc.JDBCFetchPlan;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that the batch eager fetch mode loads the relations of a page of
+ * query results with IN-list selects, and that touching a lazy relation of
+ * one result loads it for the whole page.
+ */
+public class TestEagerBatchFetch extends SQLListenerTestCase {
+    private static final int PARENTS = 10;
+    private static final int BATCH = 4;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, OneManyEagerParent.class, OneManyEagerChild.class, OneManyLazyChild.class,
+            "openjpa.jdbc.EagerFetchMode", "batch",
+            "openjpa.jdbc.EagerBatchSize", String.valueOf(BATCH),
+            "openjpa.DataCache", "false");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < PARENTS; i++) {
+            OneManyEagerParent parent = new OneManyEagerParent();
+            parent.setName("parent" + i);
+            for (int j = 0; j < 2; j++) {
+                OneManyEagerChild eager = new OneManyEagerChild();
+                eager.setName("eager" + i + "-" + j);
+                parent.addEagerChild(eager);
+                em.persist(eager);
+            }
+            OneManyLazyChild lazy = new OneManyLazyChild();
+            lazy.setName("lazy" + i);
+            parent.addLazyChild(lazy);
+            em.persist(lazy);
+            em.persist(parent);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testEagerToManyIsLoadedPerPage() {
+        EntityManager em = emf.createEntityManager();
+        resetSQL();
+        List<OneManyEagerParent> parents = em.createQuery("select p from OneManyEagerParent p order by p.name",
+            OneManyEagerParent.class).getResultList();
+        em.close();
+
+        // one select of the parents, then one select per relation and page
+        int pages = (PARENTS + BATCH - 1) / BATCH;
+        assertEquals(sql.toString(), 1 + 2 * pages, sql.size());
+        for (int i = 1; i < sql.size(); i++)
+            assertTrue(sql.get(i), sql.get(i).contains(" IN ("));
+
+        assertEquals(PARENTS, parents.size());
+        for (int i = 0; i < PARENTS; i++) {
+            OneManyEagerParent parent = parents.get(i);
+            assertEquals("parent" + i, parent.getName());
+            assertEquals(2, parent.getEagerChildren().size());
+            assertEquals("eager" + i + "-0", parent.getEagerChildren().get(0).getName());
+            assertSame(parent, parent.getEagerChildren().get(1).getParent());
+            assertEquals(1, parent.getLazyChildren().size());
+            assertEquals("lazy" + i, parent.getLazyChildren().get(0).getName());
+        }
+    }
+
+    public void testLazyToOneIsLoadedForPage() {
+        EntityManager em = emf.createEntityManager();
+        List<OneManyLazyChild> children = em.createQuery("select c from OneManyLazyChild c order by c.name",
+            OneManyLazyChild.class).getResultList();
+        assertEquals(PARENTS, children.size());
+
+        resetSQL();
+        assertEquals("parent0", children.get(0).getParent().getName());
+        int first = sql.size();
+        assertTrue(sql.toString(), first > 0);
+        assertTrue(sql.get(0), sql.get(0).contains(" IN ("));
+        for (int i = 1; i < BATCH; i++)
+            assertEquals("parent" + i, children.get(i).getParent().getName());
+        assertEquals(sql.toString(), first, sql.size());
+
+        for (int i = BATCH; i < PARENTS; i++)
+            assertEquals("parent" + i, children.get(i).getParent().getName());
+        assertEquals(sql.toString(), first * ((PARENTS + BATCH - 1) / BATCH), sql.size());
+        em.close();
+    }
+
+    public void testFetchPlanSelectsBatchMode() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        JDBCFetchPlan plan = (JDBCFetchPlan) em.getFetchPlan();
+        assertEquals(FetchMode.BATCH, plan.getEagerFetchMode());
+        assertEquals(BATCH, plan.getEagerBatchSize());
+
+        plan.setEagerBatchSize(PARENTS);
+        resetSQL();
+        List<OneManyEagerParent> parents = em.createQuery("select p from OneManyEagerParent p",
+            OneManyEagerParent.class).getResultList();
+        assertEquals(PARENTS, parents.size());
+        assertEquals(sql.toString(), 3, sql.size());
+
+        plan.setEagerFetchMode(FetchMode.NONE);
+        em.clear();
+        resetSQL();
+        em.createQuery("select p from OneManyEagerParent p", OneManyEagerParent.class).getResultList();
+        assertEquals(sql.toString(), 1 + 2 * PARENTS, sql.size());
+        em.close();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.relations;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.kernel.DataCacheStoreMode;
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerFactorySPI;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+import org.apache.openjpa.persistence.jdbc.JDBCFetchPlan;
+import org.apache.openjpa.persistence.test.SingleEMFTestCase;
+
+/**
+ * Verifies that eagerly fetched inverse collections hold no more than the
+ * elements allowed by the eager collection limit, taken in collection order.
+ */
+public class TestEagerCollectionLimit extends SingleEMFTestCase {
+    private static final int PARENTS = 3;
+    private static final int CHILDREN = 5;
+    private static final int LIMIT = 2;
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, OneManyEagerParent.class, OneManyEagerChild.class, OneManyLazyChild.class,
+            "openjpa.DataCache", "false");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < PARENTS; i++) {
+            OneManyEagerParent parent = new OneManyEagerParent();
+            parent.setName("parent" + i);
+            // persist in reverse so that the limit has to follow the order
+            for (int j = CHILDREN - 1; j >= 0; j--) {
+                OneManyEagerChild child = new OneManyEagerChild();
+                child.setName("child" + i + "-" + j);
+                parent.addEagerChild(child);
+                em.persist(child);
+            }
+            em.persist(parent);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testQueryHintLimitsCollections() {
+        EntityManager em = emf.createEntityManager();
+        List<OneManyEagerParent> parents = em.createQuery("select p from OneManyEagerParent p order by p.name",
+            OneManyEagerParent.class).setHint("openjpa.jdbc.EagerCollectionLimit", LIMIT).getResultList();
+        em.close();
+
+        assertEquals(PARENTS, parents.size());
+        for (int i = 0; i < PARENTS; i++) {
+            List<OneManyEagerChild> children = parents.get(i).getEagerChildren();
+            assertEquals(LIMIT, children.size());
+            for (int j = 0; j < LIMIT; j++)
+                assertEquals("child" + i + "-" + j, children.get(j).getName());
+        }
+    }
+
+    public void testFetchPlanLimitsFind() {
+        OpenJPAEntityManager em = OpenJPAPersistence.cast(emf.createEntityManager());
+        long id = em.createQuery("select p from OneManyEagerParent p where p.name = 'parent1'",
+            OneManyEagerParent.class).getSingleResult().getId();
+        em.clear();
+        ((JDBCFetchPlan) em.getFetchPlan()).setEagerCollectionLimit(LIMIT);
+        assertEquals(LIMIT, ((JDBCFetchPlan) em.getFetchPlan()).getEagerCollectionLimit());
+        OneManyEagerParent parent = em.find(OneManyEagerParent.class, id);
+        assertEquals(LIMIT, parent.getEagerChildren().size());
+        assertEquals("child1-0", parent.getEagerChildren().get(0).getName());
+        em.close();
+    }
+
+    public void testLimitedCollectionsAreNotCached() {
+        OpenJPAEntityManagerFactorySPI cached = createEMF(OneManyEagerParent.class, OneManyEagerChild.class,
+            OneManyLazyChild.class, "openjpa.DataCache", "true", "openjpa.RemoteCommitProvider", "sjvm");
+        try {
+            OpenJPAEntityManager em = cached.createEntityManager();
+            JDBCFetchPlan plan = (JDBCFetchPlan) em.getFetchPlan();
+            DataCacheStoreMode storeMode = plan.getCacheStoreMode();
+            plan.setEagerCollectionLimit(LIMIT);
+            assertEquals(storeMode, plan.getCacheStoreMode());
+            em.getTransaction().begin();
+            OneManyEagerParent parent = em.createQuery("select p from OneManyEagerParent p where p.name = 'parent1'",
+                OneManyEagerParent.class).getSingleResult();
+            assertEquals(LIMIT, parent.getEagerChildren().size());
+            long id = parent.getId();
+            parent.setName("parent1b");
+            em.getTransaction().commit();
+            em.close();
+
+            // the cached instance does not hold the partial collection
+            assertTrue(cached.getCache().contains(OneManyEagerParent.class, id));
+            em = cached.createEntityManager();
+            parent = em.find(OneManyEagerParent.class, id);
+            assertEquals("parent1b", parent.getName());
+            assertEquals(CHILDREN, parent.getEagerChildren().size());
+            em.close();
+        } finally {
+            closeEMF(cached);
+        }
+    }
+
+    public void testNoLimitLoadsAllElements() {
+        EntityManager em = emf.createEntityManager();
+        List<OneManyEagerParent> parents = em.createQuery("select p from OneManyEagerParent p",
+            OneManyEagerParent.class).setHint("openjpa.jdbc.EagerCollectionLimit", -1).getResultList();
+        for (OneManyEagerParent parent : parents)
+            assertEquals(CHILDREN, parent.getEagerChildren().size());
+        em.close();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.relations;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.apache.openjpa.enhance.PersistenceCapable;
+import org.apache.openjpa.kernel.OpenJPAStateManager;
+import org.apache.openjpa.persistence.OpenJPAEntityManager;
+import org.apache.openjpa.persistence.jdbc.FetchMode;
+import org.apache.openjpa.persistence.jdbc.JDBCFetchPlan;
+import org.apache.openjpa.persistence.test.SQLListenerTestCase;
+
+/**
+ * Verifies that the subselect eager fetch mode loads a lazy collection of
+ * every result of a query with a single select, restricted by the
+ * conditions of the query, the first time one of them is accessed.
+ */
+public class TestSubselectFetch extends SQLListenerTestCase {
+    private static final int PARENTS = 10;
+    private static final String JPQL = "select p from CascadingOneManyParent p where p.name > :name order by p.name";
+
+    @Override
+    public void setUp() {
+        setUp(CLEAR_TABLES, CascadingOneManyParent.class, CascadingOneManyChild.class,
+            "openjpa.jdbc.EagerFetchMode", "subselect",
+            "openjpa.DataCache", "false");
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < PARENTS; i++) {
+            CascadingOneManyParent parent = new CascadingOneManyParent();
+            parent.setName("parent" + i);
+            for (int j = 0; j < 2; j++) {
+                CascadingOneManyChild child = new CascadingOneManyChild();
+                child.setName("child" + i + "-" + j);
+                parent.addChild(child);
+            }
+            em.persist(parent);
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public void testLazyCollectionIsLoadedForAllResults() {
+        EntityManager em = emf.createEntityManager();
+        List<CascadingOneManyParent> parents = em.createQuery(JPQL, CascadingOneManyParent.class)
+            .setParameter("name", "parent4").getResultList();
+        assertEquals(PARENTS - 5, parents.size());
+
+        resetSQL();
+        assertEquals(2, parents.get(0).getChildren().size());
+        assertEquals(sql.toString(), 1, sql.size());
+        assertFalse(sql.get(0), sql.get(0).contains(" IN ("));
+        assertTrue(sql.get(0), sql.get(0).contains(" > "));
+
+        for (int i = 0; i < parents.size(); i++) {
+            CascadingOneManyParent parent = parents.get(i);
+            assertEquals("parent" + (i + 5), parent.getName());
+            assertEquals(2, parent.getChildren().size());
+            assertEquals("child" + (i + 5) + "-1", parent.getChildren().get(1).getName());
+            assertSame(parent, parent.getChildren().get(0).getParent());
+        }
+        assertEquals(sql.toString(), 1, sql.size());
+        em.close();
+    }
+
+    public void testResultsNoLongerMatchingLoadTogether() {
+        EntityManager em = emf.createEntityManager();
+        List<CascadingOneManyParent> parents = em.createQuery(JPQL, CascadingOneManyParent.class)
+            .setParameter("name", "parent4").getResultList();
+        assertEquals(PARENTS - 5, parents.size());
+
+        EntityManager other = emf.createEntityManager();
+        other.getTransaction().begin();
+        other.createQuery("update CascadingOneManyParent p set p.name = 'moved' "
+            + "where p.name = 'parent7' or p.name = 'parent8'").executeUpdate();
+        other.getTransaction().commit();
+        other.close();
+
+        resetSQL();
+        for (CascadingOneManyParent parent : parents)
+            assertEquals(parent.getName(), 2, parent.getChildren().size());
+        // the subselect and one load of the parents it no longer matches
+        assertEquals(sql.toString(), 2, sql.size());
+        em.close();
+    }
+
+    public void testEmptyCollectionsLoadTogether() {
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < 3; i++) {
+            CascadingOneManyParent parent = new CascadingOneManyParent();
+            parent.setName("parentX" + i);
+            em.persist(parent);
+        }
+        em.getTransaction().commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        List<CascadingOneManyParent> parents = em.createQuery(JPQL, CascadingOneManyParent.class)
+            .setParameter("name", "parent4").getResultList();
+        assertEquals(PARENTS - 2, parents.size());
+
+        resetSQL();
+        for (CascadingOneManyParent parent : parents)
+            assertEquals(parent.getName(), parent.getName().startsWith("parentX") ? 0 : 2,
+                parent.getChildren().size());
+        // the subselect and one load of the parents it returned no rows for
+        assertEquals(sql.toString(), 2, sql.size());
+        em.close();
+    }
+
+    public void testGroupIsReleasedOnceLoaded() {
+        EntityManager em = emf.createEntityManager();
+        List<CascadingOneManyParent> parents = em.createQuery(JPQL, CascadingOneManyParent.class)
+            .setParameter("name", "parent4").getResultList();
+        for (CascadingOneManyParent parent : parents)
+            assertNotNull(getStateManager(parent).getImplData());
+
+        parents.get(0).getChildren().size();
+        for (CascadingOneManyParent parent : parents)
+            assertNull(getStateManager(parent).getImplData());
+        em.close();
+    }
+
+    private static OpenJPAStateManager getStateManager(Object pc) {
+        return (OpenJPAStateManager) ((PersistenceCapable) pc).pcGetStateManager();
+    }
+
+    public void testQueryIsRetainedPerExecution() {
+        EntityManager em = emf.createEntityManager();
+        for (int i = 0; i < 2; i++) {
+            em.clear();
+            List<CascadingOneManyParent> parents = em.createQuery(JPQL, CascadingOneManyParent.class)
+                .setParameter("name", "parent" + (i * 5)).getResultList();
+            resetSQL();
+            for (CascadingOneManyParent parent : parents)
+                assertEquals(parent.getName(), 2, parent.getChildren().size());
+            assertEquals(sql.toString(), 1, sql.size());
+        }
+        em.close();
+    }
+
+    public void testRangeLoadsByPrimaryKeys() {
+        EntityManager em = emf.createEntityManager();
+        List<CascadingOneManyParent> parents = em.createQuery(JPQL, CascadingOneManyParent.class)
+            .setParameter("name", "parent4").setFirstResult(1).setMaxResults(3).getResultList();
+        assertEquals(3, parents.size());
+
+        resetSQL();
+        for (CascadingOneManyParent parent : parents)
+            assertEquals(2, parent.getChildren().size());
+        assertEquals(sql.toString(), 1, sql.size());
+        assertTrue(sql.get(0), sql.get(0).contains(" IN ("));
+        em.close();
+    }
+
+    public void testFetchPlanSelectsSubselectMode() {
+        OpenJPAEntityManager em = emf.createEntityManager();
+        JDBCFetchPlan plan = (JDBCFetchPlan) em.getFetchPlan();
+        assertEquals(FetchMode.SUBSELECT, plan.getEagerFetchMode());
+
+        plan.setEagerFetchMode(FetchMode.PARALLEL);
+        List<CascadingOneManyParent> parents = em.createQuery(JPQL, CascadingOneManyParent.class)
+            .setParameter("name", "parent4").getResultList();
+        resetSQL();
+        for (CascadingOneManyParent parent : parents)
+            assertEquals(2, parent.getChildren().size());
+        assertEquals(sql.toString(), parents.size(), sql.size());
+        em.close();
+    }
+}
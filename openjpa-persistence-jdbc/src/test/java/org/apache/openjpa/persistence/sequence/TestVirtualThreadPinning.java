@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.openjpa.persistence.sequence;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jakarta.persistence.EntityManager;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.apache.openjpa.persistence.test.SingleEMFTestCase;
+
+/**
+ * Runs find, query and flush on virtual threads and verifies that no
+ * carrier thread is pinned while OpenJPA code is on the stack. The test is
+ * skipped on JVMs without virtual threads or flight recorder.
+ */
+public class TestVirtualThreadPinning extends SingleEMFTestCase {
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+
+    private static final int TASKS = 20;
+
+    @Override
+    public void setUp() {
+        super.setUp(CLEAR_TABLES, GeneratedIdObject.class,
+          "openjpa.Multithreaded", "true");
+        if (!isVirtualThreadAvailable() || !FlightRecorder.isAvailable()) {
+            getLog().warn("Skipping " + getName() + ": virtual threads or "
+                + "flight recorder are not available");
+            setTestsDisabled(true);
+        }
+    }
+
+    public void testNoPinningDuringFindQueryAndFlush() throws Exception {
+        ExecutorService threads = newVirtualThreadExecutor();
+
+        List<RecordedEvent> pinned;
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            try {
+                List<Callable<Boolean>> tasks = new ArrayList<>();
+                for (int i = 0; i < TASKS; i++)
+                    tasks.add(new Worker(emf.createEntityManager()));
+                for (Future<Boolean> result : threads.invokeAll(tasks))
+                    assertTrue(result.get());
+            } finally {
+                threads.shutdown();
+                recording.stop();
+            }
+            Path dump = Files.createTempFile("openjpa-pinning", ".jfr");
+            try {
+                recording.dump(dump);
+                pinned = attributedToOpenJPA(RecordingFile.readAllEvents(dump));
+            } finally {
+                Files.deleteIfExists(dump);
+            }
+        }
+        assertTrue("Virtual threads pinned inside OpenJPA: " + pinned,
+            pinned.isEmpty());
+    }
+
+    /**
+     * Keep only the pinning events with an OpenJPA frame anywhere in their
+     * stack, including those pinned by a driver called from OpenJPA.
+     */
+    private static List<RecordedEvent> attributedToOpenJPA(List<RecordedEvent> events) {
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (!PINNED.equals(event.getEventType().getName())
+                || event.getStackTrace() == null)
+                continue;
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                if (frame.isJavaFrame() && frame.getMethod().getType()
+                    .getName().startsWith("org.apache.openjpa.")) {
+                    result.add(event);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isVirtualThreadAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reflectively create a virtual thread per task executor, since the
+     * tests are compiled for a release that predates virtual threads.
+     */
+    private static ExecutorService newVirtualThreadExecutor()
+        throws ReflectiveOperationException {
+        return (ExecutorService) Executors.class
+            .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    public static class Worker implements Callable<Boolean> {
+        private final EntityManager em;
+
+        Worker(EntityManager em) {
+            this.em = em;
+        }
+
+        @Override
+        public Boolean call() throws Exception {
+            try {
+                em.getTransaction().begin();
+                GeneratedIdObject pc = new GeneratedIdObject();
+                em.persist(pc);
+                em.flush();
+                long id = pc.getId();
+                em.getTransaction().commit();
+
+                em.clear();
+                GeneratedIdObject found = em.find(GeneratedIdObject.class, id);
+                List<?> rs = em.createQuery("select o from GeneratedIdObject o "
+                    + "where o.id = :id").setParameter("id", id).getResultList();
+                return found != null && rs.size() == 1;
+            } finally {
+                if (em.getTransaction().isActive())
+                    em.getTransaction().rollback();
+                em.close();
+            }
+        }
+    }
+}
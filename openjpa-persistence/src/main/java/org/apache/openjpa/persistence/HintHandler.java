@@ -18,6 +18,7 @@
  */
 package org.apache.openjpa.persistence;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
@@ -175,9 +176,16 @@ public class HintHandler  {
         } else if (QueryHints.HINT_IGNORE_PREPARED_QUERY.equals(key)) {
             plan.setHint(key, Filters.convert(value, Boolean.class));
             owner.ignorePreparedQuery();
-        } else if (QueryHints.HINT_USE_LITERAL_IN_SQL.equals(key)) {
+        } else if (QueryHints.HINT_USE_LITERAL_IN_SQL.equals(key)
+            || QueryHints.HINT_RESULT_STREAM.equals(key)) {
             Boolean convertedValue = (Boolean)Filters.convert(value, Boolean.class);
             plan.setHint(key, convertedValue);
+        } else if (QueryHints.HINT_KEYSET.equals(key)) {
+            if (value instanceof Collection)
+                value = ((Collection<?>) value).toArray();
+            else if (value != null && !(value instanceof Object[]))
+                value = new Object[]{ value };
+            plan.setHint(key, value);
         } else { // default
             plan.setHint(key, value);
         }
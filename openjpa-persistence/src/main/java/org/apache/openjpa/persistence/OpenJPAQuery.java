@@ -21,6 +21,7 @@ package org.apache.openjpa.persistence;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -162,6 +163,18 @@ public interface OpenJPAQuery<X> extends TypedQuery<X> {
      */
     OpenJPAQuery<X>closeAll();
 
+    /**
+     * Execute the query and return an iterator that detaches each result as
+     * it is read and releases it from the persistence context, so that very
+     * large results can be processed in bounded memory. The results are
+     * read as a large result set even if the fetch plan does not configure
+     * a fetch batch size. Close the iterator with
+     * {@link OpenJPAPersistence#close} if it is not read to the end.
+     *
+     * @since 4.2.0
+     */
+    Iterator<X> getDetachedResultIterator();
+
     /**
      * Returns a description of the commands that will be sent to
      * the datastore in order to execute this query. This will
@@ -171,6 +184,20 @@ public interface OpenJPAQuery<X> extends TypedQuery<X> {
      */
     String[] getDataStoreActions(Map params);
 
+    /**
+     * Return only the results that follow, in the order of this query, the
+     * result with the given ordering values, such as the last result of the
+     * previous page. Give a value for each ordering of the query. Unlike
+     * {@link #setFirstResult}, the database does not read the rows of the
+     * previous pages, so that deep pages cost the same as the first one.
+     * The ordering should be unique for the pages not to overlap or skip
+     * results, and results with null ordering values are never returned.
+     * Call with no values to return all results again.
+     *
+     * @since 4.2.0
+     */
+    OpenJPAQuery<X> setKeyset(Object... values);
+
     @Override OpenJPAQuery<X> setMaxResults(int maxResult);
 
     @Override OpenJPAQuery<X> setFirstResult(int startPosition);
@@ -24,10 +24,16 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import jakarta.persistence.CacheRetrieveMode;
 import jakarta.persistence.CacheStoreMode;
@@ -43,6 +49,7 @@ import org.apache.openjpa.conf.OpenJPAConfiguration;
 import org.apache.openjpa.kernel.Broker;
 import org.apache.openjpa.kernel.DelegatingQuery;
 import org.apache.openjpa.kernel.DelegatingResultList;
+import org.apache.openjpa.kernel.DetachingResultIterator;
 import org.apache.openjpa.kernel.DistinctResultList;
 import org.apache.openjpa.kernel.FetchConfiguration;
 import org.apache.openjpa.kernel.PreparedQuery;
@@ -55,6 +62,7 @@ import org.apache.openjpa.kernel.exps.AggregateListener;
 import org.apache.openjpa.kernel.exps.FilterListener;
 import org.apache.openjpa.kernel.jpql.JPQLParser;
 import org.apache.openjpa.lib.log.Log;
+import org.apache.openjpa.lib.rop.ListResultList;
 import org.apache.openjpa.lib.rop.ResultList;
 import org.apache.openjpa.lib.util.Localizer;
 import org.apache.openjpa.lib.util.OrderedMap;
@@ -74,6 +82,9 @@ import org.apache.openjpa.util.UserException;
 public class QueryImpl<X> extends AbstractQuery<X> implements Serializable {
     private static final long serialVersionUID = 1L;
     private static final Localizer _loc = Localizer.forPackage(QueryImpl.class);
+    // separates the query from the page size in the identifier of the
+    // prepared query of its keyset pages
+    private static final String KEYSET_ID = " /*keyset*/ ";
 	private transient FetchPlan _fetch;
 
 	private String _id;
@@ -285,6 +296,12 @@ public class QueryImpl<X> extends AbstractQuery<X> implements Serializable {
 		return this;
 	}
 
+	@Override
+    public OpenJPAQuery<X> setKeyset(Object... values) {
+		_em.assertNotCloseInvoked();
+		return setHint(QueryHints.HINT_KEYSET, (values == null || values.length == 0) ? null : values);
+	}
+
 	@Override
     public OpenJPAQuery<X> compile() {
 		_em.assertNotCloseInvoked();
@@ -298,10 +315,10 @@ public class QueryImpl<X> extends AbstractQuery<X> implements Serializable {
 		try {
 		    lock();
             Map params = getParameterValues();
-            boolean registered = preExecute(params);
+            String registered = preExecute(params);
             Object result = _query.execute(params);
-            if (registered) {
-                postExecute(result);
+            if (registered != null) {
+                postExecute(registered, result);
             }
             return result;
 		} catch (LockTimeoutException e) {
@@ -337,6 +354,77 @@ public class QueryImpl<X> extends AbstractQuery<X> implements Serializable {
 		}
 	}
 
+    @Override
+    public Iterator<X> getDetachedResultIterator() {
+        _em.assertNotCloseInvoked();
+        boolean queryFetchPlanUsed = pushQueryFetchPlan();
+        try {
+            return executeDetaching(false);
+        } finally {
+            popQueryFetchPlan(queryFetchPlanUsed);
+        }
+    }
+
+    /**
+     * Stream the results. By default the stream is over the managed result
+     * list. With the {@link QueryHints#HINT_RESULT_STREAM} hint set, the
+     * results are instead read through a server-side cursor, hydrated as the
+     * stream reads them and detached once it has moved past them, unless
+     * they have changes to flush or were already managed before the stream
+     * began. The cursor is released once the stream is exhausted or closed.
+     */
+    @Override
+    public Stream<X> getResultStream() {
+        _em.assertNotCloseInvoked();
+        boolean queryFetchPlanUsed = pushQueryFetchPlan();
+        FetchConfiguration fetch = _query.getFetchConfiguration();
+        if (!Boolean.TRUE.equals(fetch.getHint(QueryHints.HINT_RESULT_STREAM))) {
+            try {
+                return getResultList().stream();
+            } finally {
+                popQueryFetchPlan(queryFetchPlanUsed);
+            }
+        }
+
+        try {
+            DetachingResultIterator<X> itr = executeDetaching(true);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.ORDERED), false)
+                .onClose(itr::close);
+        } finally {
+            popQueryFetchPlan(queryFetchPlanUsed);
+        }
+    }
+
+    /**
+     * Execute the query as a large result set, so that its results are not
+     * all loaded up front, and return an iterator that detaches them.
+     *
+     * @param behind whether to return the results managed and detach each
+     * one once the next result is read
+     */
+    private DetachingResultIterator<X> executeDetaching(boolean behind) {
+        int batch = _query.getFetchConfiguration().getFetchBatchSize();
+        try {
+            if (batch < 0)
+                _query.getFetchConfiguration().setFetchBatchSize(0);
+            Object ob = execute();
+            ResultList res;
+            if (ob instanceof ResultList)
+                res = (ResultList) ob;
+            else if (ob instanceof List)
+                res = new ListResultList((List) ob);
+            else
+                res = new ListResultList(Collections.singletonList(ob));
+            return new DetachingResultIterator<X>(_query.getBroker(), res, _em,
+                PersistenceExceptions.getRollbackTranslator(_em), behind);
+        } finally {
+            // the query may have been replaced if it was dropped from the
+            // prepared query cache
+            if (batch < 0)
+                _query.getFetchConfiguration().setFetchBatchSize(batch);
+        }
+    }
+
 	/**
 	 * Execute a query that returns a single result.
 	 */
@@ -587,56 +675,106 @@ public class QueryImpl<X> extends AbstractQuery<X> implements Serializable {
      * non-null map even if the user has not specified any parameter, because
      * the same map will to be populated by re-parameterization.
      *
-     * @return true if this invocation caused the query being registered in the
-     * cache.
+     * @return the identifier under which this invocation registered the query
+     * in the cache, or null if it did not register it.
      */
-    private boolean preExecute(Map params) {
+    private String preExecute(Map params) {
 
         PreparedQueryCache cache = _em.getPreparedQueryCache();
         if (cache == null) {
-            return false;
+            return null;
         }
         FetchConfiguration fetch = _query.getFetchConfiguration();
-        if (fetch.getReadLockLevel() != 0) {
-            if (cache.get(_id) != null) {
-                ignorePreparedQuery();
-            }
-            return false;
+        Object keyset = fetch.getHint(QueryHints.HINT_KEYSET);
+        // streams configure the cursor of the statement they execute, and
+        // keyset pages can only share the SQL of pages that start at 0
+        if (fetch.getReadLockLevel() != 0
+            || fetch.getHint(QueryHints.HINT_RESULT_STREAM) != null
+            || (keyset != null && _query.getStartRange() != 0)) {
+            ignorePreparedQuery();
+            return null;
         }
 
         // Determine if the query has NULL parameters.  If so, then do not use a PreparedQuery from the cache
         for (Object val : params.values()) {
             if (val == null) {
                 ignorePreparedQuery();
-                return false;
+                return null;
             }
         }
 
-        Boolean registered = cache.register(_id, _query, fetch);
+        // keyset pages bind the keyset as parameters of their own SQL, which
+        // differs from the SQL of the first page; each page size gets its own
+        // identifier as the SQL selects that many leading rows
+        String id = _id;
+        if (keyset != null && _id != null) {
+            id = _id + KEYSET_ID + _query.getEndRange();
+            PreparedQuery pq = cache.get(id);
+            if (pq != null && pq.isInitialized()
+                && !isPreparedQuery(id))
+                usePreparedQuery(pq);
+        }
+        if (LANG_PREPARED_SQL.equals(_query.getLanguage())
+            && !isPreparedQuery(id))
+            useOriginalQuery();
+
+        Boolean registered = cache.register(id, _query, fetch);
         boolean alreadyCached = (registered == null);
         String lang = _query.getLanguage();
         QueryStatistics<String> stats = cache.getStatistics();
         if (alreadyCached && LANG_PREPARED_SQL.equals(lang)) {
             //This value is expected to be non-null as it was just registered
-            PreparedQuery pq = _em.getPreparedQuery(_id);
+            PreparedQuery pq = _em.getPreparedQuery(id);
             if (pq.isInitialized()) {
                 try {
-                    Map rep = pq.reparametrize(params, _em.getBroker());
+                    Map rep = pq.reparametrize(withKeyset(params, keyset),
+                        _em.getBroker());
                     params.clear();
                     params.putAll(rep);
                 } catch (UserException ue) {
+                    // a keyset that does not match the orderings is reported
+                    // by the original query
+                    if (keyset != null) {
+                        useOriginalQuery();
+                        return null;
+                    }
                     invalidatePreparedQuery();
                     Log log = _em.getConfiguration().getLog(OpenJPAConfiguration.LOG_RUNTIME);
                     if (log.isWarnEnabled())
                         log.warn(ue.getMessage());
-                    return false;
+                    return null;
                 }
             }
             stats.recordExecution(pq.getOriginalQuery());
         } else {
             stats.recordExecution(getQueryString());
         }
-        return registered == Boolean.TRUE;
+        return (registered == Boolean.TRUE) ? id : null;
+    }
+
+    /**
+     * Whether this query runs the SQL of the cached prepared query with the
+     * given identifier.
+     */
+    private boolean isPreparedQuery(String id) {
+        return LANG_PREPARED_SQL.equals(_query.getLanguage())
+            && id.equals(_query.getQueryString());
+    }
+
+    /**
+     * Return the given user parameters along with the values of the given
+     * keyset, keyed as the prepared query binds them.
+     */
+    private static Map withKeyset(Map params, Object keyset) {
+        if (keyset == null)
+            return params;
+        Object[] vals = (keyset instanceof Object[]) ? (Object[]) keyset
+            : (keyset instanceof Collection) ? ((Collection<?>) keyset).toArray()
+            : new Object[]{ keyset };
+        Map user = new HashMap(params);
+        for (int i = 0; i < vals.length; i++)
+            user.put(PreparedQuery.KEYSET_PARAMETER + i, vals[i]);
+        return user;
     }
 
     /**
@@ -646,12 +784,12 @@ public class QueryImpl<X> extends AbstractQuery<X> implements Serializable {
      *
      * @return true if the prepared query can be initialized.
      */
-    private boolean postExecute(Object result) {
+    private boolean postExecute(String id, Object result) {
         PreparedQueryCache cache = _em.getPreparedQueryCache();
         if (cache == null) {
             return false;
         }
-        return cache.initialize(_id, result) != null;
+        return cache.initialize(id, result) != null;
     }
 
     /**
@@ -671,8 +809,16 @@ public class QueryImpl<X> extends AbstractQuery<X> implements Serializable {
      */
     void ignorePreparedQuery() {
         PreparedQuery cached = _em.getPreparedQuery(_id);
-        if (cached == null)
+        if (cached == null && !LANG_PREPARED_SQL.equals(_query.getLanguage()))
             return;
+        useOriginalQuery();
+    }
+
+    /**
+     * Recreate the original query, dropping the SQL of any prepared query
+     * this query runs.
+     */
+    private void useOriginalQuery() {
         Broker broker = _em.getBroker();
         // Critical assumption: Only JPQL queries are cached and more
         // importantly, the identifier of the prepared query is the original
@@ -682,10 +828,27 @@ public class QueryImpl<X> extends AbstractQuery<X> implements Serializable {
 
         org.apache.openjpa.kernel.Query newQuery = broker.newQuery(JPQL, jpql);
         newQuery.getFetchConfiguration().copy(_query.getFetchConfiguration());
+        newQuery.setRange(_query.getStartRange(), _query.getEndRange());
+        if (_query.getResultType() != null)
+            newQuery.setResultType(_query.getResultType());
         newQuery.compile();
         _query = new DelegatingQuery(newQuery, _em.getExceptionTranslator());
     }
 
+    /**
+     * Replace this query by one that runs the SQL of the given prepared
+     * query.
+     */
+    private void usePreparedQuery(PreparedQuery pq) {
+        org.apache.openjpa.kernel.Query newQuery = _em.getBroker().newQuery(pq.getLanguage(), pq);
+        pq.setInto(newQuery);
+        newQuery.getFetchConfiguration().copy(_query.getFetchConfiguration());
+        newQuery.setRange(_query.getStartRange(), _query.getEndRange());
+        if (_query.getResultType() != null)
+            newQuery.setResultType(_query.getResultType());
+        _query = new DelegatingQuery(newQuery, _em.getExceptionTranslator());
+    }
+
     // package protected
     QueryImpl setId(String id) {
         _id = id;